@@ -0,0 +1,56 @@
+package com.tbf.tcms.config;
+
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.service.cache.ResidentLookupCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the in-memory caches' hit/miss counts and sizes as {@code tcms.cache.gets} (tagged by cache and
+ * result) and {@code tcms.cache.size}, so they are scraped from {@code /actuator/prometheus} with the other metrics.
+ * Values are read from each cache's own stats at scrape time; nothing is counted twice.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheMetrics implements MeterBinder {
+
+    static final String GETS = "tcms.cache.gets";
+    static final String SIZE = "tcms.cache.size";
+
+    private final LevyComplianceCache levyComplianceCache;
+    private final ProofOfResidenceLetterCache letterCache;
+    private final ResidentLookupCache residentLookupCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "levy_compliance", levyComplianceCache,
+                c -> c.stats().hits(), c -> c.stats().misses(), c -> c.stats().cachedFamilies());
+        bind(registry, "proof_of_residence_letters", letterCache,
+                c -> c.stats().hits(), c -> c.stats().misses(), c -> c.stats().cachedLetters());
+        bind(registry, "resident_lookup", residentLookupCache,
+                c -> c.stats().hits(), c -> c.stats().misses(), c -> c.stats().cachedKeys());
+    }
+
+    private <T> void bind(MeterRegistry registry, String cache, T source,
+                          ToDoubleFunction<T> hits, ToDoubleFunction<T> misses, ToDoubleFunction<T> size) {
+        FunctionCounter.builder(GETS, source, hits)
+                .description("Cache lookups served from memory")
+                .tags("cache", cache, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder(GETS, source, misses)
+                .description("Cache lookups that went to the database")
+                .tags("cache", cache, "result", "miss")
+                .register(registry);
+        Gauge.builder(SIZE, source, size)
+                .description("Entries currently cached")
+                .tag("cache", cache)
+                .register(registry);
+    }
+}
@@ -0,0 +1,10 @@
+package com.tbf.tcms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs: outbox dispatch and purge (OutboxDispatcher)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,85 @@
+package com.tbf.tcms.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every physical transaction, from begin to commit or rollback, into the {@code tcms.transactions} histogram
+ * tagged by transactional method (e.g. {@code LevyServiceImpl.recordPayment}), outcome and read-only flag.
+ * Registered with the transaction manager by Spring Boot; calls joining an existing transaction are not counted
+ * separately, and a {@code REQUIRES_NEW} transaction is timed on its own.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionMetrics implements TransactionExecutionListener {
+
+    static final String METRIC = "tcms.transactions";
+
+    // Begin times of the thread's open transactions; suspended outer transactions stay below inner ones
+    private static final ThreadLocal<Deque<Long>> STARTED = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure == null && transaction.isNewTransaction()) {
+            STARTED.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        complete(transaction, commitFailure == null ? "commit" : "commit_failed");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        complete(transaction, "rollback");
+    }
+
+    private void complete(TransactionExecution transaction, String outcome) {
+        if (!transaction.isNewTransaction()) {
+            return;
+        }
+        Deque<Long> started = STARTED.get();
+        Long start = started.poll();
+        if (started.isEmpty()) {
+            STARTED.remove();
+        }
+        if (start == null) {
+            return;
+        }
+        Timer.builder(METRIC)
+                .description("Transaction duration by transactional method")
+                .tag("name", shortName(transaction.getTransactionName()))
+                .tag("outcome", outcome)
+                .tag("read_only", Boolean.toString(transaction.isReadOnly()))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@code com.tbf.tcms.service.impl.LevyServiceImpl.recordPayment} becomes {@code LevyServiceImpl.recordPayment};
+     * programmatic transactions ({@code TransactionTemplate}) have no name.
+     */
+    static String shortName(String transactionName) {
+        if (transactionName == null || transactionName.isEmpty()) {
+            return "unnamed";
+        }
+        int method = transactionName.lastIndexOf('.');
+        int type = method > 0 ? transactionName.lastIndexOf('.', method - 1) : -1;
+        return transactionName.substring(type + 1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.tbf.tcms.domain;
+
+import com.tbf.tcms.domain.base.AuditableBase;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Record of an issued document. Holder name and address are copied as printed,
+ * so verification shows what the letter said even if the resident's details change later.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "document_verifications")
+@Data
+@NoArgsConstructor
+public class DocumentVerification extends AuditableBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 16)
+    private String code;
+
+    @Column(name = "document_type", nullable = false)
+    private String documentType;
+
+    @Column(name = "resident_id", nullable = false)
+    private Long residentId;
+
+    @Column(name = "family_id")
+    private Long familyId;
+
+    @Column(name = "holder_name")
+    private String holderName;
+
+    private String address;
+
+    @Column(name = "issued_on", nullable = false)
+    private LocalDate issuedOn;
+
+    @Column(name = "expires_on", nullable = false)
+    private LocalDate expiresOn;
+}
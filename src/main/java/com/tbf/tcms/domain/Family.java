@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @EqualsAndHashCode(callSuper = true)
@@ -25,6 +26,10 @@ public class Family extends AuditableBase {
 
     private String address;
 
+    // When the household joined the register; levy arrears start from this year (null: unknown)
+    @Column(name = "registered_on")
+    private LocalDate registeredOn;
+
     @ManyToOne
     @JoinColumn(name = "organization_id")
     private Organization organization;
@@ -21,6 +21,9 @@ public class LandStand extends AuditableBase {
     @Enumerated(EnumType.STRING)
     private StandType type;
     private double sizeInSquareMeters;
+    // Stand location in WGS84 degrees; optional until the stand has been surveyed
+    private Double latitude;
+    private Double longitude;
     private boolean allocated = false;
     private LocalDate allocationDate;
     @Column(name = "fee_paid", nullable = false)
@@ -0,0 +1,37 @@
+package com.tbf.tcms.domain;
+
+import com.tbf.tcms.domain.base.AuditableBase;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * The levy an organization charges per family for one financial year, and the penalty on unpaid amounts.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "levy_rates")
+@Data
+@NoArgsConstructor
+public class LevyRate extends AuditableBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "financial_year", nullable = false)
+    private int financialYear;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    // Fraction of the outstanding amount added per full year overdue (simple, not compounded)
+    @Column(name = "penalty_rate", nullable = false)
+    private BigDecimal penaltyRate = BigDecimal.ZERO;
+}
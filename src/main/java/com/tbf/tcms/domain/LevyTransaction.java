@@ -0,0 +1,41 @@
+package com.tbf.tcms.domain;
+
+import com.tbf.tcms.domain.base.AuditableBase;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One entry of the append-only levy ledger. Entries are never updated; corrections are new entries.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "levy_transactions")
+@Data
+@NoArgsConstructor
+public class LevyTransaction extends AuditableBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "financial_year", nullable = false)
+    private int financialYear;
+
+    // Positive for payments, negative for reversals
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    private String reference;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "family_id", nullable = false)
+    private Family family;
+}
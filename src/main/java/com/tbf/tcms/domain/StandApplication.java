@@ -0,0 +1,33 @@
+package com.tbf.tcms.domain;
+
+import com.tbf.tcms.domain.base.AuditableBase;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * A user's application for a land stand. Rows are insert-only; queue order per stand is the id order.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "stand_applications")
+public class StandApplication extends AuditableBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "stand_id", nullable = false)
+    private LandStand stand;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "applicant_id", nullable = false)
+    private User applicant;
+
+    @Column(name = "application_date", nullable = false)
+    private LocalDate applicationDate;
+}
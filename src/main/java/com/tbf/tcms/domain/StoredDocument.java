@@ -0,0 +1,29 @@
+package com.tbf.tcms.domain;
+
+import com.tbf.tcms.domain.base.AuditableBase;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Metadata of one distinct document content; the bytes are kept by the document storage under the same hash.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "stored_documents")
+@Data
+@NoArgsConstructor
+public class StoredDocument extends AuditableBase {
+
+    // Lower-case hex SHA-256 of the content
+    @Id
+    @Column(length = 64, columnDefinition = "CHAR(64)")
+    private String sha256;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+}
@@ -40,7 +40,7 @@ public class VillageEvent extends AuditableBase {
     @Enumerated(EnumType.STRING)
     private EventType type;
 
-    // Document placeholders (to be stored in S3 later)
+    // Links into the document store (DocumentService.URL_PREFIX + sha256)
     private String deathCertUrl;
     private String idCopyUrl;
 
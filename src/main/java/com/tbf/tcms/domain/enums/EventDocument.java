@@ -0,0 +1,6 @@
+package com.tbf.tcms.domain.enums;
+
+public enum EventDocument {
+    DEATH_CERTIFICATE,
+    ID_COPY
+}
@@ -7,7 +7,10 @@ import com.tbf.tcms.domain.enums.CaseStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DisputeCaseRepository extends JpaRepository<DisputeCase, Long> {
@@ -26,4 +29,11 @@ public interface DisputeCaseRepository extends JpaRepository<DisputeCase, Long>
     Page<DisputeCase> findByAccusedUserId(Long userId, Pageable pageable);
 
     boolean existsByAccusedUserAndStatusIn(User user, List<CaseStatus> statuses);
+
+    // Cold eligibility check, served by the partial index idx_dispute_cases_accused_open
+    boolean existsByAccusedUserIdAndStatusIn(Long userId, Collection<CaseStatus> statuses);
+
+    // Single query used to warm the in-memory open-case set at startup
+    @Query("SELECT DISTINCT c.accusedUser.id FROM DisputeCase c WHERE c.status IN :statuses")
+    List<Long> findAccusedUserIdsWithStatusIn(@Param("statuses") Collection<CaseStatus> statuses);
 }
@@ -0,0 +1,10 @@
+package com.tbf.tcms.repository;
+
+import com.tbf.tcms.domain.DocumentVerification;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface DocumentVerificationRepository extends JpaRepository<DocumentVerification, Long> {
+    Optional<DocumentVerification> findByCode(String code);
+}
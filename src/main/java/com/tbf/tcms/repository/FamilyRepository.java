@@ -1,7 +1,38 @@
 package com.tbf.tcms.repository;
 
 import com.tbf.tcms.domain.Family;
+import com.tbf.tcms.repository.projection.FamilyKeyView;
+import com.tbf.tcms.repository.projection.FamilyOrganizationView;
+import com.tbf.tcms.repository.projection.HouseholdRowView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface FamilyRepository extends JpaRepository<Family, Long> {
+
+    // Which of the given ids exist, with their organization (for the levy schedule); validates bulk rows in one round trip
+    @Query("SELECT f.id AS id, o.id AS organizationId FROM Family f LEFT JOIN f.organization o WHERE f.id IN :ids")
+    List<FamilyOrganizationView> findOrganizationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Census import: resolve household reference numbers to ids in one round trip
+    @Query("SELECT f.id AS id, f.referenceNumber AS referenceNumber FROM Family f " +
+            "WHERE f.organization.id = :orgId AND f.referenceNumber IN :references")
+    List<FamilyKeyView> findKeysByOrganizationIdAndReferenceNumberIn(@Param("orgId") Long organizationId,
+                                                                     @Param("references") Collection<String> references);
+
+    // Household screen: family, organization and every resident in one round trip, head of household first
+    @Query(value = "SELECT f.id AS \"familyId\", f.reference_number AS \"referenceNumber\", f.address AS \"address\", " +
+            "o.id AS \"organizationId\", o.name AS \"organizationName\", r.id AS \"residentId\", " +
+            "r.first_name AS \"firstName\", r.last_name AS \"lastName\", r.id_number AS \"idNumber\", " +
+            "r.phone_number AS \"phoneNumber\", r.email AS \"email\", r.is_head_of_household AS \"headOfHousehold\" " +
+            "FROM families f " +
+            "LEFT JOIN organizations o ON o.id = f.organization_id " +
+            "LEFT JOIN residents r ON r.family_id = f.id " +
+            "WHERE f.id = :id " +
+            "ORDER BY r.is_head_of_household DESC, r.id",
+            nativeQuery = true)
+    List<HouseholdRowView> findHouseholdRows(@Param("id") Long id);
 }
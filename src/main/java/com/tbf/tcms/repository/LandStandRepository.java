@@ -3,11 +3,23 @@ package com.tbf.tcms.repository;
 import com.tbf.tcms.domain.LandStand;
 import com.tbf.tcms.domain.Organization;
 import com.tbf.tcms.domain.enums.StandType;
+import com.tbf.tcms.repository.projection.StandFeeView;
+import com.tbf.tcms.repository.projection.StandLocationView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface LandStandRepository extends JpaRepository<LandStand, Long> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface LandStandRepository extends JpaRepository<LandStand, Long>, LandStandRepositoryCustom {
 
     // Paging variants
     Page<LandStand> findAll(Pageable pageable);
@@ -30,4 +42,45 @@ public interface LandStandRepository extends JpaRepository<LandStand, Long> {
     Page<LandStand> findByOrganizationIdAndType(Long organizationId, StandType type, Pageable pageable);
 
     Page<LandStand> findByOrganizationIdAndAllocatedAndType(Long organizationId, boolean allocated, StandType type, Pageable pageable);
+
+    // Serializes allocations of one stand: concurrent allocators wait here and then see the committed state
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM LandStand s WHERE s.id = :id")
+    Optional<LandStand> findByIdForUpdate(@Param("id") Long id);
+
+    // Work-queue claim: lock the first free stand, skipping rows already locked by concurrent allocations
+    @Query(value = "SELECT * FROM land_stands " +
+            "WHERE organization_id = :orgId AND type = :type AND allocated = FALSE " +
+            "ORDER BY stand_number, id " +
+            "LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<LandStand> lockNextAvailable(@Param("orgId") Long organizationId, @Param("type") String type);
+
+    // Located stands for the spatial index (projection: no User/Organization graphs)
+    @Query("SELECT s.id AS id, s.organization.id AS organizationId, s.standNumber AS standNumber, s.type AS type, " +
+            "s.allocated AS allocated, s.latitude AS latitude, s.longitude AS longitude " +
+            "FROM LandStand s WHERE s.latitude IS NOT NULL AND s.longitude IS NOT NULL")
+    List<StandLocationView> findAllLocated();
+
+    @Query("SELECT s.id AS id, s.organization.id AS organizationId, s.standNumber AS standNumber, s.type AS type, " +
+            "s.allocated AS allocated, s.latitude AS latitude, s.longitude AS longitude " +
+            "FROM LandStand s WHERE s.organization.id = :orgId AND s.latitude IS NOT NULL AND s.longitude IS NOT NULL")
+    List<StandLocationView> findLocatedByOrganizationId(@Param("orgId") Long orgId);
+
+    // Fee reconciliation: all stand numbers in scope, loaded once per run
+    @Query("SELECT s.standNumber FROM LandStand s WHERE s.organization.id = :orgId")
+    List<String> findStandNumbersByOrganizationId(@Param("orgId") Long orgId);
+
+    @Query("SELECT s.id AS id, s.standNumber AS standNumber, s.allocated AS allocated, s.feePaid AS feePaid " +
+            "FROM LandStand s WHERE s.standNumber IS NOT NULL")
+    List<StandFeeView> findFeeViews();
+
+    @Query("SELECT s.id AS id, s.standNumber AS standNumber, s.allocated AS allocated, s.feePaid AS feePaid " +
+            "FROM LandStand s WHERE s.standNumber IS NOT NULL AND s.organization.id = :orgId")
+    List<StandFeeView> findFeeViewsByOrganizationId(@Param("orgId") Long organizationId);
+
+    // Batched fee update; only allocated, unpaid stands are touched
+    @Modifying
+    @Query("UPDATE LandStand s SET s.feePaid = true, s.updatedAt = :now, s.updatedBy = 'reconciliation' " +
+            "WHERE s.id IN :ids AND s.allocated = true AND s.feePaid = false")
+    int markFeesPaid(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,26 @@
+package com.tbf.tcms.repository;
+
+import com.tbf.tcms.domain.enums.StandType;
+import com.tbf.tcms.repository.projection.LandStandListView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Set;
+
+/**
+ * Listing queries whose select list is chosen at runtime.
+ */
+public interface LandStandRepositoryCustom {
+
+    /**
+     * Fields a listing may select, named as in {@code LandStandResponseDto}.
+     */
+    Set<String> LISTING_FIELDS = Set.of("id", "standNumber", "type", "allocated", "feePaid", "allocationDate",
+            "applicationDate", "organizationId", "allocatedToUserId", "applicantUserId");
+
+    /**
+     * Page of stands matching the optional filters, selecting only the given fields (the id is always selected).
+     */
+    Page<LandStandListView> findListing(Long organizationId, Boolean allocated, StandType type,
+                                        Set<String> fields, Pageable pageable);
+}
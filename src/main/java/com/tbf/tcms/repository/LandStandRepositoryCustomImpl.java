@@ -0,0 +1,121 @@
+package com.tbf.tcms.repository;
+
+import com.tbf.tcms.domain.LandStand;
+import com.tbf.tcms.domain.enums.StandType;
+import com.tbf.tcms.repository.projection.LandStandListView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Technical note: the listing is a Criteria tuple query so the SQL select list only carries the requested
+ * columns. Related users and the organization are read through their foreign keys (left joins), so no
+ * {@code User} or {@code Organization} graph is ever loaded.
+ */
+class LandStandRepositoryCustomImpl implements LandStandRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<LandStandListView> findListing(Long organizationId, Boolean allocated, StandType type,
+                                               Set<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<LandStand> root = query.from(LandStand.class);
+        // One expression per listing field, so sorting on a selected relation id reuses its join
+        Map<String, Expression<?>> paths = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(path(root, paths, "id").alias("id"));
+        for (String field : fields) {
+            if (!"id".equals(field)) {
+                selections.add(path(root, paths, field).alias(field));
+            }
+        }
+        query.select(cb.tuple(selections.toArray(Selection[]::new)))
+                .where(filters(cb, root, organizationId, allocated, type));
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            Expression<?> path = path(root, paths, order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        query.orderBy(orders);
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<LandStand> countRoot = countQuery.from(LandStand.class);
+        countQuery.select(cb.count(countRoot)).where(filters(cb, countRoot, organizationId, allocated, type));
+        long total = entityManager.createQuery(countQuery).getSingleResult();
+
+        List<LandStandListView> content = rows.stream()
+                .<LandStandListView>map(row -> new TupleListView(row, fields))
+                .toList();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private static Expression<?> path(Root<LandStand> root, Map<String, Expression<?>> paths, String field) {
+        return paths.computeIfAbsent(field, f -> switch (f) {
+            case "organizationId" -> root.join("organization", JoinType.LEFT).get("id");
+            case "allocatedToUserId" -> root.join("allocatedTo", JoinType.LEFT).get("id");
+            case "applicantUserId" -> root.join("applicant", JoinType.LEFT).get("id");
+            default -> root.get(f);
+        });
+    }
+
+    private static Predicate[] filters(CriteriaBuilder cb, Root<LandStand> root,
+                                       Long organizationId, Boolean allocated, StandType type) {
+        List<Predicate> predicates = new ArrayList<>(3);
+        if (organizationId != null) {
+            predicates.add(cb.equal(root.get("organization").get("id"), organizationId));
+        }
+        if (allocated != null) {
+            predicates.add(cb.equal(root.get("allocated"), allocated));
+        }
+        if (type != null) {
+            predicates.add(cb.equal(root.get("type"), type));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private record TupleListView(Tuple row, Set<String> fields) implements LandStandListView {
+
+        private <T> T value(String field, Class<T> type) {
+            return "id".equals(field) || fields.contains(field) ? row.get(field, type) : null;
+        }
+
+        @Override public Long getId() { return value("id", Long.class); }
+        @Override public String getStandNumber() { return value("standNumber", String.class); }
+        @Override public StandType getType() { return value("type", StandType.class); }
+        @Override public Boolean getAllocated() { return value("allocated", Boolean.class); }
+        @Override public Boolean getFeePaid() { return value("feePaid", Boolean.class); }
+        @Override public LocalDate getAllocationDate() { return value("allocationDate", LocalDate.class); }
+        @Override public LocalDate getApplicationDate() { return value("applicationDate", LocalDate.class); }
+        @Override public Long getOrganizationId() { return value("organizationId", Long.class); }
+        @Override public Long getAllocatedToUserId() { return value("allocatedToUserId", Long.class); }
+        @Override public Long getApplicantUserId() { return value("applicantUserId", Long.class); }
+    }
+}
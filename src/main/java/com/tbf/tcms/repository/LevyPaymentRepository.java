@@ -1,10 +1,57 @@
 package com.tbf.tcms.repository;
 
 import com.tbf.tcms.domain.LevyPayment;
+import com.tbf.tcms.repository.projection.LevyKeyView;
+import com.tbf.tcms.repository.projection.LevyYearView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface LevyPaymentRepository extends JpaRepository<LevyPayment, Long> {
     Optional<LevyPayment> findByFamilyIdAndFinancialYear(Long familyId, int financialYear);
+
+    @Query("SELECT p.family.id AS familyId, p.financialYear AS financialYear FROM LevyPayment p " +
+            "WHERE p.family.id IN :familyIds")
+    List<LevyKeyView> findKeysByFamilyIdIn(@Param("familyIds") Collection<Long> familyIds);
+
+    // Levy history of one family, newest first: every year of the range, against the organization's schedule
+    @Query(value = "SELECT y.yr AS \"year\", COALESCE(lr.amount, :defaultAmountDue) AS \"amountDue\", " +
+            "COALESCE(p.amount, 0) AS \"amountPaid\", p.status AS \"status\", p.payment_date AS \"paymentDate\" " +
+            "FROM families f " +
+            "CROSS JOIN generate_series(:fromYear, :toYear) AS y(yr) " +
+            "LEFT JOIN levy_rates lr ON lr.organization_id = f.organization_id AND lr.financial_year = y.yr " +
+            "LEFT JOIN levy_payments p ON p.family_id = f.id AND p.financial_year = y.yr " +
+            "WHERE f.id = :familyId " +
+            "ORDER BY y.yr DESC",
+            nativeQuery = true)
+    List<LevyYearView> findLevyHistory(@Param("familyId") Long familyId,
+                                       @Param("fromYear") int fromYear,
+                                       @Param("toYear") int toYear,
+                                       @Param("defaultAmountDue") BigDecimal defaultAmountDue);
+
+    // Incremental snapshot update for one ledger entry; the row lock taken by the upsert serializes concurrent payments
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO levy_payments (family_id, financial_year, amount, payment_date, status, " +
+            "created_at, updated_at, created_by, updated_by) " +
+            "VALUES (:familyId, :year, :amount, :paymentDate, " +
+            "CASE WHEN :amount >= :amountDue THEN 'PAID' ELSE 'PENDING' END, " +
+            "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'system', 'system') " +
+            "ON CONFLICT (family_id, financial_year) DO UPDATE SET " +
+            "amount = levy_payments.amount + EXCLUDED.amount, " +
+            "payment_date = GREATEST(levy_payments.payment_date, EXCLUDED.payment_date), " +
+            "status = CASE WHEN levy_payments.amount + EXCLUDED.amount >= :amountDue THEN 'PAID' ELSE 'PENDING' END, " +
+            "updated_at = EXCLUDED.updated_at, updated_by = EXCLUDED.updated_by",
+            nativeQuery = true)
+    int applyPayment(@Param("familyId") Long familyId,
+                     @Param("year") int year,
+                     @Param("amount") BigDecimal amount,
+                     @Param("paymentDate") LocalDate paymentDate,
+                     @Param("amountDue") BigDecimal amountDue);
 }
@@ -0,0 +1,14 @@
+package com.tbf.tcms.repository;
+
+import com.tbf.tcms.domain.LevyRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LevyRateRepository extends JpaRepository<LevyRate, Long> {
+
+    Optional<LevyRate> findByOrganizationIdAndFinancialYear(Long organizationId, int financialYear);
+
+    List<LevyRate> findByOrganizationIdOrderByFinancialYearDesc(Long organizationId);
+}
@@ -0,0 +1,15 @@
+package com.tbf.tcms.repository;
+
+import com.tbf.tcms.domain.LevyTransaction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface LevyTransactionRepository extends JpaRepository<LevyTransaction, Long> {
+
+    Page<LevyTransaction> findByFamilyIdAndFinancialYearOrderByIdAsc(Long familyId, int financialYear, Pageable pageable);
+
+    @Query("SELECT MAX(t.family.id) FROM LevyTransaction t")
+    Long findMaxFamilyId();
+}
@@ -1,7 +1,51 @@
 package com.tbf.tcms.repository;
 
 import com.tbf.tcms.domain.Resident;
+import com.tbf.tcms.repository.projection.ResidentLookupView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ResidentRepository extends JpaRepository<Resident, Long> {
+
+    // Batch document generation: residents with family and organization in one query
+    @Query("SELECT r FROM Resident r LEFT JOIN FETCH r.family f LEFT JOIN FETCH f.organization WHERE r.id IN :ids")
+    List<Resident> findWithFamilyByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r FROM Resident r JOIN FETCH r.family f LEFT JOIN FETCH f.organization WHERE f.id = :familyId ORDER BY r.id")
+    List<Resident> findWithFamilyByFamilyId(@Param("familyId") Long familyId);
+
+    // Census import: which of the given normalized identity numbers are already registered, as normalized keys
+    @Query(value = "SELECT UPPER(REGEXP_REPLACE(id_number, '[[:space:]-]', '', 'g')) FROM residents " +
+            "WHERE UPPER(REGEXP_REPLACE(id_number, '[[:space:]-]', '', 'g')) IN (:idNumbers)", nativeQuery = true)
+    List<String> findExistingIdNumbers(@Param("idNumbers") Collection<String> idNumbers);
+
+    @Query("SELECT r.family.id FROM Resident r WHERE r.isHeadOfHousehold = true AND r.family.id IN :familyIds")
+    List<Long> findFamilyIdsWithHead(@Param("familyIds") Collection<Long> familyIds);
+
+    String LOOKUP_SELECT = "SELECT r.id AS \"residentId\", r.first_name AS \"firstName\", r.last_name AS \"lastName\", " +
+            "r.id_number AS \"idNumber\", r.phone_number AS \"phoneNumber\", r.email AS \"email\", " +
+            "r.is_head_of_household AS \"headOfHousehold\", f.id AS \"familyId\", " +
+            "f.reference_number AS \"familyReference\", f.address AS \"address\", " +
+            "f.organization_id AS \"organizationId\", lp.status AS \"levyStatus\" " +
+            "FROM residents r " +
+            "LEFT JOIN families f ON f.id = r.family_id " +
+            "LEFT JOIN levy_payments lp ON lp.family_id = f.id AND lp.financial_year = :year ";
+
+    // Counter lookup: resident, household and levy status in one round trip (idx_residents_id_number_key)
+    @Query(value = LOOKUP_SELECT +
+            "WHERE UPPER(REGEXP_REPLACE(r.id_number, '[[:space:]-]', '', 'g')) = :key ORDER BY r.id LIMIT :limit",
+            nativeQuery = true)
+    List<ResidentLookupView> findLookupByIdNumberKey(@Param("key") String idNumberKey, @Param("year") int year,
+                                                     @Param("limit") int limit);
+
+    // Counter lookup by phone; a household often shares one number (idx_residents_phone_key)
+    @Query(value = LOOKUP_SELECT +
+            "WHERE RIGHT(REGEXP_REPLACE(r.phone_number, '[^0-9]', '', 'g'), 9) = :key ORDER BY r.id LIMIT :limit",
+            nativeQuery = true)
+    List<ResidentLookupView> findLookupByPhoneKey(@Param("key") String phoneKey, @Param("year") int year,
+                                                  @Param("limit") int limit);
 }
@@ -0,0 +1,23 @@
+package com.tbf.tcms.repository;
+
+import com.tbf.tcms.domain.StandApplication;
+import com.tbf.tcms.web.dto.landstand.StandApplicationResponseDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StandApplicationRepository extends JpaRepository<StandApplication, Long> {
+
+    boolean existsByStandIdAndApplicantId(Long standId, Long applicantId);
+
+    long countByStandId(Long standId);
+
+    // Projection avoids loading applicant User graphs for queue screens
+    @Query(value = "SELECT new com.tbf.tcms.web.dto.landstand.StandApplicationResponseDto(" +
+            "a.id, a.stand.id, u.id, u.fullName, a.applicationDate) " +
+            "FROM StandApplication a JOIN a.applicant u WHERE a.stand.id = :standId ORDER BY a.id",
+            countQuery = "SELECT COUNT(a) FROM StandApplication a WHERE a.stand.id = :standId")
+    Page<StandApplicationResponseDto> findQueue(@Param("standId") Long standId, Pageable pageable);
+}
@@ -0,0 +1,20 @@
+package com.tbf.tcms.repository;
+
+import com.tbf.tcms.domain.StoredDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StoredDocumentRepository extends JpaRepository<StoredDocument, String> {
+
+    // Identical content uploaded twice (or concurrently) keeps its first row
+    @Modifying
+    @Query(value = "INSERT INTO stored_documents (sha256, size_bytes, content_type, created_at, updated_at, " +
+            "created_by, updated_by) " +
+            "VALUES (:sha256, :size, :contentType, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'system', 'system') " +
+            "ON CONFLICT (sha256) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("sha256") String sha256, @Param("size") long size,
+                       @Param("contentType") String contentType);
+}
@@ -1,7 +1,37 @@
 package com.tbf.tcms.repository;
 
 import com.tbf.tcms.domain.VillageEvent;
+import com.tbf.tcms.repository.projection.CalendarVersionView;
+import com.tbf.tcms.repository.projection.EventBookingView;
+import com.tbf.tcms.repository.projection.VillageEventCalendarView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface VillageEventRepository extends JpaRepository<VillageEvent, Long> {
+
+    // Calendar: events of an organization in a date range (idx_village_events_org_date)
+    @Query("SELECT e.id AS id, e.name AS name, e.type AS type, e.status AS status, e.eventDate AS eventDate, " +
+            "e.location AS location, e.family.id AS familyId FROM VillageEvent e " +
+            "WHERE e.organization.id = :orgId AND e.eventDate BETWEEN :from AND :to " +
+            "ORDER BY e.eventDate, e.id")
+    List<VillageEventCalendarView> findCalendar(@Param("orgId") Long organizationId,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to);
+
+    // ETag of a calendar range without reading its events
+    @Query("SELECT COUNT(e) AS events, MAX(e.updatedAt) AS lastUpdated, COALESCE(SUM(e.id), 0) AS idSum " +
+            "FROM VillageEvent e WHERE e.organization.id = :orgId AND e.eventDate BETWEEN :from AND :to")
+    CalendarVersionView findCalendarVersion(@Param("orgId") Long organizationId,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+
+    // Location bookings from a date on, for the in-memory conflict index
+    @Query("SELECT e.id AS id, e.organization.id AS organizationId, e.eventDate AS eventDate, " +
+            "e.location AS location, e.name AS name FROM VillageEvent e " +
+            "WHERE e.organization.id IS NOT NULL AND e.eventDate >= :from AND e.location IS NOT NULL")
+    List<EventBookingView> findBookingsFrom(@Param("from") LocalDate from);
 }
@@ -0,0 +1,14 @@
+package com.tbf.tcms.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap fingerprint of a calendar range: changes whenever an event in it is added, removed or updated.
+ */
+public interface CalendarVersionView {
+    Long getEvents();
+
+    LocalDateTime getLastUpdated();
+
+    Long getIdSum();
+}
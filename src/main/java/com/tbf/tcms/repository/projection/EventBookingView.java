@@ -0,0 +1,18 @@
+package com.tbf.tcms.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * The location booking of an event, as loaded into the event calendar index.
+ */
+public interface EventBookingView {
+    Long getId();
+
+    Long getOrganizationId();
+
+    LocalDate getEventDate();
+
+    String getLocation();
+
+    String getName();
+}
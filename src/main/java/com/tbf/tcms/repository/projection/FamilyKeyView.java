@@ -0,0 +1,10 @@
+package com.tbf.tcms.repository.projection;
+
+/**
+ * Natural key of a family within its organization (the {@code uq_families_org_reference_number} index).
+ */
+public interface FamilyKeyView {
+    Long getId();
+
+    String getReferenceNumber();
+}
@@ -0,0 +1,10 @@
+package com.tbf.tcms.repository.projection;
+
+/**
+ * A family id with its organization (null when the family has none).
+ */
+public interface FamilyOrganizationView {
+    Long getId();
+
+    Long getOrganizationId();
+}
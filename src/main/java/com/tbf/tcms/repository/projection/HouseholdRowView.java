@@ -0,0 +1,31 @@
+package com.tbf.tcms.repository.projection;
+
+/**
+ * One row of the household read model: the family and its organization, repeated for each resident
+ * (resident columns are null when the household has none).
+ */
+public interface HouseholdRowView {
+    Long getFamilyId();
+
+    String getReferenceNumber();
+
+    String getAddress();
+
+    Long getOrganizationId();
+
+    String getOrganizationName();
+
+    Long getResidentId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getIdNumber();
+
+    String getPhoneNumber();
+
+    String getEmail();
+
+    Boolean getHeadOfHousehold();
+}
@@ -0,0 +1,31 @@
+package com.tbf.tcms.repository.projection;
+
+import com.tbf.tcms.domain.enums.StandType;
+
+import java.time.LocalDate;
+
+/**
+ * Flat stand row for grid listings. Related users and the organization are exposed by id only.
+ * Getters for columns left out of a sparse select return {@code null}.
+ */
+public interface LandStandListView {
+    Long getId();
+
+    String getStandNumber();
+
+    StandType getType();
+
+    Boolean getAllocated();
+
+    Boolean getFeePaid();
+
+    LocalDate getAllocationDate();
+
+    LocalDate getApplicationDate();
+
+    Long getOrganizationId();
+
+    Long getAllocatedToUserId();
+
+    Long getApplicantUserId();
+}
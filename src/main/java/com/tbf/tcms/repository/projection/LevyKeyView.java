@@ -0,0 +1,10 @@
+package com.tbf.tcms.repository.projection;
+
+/**
+ * Natural key of a levy payment (the {@code uq_family_year} constraint).
+ */
+public interface LevyKeyView {
+    Long getFamilyId();
+
+    Integer getFinancialYear();
+}
@@ -0,0 +1,20 @@
+package com.tbf.tcms.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A family's levy position for one year: the scheduled (or default) amount due against its snapshot.
+ */
+public interface LevyYearView {
+    Integer getYear();
+
+    BigDecimal getAmountDue();
+
+    BigDecimal getAmountPaid();
+
+    // levy_payments.status, null when nothing was invoiced or paid for the year
+    String getStatus();
+
+    LocalDate getPaymentDate();
+}
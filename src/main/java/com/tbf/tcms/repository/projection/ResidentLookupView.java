@@ -0,0 +1,31 @@
+package com.tbf.tcms.repository.projection;
+
+/**
+ * A resident with their household and the household's levy status for one year, as read by the counter lookup.
+ */
+public interface ResidentLookupView {
+    Long getResidentId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getIdNumber();
+
+    String getPhoneNumber();
+
+    String getEmail();
+
+    Boolean getHeadOfHousehold();
+
+    Long getFamilyId();
+
+    String getFamilyReference();
+
+    String getAddress();
+
+    Long getOrganizationId();
+
+    // levy_payments.status for the year, null when nothing was paid
+    String getLevyStatus();
+}
@@ -0,0 +1,14 @@
+package com.tbf.tcms.repository.projection;
+
+/**
+ * Stand number and fee state, used to build the per-run reference index for fee reconciliation.
+ */
+public interface StandFeeView {
+    Long getId();
+
+    String getStandNumber();
+
+    Boolean getAllocated();
+
+    Boolean getFeePaid();
+}
@@ -0,0 +1,22 @@
+package com.tbf.tcms.repository.projection;
+
+import com.tbf.tcms.domain.enums.StandType;
+
+/**
+ * Slim stand row used to build the in-memory spatial index.
+ */
+public interface StandLocationView {
+    Long getId();
+
+    Long getOrganizationId();
+
+    String getStandNumber();
+
+    StandType getType();
+
+    Boolean getAllocated();
+
+    Double getLatitude();
+
+    Double getLongitude();
+}
@@ -0,0 +1,25 @@
+package com.tbf.tcms.repository.projection;
+
+import com.tbf.tcms.domain.enums.EventStatus;
+import com.tbf.tcms.domain.enums.EventType;
+
+import java.time.LocalDate;
+
+/**
+ * A village event as shown on the calendar.
+ */
+public interface VillageEventCalendarView {
+    Long getId();
+
+    String getName();
+
+    EventType getType();
+
+    EventStatus getStatus();
+
+    LocalDate getEventDate();
+
+    String getLocation();
+
+    Long getFamilyId();
+}
@@ -0,0 +1,17 @@
+package com.tbf.tcms.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Case Register Export Service — produces the dispute case register handed to the municipality.
+ */
+public interface CaseRegisterExportService {
+
+    /**
+     * Stream the CSV register of cases opened in an organization between {@code from} and {@code to} (inclusive).
+     * Rows are written to {@code out} as they are read, so memory use does not grow with the register size.
+     */
+    void exportCsv(Long organizationId, LocalDate from, LocalDate to, OutputStream out) throws IOException;
+}
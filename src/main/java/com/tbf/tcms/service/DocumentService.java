@@ -0,0 +1,38 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.web.dto.document.DocumentDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Document Service — uploaded supporting documents (death certificates, ID copies, case evidence), stored once
+ * per distinct content and addressed by SHA-256.
+ */
+public interface DocumentService {
+
+    String URL_PREFIX = "/api/documents/";
+
+    /**
+     * Store an upload. Only PDF, JPEG and PNG documents are accepted.
+     */
+    DocumentDto upload(InputStream content, String contentType) throws IOException;
+
+    /**
+     * Metadata of a stored document.
+     */
+    DocumentDto get(String sha256);
+
+    /**
+     * Copy {@code count} bytes of the document from {@code position} to the target.
+     */
+    void transferTo(String sha256, long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * Local file holding the document's content, when the storage keeps one.
+     */
+    Optional<Path> localFile(String sha256);
+}
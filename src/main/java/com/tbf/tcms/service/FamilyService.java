@@ -0,0 +1,15 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.web.dto.family.HouseholdDto;
+
+/**
+ * Family Service — read models over households.
+ */
+public interface FamilyService {
+
+    /**
+     * The household with its residents and its levy position for the current year and the {@code years - 1}
+     * before it.
+     */
+    HouseholdDto getHousehold(Long familyId, int years);
+}
@@ -0,0 +1,26 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.web.dto.family.HouseholdImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Household Import Service — bulk registration of families and their residents from a census register.
+ */
+public interface HouseholdImportService {
+
+    enum Format { CSV, NDJSON }
+
+    /**
+     * Import a census register into one organization. CSV files carry one resident per row
+     * ({@code referenceNumber}, {@code firstName}, {@code lastName}, {@code idNumber} and optionally {@code address},
+     * {@code phoneNumber}, {@code email}, {@code headOfHousehold}); NDJSON files carry one household per line with a
+     * {@code residents} array. Families are upserted by reference number; residents already registered under the
+     * same identity number are reported and skipped.
+     *
+     * @param dryRun validate and report without writing anything
+     */
+    HouseholdImportReport importHouseholds(Long organizationId, InputStream register, Format format, boolean dryRun)
+            throws IOException;
+}
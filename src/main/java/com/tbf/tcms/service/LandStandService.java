@@ -3,8 +3,13 @@ package com.tbf.tcms.service;
 import com.tbf.tcms.domain.LandStand;
 import com.tbf.tcms.domain.enums.StandType;
 import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.landstand.LandStandResponseDto;
+import com.tbf.tcms.web.dto.landstand.StandLocationDto;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+import java.util.Set;
+
 /**
  * Land Stand Service — interface for stand applications and allocations.
  */
@@ -17,7 +22,18 @@ public interface LandStandService {
     LandStand allocateStand(Long standId, Long userId);
 
     /**
-     * Allow a regular user to apply for a stand. No allocation is performed here.
+     * Allocate a stand to the applicant at the head of its application queue.
+     */
+    LandStand allocateToNextApplicant(Long standId);
+
+    /**
+     * Allocate the next free stand of a type in an organization to a user and return it.
+     * Concurrent callers each receive a distinct stand.
+     */
+    LandStand allocateNextAvailable(Long organizationId, StandType type, Long userId);
+
+    /**
+     * Allow a regular user to apply for a stand. The application joins the stand's FIFO queue; no allocation is performed here.
      */
     LandStand applyForStand(Long standId, Long userId);
 
@@ -31,6 +47,23 @@ public interface LandStandService {
      */
     LandStand markStandFeePaid(Long standId);
 
+    /**
+     * Record or correct the surveyed location of a stand (WGS84 degrees).
+     */
+    LandStand updateLocation(Long standId, double latitude, double longitude);
+
+    /**
+     * The k unallocated stands nearest to a point in an organization, optionally of one type, nearest first.
+     */
+    List<StandLocationDto> findNearestAvailable(Long organizationId, double latitude, double longitude, StandType type, int k);
+
+    /**
+     * Stands inside a latitude/longitude box in an organization, with optional allocation/type filters.
+     */
+    List<StandLocationDto> findWithin(Long organizationId, double minLatitude, double minLongitude,
+                                      double maxLatitude, double maxLongitude,
+                                      Boolean allocated, StandType type, int limit);
+
     // Pagination APIs
     PageResponse<LandStand> findAll(Pageable pageable);
 
@@ -42,6 +75,8 @@ public interface LandStandService {
 
     /**
      * Flexible search used by the grid with optional filters.
+     * {@code fields} narrows the returned columns (null or empty selects all); the id is always included.
      */
-    PageResponse<LandStand> search(Long organizationId, Boolean allocated, StandType type, Pageable pageable);
+    PageResponse<LandStandResponseDto> search(Long organizationId, Boolean allocated, StandType type,
+                                              Set<String> fields, Pageable pageable);
 }
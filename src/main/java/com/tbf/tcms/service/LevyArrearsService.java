@@ -0,0 +1,18 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.levy.LevyArrearsDto;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Levy Arrears Service — organization-wide arrears lists computed in the database.
+ */
+public interface LevyArrearsService {
+
+    /**
+     * Families of an organization with no paid levy for {@code year}, ordered by reference number.
+     *
+     * @param agingYears number of prior years to include in the aging (0 reports only {@code year})
+     */
+    PageResponse<LevyArrearsDto> findArrears(Long organizationId, int year, int agingYears, Pageable pageable);
+}
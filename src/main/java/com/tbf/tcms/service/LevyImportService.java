@@ -0,0 +1,19 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.web.dto.levy.LevyImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Levy Import Service — bulk ingestion of levy payments from month-end deposit files.
+ */
+public interface LevyImportService {
+
+    /**
+     * Ingest a payments CSV with {@code familyId}, {@code year} and {@code amount} columns ({@code paymentDate}
+     * optional, ISO date, defaults to today). Each row marks the family's levy for that year PAID, inserting or
+     * updating the existing payment; invalid rows are reported and skipped.
+     */
+    LevyImportReport importPayments(InputStream payments) throws IOException;
+}
@@ -0,0 +1,32 @@
+package com.tbf.tcms.service;
+
+import java.util.List;
+
+/**
+ * Levy Invoicing Service — opens a financial year by raising a PENDING levy for every family.
+ */
+public interface LevyInvoicingService {
+
+    /**
+     * Create a PENDING {@code levy_payments} row for {@code year} for every family of the organization, or of every
+     * organization when {@code organizationId} is null. Families already invoiced (or already paying) for the year
+     * are left untouched, so the job can be re-run safely. Only one run may be in progress at a time.
+     */
+    InvoicingResult openYear(int year, Long organizationId);
+
+    /**
+     * Progress of the current run, or of the last one; null if no run has started since the application started.
+     */
+    Progress progress();
+
+    record OrganizationResult(Long organizationId, int families, int invoiced) {
+    }
+
+    record InvoicingResult(int year, int organizations, int chunks, int invoiced, int alreadyInvoiced,
+                           long elapsedMillis, List<OrganizationResult> organizationResults) {
+    }
+
+    record Progress(int year, boolean running, int organizationsTotal, int organizationsDone,
+                    int chunksTotal, int chunksDone, int invoiced, long elapsedMillis) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.levy.LevyAccruedArrearsDto;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Levy Penalty Service — accrues outstanding levies and penalties across years into {@code levy_arrears}.
+ */
+public interface LevyPenaltyService {
+
+    /**
+     * Recompute arrears for every family of the organization (or of all organizations when null), for the years
+     * {@code asOfYear - lookbackYears} to {@code asOfYear}. A family owes for a year from the year it was registered;
+     * the amount due and penalty rate come from the levy schedule. Previous results for the organization are replaced.
+     */
+    AccrualResult accrue(int asOfYear, Long organizationId, int lookbackYears);
+
+    /**
+     * Families of the organization with accrued arrears, largest total first.
+     */
+    PageResponse<LevyAccruedArrearsDto> findAccrued(Long organizationId, Pageable pageable);
+
+    record AccrualResult(int asOfYear, int organizations, int chunks, int rowsWritten, long elapsedMillis) {
+    }
+}
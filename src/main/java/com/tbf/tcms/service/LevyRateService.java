@@ -0,0 +1,33 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.web.dto.levy.LevyRateDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Levy Rate Service — the per organization/year levy schedule.
+ */
+public interface LevyRateService {
+
+    /**
+     * The levy due per family for the organization and year; the default levy when nothing is scheduled
+     * (or the family has no organization).
+     */
+    BigDecimal amountDue(Long organizationId, int year);
+
+    /**
+     * The effective rate for the organization and year, scheduled or default.
+     */
+    LevyRateDto getRate(Long organizationId, int year);
+
+    List<LevyRateDto> findRates(Long organizationId);
+
+    /**
+     * Schedule (or change) the levy for an organization and year. Existing snapshots for that year are
+     * re-evaluated against the new amount, so families can move between PAID and PENDING.
+     *
+     * @param penaltyRate fraction of the outstanding amount added per year overdue, between 0 and 1
+     */
+    LevyRateDto setRate(Long organizationId, int year, BigDecimal amount, BigDecimal penaltyRate);
+}
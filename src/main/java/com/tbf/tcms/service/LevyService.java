@@ -1,12 +1,30 @@
 package com.tbf.tcms.service;
 
 import com.tbf.tcms.domain.LevyPayment;
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.levy.LevyBalanceDto;
+import com.tbf.tcms.web.dto.levy.LevyTransactionDto;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 
 public interface LevyService {
 
+    /**
+     * Append a payment to the family's levy ledger and return the updated snapshot for that year.
+     * Partial payments accumulate; the levy becomes PAID once the total reaches the amount due.
+     */
     LevyPayment recordPayment(Long familyId, BigDecimal amount, int year);
 
     boolean isLevyUpToDate(Long familyId);
+
+    /**
+     * Amount due, paid and outstanding for a family and year, read from the snapshot.
+     */
+    LevyBalanceDto getBalance(Long familyId, int year);
+
+    /**
+     * Ledger entries of a family for a year, oldest first.
+     */
+    PageResponse<LevyTransactionDto> findTransactions(Long familyId, int year, Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package com.tbf.tcms.service;
+
+/**
+ * Levy Snapshot Service — maintenance of the per family/year levy snapshots derived from the ledger.
+ */
+public interface LevySnapshotService {
+
+    /**
+     * Recompute every snapshot that has ledger entries from {@code levy_transactions}, in parallel chunks of
+     * family ids. Snapshots without ledger entries (e.g. unpaid invoices) are left untouched.
+     */
+    RebuildResult rebuildSnapshots();
+
+    record RebuildResult(int chunks, int snapshotsWritten, long elapsedMillis) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.web.dto.resident.VerificationResponseDto;
+
+import java.util.List;
+
+/**
+ * Proof of Residence Document Service — issues verifiable proof-of-residence PDF letters.
+ */
+public interface ProofOfResidenceDocumentService {
+
+    /**
+     * Issue a letter for one resident. Fails if the resident has no family or the family's levy is in arrears.
+     */
+    IssuedDocument issue(Long residentId);
+
+    /**
+     * Issue letters for a list of residents, or for every member of a family. Residents who are not eligible
+     * are skipped with a reason instead of failing the batch.
+     */
+    BatchResult issueBatch(List<Long> residentIds, Long familyId);
+
+    /**
+     * Look up an issued letter by its verification code (dashes and case are ignored).
+     */
+    VerificationResponseDto verify(String code);
+
+    record IssuedDocument(Long residentId, String code, String fileName, byte[] pdf) {
+    }
+
+    record Skipped(Long residentId, String reason) {
+    }
+
+    record BatchResult(List<IssuedDocument> documents, List<Skipped> skipped) {
+    }
+}
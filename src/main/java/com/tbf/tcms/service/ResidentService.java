@@ -1,5 +1,9 @@
 package com.tbf.tcms.service;
 
+import com.tbf.tcms.web.dto.resident.ResidentLookupDto;
+
+import java.util.List;
+
 public interface ResidentService {
 
     /**
@@ -7,4 +11,20 @@ public interface ResidentService {
      * If the family's levy is not up to date for the current year, throws an exception.
      */
     String generateProofOfResidence(Long residentId);
+
+    /**
+     * The Proof of Residence statement together with a strong ETag over its text, for conditional requests.
+     * Fails like {@link #generateProofOfResidence(Long)} when the resident is not eligible.
+     */
+    ProofOfResidence proofOfResidence(Long residentId);
+
+    /**
+     * Finds residents by identity number or phone number (exactly one must be given), ignoring formatting such as
+     * spaces, dashes or a +27 prefix. Each match carries its household and whether the current year's levy is paid.
+     * Returns an empty list when nobody matches.
+     */
+    List<ResidentLookupDto> lookup(String idNumber, String phoneNumber);
+
+    record ProofOfResidence(String text, String etag) {
+    }
 }
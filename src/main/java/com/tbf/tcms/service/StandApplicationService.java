@@ -0,0 +1,36 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.domain.LandStand;
+import com.tbf.tcms.domain.StandApplication;
+import com.tbf.tcms.domain.User;
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.landstand.StandApplicationResponseDto;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+/**
+ * Stand Application Service — FIFO application queue per land stand.
+ */
+public interface StandApplicationService {
+
+    /**
+     * Append an application to the stand's queue. A user may only apply once per stand.
+     */
+    StandApplication enqueue(LandStand stand, User applicant);
+
+    /**
+     * Page through a stand's queue in FIFO order, with each entry's position.
+     */
+    PageResponse<StandApplicationResponseDto> findQueue(Long standId, Pageable pageable);
+
+    /**
+     * Remove the head of the stand's queue and return the applicant's user id, if any.
+     */
+    Optional<Long> popHead(Long standId);
+
+    /**
+     * Drop every remaining application for a stand (once it is allocated); returns the number removed.
+     */
+    int clearQueue(Long standId);
+}
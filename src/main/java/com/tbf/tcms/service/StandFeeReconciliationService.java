@@ -0,0 +1,21 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.web.dto.landstand.FeeReconciliationReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stand Fee Reconciliation Service — matches bank-statement deposits to stands and marks their fees paid in bulk.
+ */
+public interface StandFeeReconciliationService {
+
+    /**
+     * Read a bank-statement CSV (header with a {@code reference} column; {@code amount} and {@code date} optional),
+     * match each reference to a stand number and mark matched stands' fees paid.
+     *
+     * @param organizationId limit matching to one organization's stands; null matches across all organizations
+     * @param dryRun         report what would change without updating any stand
+     */
+    FeeReconciliationReport reconcile(Long organizationId, InputStream statement, boolean dryRun) throws IOException;
+}
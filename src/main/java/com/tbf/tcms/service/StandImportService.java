@@ -0,0 +1,24 @@
+package com.tbf.tcms.service;
+
+import com.tbf.tcms.web.dto.landstand.StandImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stand Import Service — bulk registration of surveyed stands from a stand register file.
+ */
+public interface StandImportService {
+
+    enum Format { CSV, NDJSON }
+
+    /**
+     * Import a stand register. Each row carries {@code standNumber}, {@code type}, {@code sizeInSquareMeters} and
+     * optionally {@code organizationId}, {@code latitude} and {@code longitude}. Invalid rows are reported and skipped;
+     * valid rows are inserted.
+     *
+     * @param organizationId organization for rows that do not name one; may be null if every row does
+     * @param dryRun         validate and report without inserting anything
+     */
+    StandImportReport importStands(Long organizationId, InputStream register, Format format, boolean dryRun) throws IOException;
+}
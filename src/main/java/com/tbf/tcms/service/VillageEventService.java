@@ -1,13 +1,25 @@
 package com.tbf.tcms.service;
 
 import com.tbf.tcms.domain.VillageEvent;
+import com.tbf.tcms.domain.enums.EventDocument;
 import com.tbf.tcms.domain.enums.EventType;
+import com.tbf.tcms.web.dto.event.EventApprovalResult;
+import com.tbf.tcms.web.dto.event.EventFeeRevenueDto;
+import com.tbf.tcms.web.dto.event.VillageEventCalendarDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 public interface VillageEventService {
 
+    /**
+     * Create an event request. A location can hold one event per day within an organization; a clash with an
+     * existing booking is rejected.
+     */
     VillageEvent createEvent(Long organizationId,
                              Long familyId,
                              EventType type,
@@ -20,4 +32,42 @@ public interface VillageEventService {
                              String idCopyUrl,
                              boolean hasDeathCertificate,
                              boolean hasIdCopies);
+
+    /**
+     * Upload a supporting document for an event and link it through the event's document URL field,
+     * marking the document as provided.
+     */
+    VillageEvent attachDocument(Long eventId, EventDocument kind, InputStream content, String contentType)
+            throws IOException;
+
+    /**
+     * Approve one event; approving an approved event is a no-op.
+     */
+    VillageEvent approve(Long eventId);
+
+    /**
+     * Approve a list of events, or every pending event of an organization between {@code from} and {@code to}
+     * (inclusive); exactly one of the two selections must be given.
+     */
+    EventApprovalResult approveAll(List<Long> eventIds, Long organizationId, LocalDate from, LocalDate to);
+
+    /**
+     * Events of an organization between {@code from} and {@code to} (inclusive), ordered by date.
+     */
+    List<VillageEventCalendarDto> findCalendar(Long organizationId, LocalDate from, LocalDate to);
+
+    /**
+     * Weak ETag of the calendar range; changes whenever an event in the range is added, removed or updated.
+     */
+    String calendarEtag(Long organizationId, LocalDate from, LocalDate to);
+
+    /**
+     * Stream the calendar range as an iCalendar (RFC 5545) feed; events are written as they are read.
+     */
+    void exportIcs(Long organizationId, LocalDate from, LocalDate to, OutputStream out) throws IOException;
+
+    /**
+     * Event fee revenue of an organization for a calendar year, by month of the event and event type.
+     */
+    EventFeeRevenueDto feeRevenue(Long organizationId, int year);
 }
@@ -0,0 +1,186 @@
+package com.tbf.tcms.service.cache;
+
+import com.tbf.tcms.domain.enums.LevyStatus;
+import com.tbf.tcms.repository.LevyPaymentRepository;
+import com.tbf.tcms.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-family levy compliance for the current financial year, held in two bitsets keyed by family id
+ * ({@code known}: looked up, {@code paid}: levy PAID). Proof-of-residence checks become a bit test.
+ * Technical note: families are loaded lazily, one lookup on first use, and kept current write-through by
+ * {@code LevyServiceImpl} and the bulk import after commit. The first check for a new year replaces the
+ * bitsets, so the cache rolls over with the calendar without a restart. Every invalidation bumps a generation
+ * number; a status read from the database is only published if no invalidation happened since the read started,
+ * so a read racing the bulk import cannot re-insert the pre-import status.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LevyComplianceCache {
+
+    private final LevyPaymentRepository levyPaymentRepository;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Bumped under the year state's lock whenever a cached status is forgotten
+    private final AtomicLong generation = new AtomicLong();
+    private volatile YearState state;
+
+    /**
+     * Whether the family's levy for {@code year} is PAID. Only the newest year seen is cached;
+     * older years are answered from the database.
+     */
+    public boolean isUpToDate(long familyId, int year) {
+        YearState current = stateFor(year);
+        if (current == null || familyId < 0 || familyId > Integer.MAX_VALUE) {
+            misses.increment();
+            return queryPaid(familyId, year);
+        }
+        int bit = (int) familyId;
+        long readAt;
+        synchronized (current) {
+            if (current.known.get(bit)) {
+                hits.increment();
+                return current.paid.get(bit);
+            }
+            readAt = generation.get();
+        }
+        misses.increment();
+        boolean paid = queryPaid(familyId, year);
+        publish(current, bit, paid, readAt);
+        return paid;
+    }
+
+    /**
+     * Current generation; take it before reading the rows passed to {@link #prime}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Seed a family's status from a row the caller has just read (e.g. a lookup that joined levy_payments),
+     * sparing the first check its query. A status already known, including one written through, is kept, and
+     * nothing is seeded if a status was invalidated after {@code readAt} (see {@link #generation()}).
+     */
+    public void prime(long familyId, int year, boolean paid, long readAt) {
+        YearState current = stateFor(year);
+        if (current == null || familyId < 0 || familyId > Integer.MAX_VALUE) {
+            return;
+        }
+        publish(current, (int) familyId, paid, readAt);
+    }
+
+    /**
+     * Record a payment's new status once the surrounding transaction commits.
+     */
+    public void paymentRecorded(long familyId, int year, LevyStatus status) {
+        TransactionHooks.afterCommit(() -> apply(familyId, year, status == LevyStatus.PAID));
+    }
+
+    /**
+     * Forget a family's cached status once the surrounding transaction commits; the next check re-reads it.
+     */
+    public void invalidate(long familyId, int year) {
+        TransactionHooks.afterCommit(() -> {
+            YearState current = state;
+            if (current == null || current.year != year || familyId < 0 || familyId > Integer.MAX_VALUE) {
+                return;
+            }
+            synchronized (current) {
+                generation.incrementAndGet();
+                current.known.clear((int) familyId);
+            }
+        });
+    }
+
+    /**
+     * Drop every cached status once the surrounding transaction commits, e.g. after snapshots are rebuilt.
+     */
+    public void clear() {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                YearState current = state;
+                state = current == null ? null : new YearState(current.year);
+            }
+        });
+    }
+
+    public Stats stats() {
+        YearState current = state;
+        int cached = 0;
+        if (current != null) {
+            synchronized (current) {
+                cached = current.known.cardinality();
+            }
+        }
+        return new Stats(current == null ? null : current.year, cached, hits.sum(), misses.sum());
+    }
+
+    // A write-through may have landed while the caller read, and an invalidation may have made the read stale;
+    // either way the read is dropped
+    private void publish(YearState current, int bit, boolean paid, long readAt) {
+        synchronized (current) {
+            if (!current.known.get(bit) && generation.get() == readAt) {
+                current.known.set(bit);
+                current.paid.set(bit, paid);
+            }
+        }
+    }
+
+    private void apply(long familyId, int year, boolean paid) {
+        YearState current = state;
+        if (current == null || current.year != year || familyId < 0 || familyId > Integer.MAX_VALUE) {
+            return;
+        }
+        synchronized (current) {
+            current.known.set((int) familyId);
+            current.paid.set((int) familyId, paid);
+        }
+    }
+
+    private YearState stateFor(int year) {
+        YearState current = state;
+        if (current != null && current.year == year) {
+            return current;
+        }
+        if (current != null && current.year > year) {
+            return null;
+        }
+        synchronized (this) {
+            if (state == null || state.year < year) {
+                if (state != null) {
+                    log.info("Levy compliance cache rolling over from {} to {}", state.year, year);
+                }
+                state = new YearState(year);
+            }
+            return state.year == year ? state : null;
+        }
+    }
+
+    private boolean queryPaid(long familyId, int year) {
+        return levyPaymentRepository.findByFamilyIdAndFinancialYear(familyId, year)
+                .map(lp -> lp.getStatus() == LevyStatus.PAID)
+                .orElse(false);
+    }
+
+    private static final class YearState {
+        final int year;
+        final BitSet known = new BitSet();
+        final BitSet paid = new BitSet();
+
+        YearState(int year) {
+            this.year = year;
+        }
+    }
+
+    public record Stats(Integer year, int cachedFamilies, long hits, long misses) {
+    }
+}
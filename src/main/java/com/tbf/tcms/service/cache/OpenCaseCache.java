@@ -0,0 +1,91 @@
+package com.tbf.tcms.service.cache;
+
+import com.tbf.tcms.domain.enums.CaseStatus;
+import com.tbf.tcms.repository.DisputeCaseRepository;
+import com.tbf.tcms.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of users who are accused in at least one open dispute case.
+ * Eligibility checks (council appointment, Top 10 selection) become a hash lookup instead of a query per candidate.
+ * Technical note: the set is warmed with a single query once the application is ready and then kept in sync
+ * by {@code DisputeCaseServiceImpl} on case lifecycle transitions. Until it is warmed, checks fall back to the
+ * database (served by the partial index {@code idx_dispute_cases_accused_open}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OpenCaseCache {
+
+    /**
+     * Statuses in which a case still counts against the accused.
+     */
+    public static final List<CaseStatus> OPEN_STATUSES = List.of(
+            CaseStatus.OPEN, CaseStatus.NOTICE_1_SENT, CaseStatus.NOTICE_2_SENT, CaseStatus.NOTICE_3_SENT);
+
+    private final DisputeCaseRepository caseRepository;
+
+    private final Set<Long> accusedWithOpenCase = ConcurrentHashMap.newKeySet();
+    private final Object writeLock = new Object();
+    private volatile boolean loaded = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (writeLock) {
+            List<Long> userIds = caseRepository.findAccusedUserIdsWithStatusIn(OPEN_STATUSES);
+            accusedWithOpenCase.clear();
+            accusedWithOpenCase.addAll(userIds);
+            loaded = true;
+            log.info("Open-case cache loaded with {} accused users", userIds.size());
+        }
+    }
+
+    public boolean hasOpenCase(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (!loaded) {
+            return caseRepository.existsByAccusedUserIdAndStatusIn(userId, OPEN_STATUSES);
+        }
+        return accusedWithOpenCase.contains(userId);
+    }
+
+    /**
+     * Record that a case against the user was opened. Applied once the surrounding transaction commits.
+     */
+    public void caseOpened(Long accusedUserId) {
+        if (accusedUserId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            synchronized (writeLock) {
+                accusedWithOpenCase.add(accusedUserId);
+            }
+        });
+    }
+
+    /**
+     * Record that a case against the user left the open statuses (referred or closed).
+     * The user may still have other open cases, so membership is re-checked against the database after commit.
+     */
+    public void caseNoLongerOpen(Long accusedUserId) {
+        if (accusedUserId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            synchronized (writeLock) {
+                if (!caseRepository.existsByAccusedUserIdAndStatusIn(accusedUserId, OPEN_STATUSES)) {
+                    accusedWithOpenCase.remove(accusedUserId);
+                }
+            }
+        });
+    }
+}
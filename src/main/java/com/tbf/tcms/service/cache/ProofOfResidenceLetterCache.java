@@ -0,0 +1,161 @@
+package com.tbf.tcms.service.cache;
+
+import com.tbf.tcms.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rendered proof-of-residence letters per resident, with a strong ETag over the letter text.
+ * Technical note: an entry is only valid for the levy year it was rendered in; it is evicted after commit when
+ * the family's levy payments change ({@code LevyServiceImpl}, the payment import, snapshot rebuilds) or when
+ * the census import rewrites the family's address. Only letters for eligible residents are cached, so a repeat
+ * request (or a {@code 304} revalidation) costs a map lookup instead of resident, family and levy reads.
+ * Every eviction is stamped with a generation number; a letter rendered from reads that started before its
+ * family's last eviction is returned but not cached, so a render racing a payment cannot re-insert stale text.
+ */
+@Component
+@Slf4j
+public class ProofOfResidenceLetterCache {
+
+    static final int MAX_ENTRIES = 4096;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Map<Long, Letter> letters = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Letter> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    // Generation of each family's last eviction (guarded by letters); when an old stamp is dropped to bound the
+    // map, the floor rises to it, so renders older than the floor are not cached for any family
+    private final Map<Long, Long> evictedAt = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            if (size() > MAX_ENTRIES) {
+                floor = Math.max(floor, eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+    private long generation;
+    private long floor;
+
+    /**
+     * The cached letter for the resident if it was rendered for {@code levyYear}, otherwise null.
+     */
+    public Letter get(Long residentId, int levyYear) {
+        synchronized (letters) {
+            Letter letter = letters.get(residentId);
+            if (letter != null && letter.levyYear() == levyYear) {
+                hits.increment();
+                return letter;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Current generation; take it before reading the data a letter is rendered from and pass it to
+     * {@link #put}.
+     */
+    public long generation() {
+        synchronized (letters) {
+            return generation;
+        }
+    }
+
+    /**
+     * Cache a rendered letter, unless the family was evicted after {@code generation} was taken (the letter may
+     * then reflect data the eviction was meant to drop). The letter is returned either way.
+     */
+    public Letter put(Long residentId, Long familyId, int levyYear, String text, long generation) {
+        Letter letter = new Letter(familyId, levyYear, text, etag(text));
+        synchronized (letters) {
+            if (floor > generation || evictedAt.getOrDefault(familyId, 0L) > generation) {
+                log.debug("Letter for resident {} not cached: family {} changed while it was rendered",
+                        residentId, familyId);
+                return letter;
+            }
+            letters.put(residentId, letter);
+        }
+        return letter;
+    }
+
+    /**
+     * Drop the letters of every member of the family once the surrounding transaction commits.
+     */
+    public void evictFamily(Long familyId) {
+        if (familyId != null) {
+            evictFamilies(Set.of(familyId));
+        }
+    }
+
+    /**
+     * Bulk form of {@link #evictFamily(Long)}: one pass over the cache for the whole set.
+     */
+    public void evictFamilies(Set<Long> familyIds) {
+        if (familyIds.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            synchronized (letters) {
+                long stamp = ++generation;
+                // Re-inserted so the map stays in stamp order and the eldest entry is the oldest stamp
+                familyIds.forEach(id -> {
+                    evictedAt.remove(id);
+                    evictedAt.put(id, stamp);
+                });
+                letters.values().removeIf(l -> familyIds.contains(l.familyId()));
+            }
+        });
+    }
+
+    /**
+     * Drop every cached letter once the surrounding transaction commits.
+     */
+    public void clear() {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (letters) {
+                floor = ++generation;
+                evictedAt.clear();
+                letters.clear();
+            }
+            log.debug("Proof-of-residence letter cache cleared");
+        });
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (letters) {
+            size = letters.size();
+        }
+        return new Stats(size, hits.sum(), misses.sum());
+    }
+
+    static String etag(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Letter(Long familyId, int levyYear, String text, String etag) {
+    }
+
+    public record Stats(int cachedLetters, long hits, long misses) {
+    }
+}
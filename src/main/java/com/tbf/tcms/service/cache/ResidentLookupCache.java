@@ -0,0 +1,104 @@
+package com.tbf.tcms.service.cache;
+
+import com.tbf.tcms.repository.projection.ResidentLookupView;
+import com.tbf.tcms.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Small read-through cache of counter lookups (normalized identity number or phone key to matching residents).
+ * Technical note: an access-ordered map capped at {@link #MAX_ENTRIES} keeps the residents currently queued at
+ * the counter; entries expire after {@link #TTL} and the whole cache is dropped after a census import. Empty
+ * results are not cached, so a resident registered moments ago is found on the next try. A lookup loaded while the
+ * cache was cleared is returned but not cached, so a read racing an import cannot re-insert pre-import rows.
+ * Levy status is not
+ * taken from here; callers read it from {@link LevyComplianceCache}, which is kept current write-through.
+ */
+@Component
+@Slf4j
+public class ResidentLookupCache {
+
+    static final int MAX_ENTRIES = 2048;
+    static final Duration TTL = Duration.ofMinutes(5);
+
+    private final LongSupplier nanoTime;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    // Bumped by every clear (guarded by entries)
+    private long generation;
+
+    public ResidentLookupCache() {
+        this(System::nanoTime);
+    }
+
+    ResidentLookupCache(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Cached residents for {@code key}, loading (outside the lock) and caching them on a miss.
+     */
+    public List<ResidentLookupView> get(String key, Function<String, List<ResidentLookupView>> loader) {
+        long now = nanoTime.getAsLong();
+        long loadedIn;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt() < TTL.toNanos()) {
+                hits.increment();
+                return entry.residents();
+            }
+            loadedIn = generation;
+        }
+        misses.increment();
+        List<ResidentLookupView> residents = List.copyOf(loader.apply(key));
+        if (!residents.isEmpty()) {
+            synchronized (entries) {
+                if (generation == loadedIn) {
+                    entries.put(key, new Entry(residents, now));
+                }
+            }
+        }
+        return residents;
+    }
+
+    /**
+     * Drop every cached lookup once the surrounding transaction commits, e.g. after residents were imported.
+     */
+    public void clear() {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (entries) {
+                generation++;
+                entries.clear();
+            }
+            log.debug("Resident lookup cache cleared");
+        });
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(size, hits.sum(), misses.sum());
+    }
+
+    private record Entry(List<ResidentLookupView> residents, long loadedAt) {
+    }
+
+    public record Stats(int cachedKeys, long hits, long misses) {
+    }
+}
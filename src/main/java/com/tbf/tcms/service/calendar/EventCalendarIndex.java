@@ -0,0 +1,169 @@
+package com.tbf.tcms.service.calendar;
+
+import com.tbf.tcms.repository.VillageEventRepository;
+import com.tbf.tcms.repository.projection.EventBookingView;
+import com.tbf.tcms.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of location bookings from today on, one date-ordered map per organization.
+ * Technical note: events occupy whole days, so each organization's bookings are a {@link TreeMap} from day to the
+ * bookings on it; a conflict check is one map lookup and a range query is a {@code subMap} walk. A new event
+ * reserves its slot under the organization's lock before it is saved, so two concurrent requests cannot book the
+ * same location for the same day; the reservation is released if the transaction rolls back. Past days are pruned
+ * as new bookings arrive. The index is per instance: with several nodes, double bookings made on different nodes
+ * within one commit of each other are not caught.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventCalendarIndex {
+
+    private final VillageEventRepository villageEventRepository;
+
+    private final Map<Long, Calendar> calendars = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<EventBookingView> rows = villageEventRepository.findBookingsFrom(LocalDate.now());
+        calendars.clear();
+        for (EventBookingView row : rows) {
+            calendar(row.getOrganizationId()).add(
+                    new Booking(row.getId(), row.getEventDate(), locationKey(row.getLocation()), row.getName()));
+        }
+        log.info("Event calendar index loaded: {} bookings across {} organizations", rows.size(), calendars.size());
+    }
+
+    /**
+     * Reserve a location for a day, or fail with the event already holding it. The reservation is released
+     * when the current transaction rolls back; call {@link Reservation#confirm(Long)} once the event has an id.
+     *
+     * @throws IllegalStateException when the location is already booked that day
+     */
+    public Reservation reserve(Long organizationId, LocalDate date, String location, String eventName) {
+        String key = locationKey(location);
+        Calendar calendar = calendar(organizationId);
+        Booking booking = new Booking(null, date, key, eventName);
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(today)) {
+            // Past days are not indexed; nothing left to clash with
+            return new Reservation(booking);
+        }
+        synchronized (calendar) {
+            calendar.prune(today);
+            Booking existing = calendar.find(date, key);
+            if (existing != null) {
+                throw new IllegalStateException(String.format("%s is already booked on %s for '%s'",
+                        location.trim(), date, existing.eventName()));
+            }
+            calendar.add(booking);
+        }
+        TransactionHooks.afterRollback(() -> {
+            synchronized (calendar) {
+                calendar.remove(booking);
+            }
+        });
+        return new Reservation(booking);
+    }
+
+    /**
+     * Locations are compared case-insensitively with whitespace collapsed, so "Main  Hall" and "main hall" clash.
+     */
+    static String locationKey(String location) {
+        return location == null ? "" : location.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private Calendar calendar(Long organizationId) {
+        return calendars.computeIfAbsent(organizationId, id -> new Calendar());
+    }
+
+    /**
+     * One event's hold on a location for a day; {@code eventId} is null until the event is saved.
+     */
+    public static final class Booking {
+        private volatile Long eventId;
+        private final LocalDate date;
+        private final String locationKey;
+        private final String eventName;
+
+        Booking(Long eventId, LocalDate date, String locationKey, String eventName) {
+            this.eventId = eventId;
+            this.date = date;
+            this.locationKey = locationKey;
+            this.eventName = eventName;
+        }
+
+        public Long eventId() {
+            return eventId;
+        }
+
+        public LocalDate date() {
+            return date;
+        }
+
+        public String locationKey() {
+            return locationKey;
+        }
+
+        public String eventName() {
+            return eventName;
+        }
+    }
+
+    public static final class Reservation {
+        private final Booking booking;
+
+        private Reservation(Booking booking) {
+            this.booking = booking;
+        }
+
+        public void confirm(Long eventId) {
+            booking.eventId = eventId;
+        }
+    }
+
+    // Guarded by its own monitor
+    private static final class Calendar {
+        private final NavigableMap<LocalDate, List<Booking>> days = new TreeMap<>();
+
+        void add(Booking booking) {
+            days.computeIfAbsent(booking.date(), d -> new ArrayList<>(2)).add(booking);
+        }
+
+        void remove(Booking booking) {
+            List<Booking> day = days.get(booking.date());
+            if (day != null && day.remove(booking) && day.isEmpty()) {
+                days.remove(booking.date());
+            }
+        }
+
+        Booking find(LocalDate date, String locationKey) {
+            List<Booking> day = days.get(date);
+            if (day != null) {
+                for (Booking b : day) {
+                    if (b.locationKey().equals(locationKey)) {
+                        return b;
+                    }
+                }
+            }
+            return null;
+        }
+
+        void prune(LocalDate today) {
+            days.headMap(today, false).clear();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.tbf.tcms.service.document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Text template with {@code {placeholder}} fields, parsed once into literal and field segments
+ * so rendering is a single pass of appends.
+ */
+final class DocumentTemplate {
+
+    private final String[] literals;
+    private final String[] fields;
+
+    private DocumentTemplate(String[] literals, String[] fields) {
+        this.literals = literals;
+        this.fields = fields;
+    }
+
+    static DocumentTemplate compile(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = text.indexOf('{', pos);
+            int close = open < 0 ? -1 : text.indexOf('}', open);
+            if (open < 0 || close < 0) {
+                literals.add(text.substring(pos));
+                break;
+            }
+            literals.add(text.substring(pos, open));
+            fields.add(text.substring(open + 1, close));
+            pos = close + 1;
+        }
+        return new DocumentTemplate(literals.toArray(new String[0]), fields.toArray(new String[0]));
+    }
+
+    /**
+     * Substitute the fields; missing values render as empty text.
+     */
+    String render(Map<String, String> values) {
+        StringBuilder sb = new StringBuilder(128);
+        for (int i = 0; i < fields.length; i++) {
+            sb.append(literals[i]);
+            String value = values.get(fields[i]);
+            if (value != null) {
+                sb.append(value);
+            }
+        }
+        return sb.append(literals[fields.length]).toString();
+    }
+}
@@ -0,0 +1,137 @@
+package com.tbf.tcms.service.document;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders proof-of-residence letters as single-page A4 PDFs.
+ * Technical note: the letter layout is compiled once at startup: text templates are pre-parsed and the
+ * fixed PDF objects (catalog, page tree, page, fonts) are serialized once with their xref offsets.
+ * Rendering a letter only builds the page's content stream and the trailing cross-reference table,
+ * using the standard Helvetica fonts so no font data is embedded.
+ */
+@Component
+public class ProofOfResidencePdfRenderer {
+
+    static final String TITLE = "PROOF OF RESIDENCE";
+
+    private static final Charset WIN_ANSI = Charset.forName("windows-1252");
+    private static final int LEFT_MARGIN = 72;
+    private static final int TOP = 770;
+    private static final int WRAP_COLUMNS = 88;
+
+    private static final List<Block> LAYOUT = List.of(
+            new Block("F2", 18, 0, DocumentTemplate.compile(TITLE)),
+            new Block("F2", 12, 28, DocumentTemplate.compile("{organization}")),
+            new Block("F1", 11, 18, DocumentTemplate.compile("Date of issue: {issueDate}")),
+            new Block("F1", 11, 36, DocumentTemplate.compile(
+                    "This confirms that {name}, identity number {idNumber}, resides at {address} and is a member of "
+                            + "household {familyReference}, which is in good standing with the traditional council.")),
+            new Block("F1", 11, 30, DocumentTemplate.compile("This letter is valid until {expiresOn}.")),
+            new Block("F2", 12, 36, DocumentTemplate.compile("Verification code: {code}")),
+            new Block("F1", 10, 18, DocumentTemplate.compile("Verify this letter at {verifyUrl}"))
+    );
+
+    private static final byte[] PREFIX;
+    private static final long[] PREFIX_OFFSETS;
+
+    static {
+        String[] objects = {
+                "1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n",
+                "2 0 obj\n<< /Type /Pages /Kids [3 0 R] /Count 1 >>\nendobj\n",
+                "3 0 obj\n<< /Type /Page /Parent 2 0 R /MediaBox [0 0 595 842] "
+                        + "/Resources << /Font << /F1 4 0 R /F2 5 0 R >> >> /Contents 6 0 R >>\nendobj\n",
+                "4 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n",
+                "5 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>\nendobj\n"
+        };
+        StringBuilder sb = new StringBuilder("%PDF-1.4\n");
+        PREFIX_OFFSETS = new long[objects.length];
+        for (int i = 0; i < objects.length; i++) {
+            PREFIX_OFFSETS[i] = sb.length();
+            sb.append(objects[i]);
+        }
+        PREFIX = sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Render a letter. Expected values: organization, issueDate, name, idNumber, address, familyReference,
+     * expiresOn, code and verifyUrl.
+     */
+    public byte[] render(Map<String, String> values) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+        write(content, "BT\n");
+        write(content, LEFT_MARGIN + " " + TOP + " Td\n");
+        for (Block block : LAYOUT) {
+            write(content, "/" + block.font() + " " + block.size() + " Tf\n");
+            write(content, "0 -" + block.spacingBefore() + " Td\n");
+            List<String> lines = wrap(block.template().render(values));
+            for (int i = 0; i < lines.size(); i++) {
+                if (i > 0) {
+                    write(content, "0 -" + Math.round(block.size() * 1.4) + " Td\n");
+                }
+                content.writeBytes(("(" + escape(lines.get(i)) + ") Tj\n").getBytes(WIN_ANSI));
+            }
+        }
+        write(content, "ET\n");
+        byte[] stream = content.toByteArray();
+
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream(PREFIX.length + stream.length + 512);
+        pdf.writeBytes(PREFIX);
+        long contentOffset = pdf.size();
+        write(pdf, "6 0 obj\n<< /Length " + stream.length + " >>\nstream\n");
+        pdf.writeBytes(stream);
+        write(pdf, "endstream\nendobj\n");
+
+        long xrefOffset = pdf.size();
+        StringBuilder xref = new StringBuilder("xref\n0 7\n0000000000 65535 f \n");
+        for (long offset : PREFIX_OFFSETS) {
+            xref.append(String.format("%010d 00000 n \n", offset));
+        }
+        xref.append(String.format("%010d 00000 n \n", contentOffset));
+        xref.append("trailer\n<< /Size 7 /Root 1 0 R >>\nstartxref\n").append(xrefOffset).append("\n%%EOF\n");
+        write(pdf, xref.toString());
+        return pdf.toByteArray();
+    }
+
+    private static List<String> wrap(String text) {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            if (line.length() > 0 && line.length() + 1 + word.length() > WRAP_COLUMNS) {
+                lines.add(line.toString());
+                line.setLength(0);
+            }
+            if (line.length() > 0) {
+                line.append(' ');
+            }
+            line.append(word);
+        }
+        lines.add(line.toString());
+        return lines;
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' || c == '(' || c == ')') {
+                sb.append('\\');
+            }
+            sb.append(c < 0x20 ? ' ' : c);
+        }
+        return sb.toString();
+    }
+
+    private static void write(ByteArrayOutputStream out, String ascii) {
+        out.writeBytes(ascii.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private record Block(String font, int size, int spacingBefore, DocumentTemplate template) {
+    }
+}
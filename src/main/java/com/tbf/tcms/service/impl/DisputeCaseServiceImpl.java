@@ -10,6 +10,8 @@ import com.tbf.tcms.repository.OrganizationRepository;
 import com.tbf.tcms.repository.RoleRepository;
 import com.tbf.tcms.repository.UserRepository;
 import com.tbf.tcms.service.DisputeCaseService;
+import com.tbf.tcms.service.cache.OpenCaseCache;
+import com.tbf.tcms.service.outbox.OutboxPublisher;
 import com.tbf.tcms.web.dto.PageResponse;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +22,9 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -28,10 +32,14 @@ import java.util.List;
 @Slf4j
 public class DisputeCaseServiceImpl implements DisputeCaseService {
 
+    static final String NOTICE_TOPIC = "dispute-case.notice";
+
     private final DisputeCaseRepository caseRepository;
     private final UserRepository userRepository;
     private final OrganizationRepository orgRepository;
     private final RoleRepository roleRepository;
+    private final OpenCaseCache openCaseCache;
+    private final OutboxPublisher outboxPublisher;
 
     /**
      * Open a new dispute case by a complainant against an accused in a specific organization.
@@ -53,6 +61,7 @@ public class DisputeCaseServiceImpl implements DisputeCaseService {
         newCase.setOpenedDate(LocalDate.now());
 
         DisputeCase saved = caseRepository.save(newCase);
+        openCaseCache.caseOpened(accusedUserId);
         log.info("Dispute case {} opened (status: {})", saved.getId(), saved.getStatus());
         return saved;
     }
@@ -76,6 +85,7 @@ public class DisputeCaseServiceImpl implements DisputeCaseService {
     public DisputeCase sendNotice(Long caseId) {
         log.info("Sending notice for case {}", caseId);
         DisputeCase c = caseRepository.findById(caseId).orElseThrow();
+        boolean wasOpen = c.getStatus() != null && OpenCaseCache.OPEN_STATUSES.contains(c.getStatus());
 
         c.setNoticesSent(c.getNoticesSent() + 1);
 
@@ -87,6 +97,20 @@ public class DisputeCaseServiceImpl implements DisputeCaseService {
         });
 
         DisputeCase saved = caseRepository.save(c);
+        boolean isOpen = OpenCaseCache.OPEN_STATUSES.contains(saved.getStatus());
+        if (wasOpen && !isOpen) {
+            openCaseCache.caseNoLongerOpen(accusedId(saved));
+        } else if (!wasOpen && isOpen) {
+            openCaseCache.caseOpened(accusedId(saved));
+        }
+        // The accused is notified from the outbox once this transaction commits
+        Map<String, Object> notice = new LinkedHashMap<>();
+        notice.put("caseId", saved.getId());
+        notice.put("accusedUserId", accusedId(saved));
+        notice.put("organizationId", saved.getOrganization() != null ? saved.getOrganization().getId() : null);
+        notice.put("noticeNumber", saved.getNoticesSent());
+        notice.put("status", saved.getStatus());
+        outboxPublisher.publish(NOTICE_TOPIC, "DisputeCase", saved.getId(), notice);
         log.info("Notice sent for case {} (count: {}, status: {})", saved.getId(), saved.getNoticesSent(), saved.getStatus());
         return saved;
     }
@@ -146,10 +170,15 @@ public class DisputeCaseServiceImpl implements DisputeCaseService {
         c.setStatus(CaseStatus.CLOSED);
         c.setClosedDate(LocalDate.now());
         DisputeCase saved = caseRepository.save(c);
+        openCaseCache.caseNoLongerOpen(accusedId(saved));
         log.info("Case {} closed on {}", saved.getId(), saved.getClosedDate());
         return saved;
     }
 
+    private Long accusedId(DisputeCase c) {
+        return c.getAccusedUser() == null ? null : c.getAccusedUser().getId();
+    }
+
     // ----- Pagination APIs -----
     @Override
     public PageResponse<DisputeCase> findAll(Pageable pageable) {
@@ -0,0 +1,98 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.StoredDocument;
+import com.tbf.tcms.repository.StoredDocumentRepository;
+import com.tbf.tcms.service.DocumentService;
+import com.tbf.tcms.service.storage.DocumentStorage;
+import com.tbf.tcms.web.dto.document.DocumentDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentServiceImpl implements DocumentService {
+
+    // Served back inline, so anything a browser could execute (HTML, SVG) is refused
+    static final Set<String> ALLOWED_CONTENT_TYPES = Set.of("application/pdf", "image/jpeg", "image/png");
+
+    private final DocumentStorage documentStorage;
+    private final StoredDocumentRepository storedDocumentRepository;
+
+    @Value("${tcms.documents.max-bytes:10485760}")
+    private long maxBytes = 10L * 1024 * 1024;
+
+    /**
+     * Technical note: the upload is hashed while it streams into storage, so neither the file nor a copy of it
+     * is held in memory; the metadata row is an {@code INSERT ... ON CONFLICT DO NOTHING} on the hash.
+     */
+    @Override
+    @Transactional
+    public DocumentDto upload(InputStream content, String contentType) throws IOException {
+        String type = normalizeContentType(contentType);
+        if (!ALLOWED_CONTENT_TYPES.contains(type)) {
+            throw new IllegalArgumentException("Documents must be one of " + ALLOWED_CONTENT_TYPES);
+        }
+        DocumentStorage.StoredContent stored = documentStorage.store(content, maxBytes);
+        storedDocumentRepository.insertIfAbsent(stored.sha256(), stored.size(), type);
+        log.info("Document {} uploaded ({} bytes, {}){}", stored.sha256(), stored.size(), type,
+                stored.created() ? "" : ", identical content already stored");
+        DocumentDto dto = toDto(stored.sha256(), stored.size(), type);
+        dto.setCreated(stored.created());
+        return dto;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DocumentDto get(String sha256) {
+        if (!DocumentStorage.isValidKey(sha256)) {
+            throw new ResourceNotFoundException("Document not found: " + sha256);
+        }
+        StoredDocument doc = storedDocumentRepository.findById(sha256)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found: " + sha256));
+        return toDto(doc.getSha256(), doc.getSizeBytes(), doc.getContentType());
+    }
+
+    @Override
+    public void transferTo(String sha256, long position, long count, WritableByteChannel target) throws IOException {
+        DocumentStorage.Content content = documentStorage.open(sha256)
+                .orElseThrow(() -> new ResourceNotFoundException("Document content missing: " + sha256));
+        try (content) {
+            content.transferTo(position, count, target);
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String sha256) {
+        return documentStorage.localFile(sha256);
+    }
+
+    private DocumentDto toDto(String sha256, long size, String contentType) {
+        DocumentDto dto = new DocumentDto();
+        dto.setSha256(sha256);
+        dto.setSize(size);
+        dto.setContentType(contentType);
+        dto.setUrl(URL_PREFIX + sha256);
+        return dto;
+    }
+
+    private String normalizeContentType(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        int semicolon = contentType.indexOf(';');
+        return (semicolon >= 0 ? contentType.substring(0, semicolon) : contentType).trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,72 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.enums.LevyStatus;
+import com.tbf.tcms.repository.FamilyRepository;
+import com.tbf.tcms.repository.LevyPaymentRepository;
+import com.tbf.tcms.repository.projection.HouseholdRowView;
+import com.tbf.tcms.repository.projection.LevyYearView;
+import com.tbf.tcms.service.FamilyService;
+import com.tbf.tcms.web.dto.family.HouseholdDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FamilyServiceImpl implements FamilyService {
+
+    static final int MAX_HISTORY_YEARS = 10;
+
+    private final FamilyRepository familyRepository;
+    private final LevyPaymentRepository levyPaymentRepository;
+
+    /**
+     * Technical note: two statements, whatever the household size. The first reads the family, its organization
+     * and all residents as flat rows; the second generates the requested years in the database and joins the
+     * levy schedule and snapshots to them. No entity is loaded, so the eager {@code Resident.family} and the lazy
+     * {@code Family.residents} never fire.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public HouseholdDto getHousehold(Long familyId, int years) {
+        if (years < 1 || years > MAX_HISTORY_YEARS) {
+            throw new IllegalArgumentException("years must be between 1 and " + MAX_HISTORY_YEARS);
+        }
+        List<HouseholdRowView> rows = familyRepository.findHouseholdRows(familyId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Family not found with id: " + familyId);
+        }
+        HouseholdRowView first = rows.get(0);
+        HouseholdDto dto = new HouseholdDto();
+        dto.setFamilyId(first.getFamilyId());
+        dto.setReferenceNumber(first.getReferenceNumber());
+        dto.setAddress(first.getAddress());
+        dto.setOrganizationId(first.getOrganizationId());
+        dto.setOrganizationName(first.getOrganizationName());
+        for (HouseholdRowView r : rows) {
+            if (r.getResidentId() != null) {
+                dto.getResidents().add(new HouseholdDto.Member(r.getResidentId(), r.getFirstName(), r.getLastName(),
+                        r.getIdNumber(), r.getPhoneNumber(), r.getEmail(), Boolean.TRUE.equals(r.getHeadOfHousehold())));
+            }
+        }
+
+        int currentYear = LocalDate.now().getYear();
+        for (LevyYearView y : levyPaymentRepository.findLevyHistory(familyId, currentYear - years + 1, currentYear,
+                LevyServiceImpl.DEFAULT_ANNUAL_LEVY)) {
+            BigDecimal paid = y.getAmountPaid() == null ? BigDecimal.ZERO : y.getAmountPaid();
+            dto.getLevies().add(new HouseholdDto.LevyYear(y.getYear(), y.getAmountDue(), paid,
+                    y.getAmountDue().subtract(paid).max(BigDecimal.ZERO),
+                    y.getStatus() == null ? LevyStatus.PENDING : LevyStatus.valueOf(y.getStatus()),
+                    y.getPaymentDate()));
+        }
+        log.debug("Household {}: {} residents, {} levy years", familyId, dto.getResidents().size(), dto.getLevies().size());
+        return dto;
+    }
+}
@@ -0,0 +1,377 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.FamilyRepository;
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.repository.ResidentRepository;
+import com.tbf.tcms.repository.projection.FamilyKeyView;
+import com.tbf.tcms.service.HouseholdImportService;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.service.cache.ResidentLookupCache;
+import com.tbf.tcms.util.CsvUtils;
+import com.tbf.tcms.util.ResidentKeys;
+import com.tbf.tcms.web.dto.family.HouseholdImportReport;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HouseholdImportServiceImpl implements HouseholdImportService {
+
+    static final int BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    static final int MAX_FIELD_LENGTH = 255;
+
+    static final String FAMILY_UPSERT_SQL = "INSERT INTO families (reference_number, address, registered_on, " +
+            "organization_id, created_at, updated_at, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 'import', 'import') " +
+            "ON CONFLICT (organization_id, reference_number) DO UPDATE SET " +
+            "address = COALESCE(EXCLUDED.address, families.address), " +
+            "registered_on = COALESCE(EXCLUDED.registered_on, families.registered_on), " +
+            "updated_at = EXCLUDED.updated_at, updated_by = EXCLUDED.updated_by";
+
+    static final String RESIDENT_INSERT_SQL = "INSERT INTO residents (first_name, last_name, id_number, phone_number, " +
+            "email, is_head_of_household, family_id, created_at, updated_at, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'import', 'import') " +
+            "ON CONFLICT ((UPPER(REGEXP_REPLACE(id_number, '[[:space:]-]', '', 'g')))) " +
+            "WHERE REGEXP_REPLACE(id_number, '[[:space:]-]', '', 'g') <> '' DO NOTHING";
+
+    private final OrganizationRepository organizationRepository;
+    private final FamilyRepository familyRepository;
+    private final ResidentRepository residentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ResidentLookupCache residentLookupCache;
+    private final ProofOfResidenceLetterCache letterCache;
+
+    /**
+     * Technical note: the register is streamed and residents are written in JDBC batches of {@link #BATCH_SIZE}.
+     * Per batch, one query checks identity numbers against registered residents, one resolves household reference
+     * numbers not yet seen in this run, and one batched upsert creates or refreshes those families. Identity numbers
+     * are normalized (see {@link ResidentKeys}) and deduplicated within the file through a hash set, against existing
+     * residents whatever their stored formatting, and across concurrent writers by the unique index on the normalized
+     * key ({@code ON CONFLICT DO NOTHING}); no entity is loaded per row.
+     */
+    @Override
+    @Transactional
+    public HouseholdImportReport importHouseholds(Long organizationId, InputStream register, Format format, boolean dryRun)
+            throws IOException {
+        if (organizationId == null || !organizationRepository.existsById(organizationId)) {
+            throw new ResourceNotFoundException("Organization not found with id: " + organizationId);
+        }
+        log.info("Importing households ({}) for org {} (dryRun={})", format, organizationId, dryRun);
+        Run run = new Run(organizationId, dryRun);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(register, StandardCharsets.UTF_8))) {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+        }
+        run.flush();
+        if (!dryRun) {
+            residentLookupCache.clear();
+            // Existing households may have had their address rewritten
+            letterCache.evictFamilies(run.preexistingFamilies);
+        }
+
+        HouseholdImportReport report = run.report;
+        log.info("Household import for org {}: {} rows, {} families created, {} updated, {} residents imported, {} rejected",
+                organizationId, report.getRowsRead(), report.getFamiliesCreated(), report.getFamiliesUpdated(),
+                report.getResidentsImported(), report.getRejected());
+        return report;
+    }
+
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("Census register is empty");
+        }
+        List<String> header = CsvUtils.parseLine(CsvUtils.stripBom(headerLine));
+        for (String required : List.of("referenceNumber", "firstName", "lastName", "idNumber")) {
+            if (CsvUtils.indexOf(header, required) < 0) {
+                throw new IllegalArgumentException("Census register header must include a '" + required + "' column");
+            }
+        }
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = CsvUtils.parseLine(line);
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                values.put(header.get(i).toLowerCase(Locale.ROOT), fields.get(i));
+            }
+            run.accept(lineNumber, values.get("referencenumber"), values.get("address"), values.get("registeredon"),
+                    values);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Run run) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(lineNumber == 1 ? CsvUtils.stripBom(line) : line);
+            } catch (JacksonException e) {
+                run.reject(lineNumber, null, null, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject() || !node.path("residents").isArray()) {
+                run.reject(lineNumber, null, null, "Each line must be a household object with a 'residents' array");
+                continue;
+            }
+            String reference = text(node.get("referenceNumber"));
+            String address = text(node.get("address"));
+            String registeredOn = text(node.get("registeredOn"));
+            for (JsonNode resident : node.get("residents")) {
+                Map<String, String> values = new HashMap<>();
+                for (Map.Entry<String, JsonNode> field : resident.properties()) {
+                    values.put(field.getKey().toLowerCase(Locale.ROOT), text(field.getValue()));
+                }
+                run.accept(lineNumber, reference, address, registeredOn, values);
+            }
+        }
+    }
+
+    private String text(JsonNode value) {
+        return value == null || value.isNull() ? null : value.asString();
+    }
+
+    /**
+     * State of one import: counters, deduplication sets, resolved families and the pending resident batch.
+     */
+    private final class Run {
+        private final Long organizationId;
+        private final boolean dryRun;
+        private final HouseholdImportReport report = new HouseholdImportReport();
+        private final Set<String> seenIdNumbers = new HashSet<>();
+        private final Set<String> householdsWithHead = new HashSet<>();
+        // Reference number -> family id (null in a dry run for families that would be created)
+        private final Map<String, Long> familyIds = new HashMap<>();
+        private final Set<Long> preexistingFamilies = new HashSet<>();
+        private final List<ResidentRow> batch = new ArrayList<>(BATCH_SIZE);
+        private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        Run(Long organizationId, boolean dryRun) {
+            this.organizationId = organizationId;
+            this.dryRun = dryRun;
+            report.setDryRun(dryRun);
+        }
+
+        void accept(int row, String rawReference, String rawAddress, String rawRegisteredOn, Map<String, String> values) {
+            report.setRowsRead(report.getRowsRead() + 1);
+            String reference = trimToNull(rawReference);
+            String idNumber = ResidentKeys.idNumber(values.get("idnumber"));
+            if (reference == null) {
+                reject(row, null, idNumber, "referenceNumber is required");
+                return;
+            }
+            if (idNumber == null) {
+                reject(row, reference, null, "idNumber is required");
+                return;
+            }
+            String firstName = trimToNull(values.get("firstname"));
+            String lastName = trimToNull(values.get("lastname"));
+            if (firstName == null || lastName == null) {
+                reject(row, reference, idNumber, "firstName and lastName are required");
+                return;
+            }
+            String address = trimToNull(rawAddress);
+            String phone = trimToNull(values.get("phonenumber"));
+            String email = trimToNull(values.get("email"));
+            for (String value : new String[]{reference, idNumber, firstName, lastName, address, phone, email}) {
+                if (value != null && value.length() > MAX_FIELD_LENGTH) {
+                    reject(row, reference, idNumber, "Values must be at most " + MAX_FIELD_LENGTH + " characters");
+                    return;
+                }
+            }
+            LocalDate registeredOn = null;
+            if (trimToNull(rawRegisteredOn) != null) {
+                try {
+                    registeredOn = LocalDate.parse(rawRegisteredOn.trim());
+                } catch (DateTimeParseException e) {
+                    reject(row, reference, idNumber, "registeredOn must be a date (yyyy-MM-dd)");
+                    return;
+                }
+            }
+            boolean head = Boolean.parseBoolean(trimToNull(values.get("headofhousehold")));
+
+            if (!seenIdNumbers.add(idNumber)) {
+                reject(row, reference, idNumber, "Duplicate idNumber in register");
+                return;
+            }
+            if (head && !householdsWithHead.add(reference)) {
+                reject(row, reference, idNumber, "Household " + reference + " already has a head");
+                return;
+            }
+            batch.add(new ResidentRow(row, reference, new Household(address, registeredOn), firstName, lastName,
+                    idNumber, phone, email, head));
+            if (batch.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(int row, String reference, String idNumber, String message) {
+            report.setRejected(report.getRejected() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(new HouseholdImportReport.RowError(row, reference, idNumber, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Set<String> idNumbers = new HashSet<>();
+            batch.forEach(r -> idNumbers.add(r.idNumber()));
+            Set<String> registered = new HashSet<>(residentRepository.findExistingIdNumbers(idNumbers));
+
+            resolveFamilies();
+
+            Set<Long> headed = new HashSet<>();
+            Set<Long> headCandidates = new HashSet<>();
+            for (ResidentRow r : batch) {
+                Long familyId = familyIds.get(r.reference());
+                if (r.head() && familyId != null && preexistingFamilies.contains(familyId)) {
+                    headCandidates.add(familyId);
+                }
+            }
+            if (!headCandidates.isEmpty()) {
+                headed.addAll(residentRepository.findFamilyIdsWithHead(headCandidates));
+            }
+
+            List<ResidentRow> writable = new ArrayList<>(batch.size());
+            for (ResidentRow r : batch) {
+                if (registered.contains(r.idNumber())) {
+                    reject(r.row(), r.reference(), r.idNumber(), "A resident with this idNumber is already registered");
+                } else if (r.head() && headed.contains(familyIds.get(r.reference()))) {
+                    reject(r.row(), r.reference(), r.idNumber(), "Household " + r.reference() + " already has a head");
+                } else {
+                    writable.add(r);
+                }
+            }
+            if (dryRun) {
+                report.setResidentsImported(report.getResidentsImported() + writable.size());
+            } else if (!writable.isEmpty()) {
+                int[][] counts = jdbcTemplate.batchUpdate(RESIDENT_INSERT_SQL, writable, writable.size(), (ps, r) -> {
+                    ps.setString(1, r.firstName());
+                    ps.setString(2, r.lastName());
+                    ps.setString(3, r.idNumber());
+                    ps.setString(4, r.phone());
+                    ps.setString(5, r.email());
+                    ps.setBoolean(6, r.head());
+                    ps.setLong(7, familyIds.get(r.reference()));
+                    ps.setTimestamp(8, now);
+                    ps.setTimestamp(9, now);
+                });
+                int i = 0;
+                for (int[] chunk : counts) {
+                    for (int count : chunk) {
+                        ResidentRow r = writable.get(i++);
+                        if (count == 0) {
+                            reject(r.row(), r.reference(), r.idNumber(), "A resident with this idNumber is already registered");
+                        } else if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                            report.setResidentsImported(report.getResidentsImported() + 1);
+                        }
+                    }
+                }
+            }
+            batch.clear();
+        }
+
+        /**
+         * Upsert the households first referenced in this batch and record their ids. A household spanning several
+         * batches is resolved once per run.
+         */
+        private void resolveFamilies() {
+            Map<String, Household> pending = new LinkedHashMap<>();
+            for (ResidentRow r : batch) {
+                if (!familyIds.containsKey(r.reference())) {
+                    pending.merge(r.reference(), r.household(), Household::orElse);
+                }
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            int existing = 0;
+            for (FamilyKeyView k : familyRepository.findKeysByOrganizationIdAndReferenceNumberIn(organizationId, pending.keySet())) {
+                familyIds.put(k.getReferenceNumber(), k.getId());
+                preexistingFamilies.add(k.getId());
+                existing++;
+            }
+            report.setFamiliesUpdated(report.getFamiliesUpdated() + existing);
+            report.setFamiliesCreated(report.getFamiliesCreated() + pending.size() - existing);
+            if (dryRun) {
+                pending.keySet().forEach(ref -> familyIds.putIfAbsent(ref, null));
+                return;
+            }
+            List<Map.Entry<String, Household>> upserts = new ArrayList<>(pending.entrySet());
+            jdbcTemplate.batchUpdate(FAMILY_UPSERT_SQL, upserts, upserts.size(), (ps, e) -> {
+                ps.setString(1, e.getKey());
+                ps.setString(2, e.getValue().address());
+                ps.setObject(3, e.getValue().registeredOn());
+                ps.setLong(4, organizationId);
+                ps.setTimestamp(5, now);
+                ps.setTimestamp(6, now);
+            });
+            List<String> created = pending.keySet().stream().filter(ref -> !familyIds.containsKey(ref)).toList();
+            if (!created.isEmpty()) {
+                for (FamilyKeyView k : familyRepository.findKeysByOrganizationIdAndReferenceNumberIn(organizationId, created)) {
+                    familyIds.put(k.getReferenceNumber(), k.getId());
+                }
+            }
+        }
+
+        private String trimToNull(String value) {
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    private record ResidentRow(int row, String reference, Household household, String firstName, String lastName,
+                               String idNumber, String phone, String email, boolean head) {
+    }
+
+    // Household values may be given on any of its rows; the first non-empty one wins
+    private record Household(String address, LocalDate registeredOn) {
+        Household orElse(Household next) {
+            return new Household(address != null ? address : next.address(),
+                    registeredOn != null ? registeredOn : next.registeredOn());
+        }
+    }
+}
@@ -5,19 +5,30 @@ import com.tbf.tcms.domain.Role;
 import com.tbf.tcms.domain.User;
 import com.tbf.tcms.domain.enums.StandType;
 import com.tbf.tcms.repository.LandStandRepository;
+import com.tbf.tcms.repository.LandStandRepositoryCustom;
 import com.tbf.tcms.repository.RoleRepository;
 import com.tbf.tcms.repository.UserRepository;
+import com.tbf.tcms.repository.projection.LandStandListView;
 import com.tbf.tcms.service.LandStandService;
+import com.tbf.tcms.service.StandApplicationService;
+import com.tbf.tcms.service.spatial.StandSpatialIndex;
 import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.landstand.LandStandResponseDto;
+import com.tbf.tcms.web.dto.landstand.StandLocationDto;
+import com.tbf.tcms.web.mapper.LandStandMapper;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
@@ -25,19 +36,27 @@ import java.time.LocalDate;
 @Slf4j
 public class LandStandServiceImpl implements LandStandService {
 
+    static final int MAX_NEAREST = 100;
+    static final int MAX_WITHIN = 5000;
+
     private final LandStandRepository landStandRepository;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final StandApplicationService standApplicationService;
+    private final StandSpatialIndex standSpatialIndex;
+    private final LandStandMapper landStandMapper;
 
     /**
      * Allocate a stand to a specific user.
      * Use this from administrative flows (Top 10/Council assignment) when bypassing the application queue.
-     * Technical note: We intentionally keep this low-level and perform validations in caller methods.
+     * Technical note: the stand row is locked (SELECT ... FOR UPDATE) before its state is checked, so two
+     * allocations of the same stand are serialized and the second one sees it allocated. Whoever gets the stand,
+     * the remaining applications and the legacy applicant field are cleared, since the stand is no longer open.
      */
     @Override
     public LandStand allocateStand(Long standId, Long userId) {
         log.info("Allocating stand {} to user {}", standId, userId);
-        LandStand stand = landStandRepository.findById(standId)
+        LandStand stand = landStandRepository.findByIdForUpdate(standId)
                 .orElseThrow(() -> new EntityNotFoundException("Stand not found"));
 
         if (stand.isAllocated()) {
@@ -56,20 +75,63 @@ public class LandStandServiceImpl implements LandStandService {
         stand.setAllocatedTo(applicant);
         stand.setAllocationDate(LocalDate.now());
         stand.setFeePaid(false);
+        stand.setApplicant(null);
+        stand.setApplicationDate(null);
+        standApplicationService.clearQueue(standId);
 
         LandStand saved = landStandRepository.save(stand);
+        standSpatialIndex.standAllocated(saved.getId());
         log.info("Stand {} allocated to user {}", saved.getStandNumber(), userId);
         return saved;
     }
 
+    /**
+     * Allocate a stand to the applicant at the head of its queue.
+     * Technical note: the stand row is locked before the queue is touched, so concurrent calls for one stand run
+     * one after the other and the second fails on the allocated stand without popping anyone. The head is popped
+     * in one statement within this transaction, so a failed allocation (e.g., organization mismatch) rolls the
+     * application back into the queue.
+     */
+    @Override
+    public LandStand allocateToNextApplicant(Long standId) {
+        log.info("Allocating stand {} to next applicant in queue", standId);
+        LandStand stand = landStandRepository.findByIdForUpdate(standId)
+                .orElseThrow(() -> new EntityNotFoundException("Stand not found"));
+        if (stand.isAllocated()) {
+            throw new IllegalStateException("This stand is already allocated");
+        }
+        Long applicantId = standApplicationService.popHead(standId)
+                .orElseThrow(() -> new IllegalStateException("No pending applications for this stand"));
+        return allocateStand(standId, applicantId);
+    }
+
+    /**
+     * Allocate the next free stand of a type in an organization.
+     * Technical note: the stand row is claimed with FOR UPDATE SKIP LOCKED, so concurrent callers never wait on or
+     * receive the same stand and no retry is needed. The lock is held until this transaction commits.
+     */
+    @Override
+    public LandStand allocateNextAvailable(Long organizationId, StandType type, Long userId) {
+        log.info("Allocating next available {} stand in org {} to user {}", type, organizationId, userId);
+        if (type == null) {
+            throw new IllegalArgumentException("Stand type is required");
+        }
+        LandStand stand = landStandRepository.lockNextAvailable(organizationId, type.name())
+                .orElseThrow(() -> new IllegalStateException("No unallocated " + type + " stands available"));
+        return allocateStand(stand.getId(), userId);
+    }
+
     /**
      * Allow a regular user to apply for a stand. No allocation is performed here.
-     * The Top 10 may later review and allocate the stand.
+     * The application is appended to the stand's FIFO queue; the Top 10 may later review and allocate the stand.
+     * The stand's applicant field keeps the first applicant for backwards compatibility.
+     * Technical note: the stand row is locked like in allocation, so an application cannot interleave with an
+     * allocation or another first application of the same stand.
      */
     @Override
     public LandStand applyForStand(Long standId, Long userId) {
         log.info("User {} applying for stand {}", userId, standId);
-        LandStand stand = landStandRepository.findById(standId)
+        LandStand stand = landStandRepository.findByIdForUpdate(standId)
                 .orElseThrow(() -> new EntityNotFoundException("Stand not found"));
         if (stand.isAllocated()) {
             throw new IllegalStateException("Stand already allocated");
@@ -79,6 +141,11 @@ public class LandStandServiceImpl implements LandStandService {
                 && !stand.getOrganization().getId().equals(user.getOrganization().getId())) {
             throw new IllegalArgumentException("User and stand must belong to the same organization");
         }
+        standApplicationService.enqueue(stand, user);
+        if (stand.getApplicant() != null) {
+            log.info("Application queued: user {} for stand {}", userId, stand.getStandNumber());
+            return stand;
+        }
         stand.setApplicant(user);
         stand.setApplicationDate(LocalDate.now());
         LandStand saved = landStandRepository.save(stand);
@@ -99,8 +166,8 @@ public class LandStandServiceImpl implements LandStandService {
         if (!acting.getRoles().contains(councilRole)) {
             throw new IllegalArgumentException("Only council members can assign stands directly");
         }
-        // Must be within their organization
-        LandStand stand = landStandRepository.findById(standId)
+        // Must be within their organization; the stand stays locked through the allocation below
+        LandStand stand = landStandRepository.findByIdForUpdate(standId)
                 .orElseThrow(() -> new EntityNotFoundException("Stand not found"));
         if (stand.isAllocated()) {
             throw new IllegalStateException("This stand is already allocated");
@@ -131,6 +198,57 @@ public class LandStandServiceImpl implements LandStandService {
         return saved;
     }
 
+    /**
+     * Record the surveyed location of a stand. The spatial index is refreshed after commit.
+     */
+    @Override
+    public LandStand updateLocation(Long standId, double latitude, double longitude) {
+        validateCoordinates(latitude, longitude);
+        LandStand stand = landStandRepository.findById(standId)
+                .orElseThrow(() -> new EntityNotFoundException("Stand not found"));
+        stand.setLatitude(latitude);
+        stand.setLongitude(longitude);
+        LandStand saved = landStandRepository.save(stand);
+        standSpatialIndex.standLocated(saved);
+        log.info("Location recorded for stand {}: {}, {}", saved.getStandNumber(), latitude, longitude);
+        return saved;
+    }
+
+    /**
+     * Example: "free residential stands near the school". Served from the in-memory R-tree, no database round trip.
+     */
+    @Override
+    public List<StandLocationDto> findNearestAvailable(Long organizationId, double latitude, double longitude,
+                                                       StandType type, int k) {
+        validateCoordinates(latitude, longitude);
+        if (k < 1 || k > MAX_NEAREST) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_NEAREST);
+        }
+        return standSpatialIndex.nearest(organizationId, latitude, longitude, k, type, false);
+    }
+
+    @Override
+    public List<StandLocationDto> findWithin(Long organizationId, double minLatitude, double minLongitude,
+                                             double maxLatitude, double maxLongitude,
+                                             Boolean allocated, StandType type, int limit) {
+        validateCoordinates(minLatitude, minLongitude);
+        validateCoordinates(maxLatitude, maxLongitude);
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("Bounding box minimums must not exceed maximums");
+        }
+        if (limit < 1 || limit > MAX_WITHIN) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_WITHIN);
+        }
+        return standSpatialIndex.within(organizationId, minLatitude, minLongitude, maxLatitude, maxLongitude,
+                allocated, type, limit);
+    }
+
+    private void validateCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordinates out of range");
+        }
+    }
+
     // ----- Pagination APIs -----
     @Override
     public PageResponse<LandStand> findAll(Pageable pageable) {
@@ -157,29 +275,22 @@ public class LandStandServiceImpl implements LandStandService {
     }
 
     @Override
-    public PageResponse<LandStand> search(Long organizationId, Boolean allocated, StandType type, Pageable pageable) {
-        Page<LandStand> page;
-        boolean hasOrg = organizationId != null;
-        boolean hasAllocated = allocated != null;
-        boolean hasType = type != null;
-
-        if (hasOrg && hasAllocated && hasType) {
-            page = landStandRepository.findByOrganizationIdAndAllocatedAndType(organizationId, allocated, type, pageable);
-        } else if (hasOrg && hasAllocated) {
-            page = landStandRepository.findByOrganizationIdAndAllocated(organizationId, allocated, pageable);
-        } else if (hasOrg && hasType) {
-            page = landStandRepository.findByOrganizationIdAndType(organizationId, type, pageable);
-        } else if (hasOrg) {
-            page = landStandRepository.findByOrganizationId(organizationId, pageable);
-        } else if (hasAllocated && hasType) {
-            page = landStandRepository.findByAllocatedAndType(allocated, type, pageable);
-        } else if (hasAllocated) {
-            page = landStandRepository.findByAllocated(allocated, pageable);
-        } else if (hasType) {
-            page = landStandRepository.findByType(type, pageable);
-        } else {
-            page = landStandRepository.findAll(pageable);
+    public PageResponse<LandStandResponseDto> search(Long organizationId, Boolean allocated, StandType type,
+                                                     Set<String> fields, Pageable pageable) {
+        Set<String> selected = fields == null || fields.isEmpty() ? LandStandRepositoryCustom.LISTING_FIELDS : fields;
+        for (String field : selected) {
+            if (!LandStandRepositoryCustom.LISTING_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field '" + field + "'; allowed: "
+                        + new TreeSet<>(LandStandRepositoryCustom.LISTING_FIELDS));
+            }
         }
-        return PageResponse.from(page);
+        for (Sort.Order order : pageable.getSort()) {
+            if (!LandStandRepositoryCustom.LISTING_FIELDS.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Unknown sort property '" + order.getProperty() + "'; allowed: "
+                        + new TreeSet<>(LandStandRepositoryCustom.LISTING_FIELDS));
+            }
+        }
+        Page<LandStandListView> page = landStandRepository.findListing(organizationId, allocated, type, selected, pageable);
+        return PageResponse.from(page.map(landStandMapper::toDto));
     }
 }
@@ -0,0 +1,105 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.service.LevyArrearsService;
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.levy.LevyArrearsDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LevyArrearsServiceImpl implements LevyArrearsService {
+
+    static final int MAX_AGING_YEARS = 10;
+
+    // One row per family and year of the window; NOT EXISTS is planned as an anti-join on uq_family_year.
+    // The report year is the window's last year, so HAVING MAX(...) = year keeps only families owing for it.
+    private static final String ARREARS_SQL = """
+            WITH arrears AS (
+                SELECT f.id AS family_id, f.reference_number, f.address,
+                       COUNT(*) AS years_unpaid,
+                       MIN(y.yr) AS oldest_unpaid_year,
+                       ARRAY_AGG(y.yr ORDER BY y.yr) AS unpaid_years,
+                       CASE MAX(y.yr) - MIN(y.yr)
+                           WHEN 0 THEN 'CURRENT'
+                           WHEN 1 THEN '1_YEAR'
+                           WHEN 2 THEN '2_YEARS'
+                           ELSE '3_PLUS_YEARS'
+                       END AS aging_bucket
+                FROM families f
+                CROSS JOIN generate_series(?, ?) AS y(yr)
+                WHERE f.organization_id = ?
+                  AND (f.registered_on IS NULL OR y.yr >= EXTRACT(YEAR FROM f.registered_on))
+                  AND NOT EXISTS (SELECT 1 FROM levy_payments p
+                                  WHERE p.family_id = f.id AND p.financial_year = y.yr AND p.status = 'PAID')
+                GROUP BY f.id, f.reference_number, f.address
+                HAVING MAX(y.yr) = ?
+            )
+            SELECT a.*, COUNT(*) OVER () AS total
+            FROM arrears a
+            ORDER BY a.reference_number, a.family_id
+            LIMIT ? OFFSET ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Technical note: the whole list, its aging and the total count come from one statement
+     * (the total via a window function), instead of one status lookup per family. A household owes no levy
+     * for years before its stated registration date ({@code families.registered_on}); when that is unknown, every
+     * year in the window counts.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<LevyArrearsDto> findArrears(Long organizationId, int year, int agingYears, Pageable pageable) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("organizationId is required");
+        }
+        if (agingYears < 0 || agingYears > MAX_AGING_YEARS) {
+            throw new IllegalArgumentException("agingYears must be between 0 and " + MAX_AGING_YEARS);
+        }
+        log.info("Computing levy arrears for org {} year {} (aging {} years)", organizationId, year, agingYears);
+
+        long[] total = {0};
+        List<LevyArrearsDto> rows = new ArrayList<>(pageable.getPageSize());
+        jdbcTemplate.query(ARREARS_SQL, (RowCallbackHandler) rs -> {
+            total[0] = rs.getLong("total");
+            rows.add(toDto(rs));
+        }, year - agingYears, year, organizationId, year, pageable.getPageSize(), pageable.getOffset());
+
+        if (rows.isEmpty() && pageable.getOffset() > 0) {
+            // Past the last page: the window count is only available alongside a row
+            jdbcTemplate.query(ARREARS_SQL, (RowCallbackHandler) rs -> {
+                total[0] = rs.getLong("total");
+            }, year - agingYears, year, organizationId, year, 1, 0);
+        }
+        return PageResponse.from(new PageImpl<>(rows, pageable, total[0]));
+    }
+
+    private LevyArrearsDto toDto(ResultSet rs) throws SQLException {
+        LevyArrearsDto dto = new LevyArrearsDto();
+        dto.setFamilyId(rs.getLong("family_id"));
+        dto.setReferenceNumber(rs.getString("reference_number"));
+        dto.setAddress(rs.getString("address"));
+        dto.setYearsUnpaid(rs.getInt("years_unpaid"));
+        dto.setOldestUnpaidYear(rs.getInt("oldest_unpaid_year"));
+        dto.setAgingBucket(rs.getString("aging_bucket"));
+        Array years = rs.getArray("unpaid_years");
+        dto.setUnpaidYears(Arrays.stream((Integer[]) years.getArray()).toList());
+        return dto;
+    }
+}
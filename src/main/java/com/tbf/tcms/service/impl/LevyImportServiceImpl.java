@@ -0,0 +1,229 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.FamilyRepository;
+import com.tbf.tcms.repository.LevyPaymentRepository;
+import com.tbf.tcms.repository.projection.FamilyOrganizationView;
+import com.tbf.tcms.repository.projection.LevyKeyView;
+import com.tbf.tcms.service.LevyImportService;
+import com.tbf.tcms.service.LevyRateService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.util.CsvUtils;
+import com.tbf.tcms.web.dto.levy.LevyImportReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LevyImportServiceImpl implements LevyImportService {
+
+    static final int BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    static final int MIN_YEAR = 1900;
+
+    static final String LEDGER_SQL = "INSERT INTO levy_transactions (family_id, financial_year, amount, transaction_date, " +
+            "reference, created_at, updated_at, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, 'import', ?, ?, 'import', 'import')";
+
+    // Relies on uq_family_year; payments accumulate on the snapshot exactly as in LevyServiceImpl.recordPayment,
+    // with the status derived from the organization's scheduled levy for the year
+    static final String UPSERT_SQL = "INSERT INTO levy_payments (family_id, financial_year, amount, payment_date, status, " +
+            "created_at, updated_at, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, CASE WHEN ? >= ? THEN 'PAID' ELSE 'PENDING' END, ?, ?, 'import', 'import') " +
+            "ON CONFLICT (family_id, financial_year) DO UPDATE SET " +
+            "amount = levy_payments.amount + EXCLUDED.amount, " +
+            "payment_date = GREATEST(levy_payments.payment_date, EXCLUDED.payment_date), " +
+            "status = CASE WHEN levy_payments.amount + EXCLUDED.amount >= ? THEN 'PAID' ELSE 'PENDING' END, " +
+            "updated_at = EXCLUDED.updated_at, updated_by = EXCLUDED.updated_by";
+
+    private final FamilyRepository familyRepository;
+    private final LevyPaymentRepository levyPaymentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final LevyComplianceCache levyComplianceCache;
+    private final ProofOfResidenceLetterCache letterCache;
+    private final LevyRateService levyRateService;
+
+    /**
+     * Technical note: rows are parsed as they stream in and written in JDBC batches of {@link #BATCH_SIZE}
+     * (ledger inserts, then snapshot upserts). Per batch, one query validates the family ids and yields their
+     * organizations (for the levy schedule), and one reads the existing (family, year) snapshot keys, which is how
+     * rows are classified as inserted or updated; no entity is loaded per payment.
+     */
+    @Override
+    @Transactional
+    public LevyImportReport importPayments(InputStream payments) throws IOException {
+        LevyImportReport report = new LevyImportReport();
+        List<PaymentRow> batch = new ArrayList<>(BATCH_SIZE);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int maxYear = LocalDate.now().getYear() + 1;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(payments, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("Payments file is empty");
+            }
+            List<String> header = CsvUtils.parseLine(CsvUtils.stripBom(headerLine));
+            int familyCol = CsvUtils.indexOf(header, "familyId");
+            int yearCol = CsvUtils.indexOf(header, "year");
+            int amountCol = CsvUtils.indexOf(header, "amount");
+            int dateCol = CsvUtils.indexOf(header, "paymentDate");
+            if (familyCol < 0 || yearCol < 0 || amountCol < 0) {
+                throw new IllegalArgumentException("Payments header must include 'familyId', 'year' and 'amount' columns");
+            }
+
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.setRowsRead(report.getRowsRead() + 1);
+                List<String> fields = CsvUtils.parseLine(line);
+
+                Long familyId;
+                Integer year;
+                try {
+                    familyId = Long.valueOf(field(fields, familyCol));
+                    year = Integer.valueOf(field(fields, yearCol));
+                } catch (NumberFormatException e) {
+                    reject(report, lineNumber, null, null, "familyId and year must be numbers");
+                    continue;
+                }
+                if (year < MIN_YEAR || year > maxYear) {
+                    reject(report, lineNumber, familyId, year, "year must be between " + MIN_YEAR + " and " + maxYear);
+                    continue;
+                }
+                BigDecimal amount;
+                try {
+                    amount = new BigDecimal(field(fields, amountCol));
+                } catch (NumberFormatException e) {
+                    amount = null;
+                }
+                if (amount == null || amount.signum() <= 0 || amount.stripTrailingZeros().scale() > 2) {
+                    reject(report, lineNumber, familyId, year, "amount must be a positive value with at most 2 decimals");
+                    continue;
+                }
+                LocalDate paymentDate;
+                String rawDate = field(fields, dateCol);
+                try {
+                    paymentDate = rawDate.isEmpty() ? LocalDate.now() : LocalDate.parse(rawDate);
+                } catch (DateTimeParseException e) {
+                    reject(report, lineNumber, familyId, year, "paymentDate must be an ISO date (yyyy-MM-dd)");
+                    continue;
+                }
+
+                batch.add(new PaymentRow(lineNumber, familyId, year, amount.setScale(2, RoundingMode.UNNECESSARY), paymentDate));
+                if (batch.size() >= BATCH_SIZE) {
+                    flush(batch, report, now);
+                }
+            }
+        }
+        flush(batch, report, now);
+        log.info("Levy payment import: {} rows, {} inserted, {} updated, {} rejected",
+                report.getRowsRead(), report.getInserted(), report.getUpdated(), report.getRejected());
+        return report;
+    }
+
+    private void flush(List<PaymentRow> batch, LevyImportReport report, Timestamp now) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Long> familyIds = new HashSet<>();
+        batch.forEach(r -> familyIds.add(r.familyId()));
+        Map<Long, Long> organizationByFamily = new HashMap<>();
+        for (FamilyOrganizationView f : familyRepository.findOrganizationsByIdIn(familyIds)) {
+            organizationByFamily.put(f.getId(), f.getOrganizationId());
+        }
+        Set<Long> knownFamilies = organizationByFamily.keySet();
+        Set<Key> existing = new HashSet<>();
+        if (!knownFamilies.isEmpty()) {
+            for (LevyKeyView k : levyPaymentRepository.findKeysByFamilyIdIn(knownFamilies)) {
+                existing.add(new Key(k.getFamilyId(), k.getFinancialYear()));
+            }
+        }
+
+        List<PaymentRow> writable = new ArrayList<>(batch.size());
+        for (PaymentRow r : batch) {
+            if (!knownFamilies.contains(r.familyId())) {
+                reject(report, r.row(), r.familyId(), r.year(), "Family " + r.familyId() + " not found");
+                continue;
+            }
+            // A key repeated within the file counts as an update of the earlier row
+            if (existing.add(new Key(r.familyId(), r.year()))) {
+                report.setInserted(report.getInserted() + 1);
+            } else {
+                report.setUpdated(report.getUpdated() + 1);
+            }
+            writable.add(r);
+        }
+        if (!writable.isEmpty()) {
+            jdbcTemplate.batchUpdate(LEDGER_SQL, writable, writable.size(), (ps, r) -> {
+                ps.setLong(1, r.familyId());
+                ps.setInt(2, r.year());
+                ps.setBigDecimal(3, r.amount());
+                ps.setDate(4, Date.valueOf(r.paymentDate()));
+                ps.setTimestamp(5, now);
+                ps.setTimestamp(6, now);
+            });
+            jdbcTemplate.batchUpdate(UPSERT_SQL, writable, writable.size(), (ps, r) -> {
+                BigDecimal due = levyRateService.amountDue(organizationByFamily.get(r.familyId()), r.year());
+                ps.setLong(1, r.familyId());
+                ps.setInt(2, r.year());
+                ps.setBigDecimal(3, r.amount());
+                ps.setDate(4, Date.valueOf(r.paymentDate()));
+                ps.setBigDecimal(5, r.amount());
+                ps.setBigDecimal(6, due);
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+                ps.setBigDecimal(9, due);
+            });
+            // The resulting status depends on earlier payments, so let the cache re-read these families
+            writable.forEach(r -> levyComplianceCache.invalidate(r.familyId(), r.year()));
+            Set<Long> paidFamilies = new HashSet<>();
+            writable.forEach(r -> paidFamilies.add(r.familyId()));
+            letterCache.evictFamilies(paidFamilies);
+        }
+        batch.clear();
+    }
+
+    private void reject(LevyImportReport report, int row, Long familyId, Integer year, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new LevyImportReport.RowError(row, familyId, year, message));
+        }
+    }
+
+    private String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : "";
+    }
+
+    private record PaymentRow(int row, long familyId, int year, BigDecimal amount, LocalDate paymentDate) {
+    }
+
+    private record Key(long familyId, int year) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.service.LevyInvoicingService;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LevyInvoicingServiceImpl implements LevyInvoicingService {
+
+    static final long CHUNK_FAMILIES = 5_000;
+    static final int MAX_PARALLELISM = 4;
+    static final int MIN_YEAR = 1900;
+
+    static final String PARTITIONS_SQL = "SELECT organization_id, MIN(id) AS min_id, MAX(id) AS max_id, COUNT(*) AS families " +
+            "FROM families WHERE organization_id IS NOT NULL GROUP BY organization_id ORDER BY organization_id";
+
+    static final String PARTITION_SQL = "SELECT organization_id, MIN(id) AS min_id, MAX(id) AS max_id, COUNT(*) AS families " +
+            "FROM families WHERE organization_id = ? GROUP BY organization_id";
+
+    // One set-based statement per chunk; idx_families_organization_id serves the range and uq_family_year
+    // turns families already invoiced into no-ops
+    static final String INVOICE_CHUNK_SQL = """
+            INSERT INTO levy_payments (family_id, financial_year, amount, payment_date, status,
+                                       created_at, updated_at, created_by, updated_by)
+            SELECT f.id, ?, 0, NULL, 'PENDING', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'invoicing', 'invoicing'
+            FROM families f
+            WHERE f.organization_id = ? AND f.id BETWEEN ? AND ?
+            ON CONFLICT (family_id, financial_year) DO NOTHING
+            """;
+
+    private final OrganizationRepository organizationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile RunState lastRun;
+
+    /**
+     * Technical note: each organization is a partition processed by one worker of a small pool, so villages are
+     * invoiced in parallel; within a partition, families are invoiced in id-range chunks of
+     * {@link #CHUNK_FAMILIES}, each one {@code INSERT ... SELECT} in its own transaction. No family row crosses
+     * into the JVM, and a failed run can simply be repeated.
+     */
+    @Override
+    public InvoicingResult openYear(int year, Long organizationId) {
+        int maxYear = LocalDate.now().getYear() + 1;
+        if (year < MIN_YEAR || year > maxYear) {
+            throw new IllegalArgumentException("year must be between " + MIN_YEAR + " and " + maxYear);
+        }
+        if (organizationId != null && !organizationRepository.existsById(organizationId)) {
+            throw new ResourceNotFoundException("Organization not found with id: " + organizationId);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A levy invoicing run is already in progress");
+        }
+        try {
+            return run(year, organizationId);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public Progress progress() {
+        RunState state = lastRun;
+        return state == null ? null : state.snapshot(running.get());
+    }
+
+    private InvoicingResult run(int year, Long organizationId) {
+        List<Partition> partitions = organizationId == null
+                ? jdbcTemplate.query(PARTITIONS_SQL, (rs, i) -> toPartition(rs))
+                : jdbcTemplate.query(PARTITION_SQL, (rs, i) -> toPartition(rs), organizationId);
+        int totalChunks = 0;
+        for (Partition p : partitions) {
+            totalChunks += p.chunks();
+        }
+        RunState state = new RunState(year, partitions.size(), totalChunks);
+        lastRun = state;
+        log.info("Opening levy year {}: {} organizations, {} chunks", year, partitions.size(), totalChunks);
+
+        int parallelism = Math.max(1, Math.min(MAX_PARALLELISM, Math.min(partitions.size(),
+                Runtime.getRuntime().availableProcessors())));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<OrganizationResult>> futures = new ArrayList<>(partitions.size());
+            for (Partition p : partitions) {
+                futures.add(pool.submit(() -> invoicePartition(p, year, tx, state)));
+            }
+            List<OrganizationResult> results = new ArrayList<>(partitions.size());
+            int invoiced = 0;
+            int families = 0;
+            for (Future<OrganizationResult> f : futures) {
+                OrganizationResult r = f.get();
+                results.add(r);
+                invoiced += r.invoiced();
+                families += r.families();
+            }
+            long elapsed = state.elapsedMillis();
+            log.info("Levy year {} opened: {} invoiced, {} already invoiced, {} organizations, {} chunks ({} threads) in {} ms",
+                    year, invoiced, families - invoiced, partitions.size(), totalChunks, parallelism, elapsed);
+            return new InvoicingResult(year, partitions.size(), totalChunks, invoiced, families - invoiced, elapsed, results);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Levy invoicing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Levy invoicing failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            state.finish();
+            pool.shutdownNow();
+        }
+    }
+
+    private OrganizationResult invoicePartition(Partition p, int year, TransactionTemplate tx, RunState state) {
+        int invoiced = 0;
+        for (long from = p.minId(); from <= p.maxId(); from += CHUNK_FAMILIES) {
+            long lo = from;
+            long hi = Math.min(p.maxId(), from + CHUNK_FAMILIES - 1);
+            Integer count = tx.execute(status -> jdbcTemplate.update(INVOICE_CHUNK_SQL, year, p.organizationId(), lo, hi));
+            int written = count == null ? 0 : count;
+            invoiced += written;
+            state.chunkDone(written);
+        }
+        int done = state.organizationDone();
+        log.info("Levy year {}: org {} invoiced {} of {} families ({}/{} organizations done)",
+                year, p.organizationId(), invoiced, p.families(), done, state.organizationsTotal);
+        return new OrganizationResult(p.organizationId(), (int) p.families(), invoiced);
+    }
+
+    private Partition toPartition(ResultSet rs) throws SQLException {
+        return new Partition(rs.getLong("organization_id"), rs.getLong("min_id"), rs.getLong("max_id"), rs.getLong("families"));
+    }
+
+    private record Partition(long organizationId, long minId, long maxId, long families) {
+        int chunks() {
+            return (int) ((maxId - minId) / CHUNK_FAMILIES + 1);
+        }
+    }
+
+    /**
+     * Counters of one run, updated by the workers and read by {@link #progress()}.
+     */
+    private static final class RunState {
+        private final int year;
+        private final int organizationsTotal;
+        private final int chunksTotal;
+        private final long started = System.currentTimeMillis();
+        private final AtomicInteger organizationsDone = new AtomicInteger();
+        private final AtomicInteger chunksDone = new AtomicInteger();
+        private final AtomicInteger invoiced = new AtomicInteger();
+        private volatile long finished;
+
+        RunState(int year, int organizationsTotal, int chunksTotal) {
+            this.year = year;
+            this.organizationsTotal = organizationsTotal;
+            this.chunksTotal = chunksTotal;
+        }
+
+        void chunkDone(int written) {
+            chunksDone.incrementAndGet();
+            invoiced.addAndGet(written);
+        }
+
+        int organizationDone() {
+            return organizationsDone.incrementAndGet();
+        }
+
+        void finish() {
+            finished = System.currentTimeMillis();
+        }
+
+        long elapsedMillis() {
+            return (finished == 0 ? System.currentTimeMillis() : finished) - started;
+        }
+
+        Progress snapshot(boolean running) {
+            return new Progress(year, running && finished == 0, organizationsTotal, organizationsDone.get(),
+                    chunksTotal, chunksDone.get(), invoiced.get(), elapsedMillis());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.service.LevyPenaltyService;
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.levy.LevyAccruedArrearsDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LevyPenaltyServiceImpl implements LevyPenaltyService {
+
+    static final int MAX_LOOKBACK_YEARS = 10;
+
+    // Families removed from the organization since the last run and outside its current id range
+    static final String CLEAR_OUTSIDE_SQL = "DELETE FROM levy_arrears WHERE organization_id = ? AND (family_id < ? OR family_id > ?)";
+
+    static final String CLEAR_CHUNK_SQL = "DELETE FROM levy_arrears WHERE organization_id = ? AND family_id BETWEEN ? AND ?";
+
+    // Families x years of the window, less what was paid; the scheduled rate (or the default) gives the amount due
+    // and the penalty, which is simple interest per full year overdue. Served by idx_families_organization_id
+    // and uq_family_year.
+    static final String ACCRUE_CHUNK_SQL = """
+            INSERT INTO levy_arrears (family_id, financial_year, organization_id, amount_due, amount_paid, outstanding,
+                                      years_overdue, penalty, total_due, computed_at)
+            SELECT d.family_id, d.yr, d.organization_id, d.amount_due, d.amount_paid, d.outstanding, d.years_overdue,
+                   ROUND(d.outstanding * d.penalty_rate * d.years_overdue, 2),
+                   d.outstanding + ROUND(d.outstanding * d.penalty_rate * d.years_overdue, 2),
+                   ?
+            FROM (
+                SELECT f.id AS family_id, f.organization_id, y.yr,
+                       COALESCE(lr.amount, ?) AS amount_due,
+                       COALESCE(p.amount, 0) AS amount_paid,
+                       COALESCE(lr.amount, ?) - COALESCE(p.amount, 0) AS outstanding,
+                       ? - y.yr AS years_overdue,
+                       COALESCE(lr.penalty_rate, ?) AS penalty_rate
+                FROM families f
+                CROSS JOIN generate_series(?, ?) AS y(yr)
+                LEFT JOIN levy_rates lr ON lr.organization_id = f.organization_id AND lr.financial_year = y.yr
+                LEFT JOIN levy_payments p ON p.family_id = f.id AND p.financial_year = y.yr
+                WHERE f.organization_id = ? AND f.id BETWEEN ? AND ?
+                  AND (f.registered_on IS NULL OR y.yr >= EXTRACT(YEAR FROM f.registered_on))
+            ) d
+            WHERE d.outstanding > 0
+            """;
+
+    static final String ACCRUED_SQL = """
+            SELECT a.family_id, f.reference_number,
+                   COUNT(*) AS years_owing, MIN(a.financial_year) AS oldest_unpaid_year,
+                   SUM(a.outstanding) AS outstanding, SUM(a.penalty) AS penalty, SUM(a.total_due) AS total_due,
+                   MAX(a.computed_at) AS computed_at,
+                   COUNT(*) OVER () AS total
+            FROM levy_arrears a
+            JOIN families f ON f.id = a.family_id
+            WHERE a.organization_id = ?
+            GROUP BY a.family_id, f.reference_number
+            ORDER BY SUM(a.total_due) DESC, a.family_id
+            LIMIT ? OFFSET ?
+            """;
+
+    private final OrganizationRepository organizationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Technical note: organizations are split into id-range chunks of
+     * {@link LevyInvoicingServiceImpl#CHUNK_FAMILIES} families (as for invoicing) and the chunks run on a small
+     * worker pool, each as a DELETE plus one {@code INSERT ... SELECT} in its own
+     * transaction. All arithmetic happens in the database, so a 200k-family run is some 40 set-based statements
+     * and readers of {@code levy_arrears} only ever see whole chunks. One run at a time per instance: overlapping
+     * runs would clear and rewrite the same chunks under each other, so a second request is rejected.
+     */
+    @Override
+    public AccrualResult accrue(int asOfYear, Long organizationId, int lookbackYears) {
+        if (lookbackYears < 0 || lookbackYears > MAX_LOOKBACK_YEARS) {
+            throw new IllegalArgumentException("lookbackYears must be between 0 and " + MAX_LOOKBACK_YEARS);
+        }
+        int maxYear = LocalDate.now().getYear() + 1;
+        if (asOfYear - lookbackYears < LevyInvoicingServiceImpl.MIN_YEAR || asOfYear > maxYear) {
+            throw new IllegalArgumentException("years must be between " + LevyInvoicingServiceImpl.MIN_YEAR + " and " + maxYear);
+        }
+        if (organizationId != null && !organizationRepository.existsById(organizationId)) {
+            throw new ResourceNotFoundException("Organization not found with id: " + organizationId);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A levy arrears accrual run is already in progress");
+        }
+        try {
+            return run(asOfYear, organizationId, lookbackYears);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private AccrualResult run(int asOfYear, Long organizationId, int lookbackYears) {
+        long started = System.currentTimeMillis();
+        List<long[]> partitions = organizationId == null
+                ? jdbcTemplate.query(LevyInvoicingServiceImpl.PARTITIONS_SQL, (rs, i) -> toPartition(rs))
+                : jdbcTemplate.query(LevyInvoicingServiceImpl.PARTITION_SQL, (rs, i) -> toPartition(rs), organizationId);
+        List<long[]> chunks = new ArrayList<>();
+        for (long[] p : partitions) {
+            jdbcTemplate.update(CLEAR_OUTSIDE_SQL, p[0], p[1], p[2]);
+            for (long from = p[1]; from <= p[2]; from += LevyInvoicingServiceImpl.CHUNK_FAMILIES) {
+                chunks.add(new long[]{p[0], from, Math.min(p[2], from + LevyInvoicingServiceImpl.CHUNK_FAMILIES - 1)});
+            }
+        }
+        log.info("Accruing levy arrears as of {} ({} years back): {} organizations, {} chunks",
+                asOfYear, lookbackYears, partitions.size(), chunks.size());
+
+        Timestamp computedAt = new Timestamp(started);
+        int parallelism = Math.max(1, Math.min(LevyInvoicingServiceImpl.MAX_PARALLELISM,
+                Runtime.getRuntime().availableProcessors()));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>(chunks.size());
+            for (long[] c : chunks) {
+                futures.add(pool.submit(() -> tx.execute(status -> {
+                    jdbcTemplate.update(CLEAR_CHUNK_SQL, c[0], c[1], c[2]);
+                    return jdbcTemplate.update(ACCRUE_CHUNK_SQL, computedAt,
+                            LevyServiceImpl.DEFAULT_ANNUAL_LEVY, LevyServiceImpl.DEFAULT_ANNUAL_LEVY, asOfYear,
+                            LevyRateServiceImpl.DEFAULT_PENALTY_RATE, asOfYear - lookbackYears, asOfYear,
+                            c[0], c[1], c[2]);
+                })));
+            }
+            int written = 0;
+            for (Future<Integer> f : futures) {
+                Integer count = f.get();
+                written += count == null ? 0 : count;
+            }
+            long elapsed = System.currentTimeMillis() - started;
+            log.info("Levy arrears accrued as of {}: {} family-years in {} chunks ({} threads) in {} ms",
+                    asOfYear, written, chunks.size(), parallelism, elapsed);
+            return new AccrualResult(asOfYear, partitions.size(), chunks.size(), written, elapsed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Levy arrears accrual interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Levy arrears accrual failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // {organization, min family id, max family id}
+    private long[] toPartition(ResultSet rs) throws SQLException {
+        return new long[]{rs.getLong("organization_id"), rs.getLong("min_id"), rs.getLong("max_id")};
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<LevyAccruedArrearsDto> findAccrued(Long organizationId, Pageable pageable) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("organizationId is required");
+        }
+        long[] total = {0};
+        List<LevyAccruedArrearsDto> rows = new ArrayList<>(pageable.getPageSize());
+        jdbcTemplate.query(ACCRUED_SQL, (RowCallbackHandler) rs -> {
+            total[0] = rs.getLong("total");
+            LevyAccruedArrearsDto dto = new LevyAccruedArrearsDto();
+            dto.setFamilyId(rs.getLong("family_id"));
+            dto.setReferenceNumber(rs.getString("reference_number"));
+            dto.setYearsOwing(rs.getInt("years_owing"));
+            dto.setOldestUnpaidYear(rs.getInt("oldest_unpaid_year"));
+            dto.setOutstanding(rs.getBigDecimal("outstanding"));
+            dto.setPenalty(rs.getBigDecimal("penalty"));
+            dto.setTotalDue(rs.getBigDecimal("total_due"));
+            Timestamp computed = rs.getTimestamp("computed_at");
+            dto.setComputedAt(computed == null ? null : computed.toLocalDateTime());
+            rows.add(dto);
+        }, organizationId, pageable.getPageSize(), pageable.getOffset());
+        return PageResponse.from(new PageImpl<>(rows, pageable, total[0]));
+    }
+}
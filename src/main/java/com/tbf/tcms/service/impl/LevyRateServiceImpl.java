@@ -0,0 +1,137 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.LevyRate;
+import com.tbf.tcms.repository.LevyRateRepository;
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.service.LevyRateService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.util.TransactionHooks;
+import com.tbf.tcms.web.dto.levy.LevyRateDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LevyRateServiceImpl implements LevyRateService {
+
+    static final BigDecimal DEFAULT_PENALTY_RATE = BigDecimal.ZERO;
+
+    // Re-derive the year's statuses for the organization after its levy changed
+    static final String RESTATUS_SQL = """
+            UPDATE levy_payments p
+            SET status = CASE WHEN p.amount >= ? THEN 'PAID' ELSE 'PENDING' END,
+                updated_at = CURRENT_TIMESTAMP, updated_by = 'rates'
+            FROM families f
+            WHERE f.id = p.family_id AND f.organization_id = ? AND p.financial_year = ?
+              AND p.status <> CASE WHEN p.amount >= ? THEN 'PAID' ELSE 'PENDING' END
+            """;
+
+    private final LevyRateRepository levyRateRepository;
+    private final OrganizationRepository organizationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final LevyComplianceCache levyComplianceCache;
+    private final ProofOfResidenceLetterCache letterCache;
+
+    // (organization, year) -> amount due; the schedule is tiny and read on every payment
+    private final Map<RateKey, BigDecimal> amounts = new ConcurrentHashMap<>();
+
+    @Override
+    public BigDecimal amountDue(Long organizationId, int year) {
+        if (organizationId == null) {
+            return LevyServiceImpl.DEFAULT_ANNUAL_LEVY;
+        }
+        return amounts.computeIfAbsent(new RateKey(organizationId, year), k ->
+                levyRateRepository.findByOrganizationIdAndFinancialYear(organizationId, year)
+                        .map(LevyRate::getAmount)
+                        .orElse(LevyServiceImpl.DEFAULT_ANNUAL_LEVY));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LevyRateDto getRate(Long organizationId, int year) {
+        return levyRateRepository.findByOrganizationIdAndFinancialYear(organizationId, year)
+                .map(this::toDto)
+                .orElseGet(() -> {
+                    LevyRateDto dto = new LevyRateDto();
+                    dto.setOrganizationId(organizationId);
+                    dto.setFinancialYear(year);
+                    dto.setAmount(LevyServiceImpl.DEFAULT_ANNUAL_LEVY);
+                    dto.setPenaltyRate(DEFAULT_PENALTY_RATE);
+                    return dto;
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LevyRateDto> findRates(Long organizationId) {
+        return levyRateRepository.findByOrganizationIdOrderByFinancialYearDesc(organizationId).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Technical note: the new amount is applied to the year's existing snapshots with one set-based UPDATE that
+     * touches only rows whose status actually changes; the compliance and letter caches are dropped after commit.
+     */
+    @Override
+    @Transactional
+    public LevyRateDto setRate(Long organizationId, int year, BigDecimal amount, BigDecimal penaltyRate) {
+        if (!organizationRepository.existsById(organizationId)) {
+            throw new ResourceNotFoundException("Organization not found with id: " + organizationId);
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("amount must be greater than 0");
+        }
+        BigDecimal penalty = penaltyRate == null ? DEFAULT_PENALTY_RATE : penaltyRate;
+        if (penalty.signum() < 0 || penalty.compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("penaltyRate must be between 0 and 1");
+        }
+        LevyRate rate = levyRateRepository.findByOrganizationIdAndFinancialYear(organizationId, year)
+                .orElseGet(() -> {
+                    LevyRate r = new LevyRate();
+                    r.setOrganizationId(organizationId);
+                    r.setFinancialYear(year);
+                    return r;
+                });
+        rate.setAmount(amount);
+        rate.setPenaltyRate(penalty);
+        LevyRate saved = levyRateRepository.save(rate);
+
+        int restatused = jdbcTemplate.update(RESTATUS_SQL, amount, organizationId, year, amount);
+        RateKey key = new RateKey(organizationId, year);
+        TransactionHooks.afterCommit(() -> {
+            amounts.remove(key);
+            if (restatused > 0) {
+                levyComplianceCache.clear();
+                letterCache.clear();
+            }
+        });
+        log.info("Levy rate for org {} year {} set to {} (penalty {}); {} snapshots changed status",
+                organizationId, year, amount, penalty, restatused);
+        return toDto(saved);
+    }
+
+    private LevyRateDto toDto(LevyRate rate) {
+        LevyRateDto dto = new LevyRateDto();
+        dto.setOrganizationId(rate.getOrganizationId());
+        dto.setFinancialYear(rate.getFinancialYear());
+        dto.setAmount(rate.getAmount());
+        dto.setPenaltyRate(rate.getPenaltyRate());
+        dto.setScheduled(true);
+        return dto;
+    }
+
+    private record RateKey(long organizationId, int year) {
+    }
+}
@@ -2,29 +2,49 @@ package com.tbf.tcms.service.impl;
 
 import com.tbf.tcms.domain.Family;
 import com.tbf.tcms.domain.LevyPayment;
+import com.tbf.tcms.domain.LevyTransaction;
 import com.tbf.tcms.domain.enums.LevyStatus;
 import com.tbf.tcms.repository.FamilyRepository;
 import com.tbf.tcms.repository.LevyPaymentRepository;
+import com.tbf.tcms.repository.LevyTransactionRepository;
+import com.tbf.tcms.service.LevyRateService;
 import com.tbf.tcms.service.LevyService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.levy.LevyBalanceDto;
+import com.tbf.tcms.web.dto.levy.LevyTransactionDto;
 import com.tbf.tcms.web.error.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LevyServiceImpl implements LevyService {
 
-    private static final BigDecimal DEFAULT_ANNUAL_LEVY = new BigDecimal("100.00");
+    // Levy for years without a scheduled rate (see LevyRateService)
+    static final BigDecimal DEFAULT_ANNUAL_LEVY = new BigDecimal("100.00");
 
     private final LevyPaymentRepository levyPaymentRepository;
+    private final LevyTransactionRepository levyTransactionRepository;
     private final FamilyRepository familyRepository;
+    private final LevyComplianceCache levyComplianceCache;
+    private final ProofOfResidenceLetterCache letterCache;
+    private final LevyRateService levyRateService;
 
+    /**
+     * Technical note: the payment is appended to {@code levy_transactions} and folded into the
+     * {@code levy_payments} snapshot with a single atomic upsert (amount += payment), so concurrent partial
+     * payments never overwrite each other and balance checks stay a single-row read.
+     */
     @Override
     @Transactional
     public LevyPayment recordPayment(Long familyId, BigDecimal amount, int year) {
@@ -32,35 +52,70 @@ public class LevyServiceImpl implements LevyService {
         Family family = familyRepository.findById(familyId)
                 .orElseThrow(() -> new ResourceNotFoundException("Family not found with id: " + familyId));
 
+        BigDecimal amountDue = levyRateService.amountDue(
+                family.getOrganization() != null ? family.getOrganization().getId() : null, year);
         BigDecimal effectiveAmount = (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
-                ? DEFAULT_ANNUAL_LEVY
+                ? amountDue
                 : amount;
+        LocalDate today = LocalDate.now();
 
-        LevyPayment payment = levyPaymentRepository
-                .findByFamilyIdAndFinancialYear(familyId, year)
-                .orElseGet(LevyPayment::new);
+        LevyTransaction entry = new LevyTransaction();
+        entry.setFamily(family);
+        entry.setFinancialYear(year);
+        entry.setAmount(effectiveAmount);
+        entry.setTransactionDate(today);
+        entry.setReference("payment");
+        levyTransactionRepository.save(entry);
 
-        payment.setFamily(family);
-        payment.setFinancialYear(year);
-        payment.setAmount(effectiveAmount);
-        payment.setPaymentDate(LocalDate.now());
-        payment.setStatus(LevyStatus.PAID);
-
-        LevyPayment saved = levyPaymentRepository.save(payment);
-        log.info("Levy payment recorded id {} for family {} year {} amount {} status {}",
-                saved.getId(), familyId, year, saved.getAmount(), saved.getStatus());
+        levyPaymentRepository.applyPayment(familyId, year, effectiveAmount, today, amountDue);
+        LevyPayment saved = levyPaymentRepository.findByFamilyIdAndFinancialYear(familyId, year)
+                .orElseThrow(() -> new IllegalStateException("Levy snapshot missing after payment"));
+        levyComplianceCache.paymentRecorded(familyId, year, saved.getStatus());
+        letterCache.evictFamily(familyId);
+        log.info("Levy payment recorded for family {} year {}: paid {} of {} status {}",
+                familyId, year, saved.getAmount(), amountDue, saved.getStatus());
         return saved;
     }
 
+    /**
+     * Technical note: answered from {@link LevyComplianceCache}; only the first check per family and year
+     * reaches the database. Logged at DEBUG because proof-of-residence traffic calls this per request.
+     */
     @Override
-    @Transactional(readOnly = true)
     public boolean isLevyUpToDate(Long familyId) {
         int currentYear = LocalDate.now().getYear();
-        boolean result = levyPaymentRepository
-                .findByFamilyIdAndFinancialYear(familyId, currentYear)
-                .map(lp -> lp.getStatus() == LevyStatus.PAID)
-                .orElse(false);
-        log.info("Levy status for family {} in {}: upToDate={}", familyId, currentYear, result);
+        boolean result = levyComplianceCache.isUpToDate(familyId, currentYear);
+        log.debug("Levy status for family {} in {}: upToDate={}", familyId, currentYear, result);
         return result;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LevyBalanceDto getBalance(Long familyId, int year) {
+        Family family = familyRepository.findById(familyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Family not found with id: " + familyId));
+        BigDecimal amountDue = levyRateService.amountDue(
+                family.getOrganization() != null ? family.getOrganization().getId() : null, year);
+        Optional<LevyPayment> snapshot = levyPaymentRepository.findByFamilyIdAndFinancialYear(familyId, year);
+        BigDecimal paid = snapshot.map(LevyPayment::getAmount).orElse(BigDecimal.ZERO);
+
+        LevyBalanceDto dto = new LevyBalanceDto();
+        dto.setFamilyId(familyId);
+        dto.setYear(year);
+        dto.setAmountDue(amountDue);
+        dto.setAmountPaid(paid);
+        dto.setBalance(amountDue.subtract(paid).max(BigDecimal.ZERO));
+        dto.setStatus(snapshot.map(LevyPayment::getStatus).orElse(LevyStatus.PENDING));
+        dto.setLastPaymentDate(snapshot.map(LevyPayment::getPaymentDate).orElse(null));
+        return dto;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<LevyTransactionDto> findTransactions(Long familyId, int year, Pageable pageable) {
+        return PageResponse.from(levyTransactionRepository
+                .findByFamilyIdAndFinancialYearOrderByIdAsc(familyId, year, pageable)
+                .map(t -> new LevyTransactionDto(t.getId(), t.getFinancialYear(), t.getAmount(),
+                        t.getTransactionDate(), t.getReference(), t.getCreatedAt(), t.getCreatedBy())));
+    }
 }
@@ -0,0 +1,118 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.LevyTransactionRepository;
+import com.tbf.tcms.service.LevySnapshotService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LevySnapshotServiceImpl implements LevySnapshotService {
+
+    static final long CHUNK_FAMILIES = 5_000;
+    static final int MAX_PARALLELISM = 4;
+    static final int MAX_CHUNK_ATTEMPTS = 5;
+
+    // One set-based statement per chunk of family ids; served by idx_levy_transactions_family_year.
+    // The amount due is the organization's scheduled levy for the year, else the default.
+    static final String REBUILD_CHUNK_SQL = """
+            INSERT INTO levy_payments (family_id, financial_year, amount, payment_date, status,
+                                       created_at, updated_at, created_by, updated_by)
+            SELECT t.family_id, t.financial_year, SUM(t.amount), MAX(t.transaction_date),
+                   CASE WHEN SUM(t.amount) >= COALESCE(MAX(lr.amount), ?) THEN 'PAID' ELSE 'PENDING' END,
+                   CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'rebuild', 'rebuild'
+            FROM levy_transactions t
+            JOIN families f ON f.id = t.family_id
+            LEFT JOIN levy_rates lr ON lr.organization_id = f.organization_id AND lr.financial_year = t.financial_year
+            WHERE t.family_id BETWEEN ? AND ?
+            GROUP BY t.family_id, t.financial_year
+            ON CONFLICT (family_id, financial_year) DO UPDATE SET
+                amount = EXCLUDED.amount,
+                payment_date = EXCLUDED.payment_date,
+                status = EXCLUDED.status,
+                updated_at = EXCLUDED.updated_at,
+                updated_by = EXCLUDED.updated_by
+            """;
+
+    private final LevyTransactionRepository levyTransactionRepository;
+    private final LevyComplianceCache levyComplianceCache;
+    private final ProofOfResidenceLetterCache letterCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Technical note: each chunk runs in its own transaction on a small worker pool, so a rebuild never holds
+     * one long transaction over the whole table and chunks proceed in parallel. Chunks run at REPEATABLE READ:
+     * a payment that commits after the chunk's snapshot also touches its snapshot row, so the chunk's upsert of
+     * that row fails with a serialization error instead of overwriting the increment with a stale sum, and the
+     * chunk is retried (up to {@link #MAX_CHUNK_ATTEMPTS} times) from a fresh snapshot that includes the payment.
+     */
+    @Override
+    public RebuildResult rebuildSnapshots() {
+        long started = System.currentTimeMillis();
+        Long maxFamilyId = levyTransactionRepository.findMaxFamilyId();
+        if (maxFamilyId == null) {
+            return new RebuildResult(0, 0, System.currentTimeMillis() - started);
+        }
+        int parallelism = Math.max(1, Math.min(MAX_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        List<Future<Integer>> chunks = new ArrayList<>();
+        try {
+            for (long from = 0; from <= maxFamilyId; from += CHUNK_FAMILIES) {
+                long lo = from;
+                long hi = Math.min(maxFamilyId, from + CHUNK_FAMILIES - 1);
+                chunks.add(pool.submit(() -> rebuildChunk(tx, lo, hi)));
+            }
+            int written = 0;
+            for (Future<Integer> chunk : chunks) {
+                Integer count = chunk.get();
+                written += count == null ? 0 : count;
+            }
+            levyComplianceCache.clear();
+            letterCache.clear();
+            long elapsed = System.currentTimeMillis() - started;
+            log.info("Levy snapshots rebuilt: {} snapshots in {} chunks ({} threads) in {} ms",
+                    written, chunks.size(), parallelism, elapsed);
+            return new RebuildResult(chunks.size(), written, elapsed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Levy snapshot rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Levy snapshot rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Integer rebuildChunk(TransactionTemplate tx, long lo, long hi) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tx.execute(status ->
+                        jdbcTemplate.update(REBUILD_CHUNK_SQL, LevyServiceImpl.DEFAULT_ANNUAL_LEVY, lo, hi));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Snapshot chunk {}-{} raced a payment (attempt {}), retrying", lo, hi, attempt);
+            }
+        }
+    }
+}
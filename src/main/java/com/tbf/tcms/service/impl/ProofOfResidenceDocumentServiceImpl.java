@@ -0,0 +1,228 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.DocumentVerification;
+import com.tbf.tcms.domain.Family;
+import com.tbf.tcms.domain.Resident;
+import com.tbf.tcms.repository.DocumentVerificationRepository;
+import com.tbf.tcms.repository.ResidentRepository;
+import com.tbf.tcms.service.LevyService;
+import com.tbf.tcms.service.ProofOfResidenceDocumentService;
+import com.tbf.tcms.service.document.ProofOfResidencePdfRenderer;
+import com.tbf.tcms.web.dto.resident.VerificationResponseDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProofOfResidenceDocumentServiceImpl implements ProofOfResidenceDocumentService {
+
+    static final String DOCUMENT_TYPE = "PROOF_OF_RESIDENCE";
+    static final Period VALIDITY = Period.ofMonths(3);
+    static final int MAX_BATCH = 500;
+    static final int CODE_LENGTH = 10;
+    // Crockford base32: no I, L, O or U, so codes survive being read out over the phone
+    static final String CODE_ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ResidentRepository residentRepository;
+    private final DocumentVerificationRepository documentVerificationRepository;
+    private final LevyService levyService;
+    private final ProofOfResidencePdfRenderer renderer;
+
+    @Value("${tcms.documents.verify-base-url:/verify/}")
+    private String verifyBaseUrl = "/verify/";
+
+    @Override
+    @Transactional
+    public IssuedDocument issue(Long residentId) {
+        Resident resident = residentRepository.findWithFamilyByIdIn(List.of(residentId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Resident not found with id: " + residentId));
+        String reason = ineligibility(resident);
+        if (reason != null) {
+            if (resident.getFamily() == null) {
+                throw new ResourceNotFoundException(reason);
+            }
+            throw new IllegalStateException(reason);
+        }
+        return issueAll(List.of(resident)).get(0);
+    }
+
+    /**
+     * Technical note: residents (with family and organization) are loaded in one query, eligibility is checked
+     * through the levy compliance cache, and all verification rows are saved together; the PDF layout is
+     * precompiled, so each letter costs a content-stream render.
+     */
+    @Override
+    @Transactional
+    public BatchResult issueBatch(List<Long> residentIds, Long familyId) {
+        boolean byIds = residentIds != null && !residentIds.isEmpty();
+        if (byIds == (familyId != null)) {
+            throw new IllegalArgumentException("Provide either residentIds or familyId");
+        }
+        List<Resident> residents;
+        List<Skipped> skipped = new ArrayList<>();
+        if (byIds) {
+            Set<Long> ids = new LinkedHashSet<>(residentIds);
+            if (ids.size() > MAX_BATCH) {
+                throw new IllegalArgumentException("At most " + MAX_BATCH + " residents per batch");
+            }
+            Map<Long, Resident> found = residentRepository.findWithFamilyByIdIn(ids).stream()
+                    .collect(Collectors.toMap(Resident::getId, Function.identity()));
+            residents = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Resident r = found.get(id);
+                if (r == null) {
+                    skipped.add(new Skipped(id, "Resident not found"));
+                } else {
+                    residents.add(r);
+                }
+            }
+        } else {
+            residents = residentRepository.findWithFamilyByFamilyId(familyId);
+            if (residents.isEmpty()) {
+                throw new ResourceNotFoundException("No residents found for family id: " + familyId);
+            }
+        }
+
+        List<Resident> eligible = new ArrayList<>(residents.size());
+        Map<Long, Boolean> upToDateByFamily = new HashMap<>();
+        for (Resident r : residents) {
+            String reason = null;
+            if (r.getFamily() == null) {
+                reason = "Resident does not belong to a family";
+            } else if (!upToDateByFamily.computeIfAbsent(r.getFamily().getId(), levyService::isLevyUpToDate)) {
+                reason = "Levy payments are in arrears.";
+            }
+            if (reason == null) {
+                eligible.add(r);
+            } else {
+                skipped.add(new Skipped(r.getId(), reason));
+            }
+        }
+        List<IssuedDocument> documents = issueAll(eligible);
+        log.info("Issued {} proof-of-residence letters ({} skipped)", documents.size(), skipped.size());
+        return new BatchResult(documents, skipped);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VerificationResponseDto verify(String code) {
+        String normalized = normalizeCode(code);
+        DocumentVerification doc = documentVerificationRepository.findByCode(normalized)
+                .orElseThrow(() -> new ResourceNotFoundException("No document found for code " + code));
+        VerificationResponseDto dto = new VerificationResponseDto();
+        dto.setCode(formatCode(doc.getCode()));
+        dto.setValid(!LocalDate.now().isAfter(doc.getExpiresOn()));
+        dto.setDocumentType(doc.getDocumentType());
+        dto.setHolderName(doc.getHolderName());
+        dto.setAddress(doc.getAddress());
+        dto.setIssuedOn(doc.getIssuedOn());
+        dto.setExpiresOn(doc.getExpiresOn());
+        return dto;
+    }
+
+    private List<IssuedDocument> issueAll(List<Resident> residents) {
+        LocalDate today = LocalDate.now();
+        LocalDate expiresOn = today.plus(VALIDITY);
+        List<DocumentVerification> records = new ArrayList<>(residents.size());
+        List<IssuedDocument> documents = new ArrayList<>(residents.size());
+        for (Resident r : residents) {
+            Family family = r.getFamily();
+            String code = newCode();
+            String name = String.format("%s %s", nullToEmpty(r.getFirstName()), nullToEmpty(r.getLastName())).trim();
+
+            DocumentVerification record = new DocumentVerification();
+            record.setCode(code);
+            record.setDocumentType(DOCUMENT_TYPE);
+            record.setResidentId(r.getId());
+            record.setFamilyId(family.getId());
+            record.setHolderName(name);
+            record.setAddress(family.getAddress());
+            record.setIssuedOn(today);
+            record.setExpiresOn(expiresOn);
+            records.add(record);
+
+            Map<String, String> values = new HashMap<>();
+            values.put("organization", family.getOrganization() != null ? family.getOrganization().getName() : "");
+            values.put("issueDate", today.toString());
+            values.put("name", name);
+            values.put("idNumber", nullToEmpty(r.getIdNumber()));
+            values.put("address", nullToEmpty(family.getAddress()));
+            values.put("familyReference", nullToEmpty(family.getReferenceNumber()));
+            values.put("expiresOn", expiresOn.toString());
+            values.put("code", formatCode(code));
+            values.put("verifyUrl", verifyBaseUrl + formatCode(code));
+            documents.add(new IssuedDocument(r.getId(), formatCode(code),
+                    "proof-of-residence-" + r.getId() + ".pdf", renderer.render(values)));
+        }
+        documentVerificationRepository.saveAll(records);
+        return documents;
+    }
+
+    private String ineligibility(Resident resident) {
+        if (resident.getFamily() == null) {
+            return "Resident does not belong to a family";
+        }
+        if (!levyService.isLevyUpToDate(resident.getFamily().getId())) {
+            return "Levy payments are in arrears.";
+        }
+        return null;
+    }
+
+    static String newCode() {
+        StringBuilder sb = new StringBuilder(CODE_LENGTH);
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            sb.append(CODE_ALPHABET.charAt(RANDOM.nextInt(CODE_ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    static String formatCode(String code) {
+        return code.length() == CODE_LENGTH ? code.substring(0, 5) + "-" + code.substring(5) : code;
+    }
+
+    /**
+     * Accepts codes as typed: case-insensitive, dashes and spaces ignored, and the letters O, I and L
+     * read as the digits they resemble.
+     */
+    static String normalizeCode(String code) {
+        if (code == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(CODE_LENGTH);
+        for (char c : code.toUpperCase(Locale.ROOT).toCharArray()) {
+            if (c == 'O') {
+                sb.append('0');
+            } else if (c == 'I' || c == 'L') {
+                sb.append('1');
+            } else if (CODE_ALPHABET.indexOf(c) >= 0) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+}
@@ -2,25 +2,60 @@ package com.tbf.tcms.service.impl;
 
 import com.tbf.tcms.domain.Family;
 import com.tbf.tcms.domain.Resident;
+import com.tbf.tcms.domain.enums.LevyStatus;
 import com.tbf.tcms.repository.ResidentRepository;
+import com.tbf.tcms.repository.projection.ResidentLookupView;
 import com.tbf.tcms.service.LevyService;
 import com.tbf.tcms.service.ResidentService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.service.cache.ResidentLookupCache;
+import com.tbf.tcms.util.ResidentKeys;
+import com.tbf.tcms.web.dto.resident.ResidentLookupDto;
 import com.tbf.tcms.web.error.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
 @Service
 @RequiredArgsConstructor
 public class ResidentServiceImpl implements ResidentService {
 
+    // Enough for a household sharing one phone; identity numbers match at most one resident
+    static final int MAX_LOOKUP_RESULTS = 20;
+
     private final ResidentRepository residentRepository;
     private final LevyService levyService;
+    private final ResidentLookupCache residentLookupCache;
+    private final LevyComplianceCache levyComplianceCache;
+    private final ProofOfResidenceLetterCache letterCache;
 
     @Override
-    @Transactional(readOnly = true)
     public String generateProofOfResidence(Long residentId) {
-        Resident resident = residentRepository.findById(residentId)
+        return proofOfResidence(residentId).text();
+    }
+
+    /**
+     * Technical note: served from {@link ProofOfResidenceLetterCache} when the resident's letter was rendered for
+     * the current levy year. On a miss, resident and family come from one fetch-join query and the levy check
+     * from {@link LevyComplianceCache}; no transaction is opened, so a hit never touches the connection pool.
+     */
+    @Override
+    public ProofOfResidence proofOfResidence(Long residentId) {
+        int year = LocalDate.now().getYear();
+        ProofOfResidenceLetterCache.Letter cached = letterCache.get(residentId, year);
+        if (cached != null) {
+            return new ProofOfResidence(cached.text(), cached.etag());
+        }
+        long generation = letterCache.generation();
+
+        Resident resident = residentRepository.findWithFamilyByIdIn(List.of(residentId)).stream()
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Resident not found with id: " + residentId));
 
         Family family = resident.getFamily();
@@ -35,7 +70,71 @@ public class ResidentServiceImpl implements ResidentService {
 
         String name = String.format("%s %s", nullToEmpty(resident.getFirstName()), nullToEmpty(resident.getLastName())).trim();
         String address = nullToEmpty(family.getAddress());
-        return String.format("This confirms that %s resides at %s and is in good standing.", name, address);
+        String text = String.format("This confirms that %s resides at %s and is in good standing.", name, address);
+        ProofOfResidenceLetterCache.Letter letter = letterCache.put(residentId, family.getId(), year, text, generation);
+        return new ProofOfResidence(letter.text(), letter.etag());
+    }
+
+    /**
+     * Technical note: the number is normalized to the key behind an expression index, and a miss costs one query
+     * that joins resident, family and this year's levy snapshot; that levy status primes
+     * {@link LevyComplianceCache}. Repeat lookups are served from {@link ResidentLookupCache} plus a bit test,
+     * with no database round trip.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResidentLookupDto> lookup(String idNumber, String phoneNumber) {
+        boolean byId = idNumber != null && !idNumber.isBlank();
+        boolean byPhone = phoneNumber != null && !phoneNumber.isBlank();
+        if (byId == byPhone) {
+            throw new IllegalArgumentException("Provide either idNumber or phone");
+        }
+        int year = LocalDate.now().getYear();
+        List<ResidentLookupView> matches;
+        if (byId) {
+            String key = ResidentKeys.idNumber(idNumber);
+            matches = residentLookupCache.get("id:" + key,
+                    k -> primed(() -> residentRepository.findLookupByIdNumberKey(key, year, MAX_LOOKUP_RESULTS), year));
+        } else {
+            String key = ResidentKeys.phone(phoneNumber);
+            if (key == null) {
+                throw new IllegalArgumentException("phone must have at least " + ResidentKeys.PHONE_KEY_DIGITS + " digits");
+            }
+            matches = residentLookupCache.get("phone:" + key,
+                    k -> primed(() -> residentRepository.findLookupByPhoneKey(key, year, MAX_LOOKUP_RESULTS), year));
+        }
+
+        List<ResidentLookupDto> result = new ArrayList<>(matches.size());
+        for (ResidentLookupView v : matches) {
+            ResidentLookupDto dto = new ResidentLookupDto();
+            dto.setResidentId(v.getResidentId());
+            dto.setFirstName(v.getFirstName());
+            dto.setLastName(v.getLastName());
+            dto.setIdNumber(v.getIdNumber());
+            dto.setPhoneNumber(v.getPhoneNumber());
+            dto.setEmail(v.getEmail());
+            dto.setHeadOfHousehold(Boolean.TRUE.equals(v.getHeadOfHousehold()));
+            dto.setFamilyId(v.getFamilyId());
+            dto.setFamilyReference(v.getFamilyReference());
+            dto.setAddress(v.getAddress());
+            dto.setOrganizationId(v.getOrganizationId());
+            dto.setLevyYear(year);
+            dto.setLevyUpToDate(v.getFamilyId() != null && levyComplianceCache.isUpToDate(v.getFamilyId(), year));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private List<ResidentLookupView> primed(Supplier<List<ResidentLookupView>> query, int year) {
+        long readAt = levyComplianceCache.generation();
+        List<ResidentLookupView> rows = query.get();
+        for (ResidentLookupView v : rows) {
+            if (v.getFamilyId() != null) {
+                boolean paid = LevyStatus.PAID.name().equals(v.getLevyStatus());
+                levyComplianceCache.prime(v.getFamilyId(), year, paid, readAt);
+            }
+        }
+        return rows;
     }
 
     private String nullToEmpty(String s) {
@@ -0,0 +1,102 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.LandStand;
+import com.tbf.tcms.domain.StandApplication;
+import com.tbf.tcms.domain.User;
+import com.tbf.tcms.repository.StandApplicationRepository;
+import com.tbf.tcms.service.StandApplicationService;
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.landstand.StandApplicationResponseDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StandApplicationServiceImpl implements StandApplicationService {
+
+    // Single statement: lock the oldest application, delete it, return the applicant. Callers hold the stand's row
+    // lock, and a plain FOR UPDATE keeps the queue strictly FIFO (a competing pop waits instead of skipping ahead)
+    static final String POP_HEAD_SQL = """
+            DELETE FROM stand_applications
+            WHERE id = (SELECT id FROM stand_applications
+                        WHERE stand_id = ?
+                        ORDER BY id
+                        LIMIT 1
+                        FOR UPDATE)
+            RETURNING applicant_id
+            """;
+
+    static final String CLEAR_QUEUE_SQL = "DELETE FROM stand_applications WHERE stand_id = ?";
+
+    private final StandApplicationRepository applicationRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Technical note: applications are inserted, never updated, so concurrent applicants cannot overwrite each
+     * other. The exists check gives a friendly message; the uq_stand_applicant constraint settles races.
+     */
+    @Override
+    @Transactional
+    public StandApplication enqueue(LandStand stand, User applicant) {
+        if (applicationRepository.existsByStandIdAndApplicantId(stand.getId(), applicant.getId())) {
+            throw new IllegalStateException("User has already applied for this stand");
+        }
+        StandApplication application = new StandApplication();
+        application.setStand(stand);
+        application.setApplicant(applicant);
+        application.setApplicationDate(LocalDate.now());
+        try {
+            StandApplication saved = applicationRepository.saveAndFlush(application);
+            log.info("Application {} queued: user {} for stand {}", saved.getId(), applicant.getId(), stand.getId());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("User has already applied for this stand");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<StandApplicationResponseDto> findQueue(Long standId, Pageable pageable) {
+        // Queue order is fixed (FIFO); client sort parameters are ignored
+        Pageable fifo = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<StandApplicationResponseDto> page = applicationRepository.findQueue(standId, fifo);
+        long position = fifo.getOffset();
+        for (StandApplicationResponseDto dto : page.getContent()) {
+            dto.setPosition(++position);
+        }
+        return PageResponse.from(page);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Long> popHead(Long standId) {
+        List<Long> popped = jdbcTemplate.queryForList(POP_HEAD_SQL, Long.class, standId);
+        if (popped.isEmpty()) {
+            return Optional.empty();
+        }
+        log.info("Popped applicant {} from queue of stand {}", popped.get(0), standId);
+        return Optional.of(popped.get(0));
+    }
+
+    @Override
+    @Transactional
+    public int clearQueue(Long standId) {
+        int removed = jdbcTemplate.update(CLEAR_QUEUE_SQL, standId);
+        if (removed > 0) {
+            log.info("Cleared {} pending applications for stand {}", removed, standId);
+        }
+        return removed;
+    }
+}
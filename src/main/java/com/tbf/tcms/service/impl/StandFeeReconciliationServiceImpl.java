@@ -0,0 +1,228 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.LandStandRepository;
+import com.tbf.tcms.repository.projection.StandFeeView;
+import com.tbf.tcms.service.StandFeeReconciliationService;
+import com.tbf.tcms.util.CsvUtils;
+import com.tbf.tcms.web.dto.landstand.FeeReconciliationReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StandFeeReconciliationServiceImpl implements StandFeeReconciliationService {
+
+    static final int UPDATE_BATCH_SIZE = 500;
+
+    private final LandStandRepository landStandRepository;
+
+    // Amount a statement line must cover before the stand it names is marked paid
+    @Value("${tcms.stands.fee-amount:500.00}")
+    private BigDecimal feeAmount = new BigDecimal("500.00");
+
+    /**
+     * Technical note: stand numbers are loaded once into a hash index keyed by their normalized form
+     * (upper case, letters and digits only), so "STAND-001", "stand 001" and "Stand001" all match.
+     * The statement is read line by line; matched stands are updated in batches at the end of the run.
+     * A stand is only marked paid on a strong match whose amount covers {@code tcms.stands.fee-amount};
+     * loose matches and short payments are reported as ambiguous for a clerk to review.
+     */
+    @Override
+    @Transactional
+    public FeeReconciliationReport reconcile(Long organizationId, InputStream statement, boolean dryRun) throws IOException {
+        log.info("Reconciling stand fees for org {} (dryRun={})", organizationId, dryRun);
+        Map<String, List<StandFeeView>> index = buildIndex(organizationId);
+
+        FeeReconciliationReport report = new FeeReconciliationReport();
+        report.setDryRun(dryRun);
+        Set<Long> toMarkPaid = new LinkedHashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(statement, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("Bank statement is empty");
+            }
+            List<String> header = CsvUtils.parseLine(CsvUtils.stripBom(headerLine));
+            int referenceCol = CsvUtils.indexOf(header, "reference");
+            int amountCol = CsvUtils.indexOf(header, "amount");
+            if (referenceCol < 0) {
+                throw new IllegalArgumentException("Bank statement header must include a 'reference' column");
+            }
+
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.setLinesRead(report.getLinesRead() + 1);
+                List<String> fields = CsvUtils.parseLine(line);
+                String reference = field(fields, referenceCol);
+                String amount = field(fields, amountCol);
+
+                Map<Long, StandFeeView> weak = new LinkedHashMap<>();
+                Map<Long, StandFeeView> candidates = match(reference, index, weak);
+                if (candidates.isEmpty()) {
+                    candidates = weak;
+                }
+                List<String> standNumbers = candidates.values().stream().map(StandFeeView::getStandNumber).toList();
+                if (candidates.isEmpty()) {
+                    report.getUnmatched().add(new FeeReconciliationReport.Line(lineNumber, reference, amount, standNumbers,
+                            "No stand number found in reference"));
+                } else if (candidates == weak) {
+                    report.getAmbiguous().add(new FeeReconciliationReport.Line(lineNumber, reference, amount, standNumbers,
+                            "Reference does not clearly name a stand"));
+                } else if (candidates.size() > 1) {
+                    report.getAmbiguous().add(new FeeReconciliationReport.Line(lineNumber, reference, amount, standNumbers,
+                            "Reference matches more than one stand"));
+                } else {
+                    StandFeeView stand = candidates.values().iterator().next();
+                    if (!Boolean.TRUE.equals(stand.getAllocated())) {
+                        report.getUnmatched().add(new FeeReconciliationReport.Line(lineNumber, reference, amount, standNumbers,
+                                "Stand is not allocated"));
+                    } else if (Boolean.TRUE.equals(stand.getFeePaid()) || toMarkPaid.contains(stand.getId())) {
+                        report.getMatched().add(new FeeReconciliationReport.Line(lineNumber, reference, amount, standNumbers,
+                                "Fee already paid"));
+                    } else if (!coversFee(amount)) {
+                        report.getAmbiguous().add(new FeeReconciliationReport.Line(lineNumber, reference, amount, standNumbers,
+                                "Amount does not cover the stand fee of " + feeAmount));
+                    } else {
+                        toMarkPaid.add(stand.getId());
+                        report.getMatched().add(new FeeReconciliationReport.Line(lineNumber, reference, amount, standNumbers, null));
+                    }
+                }
+            }
+        }
+
+        if (dryRun) {
+            report.setMarkedPaid(toMarkPaid.size());
+        } else {
+            report.setMarkedPaid(markPaidInBatches(new ArrayList<>(toMarkPaid)));
+        }
+        log.info("Fee reconciliation for org {}: {} lines, {} matched, {} unmatched, {} ambiguous, {} marked paid",
+                organizationId, report.getLinesRead(), report.getMatched().size(), report.getUnmatched().size(),
+                report.getAmbiguous().size(), report.getMarkedPaid());
+        return report;
+    }
+
+    private Map<String, List<StandFeeView>> buildIndex(Long organizationId) {
+        List<StandFeeView> stands = organizationId == null
+                ? landStandRepository.findFeeViews()
+                : landStandRepository.findFeeViewsByOrganizationId(organizationId);
+        Map<String, List<StandFeeView>> index = new HashMap<>(stands.size() * 2);
+        for (StandFeeView s : stands) {
+            String key = normalize(s.getStandNumber());
+            if (!key.isEmpty()) {
+                index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(s);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Candidate stands for a reference: the whole reference, each word and each pair of adjacent words
+     * (e.g. "STAND 001") are looked up in the index. A word or pair is a strong match when it looks like a
+     * stand number (contains a digit) or carries a "STAND" prefix; anything else (a payer's name that happens
+     * to equal a stand number) only lands in {@code weak}.
+     */
+    private Map<Long, StandFeeView> match(String reference, Map<String, List<StandFeeView>> index,
+                                          Map<Long, StandFeeView> weak) {
+        Map<Long, StandFeeView> candidates = new LinkedHashMap<>();
+        if (reference == null || reference.isBlank()) {
+            return candidates;
+        }
+        addAll(candidates, index.get(normalize(reference)));
+        String[] tokens = reference.trim().split("[\\s;/|]+");
+        for (int i = 0; i < tokens.length; i++) {
+            String token = normalize(tokens[i]);
+            addAll(looksLikeStandNumber(token) ? candidates : weak, index.get(token));
+            if (i + 1 < tokens.length) {
+                String pair = normalize(tokens[i] + tokens[i + 1]);
+                addAll(looksLikeStandNumber(pair) ? candidates : weak, index.get(pair));
+            }
+        }
+        return candidates;
+    }
+
+    static boolean looksLikeStandNumber(String normalized) {
+        if (normalized.startsWith("STAND")) {
+            return true;
+        }
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isDigit(normalized.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Statement amounts are read leniently: currency symbols, spaces and thousands separators are ignored
+    private boolean coversFee(String amount) {
+        if (amount == null) {
+            return false;
+        }
+        String digits = amount.replaceAll("[^0-9.\\-]", "");
+        if (digits.isEmpty()) {
+            return false;
+        }
+        try {
+            return new BigDecimal(digits).compareTo(feeAmount) >= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void addAll(Map<Long, StandFeeView> candidates, List<StandFeeView> stands) {
+        if (stands != null) {
+            stands.forEach(s -> candidates.putIfAbsent(s.getId(), s));
+        }
+    }
+
+    private int markPaidInBatches(List<Long> ids) {
+        int updated = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < ids.size(); from += UPDATE_BATCH_SIZE) {
+            updated += landStandRepository.markFeesPaid(ids.subList(from, Math.min(ids.size(), from + UPDATE_BATCH_SIZE)), now);
+        }
+        return updated;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toUpperCase(Locale.ROOT);
+    }
+
+    private String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+}
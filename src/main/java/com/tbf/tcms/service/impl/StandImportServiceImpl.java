@@ -0,0 +1,299 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.enums.StandType;
+import com.tbf.tcms.repository.LandStandRepository;
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.service.StandImportService;
+import com.tbf.tcms.service.spatial.StandSpatialIndex;
+import com.tbf.tcms.util.CsvUtils;
+import com.tbf.tcms.util.TransactionHooks;
+import com.tbf.tcms.web.dto.landstand.StandImportReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StandImportServiceImpl implements StandImportService {
+
+    static final int BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    static final int MAX_STAND_NUMBER_LENGTH = 255;
+
+    static final String INSERT_SQL = "INSERT INTO land_stands (stand_number, type, size_in_square_meters, latitude, longitude, " +
+            "allocated, fee_paid, organization_id, created_at, updated_at, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, FALSE, FALSE, ?, ?, ?, 'import', 'import') " +
+            "ON CONFLICT (organization_id, stand_number) DO NOTHING";
+
+    private final LandStandRepository landStandRepository;
+    private final OrganizationRepository organizationRepository;
+    private final StandSpatialIndex standSpatialIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Technical note: the register is parsed one line at a time and valid rows are written in JDBC batches of
+     * {@link #BATCH_SIZE}, so memory stays flat regardless of file size. Duplicates are caught up front against
+     * the organization's existing stand numbers (loaded once per organization) and rows seen earlier in the file;
+     * {@code ON CONFLICT DO NOTHING} on the {@code (organization_id, stand_number)} unique index catches stands
+     * created concurrently by someone else.
+     */
+    @Override
+    @Transactional
+    public StandImportReport importStands(Long organizationId, InputStream register, Format format, boolean dryRun)
+            throws IOException {
+        log.info("Importing stands ({}) for org {} (dryRun={})", format, organizationId, dryRun);
+        Run run = new Run(organizationId, dryRun);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(register, StandardCharsets.UTF_8))) {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+        }
+        run.flush();
+
+        if (!dryRun) {
+            run.locatedOrganizations.forEach(orgId ->
+                    TransactionHooks.afterCommit(() -> standSpatialIndex.reloadOrganization(orgId)));
+        }
+        StandImportReport report = run.report;
+        log.info("Stand import for org {}: {} rows, {} imported, {} rejected",
+                organizationId, report.getRowsRead(), report.getImported(), report.getRejected());
+        return report;
+    }
+
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("Stand register is empty");
+        }
+        List<String> header = CsvUtils.parseLine(CsvUtils.stripBom(headerLine));
+        for (String required : List.of("standNumber", "type", "sizeInSquareMeters")) {
+            if (CsvUtils.indexOf(header, required) < 0) {
+                throw new IllegalArgumentException("Stand register header must include a '" + required + "' column");
+            }
+        }
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = CsvUtils.parseLine(line);
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                values.put(header.get(i).toLowerCase(Locale.ROOT), fields.get(i));
+            }
+            run.accept(lineNumber, values);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Run run) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(lineNumber == 1 ? CsvUtils.stripBom(line) : line);
+            } catch (JacksonException e) {
+                run.reject(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                run.reject(lineNumber, null, "Each line must be a JSON object");
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                JsonNode value = field.getValue();
+                values.put(field.getKey().toLowerCase(Locale.ROOT), value.isNull() ? null : value.asString());
+            }
+            run.accept(lineNumber, values);
+        }
+    }
+
+    /**
+     * State of one import: counters, duplicate tracking and the pending insert batch.
+     */
+    private final class Run {
+        private final Long defaultOrganizationId;
+        private final boolean dryRun;
+        private final StandImportReport report = new StandImportReport();
+        private final Map<Long, Boolean> organizationExists = new HashMap<>();
+        private final Map<Long, Set<String>> standNumbersByOrganization = new HashMap<>();
+        private final Set<Long> locatedOrganizations = new HashSet<>();
+        private final List<ValidRow> batch = new ArrayList<>(BATCH_SIZE);
+        private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        Run(Long defaultOrganizationId, boolean dryRun) {
+            this.defaultOrganizationId = defaultOrganizationId;
+            this.dryRun = dryRun;
+            report.setDryRun(dryRun);
+        }
+
+        void accept(int row, Map<String, String> values) {
+            report.setRowsRead(report.getRowsRead() + 1);
+            String standNumber = trimToNull(values.get("standnumber"));
+            if (standNumber == null) {
+                reject(row, null, "standNumber is required");
+                return;
+            }
+            if (standNumber.length() > MAX_STAND_NUMBER_LENGTH) {
+                reject(row, standNumber, "standNumber is longer than " + MAX_STAND_NUMBER_LENGTH + " characters");
+                return;
+            }
+
+            StandType type;
+            String rawType = trimToNull(values.get("type"));
+            try {
+                type = StandType.valueOf(rawType == null ? "" : rawType.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                reject(row, standNumber, "type must be one of " + Arrays.toString(StandType.values()));
+                return;
+            }
+
+            Double size = parseDouble(values.get("sizeinsquaremeters"));
+            if (size == null || !Double.isFinite(size) || size <= 0) {
+                reject(row, standNumber, "sizeInSquareMeters must be a positive number");
+                return;
+            }
+
+            Long organizationId;
+            String rawOrg = trimToNull(values.get("organizationid"));
+            try {
+                organizationId = rawOrg == null ? defaultOrganizationId : Long.valueOf(rawOrg);
+            } catch (NumberFormatException e) {
+                reject(row, standNumber, "organizationId must be a number");
+                return;
+            }
+            if (organizationId == null) {
+                reject(row, standNumber, "organizationId is required");
+                return;
+            }
+            if (!organizationExists.computeIfAbsent(organizationId, organizationRepository::existsById)) {
+                reject(row, standNumber, "Organization " + organizationId + " not found");
+                return;
+            }
+
+            String rawLat = trimToNull(values.get("latitude"));
+            String rawLon = trimToNull(values.get("longitude"));
+            Double latitude = parseDouble(rawLat);
+            Double longitude = parseDouble(rawLon);
+            if ((rawLat == null) != (rawLon == null)) {
+                reject(row, standNumber, "latitude and longitude must be given together");
+                return;
+            }
+            if (rawLat != null && (latitude == null || longitude == null
+                    || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)) {
+                reject(row, standNumber, "latitude/longitude out of range");
+                return;
+            }
+
+            Set<String> known = standNumbersByOrganization.computeIfAbsent(organizationId,
+                    id -> new HashSet<>(landStandRepository.findStandNumbersByOrganizationId(id)));
+            if (!known.add(standNumber)) {
+                reject(row, standNumber, "Stand number already exists in organization " + organizationId);
+                return;
+            }
+
+            if (latitude != null) {
+                locatedOrganizations.add(organizationId);
+            }
+            batch.add(new ValidRow(row, standNumber, type, size, latitude, longitude, organizationId));
+            if (batch.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(int row, String standNumber, String message) {
+            report.setRejected(report.getRejected() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(new StandImportReport.RowError(row, standNumber, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (dryRun) {
+                report.setImported(report.getImported() + batch.size());
+                batch.clear();
+                return;
+            }
+            int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, r) -> {
+                ps.setString(1, r.standNumber());
+                ps.setString(2, r.type().name());
+                ps.setDouble(3, r.size());
+                ps.setObject(4, r.latitude(), Types.DOUBLE);
+                ps.setObject(5, r.longitude(), Types.DOUBLE);
+                ps.setLong(6, r.organizationId());
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+            });
+            int i = 0;
+            for (int[] chunk : counts) {
+                for (int count : chunk) {
+                    ValidRow r = batch.get(i++);
+                    if (count == 0) {
+                        reject(r.row(), r.standNumber(), "Stand number already exists in organization " + r.organizationId());
+                    } else if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                        report.setImported(report.getImported() + 1);
+                    }
+                }
+            }
+            batch.clear();
+        }
+
+        private String trimToNull(String value) {
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        private Double parseDouble(String value) {
+            String v = trimToNull(value);
+            if (v == null) {
+                return null;
+            }
+            try {
+                return Double.valueOf(v);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    private record ValidRow(int row, String standNumber, StandType type, double size,
+                            Double latitude, Double longitude, long organizationId) {
+    }
+}
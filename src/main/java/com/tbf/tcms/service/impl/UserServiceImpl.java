@@ -3,12 +3,11 @@ package com.tbf.tcms.service.impl;
 import com.tbf.tcms.domain.Organization;
 import com.tbf.tcms.domain.Role;
 import com.tbf.tcms.domain.User;
-import com.tbf.tcms.domain.enums.CaseStatus;
-import com.tbf.tcms.repository.DisputeCaseRepository;
 import com.tbf.tcms.repository.OrganizationRepository;
 import com.tbf.tcms.repository.RoleRepository;
 import com.tbf.tcms.repository.UserRepository;
 import com.tbf.tcms.service.UserService;
+import com.tbf.tcms.service.cache.OpenCaseCache;
 import com.tbf.tcms.web.dto.PageResponse;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -29,7 +28,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final OrganizationRepository organizationRepository;
-    private final DisputeCaseRepository caseRepository;
+    private final OpenCaseCache openCaseCache;
 
     /**
      * Disqualify a leader or council member (e.g., imprisonment >12 months).
@@ -157,8 +156,7 @@ public class UserServiceImpl implements UserService {
     }
 
     private boolean hasOpenCase(User user) {
-        return caseRepository.existsByAccusedUserAndStatusIn(user,
-                List.of(CaseStatus.OPEN, CaseStatus.NOTICE_1_SENT, CaseStatus.NOTICE_2_SENT, CaseStatus.NOTICE_3_SENT));
+        return openCaseCache.hasOpenCase(user.getId());
     }
 
     /**
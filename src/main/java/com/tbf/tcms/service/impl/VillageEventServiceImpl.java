@@ -4,28 +4,144 @@ import com.tbf.tcms.domain.Family;
 import com.tbf.tcms.domain.Organization;
 import com.tbf.tcms.domain.VillageEvent;
 import com.tbf.tcms.domain.enums.EventStatus;
+import com.tbf.tcms.domain.enums.EventDocument;
 import com.tbf.tcms.domain.enums.EventType;
 import com.tbf.tcms.repository.FamilyRepository;
 import com.tbf.tcms.repository.OrganizationRepository;
 import com.tbf.tcms.repository.VillageEventRepository;
+import com.tbf.tcms.repository.projection.CalendarVersionView;
+import com.tbf.tcms.service.DocumentService;
 import com.tbf.tcms.service.VillageEventService;
+import com.tbf.tcms.service.calendar.EventCalendarIndex;
+import com.tbf.tcms.service.outbox.OutboxPublisher;
+import com.tbf.tcms.web.dto.document.DocumentDto;
+import com.tbf.tcms.web.dto.event.EventApprovalResult;
+import com.tbf.tcms.web.dto.event.EventFeeRevenueDto;
+import com.tbf.tcms.web.dto.event.VillageEventCalendarDto;
 import com.tbf.tcms.web.error.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class VillageEventServiceImpl implements VillageEventService {
 
+    static final int MAX_RANGE_DAYS = 366;
+    static final int MAX_APPROVAL_BATCH = 1000;
+    static final int FETCH_SIZE = 500;
+    static final int MIN_YEAR = 1900;
+    static final String EVENT_REQUESTED_TOPIC = "village-event.requested";
+    // iCalendar content lines are folded at 75 octets (RFC 5545, 3.1)
+    static final int ICS_LINE_OCTETS = 75;
+
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter ICS_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private static final String ICS_SQL = """
+            SELECT e.id, e.name, e.description, e.event_date, e.location, e.type, e.status, e.updated_at
+            FROM village_events e
+            WHERE e.organization_id = ? AND e.event_date BETWEEN ? AND ?
+            ORDER BY e.event_date, e.id
+            """;
+
+    // Select, approve and report in one statement: each targeted event comes back with whether this statement
+    // approved it; a row approved concurrently since the snapshot is left alone and reported as already approved.
+    // The fees of the events approved here are added to the revenue summaries in the same statement.
+    private static final String APPROVE_TEMPLATE = """
+            WITH target AS (
+                SELECT id, status FROM village_events WHERE %s
+            ), approved AS (
+                UPDATE village_events e
+                SET status = 'APPROVED', updated_at = CURRENT_TIMESTAMP, updated_by = 'system'
+                FROM target t
+                WHERE e.id = t.id AND e.status = 'PENDING_APPROVAL'
+                RETURNING e.id, e.organization_id, e.event_date, e.type, e.fee_amount
+            ), revenue AS (
+                INSERT INTO event_fee_summaries AS s (organization_id, period_month, event_type,
+                                                      approved_events, approved_fees)
+                SELECT organization_id, date_trunc('month', event_date)::date, type,
+                       COUNT(*), COALESCE(SUM(fee_amount), 0)
+                FROM approved
+                WHERE organization_id IS NOT NULL AND event_date IS NOT NULL AND type IS NOT NULL
+                GROUP BY organization_id, date_trunc('month', event_date)::date, type
+                ON CONFLICT (organization_id, period_month, event_type) DO UPDATE SET
+                    approved_events = s.approved_events + EXCLUDED.approved_events,
+                    approved_fees = s.approved_fees + EXCLUDED.approved_fees,
+                    updated_at = CURRENT_TIMESTAMP
+            )
+            SELECT t.id, a.id IS NOT NULL AS approved
+            FROM target t LEFT JOIN approved a ON a.id = t.id
+            ORDER BY t.id
+            """;
+
+    static final String APPROVE_BY_IDS_SQL = APPROVE_TEMPLATE.formatted("id = ANY (?)");
+
+    static final String APPROVE_BY_RANGE_SQL = APPROVE_TEMPLATE.formatted(
+            "organization_id = ? AND event_date BETWEEN ? AND ? AND status = 'PENDING_APPROVAL'");
+
+    static final String RECORD_REQUESTED_SQL = """
+            INSERT INTO event_fee_summaries AS s (organization_id, period_month, event_type,
+                                                  requested_events, requested_fees)
+            VALUES (?, ?, ?, 1, ?)
+            ON CONFLICT (organization_id, period_month, event_type) DO UPDATE SET
+                requested_events = s.requested_events + 1,
+                requested_fees = s.requested_fees + EXCLUDED.requested_fees,
+                updated_at = CURRENT_TIMESTAMP
+            """;
+
+    static final String REVENUE_SQL = """
+            SELECT period_month, event_type, requested_events, requested_fees, approved_events, approved_fees
+            FROM event_fee_summaries
+            WHERE organization_id = ? AND period_month BETWEEN ? AND ?
+            ORDER BY period_month, event_type
+            """;
+
     private final VillageEventRepository villageEventRepository;
     private final OrganizationRepository organizationRepository;
     private final FamilyRepository familyRepository;
+    private final EventCalendarIndex eventCalendarIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final DocumentService documentService;
+    private final OutboxPublisher outboxPublisher;
 
     @Override
     @Transactional
@@ -76,10 +192,333 @@ public class VillageEventServiceImpl implements VillageEventService {
         event.setFeeAmount(feeToApply);
         event.setStatus(EventStatus.PENDING_APPROVAL);
 
-        // Notify the Chief (log only for now)
-        log.info("Notify Chief: New {} event '{}' requested by family {} in organization {}",
-                type, name, familyId, organizationId);
+        // Double booking check; the slot is held from here and released if this transaction rolls back
+        EventCalendarIndex.Reservation reservation = eventCalendarIndex.reserve(organizationId, eventDate, location, name);
+
+        VillageEvent saved = villageEventRepository.save(event);
+        reservation.confirm(saved.getId());
 
+        // Notify the Chief; delivered from the outbox once this transaction commits
+        log.info("New {} event '{}' requested by family {} in organization {}", type, name, familyId, organizationId);
+        Map<String, Object> notice = new LinkedHashMap<>();
+        notice.put("eventId", saved.getId());
+        notice.put("organizationId", organizationId);
+        notice.put("familyId", familyId);
+        notice.put("type", type);
+        notice.put("name", name);
+        notice.put("eventDate", eventDate.toString());
+        notice.put("location", location);
+        outboxPublisher.publish(EVENT_REQUESTED_TOPIC, "VillageEvent", saved.getId(), notice);
+        // Requested fees roll up by organization, month of the event and type
+        if (type != null) {
+            jdbcTemplate.update(RECORD_REQUESTED_SQL, organizationId, Date.valueOf(eventDate.withDayOfMonth(1)),
+                    type.name(), feeToApply == null ? BigDecimal.ZERO : feeToApply);
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public VillageEvent attachDocument(Long eventId, EventDocument kind, InputStream content, String contentType)
+            throws IOException {
+        VillageEvent event = villageEventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Village event not found: " + eventId));
+        DocumentDto document = documentService.upload(content, contentType);
+        if (kind == EventDocument.DEATH_CERTIFICATE) {
+            event.setDeathCertUrl(document.getUrl());
+            event.setHasDeathCertificate(true);
+        } else {
+            event.setIdCopyUrl(document.getUrl());
+            event.setHasIdCopies(true);
+        }
+        log.info("Village event {}: {} attached ({})", eventId, kind, document.getSha256());
         return villageEventRepository.save(event);
     }
+
+    /**
+     * Technical note: the status change goes through the bulk approval statement, so an event is counted in the
+     * revenue summaries exactly once even when two approvals race. The entity is only loaded after the statement,
+     * so what is returned reflects the row as approved (here or concurrently), and it is not written again.
+     */
+    @Override
+    @Transactional
+    public VillageEvent approve(Long eventId) {
+        Boolean[] approved = {null};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(APPROVE_BY_IDS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", new Object[]{eventId}));
+            return ps;
+        }, (RowCallbackHandler) rs -> approved[0] = rs.getBoolean("approved"));
+        if (approved[0] == null) {
+            throw new ResourceNotFoundException("Village event not found: " + eventId);
+        }
+        VillageEvent event = villageEventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Village event not found: " + eventId));
+        if (approved[0]) {
+            log.info("Village event {} ('{}') approved", eventId, event.getName());
+        } else {
+            log.debug("Village event {} was already approved", eventId);
+        }
+        return event;
+    }
+
+    /**
+     * Technical note: the whole batch is one round trip; a CTE selects the targeted events, a data-modifying
+     * CTE approves the pending ones, and the final SELECT returns an outcome per event. Approving 200 events
+     * is one statement, with no entity loaded.
+     */
+    @Override
+    @Transactional
+    public EventApprovalResult approveAll(List<Long> eventIds, Long organizationId, LocalDate from, LocalDate to) {
+        boolean byIds = eventIds != null && !eventIds.isEmpty();
+        boolean byRange = organizationId != null || from != null || to != null;
+        if (byIds == byRange) {
+            throw new IllegalArgumentException("Provide either eventIds or organizationId with from and to");
+        }
+        EventApprovalResult result = new EventApprovalResult();
+        Set<Long> requested = new LinkedHashSet<>();
+        Set<Long> seen = new HashSet<>();
+        RowCallbackHandler outcomes = rs -> {
+            long id = rs.getLong("id");
+            seen.add(id);
+            boolean approved = rs.getBoolean("approved");
+            result.getResults().add(new EventApprovalResult.Outcome(id, approved
+                    ? EventApprovalResult.Status.APPROVED
+                    : EventApprovalResult.Status.ALREADY_APPROVED));
+        };
+        if (byIds) {
+            requested.addAll(eventIds);
+            requested.remove(null);
+            if (requested.size() > MAX_APPROVAL_BATCH) {
+                throw new IllegalArgumentException("At most " + MAX_APPROVAL_BATCH + " events per approval");
+            }
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(APPROVE_BY_IDS_SQL);
+                Array ids = con.createArrayOf("bigint", requested.toArray());
+                ps.setArray(1, ids);
+                return ps;
+            }, outcomes);
+            for (Long id : requested) {
+                if (!seen.contains(id)) {
+                    result.getResults().add(new EventApprovalResult.Outcome(id, EventApprovalResult.Status.NOT_FOUND));
+                }
+            }
+        } else {
+            if (organizationId == null) {
+                throw new IllegalArgumentException("organizationId is required with from and to");
+            }
+            validateRange(from, to);
+            jdbcTemplate.query(APPROVE_BY_RANGE_SQL, outcomes, organizationId, Date.valueOf(from), Date.valueOf(to));
+        }
+        for (EventApprovalResult.Outcome o : result.getResults()) {
+            switch (o.status()) {
+                case APPROVED -> result.setApproved(result.getApproved() + 1);
+                case ALREADY_APPROVED -> result.setAlreadyApproved(result.getAlreadyApproved() + 1);
+                case NOT_FOUND -> result.setNotFound(result.getNotFound() + 1);
+            }
+        }
+        log.info("Village events approved in bulk: {} approved, {} already approved, {} not found",
+                result.getApproved(), result.getAlreadyApproved(), result.getNotFound());
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VillageEventCalendarDto> findCalendar(Long organizationId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return villageEventRepository.findCalendar(organizationId, from, to).stream()
+                .map(v -> {
+                    VillageEventCalendarDto dto = new VillageEventCalendarDto();
+                    dto.setId(v.getId());
+                    dto.setName(v.getName());
+                    dto.setType(v.getType());
+                    dto.setStatus(v.getStatus());
+                    dto.setEventDate(v.getEventDate());
+                    dto.setLocation(v.getLocation());
+                    dto.setFamilyId(v.getFamilyId());
+                    return dto;
+                })
+                .toList();
+    }
+
+    /**
+     * Technical note: derived from one aggregate over the {@code (organization_id, event_date)} index (count,
+     * last update and id sum), so a client revalidating an unchanged feed costs no event reads at all.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String calendarEtag(Long organizationId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        CalendarVersionView v = villageEventRepository.findCalendarVersion(organizationId, from, to);
+        String version = organizationId + "|" + from + "|" + to + "|" + v.getEvents() + "|" + v.getLastUpdated()
+                + "|" + v.getIdSum();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(version.getBytes(StandardCharsets.UTF_8));
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Technical note: as for the case register export, the query runs forward-only with a fetch size inside a
+     * read-only transaction so the driver uses a server-side cursor, and each event is written as it is read.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportIcs(Long organizationId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        validateRange(from, to);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeLine(writer, "BEGIN:VCALENDAR");
+        writeLine(writer, "VERSION:2.0");
+        writeLine(writer, "PRODID:-//TCMS//Village events//EN");
+        writeLine(writer, "CALSCALE:GREGORIAN");
+        writeLine(writer, "X-WR-CALNAME:" + escapeText("Village events " + organizationId));
+
+        long[] events = {0};
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(ICS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setLong(1, organizationId);
+                ps.setDate(2, Date.valueOf(from));
+                ps.setDate(3, Date.valueOf(to));
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    writeEvent(writer, rs);
+                    events[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writeLine(writer, "END:VCALENDAR");
+        writer.flush();
+        log.info("Exported {} village events for org {} from {} to {} as iCalendar", events[0], organizationId, from, to);
+    }
+
+    private void writeEvent(Writer writer, ResultSet rs) throws IOException, SQLException {
+        LocalDate date = rs.getDate("event_date").toLocalDate();
+        Timestamp updated = rs.getTimestamp("updated_at");
+        LocalDateTime stamp = updated != null ? updated.toLocalDateTime() : LocalDateTime.now();
+        String type = rs.getString("type");
+        String location = rs.getString("location");
+        String description = rs.getString("description");
+
+        writeLine(writer, "BEGIN:VEVENT");
+        writeLine(writer, "UID:village-event-" + rs.getLong("id") + "@tcms");
+        writeLine(writer, "DTSTAMP:" + stamp.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC)
+                .truncatedTo(ChronoUnit.SECONDS).format(ICS_TIMESTAMP));
+        writeLine(writer, "DTSTART;VALUE=DATE:" + date.format(ICS_DATE));
+        writeLine(writer, "DTEND;VALUE=DATE:" + date.plusDays(1).format(ICS_DATE));
+        writeLine(writer, "SUMMARY:" + escapeText(rs.getString("name")));
+        if (type != null) {
+            writeLine(writer, "CATEGORIES:" + escapeText(type));
+        }
+        if (location != null) {
+            writeLine(writer, "LOCATION:" + escapeText(location));
+        }
+        if (description != null) {
+            writeLine(writer, "DESCRIPTION:" + escapeText(description));
+        }
+        // Requests awaiting the chief show as tentative
+        writeLine(writer, "STATUS:" + (EventStatus.APPROVED.name().equals(rs.getString("status")) ? "CONFIRMED" : "TENTATIVE"));
+        writeLine(writer, "END:VEVENT");
+    }
+
+    /**
+     * Technical note: read from {@code event_fee_summaries} only (at most twelve rows per event type through its
+     * primary key); the summaries are kept current by {@link #createEvent} and the approval statement.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public EventFeeRevenueDto feeRevenue(Long organizationId, int year) {
+        if (organizationId == null) {
+            throw new IllegalArgumentException("organizationId is required");
+        }
+        if (year < MIN_YEAR) {
+            throw new IllegalArgumentException("year must not be before " + MIN_YEAR);
+        }
+        EventFeeRevenueDto dto = new EventFeeRevenueDto();
+        dto.setOrganizationId(organizationId);
+        dto.setYear(year);
+        Map<EventType, EventFeeRevenueDto.TypeTotal> byType = new EnumMap<>(EventType.class);
+        jdbcTemplate.query(REVENUE_SQL, (RowCallbackHandler) rs -> {
+            EventFeeRevenueDto.Line line = new EventFeeRevenueDto.Line(
+                    YearMonth.from(rs.getDate("period_month").toLocalDate()),
+                    EventType.valueOf(rs.getString("event_type")),
+                    rs.getLong("requested_events"), rs.getBigDecimal("requested_fees"),
+                    rs.getLong("approved_events"), rs.getBigDecimal("approved_fees"));
+            dto.getMonths().add(line);
+            dto.setRequestedEvents(dto.getRequestedEvents() + line.requestedEvents());
+            dto.setRequestedFees(dto.getRequestedFees().add(line.requestedFees()));
+            dto.setApprovedEvents(dto.getApprovedEvents() + line.approvedEvents());
+            dto.setApprovedFees(dto.getApprovedFees().add(line.approvedFees()));
+            byType.merge(line.type(), new EventFeeRevenueDto.TypeTotal(line.type(), line.requestedEvents(),
+                    line.requestedFees(), line.approvedEvents(), line.approvedFees()), (a, b) ->
+                    new EventFeeRevenueDto.TypeTotal(a.type(), a.requestedEvents() + b.requestedEvents(),
+                            a.requestedFees().add(b.requestedFees()), a.approvedEvents() + b.approvedEvents(),
+                            a.approvedFees().add(b.approvedFees())));
+        }, organizationId, Date.valueOf(LocalDate.of(year, 1, 1)), Date.valueOf(LocalDate.of(year, 12, 1)));
+        dto.setByType(new ArrayList<>(byType.values()));
+        return dto;
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("'from' and 'to' are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("A calendar range spans at most " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    /**
+     * Escape a TEXT value (RFC 5545, 3.3.11): backslash, semicolon, comma and line breaks.
+     */
+    static String escapeText(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> sb.append('\\').append(c);
+                case '\n' -> sb.append("\\n");
+                case '\r' -> {
+                }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write a content line, folded so no physical line exceeds {@link #ICS_LINE_OCTETS} UTF-8 octets; continuation
+     * lines start with a space and multi-byte characters are never split.
+     */
+    static void writeLine(Writer writer, String line) throws IOException {
+        int octets = 0;
+        int limit = ICS_LINE_OCTETS;
+        for (int i = 0; i < line.length(); ) {
+            int cp = line.codePointAt(i);
+            int size = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            if (octets + size > limit) {
+                writer.write("\r\n ");
+                octets = 0;
+                limit = ICS_LINE_OCTETS - 1;
+            }
+            writer.write(Character.toChars(cp));
+            octets += size;
+            i += Character.charCount(cp);
+        }
+        writer.write("\r\n");
+    }
 }
@@ -0,0 +1,23 @@
+package com.tbf.tcms.service.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in channel until a real gateway is wired: writes each notification to the application log.
+ */
+@Component
+@Slf4j
+public class LogOutboxSink implements OutboxSink {
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void deliver(OutboxMessage message) {
+        log.info("Notification {} [{}] {} {}: {}", message.id(), message.topic(), message.aggregateType(),
+                message.aggregateId(), message.payload());
+    }
+}
@@ -0,0 +1,177 @@
+package com.tbf.tcms.service.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers outbox messages to every {@link OutboxSink} in the background.
+ * Technical note: each batch is claimed with {@code FOR UPDATE SKIP LOCKED} inside its own transaction and stays
+ * locked until its outcome is written, so several application instances can poll the same table without
+ * delivering a message twice or waiting on each other. Delivered messages are marked in one statement; failed
+ * ones are retried with exponential backoff and parked as FAILED after {@link #MAX_ATTEMPTS} attempts.
+ */
+@Component
+@ConditionalOnProperty(name = "tcms.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxDispatcher {
+
+    static final int BATCH_SIZE = 100;
+    static final int MAX_BATCHES_PER_RUN = 20;
+    static final int MAX_ATTEMPTS = 10;
+    static final int MAX_ERROR_LENGTH = 1000;
+    static final Duration BASE_BACKOFF = Duration.ofSeconds(10);
+    static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    static final Duration RETENTION = Duration.ofDays(7);
+
+    static final String CLAIM_SQL = """
+            SELECT id, topic, aggregate_type, aggregate_id, payload::text AS payload, attempts, created_at
+            FROM outbox_messages
+            WHERE status = 'PENDING' AND available_at <= CURRENT_TIMESTAMP
+            ORDER BY available_at, id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    static final String DISPATCHED_SQL = "UPDATE outbox_messages SET status = 'DISPATCHED', attempts = attempts + 1, " +
+            "dispatched_at = CURRENT_TIMESTAMP, last_error = NULL WHERE id = ANY (?)";
+
+    static final String FAILED_SQL = "UPDATE outbox_messages SET status = ?, attempts = ?, available_at = ?, " +
+            "last_error = ? WHERE id = ?";
+
+    static final String PURGE_SQL = "DELETE FROM outbox_messages WHERE status = 'DISPATCHED' AND dispatched_at < ?";
+
+    private static final RowMapper<OutboxMessage> MESSAGE = (rs, i) -> {
+        long aggregateId = rs.getLong("aggregate_id");
+        return new OutboxMessage(rs.getLong("id"), rs.getString("topic"), rs.getString("aggregate_type"),
+                rs.wasNull() ? null : aggregateId, rs.getString("payload"), rs.getInt("attempts"),
+                rs.getTimestamp("created_at").toLocalDateTime());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final List<OutboxSink> sinks;
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            List<OutboxSink> sinks) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.sinks = List.copyOf(sinks);
+    }
+
+    /**
+     * Deliver due messages, batch by batch, until the backlog is drained or {@link #MAX_BATCHES_PER_RUN} batches
+     * have been handled. Returns the number of messages delivered.
+     */
+    @Scheduled(fixedDelayString = "${tcms.outbox.poll-interval:PT2S}")
+    public int dispatch() {
+        int delivered = 0;
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            BatchOutcome outcome = tx.execute(status -> dispatchBatch());
+            if (outcome == null || outcome.claimed() == 0) {
+                break;
+            }
+            delivered += outcome.delivered();
+            if (outcome.claimed() < BATCH_SIZE) {
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    @Scheduled(cron = "${tcms.outbox.purge-cron:0 15 * * * *}")
+    public int purge() {
+        int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now().minus(RETENTION)));
+        if (purged > 0) {
+            log.info("Outbox: purged {} delivered messages older than {}", purged, RETENTION);
+        }
+        return purged;
+    }
+
+    private BatchOutcome dispatchBatch() {
+        List<OutboxMessage> messages = jdbcTemplate.query(CLAIM_SQL, MESSAGE, BATCH_SIZE);
+        if (messages.isEmpty()) {
+            return new BatchOutcome(0, 0);
+        }
+        List<Long> delivered = new ArrayList<>(messages.size());
+        List<Failure> failures = new ArrayList<>();
+        for (OutboxMessage message : messages) {
+            try {
+                for (OutboxSink sink : sinks) {
+                    if (sink.accepts(message.topic())) {
+                        deliver(sink, message);
+                    }
+                }
+                delivered.add(message.id());
+            } catch (Exception e) {
+                failures.add(new Failure(message, e));
+            }
+        }
+        if (!delivered.isEmpty()) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(DISPATCHED_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", delivered.toArray()));
+                return ps;
+            });
+        }
+        if (!failures.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.batchUpdate(FAILED_SQL, failures, failures.size(), (ps, f) -> {
+                int attempts = f.message().attempts() + 1;
+                ps.setString(1, attempts >= MAX_ATTEMPTS ? "FAILED" : "PENDING");
+                ps.setInt(2, attempts);
+                ps.setTimestamp(3, Timestamp.valueOf(now.plus(backoff(attempts))));
+                ps.setString(4, truncate(f.error().getMessage()));
+                ps.setLong(5, f.message().id());
+            });
+            failures.forEach(f -> log.warn("Outbox message {} ({}) failed on attempt {}: {}", f.message().id(),
+                    f.message().topic(), f.message().attempts() + 1, f.error().getMessage()));
+        }
+        return new BatchOutcome(messages.size(), delivered.size());
+    }
+
+    private void deliver(OutboxSink sink, OutboxMessage message) throws Exception {
+        try {
+            sink.deliver(message);
+        } catch (Exception e) {
+            throw new SinkException(sink.name(), e);
+        }
+    }
+
+    /**
+     * Delay before the next attempt: {@link #BASE_BACKOFF} doubled per failed attempt, capped at {@link #MAX_BACKOFF}.
+     */
+    static Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << doublings);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private record BatchOutcome(int claimed, int delivered) {
+    }
+
+    private record Failure(OutboxMessage message, Exception error) {
+    }
+
+    private static final class SinkException extends Exception {
+        SinkException(String sink, Exception cause) {
+            super("sink '" + sink + "': " + cause, cause);
+        }
+    }
+}
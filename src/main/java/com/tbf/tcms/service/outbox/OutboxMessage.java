@@ -0,0 +1,10 @@
+package com.tbf.tcms.service.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification claimed from the outbox for delivery. {@code attempts} counts earlier failed deliveries.
+ */
+public record OutboxMessage(long id, String topic, String aggregateType, Long aggregateId, String payload,
+                            int attempts, LocalDateTime createdAt) {
+}
@@ -0,0 +1,30 @@
+package com.tbf.tcms.service.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+
+/**
+ * Records notifications in the outbox as part of the caller's transaction: a rolled-back change never notifies,
+ * and a committed one is delivered by {@link OutboxDispatcher} even if a channel is down at the time.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    static final String INSERT_SQL = "INSERT INTO outbox_messages (topic, aggregate_type, aggregate_id, payload) " +
+            "VALUES (?, ?, ?, ?::jsonb)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String topic, String aggregateType, Long aggregateId, Map<String, ?> payload) {
+        jdbcTemplate.update(INSERT_SQL, topic, aggregateType, aggregateId, objectMapper.writeValueAsString(payload));
+    }
+}
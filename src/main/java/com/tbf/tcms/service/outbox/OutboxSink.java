@@ -0,0 +1,17 @@
+package com.tbf.tcms.service.outbox;
+
+/**
+ * A delivery channel for outbox messages (SMS gateway, e-mail, webhook, ...). Every sink bean that accepts a
+ * topic receives each of its messages; a thrown exception schedules the message for a retry, so delivery is
+ * at least once and sinks should tolerate repeats (the message id is stable).
+ */
+public interface OutboxSink {
+
+    String name();
+
+    default boolean accepts(String topic) {
+        return true;
+    }
+
+    void deliver(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,411 @@
+package com.tbf.tcms.service.spatial;
+
+import com.tbf.tcms.domain.enums.StandType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable R-tree over stand locations, bulk-loaded with Sort-Tile-Recursive packing.
+ * Technical note: coordinates are projected onto a local plane in metres (equirectangular around the
+ * organization's mean latitude), which is accurate at village scale and keeps distance maths cheap.
+ * Allocation flags live on the shared {@link StandRTree.Entry} objects, so allocation changes never rebuild the tree.
+ * Single-stand changes go through {@link #with} and {@link #without}, which copy only the nodes on one root-to-leaf
+ * path; readers holding the previous tree are unaffected.
+ */
+final class StandRTree {
+
+    static final int NODE_CAPACITY = 16;
+
+    private static final double METRES_PER_DEGREE_LAT = 110_540d;
+    private static final double METRES_PER_DEGREE_LON = 111_320d;
+
+    private final Node root;
+    private final int size;
+    private final double lonScale;
+
+    private StandRTree(Node root, int size, double lonScale) {
+        this.root = root;
+        this.size = size;
+        this.lonScale = lonScale;
+    }
+
+    static StandRTree build(List<Entry> entries) {
+        List<Entry> copy = List.copyOf(entries);
+        double meanLat = copy.stream().mapToDouble(Entry::latitude).average().orElse(0d);
+        double lonScale = METRES_PER_DEGREE_LON * Math.cos(Math.toRadians(meanLat));
+        if (copy.isEmpty()) {
+            return new StandRTree(null, 0, lonScale);
+        }
+        List<Node> level = new ArrayList<>();
+        List<Point> points = new ArrayList<>(copy.size());
+        for (Entry e : copy) {
+            points.add(new Point(e, e.longitude() * lonScale, e.latitude() * METRES_PER_DEGREE_LAT));
+        }
+        for (List<Point> group : strGroups(points, p -> p.x, p -> p.y)) {
+            level.add(Node.leaf(group.toArray(new Point[0])));
+        }
+        while (level.size() > 1) {
+            List<Node> parents = new ArrayList<>();
+            for (List<Node> group : strGroups(level, Node::centerX, Node::centerY)) {
+                parents.add(Node.inner(group.toArray(new Node[0])));
+            }
+            level = parents;
+        }
+        return new StandRTree(level.get(0), copy.size(), lonScale);
+    }
+
+    List<Entry> entries() {
+        List<Entry> result = new ArrayList<>(size);
+        if (root == null) {
+            return result;
+        }
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node.points != null) {
+                for (Point p : node.points) {
+                    result.add(p.entry);
+                }
+            } else {
+                for (Node child : node.children) {
+                    stack.push(child);
+                }
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * A copy of this tree with the entry added under the leaf whose box grows least, splitting full nodes on the way
+     * back up. The projection chosen at build time is kept.
+     */
+    StandRTree with(Entry entry) {
+        Point point = point(entry);
+        if (root == null) {
+            return new StandRTree(Node.leaf(new Point[]{point}), 1, lonScale);
+        }
+        Node[] replaced = insert(root, point);
+        return new StandRTree(replaced.length == 1 ? replaced[0] : Node.inner(replaced), size + 1, lonScale);
+    }
+
+    /**
+     * A copy of this tree without the entry, located by its indexed position; this tree itself when it is not indexed.
+     */
+    StandRTree without(Entry entry) {
+        if (root == null) {
+            return this;
+        }
+        Point point = point(entry);
+        Node replaced = remove(root, entry.id(), point.x, point.y);
+        if (replaced == root) {
+            return this;
+        }
+        while (replaced != null && replaced.children != null && replaced.children.length == 1) {
+            replaced = replaced.children[0];
+        }
+        return new StandRTree(replaced, size - 1, lonScale);
+    }
+
+    /**
+     * Entries inside the latitude/longitude box that satisfy the filter, up to {@code limit}.
+     */
+    List<Entry> within(double minLat, double minLon, double maxLat, double maxLon, Predicate<Entry> filter, int limit) {
+        List<Entry> result = new ArrayList<>();
+        if (root == null) {
+            return result;
+        }
+        double minX = minLon * lonScale;
+        double maxX = maxLon * lonScale;
+        double minY = minLat * METRES_PER_DEGREE_LAT;
+        double maxY = maxLat * METRES_PER_DEGREE_LAT;
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty() && result.size() < limit) {
+            Node node = stack.pop();
+            if (!node.intersects(minX, minY, maxX, maxY)) {
+                continue;
+            }
+            if (node.points != null) {
+                for (Point p : node.points) {
+                    if (p.x >= minX && p.x <= maxX && p.y >= minY && p.y <= maxY && filter.test(p.entry)) {
+                        result.add(p.entry);
+                        if (result.size() >= limit) {
+                            break;
+                        }
+                    }
+                }
+            } else {
+                for (Node child : node.children) {
+                    stack.push(child);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The {@code k} entries closest to the given location that satisfy the filter, nearest first (best-first search).
+     */
+    List<Neighbour> nearest(double lat, double lon, int k, Predicate<Entry> filter) {
+        List<Neighbour> result = new ArrayList<>(k);
+        if (root == null || k <= 0) {
+            return result;
+        }
+        double qx = lon * lonScale;
+        double qy = lat * METRES_PER_DEGREE_LAT;
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distanceSquared));
+        queue.add(new Candidate(root.minDistanceSquared(qx, qy), root, null));
+        while (!queue.isEmpty() && result.size() < k) {
+            Candidate c = queue.poll();
+            if (c.point != null) {
+                result.add(new Neighbour(c.point.entry, Math.sqrt(c.distanceSquared)));
+            } else if (c.node.points != null) {
+                for (Point p : c.node.points) {
+                    if (filter.test(p.entry)) {
+                        double dx = p.x - qx;
+                        double dy = p.y - qy;
+                        queue.add(new Candidate(dx * dx + dy * dy, null, p));
+                    }
+                }
+            } else {
+                for (Node child : c.node.children) {
+                    queue.add(new Candidate(child.minDistanceSquared(qx, qy), child, null));
+                }
+            }
+        }
+        return result;
+    }
+
+    private Point point(Entry e) {
+        return new Point(e, e.longitude() * lonScale, e.latitude() * METRES_PER_DEGREE_LAT);
+    }
+
+    // The node's replacement: itself updated, or two halves when it overflowed
+    private static Node[] insert(Node node, Point point) {
+        if (node.points != null) {
+            Point[] points = Arrays.copyOf(node.points, node.points.length + 1);
+            points[node.points.length] = point;
+            return points.length <= NODE_CAPACITY
+                    ? new Node[]{Node.leaf(points)}
+                    : split(points, Point::x, Point::y, Node::leaf);
+        }
+        int best = 0;
+        double bestGrowth = Double.POSITIVE_INFINITY;
+        double bestArea = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < node.children.length; i++) {
+            Node child = node.children[i];
+            double area = child.area();
+            double growth = child.areaWith(point.x, point.y) - area;
+            if (growth < bestGrowth || (growth == bestGrowth && area < bestArea)) {
+                best = i;
+                bestGrowth = growth;
+                bestArea = area;
+            }
+        }
+        Node[] replaced = insert(node.children[best], point);
+        Node[] children = Arrays.copyOf(node.children, node.children.length + replaced.length - 1);
+        children[best] = replaced[0];
+        if (replaced.length == 2) {
+            children[node.children.length] = replaced[1];
+        }
+        return children.length <= NODE_CAPACITY
+                ? new Node[]{Node.inner(children)}
+                : split(children, Node::centerX, Node::centerY, Node::inner);
+    }
+
+    // The node's replacement: itself when the entry is not under it, null when it became empty
+    private static Node remove(Node node, long id, double x, double y) {
+        if (!node.intersects(x, y, x, y)) {
+            return node;
+        }
+        if (node.points != null) {
+            for (int i = 0; i < node.points.length; i++) {
+                if (node.points[i].entry.id() == id) {
+                    return node.points.length == 1 ? null : Node.leaf(removeAt(node.points, i));
+                }
+            }
+            return node;
+        }
+        for (int i = 0; i < node.children.length; i++) {
+            Node child = node.children[i];
+            Node replaced = remove(child, id, x, y);
+            if (replaced == child) {
+                continue;
+            }
+            if (replaced == null) {
+                return node.children.length == 1 ? null : Node.inner(removeAt(node.children, i));
+            }
+            Node[] children = node.children.clone();
+            children[i] = replaced;
+            return Node.inner(children);
+        }
+        return node;
+    }
+
+    private static <T> T[] removeAt(T[] items, int index) {
+        T[] result = Arrays.copyOf(items, items.length - 1);
+        System.arraycopy(items, index + 1, result, index, items.length - index - 1);
+        return result;
+    }
+
+    // Halves at the median of the wider axis
+    private static <T> Node[] split(T[] items, ToDoubleFunction<T> x, ToDoubleFunction<T> y, Function<T[], Node> node) {
+        T[] sorted = items.clone();
+        Arrays.sort(sorted, Comparator.comparingDouble(spread(items, x) >= spread(items, y) ? x : y));
+        int half = sorted.length / 2;
+        return new Node[]{node.apply(Arrays.copyOfRange(sorted, 0, half)),
+                node.apply(Arrays.copyOfRange(sorted, half, sorted.length))};
+    }
+
+    private static <T> double spread(T[] items, ToDoubleFunction<T> axis) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (T item : items) {
+            min = Math.min(min, axis.applyAsDouble(item));
+            max = Math.max(max, axis.applyAsDouble(item));
+        }
+        return max - min;
+    }
+
+    private static <T> List<List<T>> strGroups(List<T> items,
+                                               ToDoubleFunction<T> x,
+                                               ToDoubleFunction<T> y) {
+        int n = items.size();
+        int leafCount = (int) Math.ceil(n / (double) NODE_CAPACITY);
+        int sliceCount = (int) Math.ceil(Math.sqrt(leafCount));
+        int sliceSize = sliceCount * NODE_CAPACITY;
+
+        List<T> byX = new ArrayList<>(items);
+        byX.sort(Comparator.comparingDouble(x));
+        List<List<T>> groups = new ArrayList<>(leafCount);
+        for (int s = 0; s < n; s += sliceSize) {
+            List<T> slice = new ArrayList<>(byX.subList(s, Math.min(n, s + sliceSize)));
+            slice.sort(Comparator.comparingDouble(y));
+            for (int g = 0; g < slice.size(); g += NODE_CAPACITY) {
+                groups.add(slice.subList(g, Math.min(slice.size(), g + NODE_CAPACITY)));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Indexed stand. Position and descriptive fields are fixed; the allocation flag is updated in place.
+     */
+    static final class Entry {
+        private final long id;
+        private final long organizationId;
+        private final String standNumber;
+        private final StandType type;
+        private final double latitude;
+        private final double longitude;
+        private volatile boolean allocated;
+
+        Entry(long id, long organizationId, String standNumber, StandType type,
+              double latitude, double longitude, boolean allocated) {
+            this.id = id;
+            this.organizationId = organizationId;
+            this.standNumber = standNumber;
+            this.type = type;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.allocated = allocated;
+        }
+
+        long id() { return id; }
+        long organizationId() { return organizationId; }
+        String standNumber() { return standNumber; }
+        StandType type() { return type; }
+        double latitude() { return latitude; }
+        double longitude() { return longitude; }
+        boolean allocated() { return allocated; }
+        void allocated(boolean allocated) { this.allocated = allocated; }
+    }
+
+    record Neighbour(Entry entry, double distanceMetres) {
+    }
+
+    private record Point(Entry entry, double x, double y) {
+    }
+
+    private record Candidate(double distanceSquared, Node node, Point point) {
+    }
+
+    private static final class Node {
+        final double minX, minY, maxX, maxY;
+        final Node[] children;
+        final Point[] points;
+
+        private Node(double minX, double minY, double maxX, double maxY, Node[] children, Point[] points) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.children = children;
+            this.points = points;
+        }
+
+        static Node leaf(Point[] points) {
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (Point p : points) {
+                minX = Math.min(minX, p.x);
+                minY = Math.min(minY, p.y);
+                maxX = Math.max(maxX, p.x);
+                maxY = Math.max(maxY, p.y);
+            }
+            return new Node(minX, minY, maxX, maxY, null, points);
+        }
+
+        static Node inner(Node[] children) {
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (Node c : children) {
+                minX = Math.min(minX, c.minX);
+                minY = Math.min(minY, c.minY);
+                maxX = Math.max(maxX, c.maxX);
+                maxY = Math.max(maxY, c.maxY);
+            }
+            return new Node(minX, minY, maxX, maxY, children, null);
+        }
+
+        double area() {
+            return (maxX - minX) * (maxY - minY);
+        }
+
+        double areaWith(double x, double y) {
+            return (Math.max(maxX, x) - Math.min(minX, x)) * (Math.max(maxY, y) - Math.min(minY, y));
+        }
+
+        double centerX() {
+            return (minX + maxX) / 2;
+        }
+
+        double centerY() {
+            return (minY + maxY) / 2;
+        }
+
+        boolean intersects(double qMinX, double qMinY, double qMaxX, double qMaxY) {
+            return minX <= qMaxX && maxX >= qMinX && minY <= qMaxY && maxY >= qMinY;
+        }
+
+        double minDistanceSquared(double x, double y) {
+            double dx = x < minX ? minX - x : (x > maxX ? x - maxX : 0);
+            double dy = y < minY ? minY - y : (y > maxY ? y - maxY : 0);
+            return dx * dx + dy * dy;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.tbf.tcms.service.spatial;
+
+import com.tbf.tcms.domain.LandStand;
+import com.tbf.tcms.domain.enums.StandType;
+import com.tbf.tcms.repository.LandStandRepository;
+import com.tbf.tcms.repository.projection.StandLocationView;
+import com.tbf.tcms.util.TransactionHooks;
+import com.tbf.tcms.web.dto.landstand.StandLocationDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory spatial index of located land stands, one R-tree per organization.
+ * Technical note: trees are copy-on-write. A moved stand is removed and re-inserted along one root-to-leaf path
+ * after commit, and allocation changes flip a flag on the indexed entry, so neither rebuilds a tree and
+ * nearest/bounding-box queries never touch the database. Only loads and reloads pack whole trees.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StandSpatialIndex {
+
+    private final LandStandRepository landStandRepository;
+
+    private final Map<Long, StandRTree> treesByOrganization = new ConcurrentHashMap<>();
+    private final Map<Long, StandRTree.Entry> entriesById = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        Map<Long, List<StandRTree.Entry>> byOrg = landStandRepository.findAllLocated().stream()
+                .filter(row -> row.getOrganizationId() != null)
+                .map(this::toEntry)
+                .collect(Collectors.groupingBy(StandRTree.Entry::organizationId));
+        treesByOrganization.clear();
+        entriesById.clear();
+        byOrg.forEach(this::install);
+        log.info("Stand spatial index loaded: {} stands across {} organizations", entriesById.size(), byOrg.size());
+    }
+
+    /**
+     * Rebuild one organization's tree from the database, e.g. after a bulk import.
+     */
+    public synchronized void reloadOrganization(Long organizationId) {
+        StandRTree previous = treesByOrganization.remove(organizationId);
+        if (previous != null) {
+            previous.entries().forEach(e -> entriesById.remove(e.id()));
+        }
+        List<StandRTree.Entry> entries = landStandRepository.findLocatedByOrganizationId(organizationId).stream()
+                .map(this::toEntry)
+                .toList();
+        install(organizationId, entries);
+        log.info("Stand spatial index reloaded for org {}: {} stands", organizationId, entries.size());
+    }
+
+    /**
+     * Mark a stand allocated once the allocating transaction commits.
+     */
+    public void standAllocated(Long standId) {
+        TransactionHooks.afterCommit(() -> {
+            StandRTree.Entry entry = entriesById.get(standId);
+            if (entry != null) {
+                entry.allocated(true);
+            }
+        });
+    }
+
+    /**
+     * Re-index a stand whose position (or organization) changed, once the transaction commits.
+     */
+    public void standLocated(LandStand stand) {
+        if (stand.getId() == null || stand.getOrganization() == null
+                || stand.getLatitude() == null || stand.getLongitude() == null) {
+            return;
+        }
+        StandRTree.Entry entry = new StandRTree.Entry(stand.getId(), stand.getOrganization().getId(),
+                stand.getStandNumber(), stand.getType(), stand.getLatitude(), stand.getLongitude(), stand.isAllocated());
+        TransactionHooks.afterCommit(() -> replace(entry));
+    }
+
+    public List<StandLocationDto> nearest(Long organizationId, double latitude, double longitude, int k,
+                                          StandType type, boolean includeAllocated) {
+        StandRTree tree = treesByOrganization.get(organizationId);
+        if (tree == null) {
+            return List.of();
+        }
+        Predicate<StandRTree.Entry> filter = e -> (includeAllocated || !e.allocated()) && (type == null || e.type() == type);
+        List<StandLocationDto> result = new ArrayList<>(k);
+        for (StandRTree.Neighbour n : tree.nearest(latitude, longitude, k, filter)) {
+            StandLocationDto dto = toDto(n.entry());
+            dto.setDistanceMeters(Math.round(n.distanceMetres() * 10) / 10.0);
+            result.add(dto);
+        }
+        return result;
+    }
+
+    public List<StandLocationDto> within(Long organizationId, double minLatitude, double minLongitude,
+                                         double maxLatitude, double maxLongitude,
+                                         Boolean allocated, StandType type, int limit) {
+        StandRTree tree = treesByOrganization.get(organizationId);
+        if (tree == null) {
+            return List.of();
+        }
+        Predicate<StandRTree.Entry> filter = e -> (allocated == null || e.allocated() == allocated)
+                && (type == null || e.type() == type);
+        return tree.within(minLatitude, minLongitude, maxLatitude, maxLongitude, filter, limit).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    private synchronized void replace(StandRTree.Entry entry) {
+        StandRTree.Entry previous = entriesById.put(entry.id(), entry);
+        if (previous != null) {
+            StandRTree tree = treesByOrganization.get(previous.organizationId());
+            if (tree != null) {
+                treesByOrganization.put(previous.organizationId(), tree.without(previous));
+            }
+        }
+        StandRTree tree = treesByOrganization.get(entry.organizationId());
+        treesByOrganization.put(entry.organizationId(),
+                tree == null ? StandRTree.build(List.of(entry)) : tree.with(entry));
+    }
+
+    private void install(Long organizationId, List<StandRTree.Entry> entries) {
+        entries.forEach(e -> entriesById.put(e.id(), e));
+        treesByOrganization.put(organizationId, StandRTree.build(entries));
+    }
+
+    private StandRTree.Entry toEntry(StandLocationView row) {
+        return new StandRTree.Entry(row.getId(), row.getOrganizationId(), row.getStandNumber(), row.getType(),
+                row.getLatitude(), row.getLongitude(), Boolean.TRUE.equals(row.getAllocated()));
+    }
+
+    private StandLocationDto toDto(StandRTree.Entry e) {
+        StandLocationDto dto = new StandLocationDto();
+        dto.setId(e.id());
+        dto.setStandNumber(e.standNumber());
+        dto.setType(e.type());
+        dto.setAllocated(e.allocated());
+        dto.setLatitude(e.latitude());
+        dto.setLongitude(e.longitude());
+        return dto;
+    }
+}
@@ -0,0 +1,70 @@
+package com.tbf.tcms.service.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Content-addressed byte store for uploaded documents: content is written once and addressed by its SHA-256.
+ * {@link LocalDocumentStorage} keeps it on the local filesystem; an object store can implement the same contract.
+ */
+public interface DocumentStorage {
+
+    /**
+     * Stream content into the store while hashing it, without holding it in memory.
+     *
+     * @param maxBytes content longer than this is rejected with an {@link IllegalArgumentException}
+     */
+    StoredContent store(InputStream content, long maxBytes) throws IOException;
+
+    /**
+     * Open stored content for reading, or empty when nothing is stored under the hash.
+     */
+    Optional<Content> open(String sha256) throws IOException;
+
+    /**
+     * The file holding the content, when the store keeps it on the local filesystem (so the servlet container
+     * can send it itself); empty for remote stores or when nothing is stored under the hash.
+     */
+    default Optional<Path> localFile(String sha256) {
+        return Optional.empty();
+    }
+
+    /**
+     * @param created false when identical content was already stored
+     */
+    record StoredContent(String sha256, long size, boolean created) {
+    }
+
+    /**
+     * Readable stored content; close it when done.
+     */
+    interface Content extends Closeable {
+
+        long size() throws IOException;
+
+        /**
+         * Copy {@code count} bytes starting at {@code position} to the target.
+         */
+        void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+    }
+
+    /**
+     * Lower-case hex SHA-256, which is all a storage key may be (so keys can never name a path).
+     */
+    static boolean isValidKey(String sha256) {
+        if (sha256 == null || sha256.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < sha256.length(); i++) {
+            char c = sha256.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
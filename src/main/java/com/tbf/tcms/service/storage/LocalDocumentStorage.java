@@ -0,0 +1,154 @@
+package com.tbf.tcms.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Document storage on the local filesystem, under {@code tcms.documents.storage-dir}.
+ * Technical note: uploads are copied through one 64 KiB direct buffer into a temporary file in the store while
+ * the digest is updated, then moved atomically to {@code ab/cd/<sha256>}; content that is already present is
+ * simply dropped, so identical uploads share one file. Reads use {@link FileChannel#transferTo}; only a
+ * file or socket channel target gets a kernel-side copy, any other channel is fed through a heap buffer. Downloads
+ * therefore hand {@link #localFile} to the container's sendfile where it is available.
+ */
+@Component
+@Slf4j
+public class LocalDocumentStorage implements DocumentStorage {
+
+    static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+
+    public LocalDocumentStorage(@Value("${tcms.documents.storage-dir:data/documents}") Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+    }
+
+    @Override
+    public StoredContent store(InputStream content, long maxBytes) throws IOException {
+        Files.createDirectories(incoming);
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            ReadableByteChannel source = Channels.newChannel(content);
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (source.read(buffer) >= 0) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("Document is larger than " + maxBytes + " bytes");
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                out.force(true);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            if (Files.exists(target)) {
+                return new StoredContent(hash, size, false);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Stored concurrently by another upload of the same content
+                return new StoredContent(hash, size, false);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log.debug("Stored document {} ({} bytes)", hash, size);
+            return new StoredContent(hash, size, true);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Content> open(String sha256) throws IOException {
+        if (!DocumentStorage.isValidKey(sha256)) {
+            return Optional.empty();
+        }
+        try {
+            FileChannel channel = FileChannel.open(path(sha256), StandardOpenOption.READ);
+            return Optional.of(new FileContent(channel));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String sha256) {
+        if (!DocumentStorage.isValidKey(sha256)) {
+            return Optional.empty();
+        }
+        Path file = path(sha256);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    // Two levels of fan-out keep directories small: ab/cd/abcd...
+    Path path(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record FileContent(FileChannel channel) implements Content {
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            long end = Math.min(position + count, channel.size());
+            long at = position;
+            // transferTo may move fewer bytes than asked, e.g. when the target is a non-blocking socket
+            while (at < end) {
+                long moved = channel.transferTo(at, end - at, target);
+                if (moved <= 0) {
+                    break;
+                }
+                at += moved;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.tbf.tcms.util;
+
+/**
+ * Normalized lookup keys for residents. The expression indexes in {@code V14__index_resident_lookup_keys.sql}
+ * apply the same rules in SQL, so keys computed here can be matched against them directly.
+ */
+public final class ResidentKeys {
+
+    // South African subscriber numbers: the last 9 digits, whether written 082..., 27 82... or +27 82...
+    public static final int PHONE_KEY_DIGITS = 9;
+
+    private ResidentKeys() {
+    }
+
+    /**
+     * Identity number without spaces or dashes, in upper case (passport numbers carry letters); null when blank.
+     */
+    public static String idNumber(String idNumber) {
+        if (idNumber == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(idNumber.length());
+        for (int i = 0; i < idNumber.length(); i++) {
+            char c = idNumber.charAt(i);
+            if (c != '-' && !Character.isWhitespace(c)) {
+                sb.append(Character.toUpperCase(c));
+            }
+        }
+        return sb.isEmpty() ? null : sb.toString();
+    }
+
+    /**
+     * Last {@link #PHONE_KEY_DIGITS} digits of a phone number; null when it has fewer digits than that.
+     */
+    public static String phone(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.length() < PHONE_KEY_DIGITS ? null : digits.substring(digits.length() - PHONE_KEY_DIGITS);
+    }
+}
@@ -0,0 +1,123 @@
+package com.tbf.tcms.web;
+
+import com.tbf.tcms.service.DocumentService;
+import com.tbf.tcms.web.dto.document.DocumentDto;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/documents")
+@RequiredArgsConstructor
+@Tag(name = "Documents", description = "Supporting documents for events and cases")
+public class DocumentController {
+
+    // Tomcat's sendfile contract (org.apache.catalina.Globals); end is exclusive
+    static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final DocumentService documentService;
+
+    // Upload evidence (e.g. for a dispute case); the returned url is what the record keeps
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public ResponseEntity<DocumentDto> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            DocumentDto dto = documentService.upload(in, file.getContentType());
+            return ResponseEntity.status(dto.isCreated() ? HttpStatus.CREATED : HttpStatus.OK).body(dto);
+        }
+    }
+
+    // Content never changes under its hash, so the hash is a strong ETag and clients may cache for good;
+    // a single byte range (Range: bytes=a-b) is served as 206 for resumable downloads and PDF viewers.
+    // Where the connector supports it, the file is handed to Tomcat's sendfile so the bytes never enter the heap;
+    // otherwise it is streamed through the storage channel.
+    @GetMapping("/{sha256}")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable String sha256,
+                                                          @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                          WebRequest request, HttpServletRequest servletRequest) {
+        DocumentDto doc = documentService.get(sha256);
+        String etag = "\"" + doc.getSha256() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        long size = doc.getSize();
+        long start = 0;
+        long end = size - 1;
+        boolean partial = false;
+        if (range != null) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Several ranges would need multipart/byteranges; answering with the whole document is allowed instead
+            if (ranges.size() == 1) {
+                HttpRange r = ranges.get(0);
+                try {
+                    start = r.getRangeStart(size);
+                    end = r.getRangeEnd(size);
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                            .build();
+                }
+                partial = true;
+            }
+        }
+        long position = start;
+        long length = end - start + 1;
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(doc.getContentType()))
+                .contentLength(length)
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header("X-Content-Type-Options", "nosniff")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + doc.getSha256() + "\"");
+        if (partial) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        Optional<Path> file = Boolean.TRUE.equals(servletRequest.getAttribute(SENDFILE_SUPPORTED_ATTR))
+                ? documentService.localFile(doc.getSha256())
+                : Optional.empty();
+        if (file.isPresent()) {
+            servletRequest.setAttribute(SENDFILE_FILENAME_ATTR, file.get().toString());
+            servletRequest.setAttribute(SENDFILE_START_ATTR, position);
+            servletRequest.setAttribute(SENDFILE_END_ATTR, position + length);
+            return response.build();
+        }
+        StreamingResponseBody body = out -> documentService.transferTo(doc.getSha256(), position, length,
+                Channels.newChannel(out));
+        return response.body(body);
+    }
+}
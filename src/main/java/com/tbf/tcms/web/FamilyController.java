@@ -0,0 +1,57 @@
+package com.tbf.tcms.web;
+
+import com.tbf.tcms.service.FamilyService;
+import com.tbf.tcms.service.HouseholdImportService;
+import com.tbf.tcms.web.dto.family.HouseholdDto;
+import com.tbf.tcms.web.dto.family.HouseholdImportReport;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/families")
+@RequiredArgsConstructor
+@Tag(name = "Families", description = "Households and their residents")
+public class FamilyController {
+
+    private final HouseholdImportService householdImportService;
+    private final FamilyService familyService;
+
+    // Household screen: family, residents and the last few years of levies (years, default 5)
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK','USER')")
+    public HouseholdDto household(@PathVariable Long id, @RequestParam(defaultValue = "5") int years) {
+        return familyService.getHousehold(id, years);
+    }
+
+    // Census intake: register a village's households and residents from a CSV or NDJSON register
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public HouseholdImportReport importHouseholds(@RequestParam("file") MultipartFile file,
+                                                  @RequestParam Long orgId,
+                                                  @RequestParam(required = false) HouseholdImportService.Format format,
+                                                  @RequestParam(defaultValue = "false") boolean dryRun) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return householdImportService.importHouseholds(orgId, in, format != null ? format : detectFormat(file), dryRun);
+        }
+    }
+
+    private HouseholdImportService.Format detectFormat(MultipartFile file) {
+        String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase();
+        String contentType = file.getContentType() == null ? "" : file.getContentType();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") || contentType.contains("ndjson")
+                ? HouseholdImportService.Format.NDJSON
+                : HouseholdImportService.Format.CSV;
+    }
+}
@@ -3,15 +3,30 @@ package com.tbf.tcms.web;
 import com.tbf.tcms.domain.LandStand;
 import com.tbf.tcms.domain.enums.StandType;
 import com.tbf.tcms.service.LandStandService;
+import com.tbf.tcms.service.StandApplicationService;
+import com.tbf.tcms.service.StandFeeReconciliationService;
+import com.tbf.tcms.service.StandImportService;
 import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.landstand.FeeReconciliationReport;
+import com.tbf.tcms.web.dto.landstand.LandStandResponseDto;
+import com.tbf.tcms.web.dto.landstand.StandApplicationResponseDto;
+import com.tbf.tcms.web.dto.landstand.StandImportReport;
+import com.tbf.tcms.web.dto.landstand.StandLocationDto;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping({"/api/stands", "/api/land-stands"})
@@ -20,26 +35,67 @@ import org.springframework.web.bind.annotation.*;
 public class LandStandController {
 
     private final LandStandService landStandService;
+    private final StandApplicationService standApplicationService;
+    private final StandFeeReconciliationService feeReconciliationService;
+    private final StandImportService standImportService;
 
     // Grid listing: e.g., "All residential stands not yet allocated" for a village (orgId)
+    // Map screens can ask for a slim payload, e.g. fields=id,standNumber,allocated
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<PageResponse<LandStand>> list(
+    public ResponseEntity<PageResponse<LandStandResponseDto>> list(
             @RequestParam(required = false) Long orgId,
             @RequestParam(required = false) Boolean allocated,
             @RequestParam(required = false) StandType type,
+            @RequestParam(required = false) Set<String> fields,
             @PageableDefault(size = 50, sort = {"standNumber"}) Pageable pageable
     ) {
-        PageResponse<LandStand> page = landStandService.search(orgId, allocated, type, pageable);
+        PageResponse<LandStandResponseDto> page = landStandService.search(orgId, allocated, type, fields, pageable);
         return ResponseEntity.ok()
                 .header("X-Total-Count", String.valueOf(page.totalElements()))
                 .body(page);
     }
 
+    // Map view: e.g., "free residential stands near the school"
+    @GetMapping("/nearest")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<StandLocationDto> nearest(@RequestParam Long orgId,
+                                          @RequestParam double lat,
+                                          @RequestParam double lon,
+                                          @RequestParam(required = false) StandType type,
+                                          @RequestParam(defaultValue = "10") int k) {
+        return landStandService.findNearestAvailable(orgId, lat, lon, type, k);
+    }
+
+    // Map view: stands inside the visible bounding box
+    @GetMapping("/within")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<StandLocationDto> within(@RequestParam Long orgId,
+                                         @RequestParam double minLat,
+                                         @RequestParam double minLon,
+                                         @RequestParam double maxLat,
+                                         @RequestParam double maxLon,
+                                         @RequestParam(required = false) Boolean allocated,
+                                         @RequestParam(required = false) StandType type,
+                                         @RequestParam(defaultValue = "500") int limit) {
+        return landStandService.findWithin(orgId, minLat, minLon, maxLat, maxLon, allocated, type, limit);
+    }
+
+    @PutMapping("/{standId}/location")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LandStand updateLocation(@PathVariable Long standId,
+                                    @RequestParam double latitude,
+                                    @RequestParam double longitude) {
+        return landStandService.updateLocation(standId, latitude, longitude);
+    }
+
+    // Without userId, the stand goes to the applicant at the head of its queue
     @PostMapping("/{standId}/allocate")
     @PreAuthorize("hasRole('ADMIN')")
-    public LandStand allocate(@PathVariable Long standId, @RequestParam Long userId) {
-        return landStandService.allocateStand(standId, userId);
+    public LandStand allocate(@PathVariable Long standId, @RequestParam(required = false) Long userId) {
+        return userId == null
+                ? landStandService.allocateToNextApplicant(standId)
+                : landStandService.allocateStand(standId, userId);
     }
 
     @PostMapping("/{standId}/apply")
@@ -49,6 +105,28 @@ public class LandStandController {
         return ResponseEntity.status(HttpStatus.CREATED).body(updated);
     }
 
+    // "Give this user the next free residential stand in our village" — no stand id needed, no races
+    @PostMapping("/allocate-next")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LandStand allocateNext(@RequestParam Long orgId,
+                                  @RequestParam StandType type,
+                                  @RequestParam Long userId) {
+        return landStandService.allocateNextAvailable(orgId, type, userId);
+    }
+
+    // Application queue for a stand, in FIFO order
+    @GetMapping("/{standId}/applications")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<StandApplicationResponseDto>> applications(
+            @PathVariable Long standId,
+            @PageableDefault(size = 50) Pageable pageable
+    ) {
+        PageResponse<StandApplicationResponseDto> page = standApplicationService.findQueue(standId, pageable);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(page.totalElements()))
+                .body(page);
+    }
+
     @PostMapping("/{standId}/assign-by-council")
     @PreAuthorize("hasRole('ADMIN')")
     public LandStand assignByCouncil(@PathVariable Long standId,
@@ -62,4 +140,35 @@ public class LandStandController {
     public LandStand markFeePaid(@PathVariable Long standId) {
         return landStandService.markStandFeePaid(standId);
     }
+
+    // Month-end: match a bank statement's deposit references to stand numbers and mark fees paid in bulk
+    @PostMapping(value = "/fees/reconcile", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public FeeReconciliationReport reconcileFees(@RequestParam("file") MultipartFile file,
+                                                 @RequestParam(required = false) Long orgId,
+                                                 @RequestParam(defaultValue = "false") boolean dryRun) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return feeReconciliationService.reconcile(orgId, in, dryRun);
+        }
+    }
+
+    // Survey intake: register hundreds to thousands of stands from a CSV or NDJSON stand register
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public StandImportReport importStands(@RequestParam("file") MultipartFile file,
+                                          @RequestParam(required = false) Long orgId,
+                                          @RequestParam(required = false) StandImportService.Format format,
+                                          @RequestParam(defaultValue = "false") boolean dryRun) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return standImportService.importStands(orgId, in, format != null ? format : detectFormat(file), dryRun);
+        }
+    }
+
+    private StandImportService.Format detectFormat(MultipartFile file) {
+        String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase();
+        String contentType = file.getContentType() == null ? "" : file.getContentType();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") || contentType.contains("ndjson")
+                ? StandImportService.Format.NDJSON
+                : StandImportService.Format.CSV;
+    }
 }
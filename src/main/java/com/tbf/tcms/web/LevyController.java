@@ -1,20 +1,43 @@
 package com.tbf.tcms.web;
 
 import com.tbf.tcms.domain.LevyPayment;
+import com.tbf.tcms.service.LevyArrearsService;
+import com.tbf.tcms.service.LevyImportService;
+import com.tbf.tcms.service.LevyInvoicingService;
+import com.tbf.tcms.service.LevyPenaltyService;
+import com.tbf.tcms.service.LevyRateService;
 import com.tbf.tcms.service.LevyService;
+import com.tbf.tcms.service.LevySnapshotService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.levy.LevyAccruedArrearsDto;
+import com.tbf.tcms.web.dto.levy.LevyArrearsDto;
+import com.tbf.tcms.web.dto.levy.LevyBalanceDto;
+import com.tbf.tcms.web.dto.levy.LevyImportReport;
+import com.tbf.tcms.web.dto.levy.LevyRateDto;
+import com.tbf.tcms.web.dto.levy.LevyTransactionDto;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/levies")
@@ -23,6 +46,13 @@ import java.time.LocalDate;
 public class LevyController {
 
     private final LevyService levyService;
+    private final LevyArrearsService levyArrearsService;
+    private final LevyImportService levyImportService;
+    private final LevyComplianceCache levyComplianceCache;
+    private final LevySnapshotService levySnapshotService;
+    private final LevyInvoicingService levyInvoicingService;
+    private final LevyRateService levyRateService;
+    private final LevyPenaltyService levyPenaltyService;
 
     @PostMapping("/{familyId}/payments")
     @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
@@ -43,6 +73,114 @@ public class LevyController {
         return resp;
     }
 
+    @GetMapping("/{familyId}/balance")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK','USER')")
+    public LevyBalanceDto balance(@PathVariable Long familyId, @RequestParam(required = false) Integer year) {
+        return levyService.getBalance(familyId, (year != null) ? year : LocalDate.now().getYear());
+    }
+
+    // Audit trail: every payment behind the balance, oldest first
+    @GetMapping("/{familyId}/transactions")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public ResponseEntity<PageResponse<LevyTransactionDto>> transactions(@PathVariable Long familyId,
+                                                                         @RequestParam(required = false) Integer year,
+                                                                         @PageableDefault(size = 50) Pageable pageable) {
+        int effectiveYear = (year != null) ? year : LocalDate.now().getYear();
+        PageResponse<LevyTransactionDto> page = levyService.findTransactions(familyId, effectiveYear, pageable);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(page.totalElements()))
+                .body(page);
+    }
+
+    // Maintenance: recompute all snapshots from the ledger
+    @PostMapping("/snapshots/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LevySnapshotService.RebuildResult rebuildSnapshots() {
+        return levySnapshotService.rebuildSnapshots();
+    }
+
+    // Year opening: raise a PENDING levy for every family of one organization (orgId) or of all organizations
+    @PostMapping("/invoicing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LevyInvoicingService.InvoicingResult openYear(@RequestParam(required = false) Integer year,
+                                                        @RequestParam(required = false) Long orgId) {
+        int effectiveYear = (year != null) ? year : LocalDate.now().getYear();
+        return levyInvoicingService.openYear(effectiveYear, orgId);
+    }
+
+    // Progress of the running (or last) invoicing run
+    @GetMapping("/invoicing/progress")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LevyInvoicingService.Progress> invoicingProgress() {
+        LevyInvoicingService.Progress progress = levyInvoicingService.progress();
+        return progress == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(progress);
+    }
+
+    // Levy schedule: the amount due per family (and yearly penalty rate) for an organization and year
+    @PutMapping("/rates/{orgId}/{year}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LevyRateDto setRate(@PathVariable Long orgId, @PathVariable int year,
+                               @RequestBody @Valid SetRateRequest request) {
+        return levyRateService.setRate(orgId, year, request.getAmount(), request.getPenaltyRate());
+    }
+
+    @GetMapping("/rates")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public List<LevyRateDto> rates(@RequestParam Long orgId) {
+        return levyRateService.findRates(orgId);
+    }
+
+    // Arrears accrual: outstanding levies and penalties over the lookback window, for one organization or all
+    @PostMapping("/penalties/accrue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LevyPenaltyService.AccrualResult accruePenalties(@RequestParam(required = false) Integer year,
+                                                           @RequestParam(required = false) Long orgId,
+                                                           @RequestParam(defaultValue = "5") int lookbackYears) {
+        int effectiveYear = (year != null) ? year : LocalDate.now().getYear();
+        return levyPenaltyService.accrue(effectiveYear, orgId, lookbackYears);
+    }
+
+    // Families of an organization with accrued arrears, largest total first
+    @GetMapping("/penalties")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public ResponseEntity<PageResponse<LevyAccruedArrearsDto>> accruedArrears(@RequestParam Long orgId,
+                                                                              @PageableDefault(size = 50) Pageable pageable) {
+        PageResponse<LevyAccruedArrearsDto> page = levyPenaltyService.findAccrued(orgId, pageable);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(page.totalElements()))
+                .body(page);
+    }
+
+    // Month-end deposit file: thousands of payments upserted in batches
+    @PostMapping(value = "/payments/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public LevyImportReport importPayments(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return levyImportService.importPayments(in);
+        }
+    }
+
+    // Village arrears list: every family owing for a year, optionally aged over prior years
+    @GetMapping("/arrears")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public ResponseEntity<PageResponse<LevyArrearsDto>> arrears(@RequestParam Long orgId,
+                                                                @RequestParam(required = false) Integer year,
+                                                                @RequestParam(defaultValue = "0") int agingYears,
+                                                                @PageableDefault(size = 50) Pageable pageable) {
+        int effectiveYear = (year != null) ? year : LocalDate.now().getYear();
+        PageResponse<LevyArrearsDto> page = levyArrearsService.findArrears(orgId, effectiveYear, agingYears, pageable);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(page.totalElements()))
+                .body(page);
+    }
+
+    // Operations: how well the current-year compliance cache absorbs proof-of-residence traffic
+    @GetMapping("/compliance-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LevyComplianceCache.Stats complianceCacheStats() {
+        return levyComplianceCache.stats();
+    }
+
     @Data
     public static class RecordPaymentRequest {
         @NotNull(message = "amount is required")
@@ -53,6 +191,17 @@ public class LevyController {
         private Integer year;      // optional; defaults to current year
     }
 
+    @Data
+    public static class SetRateRequest {
+        @NotNull(message = "amount is required")
+        @Positive(message = "amount must be greater than 0")
+        private BigDecimal amount;
+
+        @DecimalMin(value = "0", message = "penaltyRate must be between 0 and 1")
+        @DecimalMax(value = "1", message = "penaltyRate must be between 0 and 1")
+        private BigDecimal penaltyRate; // optional; defaults to no penalty
+    }
+
     @Data
     public static class LevyStatusResponse {
         private int year;
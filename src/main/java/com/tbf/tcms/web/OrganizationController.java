@@ -3,6 +3,7 @@ package com.tbf.tcms.web;
 import com.tbf.tcms.domain.DisputeCase;
 import com.tbf.tcms.domain.Organization;
 import com.tbf.tcms.domain.enums.CaseStatus;
+import com.tbf.tcms.service.CaseRegisterExportService;
 import com.tbf.tcms.service.DisputeCaseService;
 import com.tbf.tcms.service.OrganizationService;
 import com.tbf.tcms.web.dto.PageResponse;
@@ -11,10 +12,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/organizations")
@@ -24,6 +31,7 @@ public class OrganizationController {
 
     private final OrganizationService organizationService;
     private final DisputeCaseService disputeCaseService;
+    private final CaseRegisterExportService caseRegisterExportService;
 
     @GetMapping("/{orgId}/hierarchy")
     @PreAuthorize("hasRole('ADMIN')")
@@ -55,4 +63,22 @@ public class OrganizationController {
                 .header("X-Total-Count", String.valueOf(page.totalElements()))
                 .body(page);
     }
+
+    // Example: case register handed to the municipality for a reporting period (streamed CSV)
+    @GetMapping("/{orgId}/cases/export")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public ResponseEntity<StreamingResponseBody> exportCaseRegister(
+            @PathVariable Long orgId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        StreamingResponseBody body = out -> caseRegisterExportService.exportCsv(orgId, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"case-register-" + orgId + ".csv\"")
+                .body(body);
+    }
 }
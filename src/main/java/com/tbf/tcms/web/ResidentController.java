@@ -1,13 +1,31 @@
 package com.tbf.tcms.web;
 
+import com.tbf.tcms.service.ProofOfResidenceDocumentService;
 import com.tbf.tcms.service.ResidentService;
+import com.tbf.tcms.util.CsvUtils;
+import com.tbf.tcms.web.dto.resident.ProofOfResidenceBatchRequest;
+import com.tbf.tcms.web.dto.resident.ResidentLookupDto;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @RestController
 @RequestMapping("/api/residents")
@@ -16,10 +34,71 @@ import org.springframework.web.bind.annotation.RestController;
 public class ResidentController {
 
     private final ResidentService residentService;
+    private final ProofOfResidenceDocumentService documentService;
+
+    // Counter identification: e.g. ?idNumber=8001015009087 or ?phone=082 123 4567
+    @GetMapping("/lookup")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public List<ResidentLookupDto> lookup(@RequestParam(required = false) String idNumber,
+                                          @RequestParam(required = false) String phone) {
+        return residentService.lookup(idNumber, phone);
+    }
 
+    // Conditional GET: a client sending If-None-Match with the letter's ETag gets 304 without a body
     @GetMapping("/{id}/proof-of-residence")
     @PreAuthorize("hasAnyRole('ADMIN','CLERK','USER')")
-    public String generateProofOfResidence(@PathVariable("id") Long residentId) {
-        return residentService.generateProofOfResidence(residentId);
+    public ResponseEntity<String> generateProofOfResidence(@PathVariable("id") Long residentId, WebRequest request) {
+        ResidentService.ProofOfResidence letter = residentService.proofOfResidence(residentId);
+        if (request.checkNotModified(letter.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(letter.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(letter.text());
+    }
+
+    // Printable letter with a verification code schools and banks can check at /verify/{code}.
+    // POST: every call issues and records a new code, so link prefetchers and retries must not trigger it
+    @PostMapping(value = "/{id}/proof-of-residence.pdf", produces = MediaType.APPLICATION_PDF_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK','USER')")
+    public ResponseEntity<byte[]> proofOfResidencePdf(@PathVariable("id") Long residentId) {
+        ProofOfResidenceDocumentService.IssuedDocument doc = documentService.issue(residentId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + doc.fileName() + "\"")
+                .header("X-Verification-Code", doc.code())
+                .body(doc.pdf());
+    }
+
+    // Clerk batch: letters for a list of residents or a whole family, as one ZIP (skipped residents in skipped.csv)
+    @PostMapping(value = "/proof-of-residence/batch", produces = "application/zip")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public ResponseEntity<StreamingResponseBody> proofOfResidenceBatch(@RequestBody ProofOfResidenceBatchRequest request) {
+        ProofOfResidenceDocumentService.BatchResult result =
+                documentService.issueBatch(request.getResidentIds(), request.getFamilyId());
+        StreamingResponseBody body = out -> {
+            try (ZipOutputStream zip = new ZipOutputStream(out)) {
+                for (ProofOfResidenceDocumentService.IssuedDocument doc : result.documents()) {
+                    zip.putNextEntry(new ZipEntry(doc.fileName()));
+                    zip.write(doc.pdf());
+                    zip.closeEntry();
+                }
+                if (!result.skipped().isEmpty()) {
+                    StringBuilder csv = new StringBuilder("resident_id,reason\n");
+                    result.skipped().forEach(s -> csv.append(s.residentId()).append(',')
+                            .append(CsvUtils.escape(s.reason())).append('\n'));
+                    zip.putNextEntry(new ZipEntry("skipped.csv"));
+                    zip.write(csv.toString().getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"proof-of-residence.zip\"")
+                .header("X-Documents-Issued", String.valueOf(result.documents().size()))
+                .header("X-Documents-Skipped", String.valueOf(result.skipped().size()))
+                .body(body);
     }
 }
@@ -0,0 +1,27 @@
+package com.tbf.tcms.web;
+
+import com.tbf.tcms.service.ProofOfResidenceDocumentService;
+import com.tbf.tcms.web.dto.resident.VerificationResponseDto;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Public (unauthenticated) verification of issued documents, for schools, banks and other third parties.
+ */
+@RestController
+@RequestMapping("/verify")
+@RequiredArgsConstructor
+@Tag(name = "Verification", description = "Public verification of issued proof-of-residence letters")
+public class VerificationController {
+
+    private final ProofOfResidenceDocumentService documentService;
+
+    @GetMapping("/{code}")
+    public VerificationResponseDto verify(@PathVariable String code) {
+        return documentService.verify(code);
+    }
+}
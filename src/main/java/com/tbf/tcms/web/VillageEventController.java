@@ -1,8 +1,12 @@
 package com.tbf.tcms.web;
 
 import com.tbf.tcms.domain.VillageEvent;
+import com.tbf.tcms.domain.enums.EventDocument;
 import com.tbf.tcms.domain.enums.EventType;
 import com.tbf.tcms.service.VillageEventService;
+import com.tbf.tcms.web.dto.event.EventApprovalResult;
+import com.tbf.tcms.web.dto.event.EventFeeRevenueDto;
+import com.tbf.tcms.web.dto.event.VillageEventCalendarDto;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -11,16 +15,29 @@ import jakarta.validation.constraints.Positive;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/village-events")
@@ -28,6 +45,8 @@ import java.time.LocalDate;
 @Tag(name = "Village Events", description = "Create and manage village events")
 public class VillageEventController {
 
+    static final int DEFAULT_CALENDAR_DAYS = 90;
+
     private final VillageEventService villageEventService;
 
     @PostMapping
@@ -50,6 +69,73 @@ public class VillageEventController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    // Scanned death certificate or ID copy: stored in the document store and linked from the event
+    @PostMapping(value = "/{id}/documents", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public VillageEvent attachDocument(@PathVariable Long id,
+                                      @RequestParam EventDocument kind,
+                                      @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return villageEventService.attachDocument(id, kind, in, file.getContentType());
+        }
+    }
+
+    @PostMapping("/{id}/approve")
+    @PreAuthorize("hasRole('ADMIN')")
+    public VillageEvent approve(@PathVariable Long id) {
+        return villageEventService.approve(id);
+    }
+
+    // After the weekly meeting: approve a list of events, or every pending event of an organization in a date range
+    @PostMapping("/approvals")
+    @PreAuthorize("hasRole('ADMIN')")
+    public EventApprovalResult approveAll(@RequestBody ApprovalRequest request) {
+        return villageEventService.approveAll(request.getEventIds(), request.getOrganizationId(),
+                request.getFrom(), request.getTo());
+    }
+
+    // Treasurer's report: fees per month and event type for a year (the current year unless given)
+    @GetMapping("/revenue")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK')")
+    public EventFeeRevenueDto revenue(@RequestParam Long orgId, @RequestParam(required = false) Integer year) {
+        return villageEventService.feeRevenue(orgId, year != null ? year : LocalDate.now().getYear());
+    }
+
+    // Calendar: upcoming funerals, parties and ceremonies (from today, 90 days ahead unless given)
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK','USER')")
+    public List<VillageEventCalendarDto> calendar(
+            @RequestParam Long orgId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate effectiveFrom = from != null ? from : LocalDate.now();
+        LocalDate effectiveTo = to != null ? to : effectiveFrom.plusDays(DEFAULT_CALENDAR_DAYS);
+        return villageEventService.findCalendar(orgId, effectiveFrom, effectiveTo);
+    }
+
+    // Subscribable feed for calendar apps; unchanged ranges revalidate with If-None-Match and get 304
+    @GetMapping(value = "/calendar.ics", produces = "text/calendar")
+    @PreAuthorize("hasAnyRole('ADMIN','CLERK','USER')")
+    public ResponseEntity<StreamingResponseBody> calendarFeed(
+            @RequestParam Long orgId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest request) {
+        LocalDate effectiveFrom = from != null ? from : LocalDate.now();
+        LocalDate effectiveTo = to != null ? to : effectiveFrom.plusDays(DEFAULT_CALENDAR_DAYS);
+        String etag = villageEventService.calendarEtag(orgId, effectiveFrom, effectiveTo);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        StreamingResponseBody body = out -> villageEventService.exportIcs(orgId, effectiveFrom, effectiveTo, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "calendar", StandardCharsets.UTF_8))
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"village-events-" + orgId + ".ics\"")
+                .body(body);
+    }
+
     @Data
     public static class CreateEventRequest {
         @NotNull(message = "organizationId is required")
@@ -82,4 +168,14 @@ public class VillageEventController {
         @NotNull(message = "hasIdCopies is required")
         private Boolean hasIdCopies;         // required true for FUNERAL
     }
+
+    @Data
+    public static class ApprovalRequest {
+        private List<Long> eventIds;      // either the events to approve...
+        private Long organizationId;      // ...or an organization's pending events between from and to
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate from;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate to;
+    }
 }
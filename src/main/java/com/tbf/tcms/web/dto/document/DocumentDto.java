@@ -0,0 +1,16 @@
+package com.tbf.tcms.web.dto.document;
+
+import lombok.Data;
+
+/**
+ * A stored document; {@code url} is what records such as village events keep to refer to it.
+ */
+@Data
+public class DocumentDto {
+    private String sha256;
+    private long size;
+    private String contentType;
+    private String url;
+    // False when identical content had already been uploaded
+    private boolean created;
+}
@@ -0,0 +1,22 @@
+package com.tbf.tcms.web.dto.event;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk approval: one entry per requested (or matched) event.
+ */
+@Data
+public class EventApprovalResult {
+    private int approved;
+    private int alreadyApproved;
+    private int notFound;
+    private List<Outcome> results = new ArrayList<>();
+
+    public enum Status { APPROVED, ALREADY_APPROVED, NOT_FOUND }
+
+    public record Outcome(Long eventId, Status status) {
+    }
+}
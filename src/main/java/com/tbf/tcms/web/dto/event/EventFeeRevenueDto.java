@@ -0,0 +1,33 @@
+package com.tbf.tcms.web.dto.event;
+
+import com.tbf.tcms.domain.enums.EventType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event fee revenue of an organization for a year: totals, totals per event type and one line per month and type.
+ * Approved fees are the collected revenue; requested fees include events still pending approval.
+ */
+@Data
+public class EventFeeRevenueDto {
+    private Long organizationId;
+    private int year;
+    private long requestedEvents;
+    private BigDecimal requestedFees = BigDecimal.ZERO;
+    private long approvedEvents;
+    private BigDecimal approvedFees = BigDecimal.ZERO;
+    private List<TypeTotal> byType = new ArrayList<>();
+    private List<Line> months = new ArrayList<>();
+
+    public record TypeTotal(EventType type, long requestedEvents, BigDecimal requestedFees,
+                            long approvedEvents, BigDecimal approvedFees) {
+    }
+
+    public record Line(YearMonth month, EventType type, long requestedEvents, BigDecimal requestedFees,
+                       long approvedEvents, BigDecimal approvedFees) {
+    }
+}
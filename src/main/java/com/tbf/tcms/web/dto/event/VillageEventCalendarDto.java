@@ -0,0 +1,21 @@
+package com.tbf.tcms.web.dto.event;
+
+import com.tbf.tcms.domain.enums.EventStatus;
+import com.tbf.tcms.domain.enums.EventType;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * A calendar entry: one village event on its day.
+ */
+@Data
+public class VillageEventCalendarDto {
+    private Long id;
+    private String name;
+    private EventType type;
+    private EventStatus status;
+    private LocalDate eventDate;
+    private String location;
+    private Long familyId;
+}
@@ -0,0 +1,32 @@
+package com.tbf.tcms.web.dto.family;
+
+import com.tbf.tcms.domain.enums.LevyStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Household screen: the family, its residents (head of household first) and its recent levy history.
+ */
+@Data
+public class HouseholdDto {
+    private Long familyId;
+    private String referenceNumber;
+    private String address;
+    private Long organizationId;
+    private String organizationName;
+    private List<Member> residents = new ArrayList<>();
+    // Newest year first; years without a snapshot show as PENDING with nothing paid
+    private List<LevyYear> levies = new ArrayList<>();
+
+    public record Member(Long residentId, String firstName, String lastName, String idNumber, String phoneNumber,
+                         String email, boolean headOfHousehold) {
+    }
+
+    public record LevyYear(int year, BigDecimal amountDue, BigDecimal amountPaid, BigDecimal balance,
+                           LevyStatus status, LocalDate lastPaymentDate) {
+    }
+}
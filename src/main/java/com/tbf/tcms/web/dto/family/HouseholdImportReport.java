@@ -0,0 +1,28 @@
+package com.tbf.tcms.web.dto.family;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a household census import.
+ */
+@Data
+public class HouseholdImportReport {
+    private boolean dryRun;
+    // One row per resident
+    private int rowsRead;
+    private int familiesCreated;
+    private int familiesUpdated;
+    private int residentsImported;
+    private int rejected;
+    // Capped; rejected always holds the full count
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * A rejected resident row; {@code row} is the line number in the uploaded file.
+     */
+    public record RowError(int row, String referenceNumber, String idNumber, String message) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.tbf.tcms.web.dto.landstand;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of reconciling a bank statement against stand fees.
+ */
+@Data
+public class FeeReconciliationReport {
+    private boolean dryRun;
+    private int linesRead;
+    // Stands whose fee was flipped to paid by this run (or would be, in a dry run)
+    private int markedPaid;
+    private List<Line> matched = new ArrayList<>();
+    private List<Line> unmatched = new ArrayList<>();
+    private List<Line> ambiguous = new ArrayList<>();
+
+    /**
+     * One statement line; {@code note} explains non-obvious outcomes (already paid, not allocated, ...).
+     */
+    public record Line(int lineNumber, String reference, String amount, List<String> standNumbers, String note) {
+    }
+}
@@ -1,17 +1,22 @@
 package com.tbf.tcms.web.dto.landstand;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.tbf.tcms.domain.enums.StandType;
 import lombok.Data;
 
 import java.time.LocalDate;
 
+/**
+ * Stand as returned by listings. Null values are omitted, so a {@code fields=} request only carries the selected keys.
+ */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class LandStandResponseDto {
     private Long id;
     private String standNumber;
     private StandType type;
-    private boolean allocated;
-    private boolean feePaid;
+    private Boolean allocated;
+    private Boolean feePaid;
     private LocalDate allocationDate;
     private LocalDate applicationDate;
     private Long organizationId;
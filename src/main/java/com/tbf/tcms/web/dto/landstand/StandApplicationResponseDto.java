@@ -0,0 +1,27 @@
+package com.tbf.tcms.web.dto.landstand;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class StandApplicationResponseDto {
+    private Long id;
+    private Long standId;
+    private Long applicantUserId;
+    private String applicantName;
+    private LocalDate applicationDate;
+    // 1-based place in the stand's FIFO queue
+    private long position;
+
+    // Used by the JPQL constructor projection in StandApplicationRepository
+    public StandApplicationResponseDto(Long id, Long standId, Long applicantUserId, String applicantName, LocalDate applicationDate) {
+        this.id = id;
+        this.standId = standId;
+        this.applicantUserId = applicantUserId;
+        this.applicantName = applicantName;
+        this.applicationDate = applicationDate;
+    }
+}
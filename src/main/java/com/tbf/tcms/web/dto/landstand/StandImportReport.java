@@ -0,0 +1,26 @@
+package com.tbf.tcms.web.dto.landstand;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk stand import.
+ */
+@Data
+public class StandImportReport {
+    private boolean dryRun;
+    private int rowsRead;
+    // Stands inserted by this run (or that would be, in a dry run)
+    private int imported;
+    private int rejected;
+    // Capped; rejected always holds the full count
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * A rejected row; {@code row} is the line number in the uploaded file.
+     */
+    public record RowError(int row, String standNumber, String message) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.tbf.tcms.web.dto.landstand;
+
+import com.tbf.tcms.domain.enums.StandType;
+import lombok.Data;
+
+@Data
+public class StandLocationDto {
+    private Long id;
+    private String standNumber;
+    private StandType type;
+    private boolean allocated;
+    private double latitude;
+    private double longitude;
+    // Only set for nearest-neighbour queries
+    private Double distanceMeters;
+}
@@ -0,0 +1,21 @@
+package com.tbf.tcms.web.dto.levy;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A family's accrued arrears from the last penalty accrual run, summed over its unpaid years.
+ */
+@Data
+public class LevyAccruedArrearsDto {
+    private Long familyId;
+    private String referenceNumber;
+    private int yearsOwing;
+    private int oldestUnpaidYear;
+    private BigDecimal outstanding;
+    private BigDecimal penalty;
+    private BigDecimal totalDue;
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,21 @@
+package com.tbf.tcms.web.dto.levy;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A family without a paid levy for the report year, with its aging over the requested look-back window.
+ */
+@Data
+public class LevyArrearsDto {
+    private Long familyId;
+    private String referenceNumber;
+    private String address;
+    // Unpaid financial years within the window, oldest first; always ends with the report year
+    private List<Integer> unpaidYears;
+    private int yearsUnpaid;
+    private int oldestUnpaidYear;
+    // CURRENT, 1_YEAR, 2_YEARS or 3_PLUS_YEARS, by the age of the oldest unpaid year
+    private String agingBucket;
+}
@@ -0,0 +1,22 @@
+package com.tbf.tcms.web.dto.levy;
+
+import com.tbf.tcms.domain.enums.LevyStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Levy position of a family for one financial year, read from the snapshot.
+ */
+@Data
+public class LevyBalanceDto {
+    private Long familyId;
+    private int year;
+    private BigDecimal amountDue;
+    private BigDecimal amountPaid;
+    // Outstanding amount; zero once the levy is settled (overpayments are not carried over)
+    private BigDecimal balance;
+    private LevyStatus status;
+    private LocalDate lastPaymentDate;
+}
@@ -0,0 +1,25 @@
+package com.tbf.tcms.web.dto.levy;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk levy payment ingestion.
+ */
+@Data
+public class LevyImportReport {
+    private int rowsRead;
+    private int inserted;
+    private int updated;
+    private int rejected;
+    // Capped; rejected always holds the full count
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * A rejected row; {@code row} is the line number in the uploaded file.
+     */
+    public record RowError(int row, Long familyId, Integer financialYear, String message) {
+    }
+}
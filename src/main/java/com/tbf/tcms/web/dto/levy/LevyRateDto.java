@@ -0,0 +1,17 @@
+package com.tbf.tcms.web.dto.levy;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * A scheduled levy rate; {@code scheduled} is false when the year falls back to the default levy.
+ */
+@Data
+public class LevyRateDto {
+    private Long organizationId;
+    private int financialYear;
+    private BigDecimal amount;
+    private BigDecimal penaltyRate;
+    private boolean scheduled;
+}
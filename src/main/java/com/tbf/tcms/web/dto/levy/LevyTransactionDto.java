@@ -0,0 +1,25 @@
+package com.tbf.tcms.web.dto.levy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Levy ledger entry as shown in a family's audit trail.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LevyTransactionDto {
+    private Long id;
+    private int year;
+    private BigDecimal amount;
+    private LocalDate transactionDate;
+    private String reference;
+    private LocalDateTime recordedAt;
+    private String recordedBy;
+}
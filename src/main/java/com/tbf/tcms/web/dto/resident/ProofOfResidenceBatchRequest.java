@@ -0,0 +1,14 @@
+package com.tbf.tcms.web.dto.resident;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Residents to issue letters for: either an explicit list or every member of a family.
+ */
+@Data
+public class ProofOfResidenceBatchRequest {
+    private List<Long> residentIds;
+    private Long familyId;
+}
@@ -0,0 +1,24 @@
+package com.tbf.tcms.web.dto.resident;
+
+import lombok.Data;
+
+/**
+ * Counter lookup result: who the resident is, which household they belong to and whether its levy is paid.
+ */
+@Data
+public class ResidentLookupDto {
+    private Long residentId;
+    private String firstName;
+    private String lastName;
+    private String idNumber;
+    private String phoneNumber;
+    private String email;
+    private boolean headOfHousehold;
+    private Long familyId;
+    private String familyReference;
+    private String address;
+    private Long organizationId;
+    private int levyYear;
+    // False as well when the resident has no household
+    private boolean levyUpToDate;
+}
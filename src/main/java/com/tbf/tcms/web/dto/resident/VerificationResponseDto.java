@@ -0,0 +1,20 @@
+package com.tbf.tcms.web.dto.resident;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Public answer to "is this letter genuine?". Only what was printed on the letter is disclosed.
+ */
+@Data
+public class VerificationResponseDto {
+    private String code;
+    // False once the letter has expired
+    private boolean valid;
+    private String documentType;
+    private String holderName;
+    private String address;
+    private LocalDate issuedOn;
+    private LocalDate expiresOn;
+}
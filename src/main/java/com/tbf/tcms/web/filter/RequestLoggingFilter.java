@@ -1,48 +1,139 @@
 package com.tbf.tcms.web.filter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Times every request into the {@code tcms.http.requests} histogram, tagged by method, route template (e.g.
+ * {@code /api/levies/{familyId}/status}, never the raw URI, so the series count stays bounded), status and outcome.
+ * Per-request lines are logged at DEBUG; server errors are still logged at ERROR.
+ * Technical note: streamed responses ({@code StreamingResponseBody}) are timed until the stream completes, not
+ * until the controller returns.
+ */
 @Component
 @Order(Integer.MIN_VALUE)
+@RequiredArgsConstructor
 @Slf4j
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
+    static final String METRIC = "tcms.http.requests";
+    static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
         long start = System.nanoTime();
-        String method = request.getMethod();
-        String uri = request.getRequestURI();
-        String ip = resolveClientIp(request);
-
-        log.info("Incoming request {} {} from {}", method, uri, ip);
+        log.debug("Incoming request {} {} from {}", request.getMethod(), request.getRequestURI(), resolveClientIp(request));
 
+        boolean failed = true;
         try {
             filterChain.doFilter(request, response);
+            failed = false;
         } finally {
-            long durationMs = (System.nanoTime() - start) / 1_000_000;
-            int status = response.getStatus();
-            if (status >= 500) {
-                log.error("Response {} {} -> status {} in {} ms", method, uri, status, durationMs);
-            } else if (status >= 400) {
-                log.warn("Response {} {} -> status {} in {} ms", method, uri, status, durationMs);
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response.getStatus(), start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
             } else {
-                log.info("Response {} {} -> status {} in {} ms", method, uri, status, durationMs);
+                // An exception escaping the chain becomes a 500 in the container
+                int status = failed && response.getStatus() < 400 ? 500 : response.getStatus();
+                record(request, status, start);
             }
         }
     }
 
+    private void record(HttpServletRequest request, int status, long start) {
+        long durationNanos = System.nanoTime() - start;
+        String route = route(request, status);
+        Timer.builder(METRIC)
+                .description("HTTP request latency by route template")
+                .tag("method", request.getMethod())
+                .tag("uri", route)
+                .tag("status", Integer.toString(status))
+                .tag("outcome", outcome(status))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        long durationMs = durationNanos / 1_000_000;
+        if (status >= 500) {
+            log.error("Response {} {} ({}) -> status {} in {} ms", request.getMethod(), request.getRequestURI(), route,
+                    status, durationMs);
+        } else {
+            log.debug("Response {} {} ({}) -> status {} in {} ms", request.getMethod(), request.getRequestURI(), route,
+                    status, durationMs);
+        }
+    }
+
+    /**
+     * The matched route template; requests no handler matched are grouped so that scanners probing random paths
+     * cannot create new series.
+     */
+    static String route(HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        if (status == 404) {
+            return "NOT_FOUND";
+        }
+        if (status >= 300 && status < 400) {
+            return "REDIRECTION";
+        }
+        return "UNKNOWN";
+    }
+
+    static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        if (status >= 300) {
+            return "REDIRECTION";
+        }
+        return status >= 200 ? "SUCCESS" : "INFORMATIONAL";
+    }
+
     private String resolveClientIp(HttpServletRequest request) {
         String xff = request.getHeader("X-Forwarded-For");
         if (xff != null && !xff.isBlank()) {
@@ -0,0 +1,14 @@
+package com.tbf.tcms.web.mapper;
+
+import com.tbf.tcms.repository.projection.LandStandListView;
+import com.tbf.tcms.web.dto.landstand.LandStandResponseDto;
+import org.mapstruct.Mapper;
+
+/**
+ * Maps stand listing rows to the API response DTO.
+ */
+@Mapper(componentModel = "spring")
+public interface LandStandMapper {
+
+    LandStandResponseDto toDto(LandStandListView view);
+}
@@ -0,0 +1,14 @@
+-- Registers captured before this key existed may number two stands alike within an organization. The first row
+-- (lowest id) keeps its number; later copies are suffixed with their own id so the index below can be built and
+-- the copies stay visible for manual reconciliation.
+UPDATE land_stands s
+SET stand_number = s.stand_number || '-DUP-' || s.id
+WHERE EXISTS (SELECT 1
+              FROM land_stands o
+              WHERE o.organization_id = s.organization_id
+                AND o.stand_number = s.stand_number
+                AND o.id < s.id);
+
+-- Stand numbers are unique within an organization; bulk imports rely on this to reject duplicates
+CREATE UNIQUE INDEX IF NOT EXISTS uq_land_stands_org_stand_number
+    ON land_stands (organization_id, stand_number);
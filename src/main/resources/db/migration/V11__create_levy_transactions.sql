@@ -0,0 +1,28 @@
+-- Append-only levy ledger; levy_payments holds the per family/year snapshot derived from it
+CREATE TABLE levy_transactions
+(
+    id               BIGSERIAL PRIMARY KEY,
+    family_id        BIGINT        NOT NULL,
+    financial_year   INTEGER       NOT NULL,
+    amount           NUMERIC(12,2) NOT NULL,
+    transaction_date DATE          NOT NULL,
+    reference        VARCHAR(255),
+
+    created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_by       VARCHAR(255),
+    updated_by       VARCHAR(255),
+
+    CONSTRAINT fk_levy_transactions_family FOREIGN KEY (family_id) REFERENCES families (id),
+    CONSTRAINT chk_levy_transactions_amount CHECK (amount <> 0)
+);
+
+CREATE INDEX idx_levy_transactions_family_year ON levy_transactions (family_id, financial_year, id);
+
+-- Opening balances: each existing paid snapshot becomes the first ledger entry for its family/year
+INSERT INTO levy_transactions (family_id, financial_year, amount, transaction_date, reference,
+                               created_at, updated_at, created_by, updated_by)
+SELECT family_id, financial_year, amount, COALESCE(payment_date, CURRENT_DATE), 'opening balance',
+       CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'migration', 'migration'
+FROM levy_payments
+WHERE status = 'PAID' AND amount > 0;
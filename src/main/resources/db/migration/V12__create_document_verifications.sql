@@ -0,0 +1,24 @@
+-- Issued documents and their verification codes; /verify/{code} is a single lookup on uq_document_verifications_code
+CREATE TABLE document_verifications
+(
+    id               BIGSERIAL PRIMARY KEY,
+    code             VARCHAR(16)  NOT NULL,
+    document_type    VARCHAR(50)  NOT NULL,
+    resident_id      BIGINT       NOT NULL,
+    family_id        BIGINT,
+    holder_name      VARCHAR(255),
+    address          VARCHAR(255),
+    issued_on        DATE         NOT NULL,
+    expires_on       DATE         NOT NULL,
+
+    created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_by       VARCHAR(255),
+    updated_by       VARCHAR(255),
+
+    CONSTRAINT uq_document_verifications_code UNIQUE (code),
+    CONSTRAINT fk_document_verifications_resident FOREIGN KEY (resident_id) REFERENCES residents (id),
+    CONSTRAINT fk_document_verifications_family FOREIGN KEY (family_id) REFERENCES families (id)
+);
+
+CREATE INDEX idx_document_verifications_resident ON document_verifications (resident_id);
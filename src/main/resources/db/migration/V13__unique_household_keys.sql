@@ -0,0 +1,29 @@
+-- Registers captured before these keys existed may hold the same household or person twice. The first row (lowest
+-- id) keeps its key; later copies are suffixed with their own id so the indexes below can be built and the copies
+-- stay visible for manual reconciliation.
+UPDATE families f
+SET reference_number = f.reference_number || '-DUP-' || f.id
+WHERE EXISTS (SELECT 1
+              FROM families o
+              WHERE o.organization_id = f.organization_id
+                AND o.reference_number = f.reference_number
+                AND o.id < f.id);
+
+UPDATE residents r
+SET id_number = r.id_number || '-DUP-' || r.id
+WHERE REGEXP_REPLACE(r.id_number, '[[:space:]-]', '', 'g') <> ''
+  AND EXISTS (SELECT 1
+              FROM residents o
+              WHERE UPPER(REGEXP_REPLACE(o.id_number, '[[:space:]-]', '', 'g'))
+                        = UPPER(REGEXP_REPLACE(r.id_number, '[[:space:]-]', '', 'g'))
+                AND o.id < r.id);
+
+-- Households are keyed by reference number within an organization; the census import upserts on this
+CREATE UNIQUE INDEX IF NOT EXISTS uq_families_org_reference_number
+    ON families (organization_id, reference_number);
+
+-- A person is registered once, whatever the formatting their identity number was captured with (see ResidentKeys);
+-- the census import deduplicates residents on this key
+CREATE UNIQUE INDEX IF NOT EXISTS uq_residents_id_number
+    ON residents ((UPPER(REGEXP_REPLACE(id_number, '[[:space:]-]', '', 'g'))))
+    WHERE REGEXP_REPLACE(id_number, '[[:space:]-]', '', 'g') <> '';
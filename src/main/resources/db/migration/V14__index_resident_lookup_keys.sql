@@ -0,0 +1,7 @@
+-- Counter lookups by identity number or phone match on normalized keys (see ResidentKeys), whatever the
+-- formatting the number was captured with
+CREATE INDEX IF NOT EXISTS idx_residents_id_number_key
+    ON residents ((UPPER(REGEXP_REPLACE(id_number, '[[:space:]-]', '', 'g'))));
+
+CREATE INDEX IF NOT EXISTS idx_residents_phone_key
+    ON residents ((RIGHT(REGEXP_REPLACE(phone_number, '[^0-9]', '', 'g'), 9)));
@@ -0,0 +1,3 @@
+-- Organization-wide batches (levy invoicing, penalty accrual) walk one organization's families by id range
+CREATE INDEX IF NOT EXISTS idx_families_organization_id
+    ON families (organization_id, id);
@@ -0,0 +1,40 @@
+-- Levy schedule: the amount due per family and the yearly penalty rate on unpaid amounts, per organization and year.
+-- Years without a row fall back to the application default (LevyServiceImpl.DEFAULT_ANNUAL_LEVY, no penalty).
+CREATE TABLE levy_rates
+(
+    id               BIGSERIAL PRIMARY KEY,
+    organization_id  BIGINT        NOT NULL,
+    financial_year   INTEGER       NOT NULL,
+    amount           NUMERIC(12,2) NOT NULL,
+    penalty_rate     NUMERIC(5,4)  NOT NULL DEFAULT 0,
+
+    created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_by       VARCHAR(255),
+    updated_by       VARCHAR(255),
+
+    CONSTRAINT fk_levy_rates_organization FOREIGN KEY (organization_id) REFERENCES organizations (id),
+    CONSTRAINT uq_levy_rates_org_year UNIQUE (organization_id, financial_year),
+    CONSTRAINT chk_levy_rates_amount CHECK (amount > 0),
+    CONSTRAINT chk_levy_rates_penalty CHECK (penalty_rate >= 0 AND penalty_rate <= 1)
+);
+
+-- Output of the penalty accrual job: one row per family and unpaid year, replaced per organization on each run
+CREATE TABLE levy_arrears
+(
+    family_id        BIGINT        NOT NULL,
+    financial_year   INTEGER       NOT NULL,
+    organization_id  BIGINT        NOT NULL,
+    amount_due       NUMERIC(12,2) NOT NULL,
+    amount_paid      NUMERIC(12,2) NOT NULL,
+    outstanding      NUMERIC(12,2) NOT NULL,
+    years_overdue    INTEGER       NOT NULL,
+    penalty          NUMERIC(12,2) NOT NULL,
+    total_due        NUMERIC(12,2) NOT NULL,
+    computed_at      TIMESTAMP     NOT NULL,
+
+    CONSTRAINT pk_levy_arrears PRIMARY KEY (family_id, financial_year),
+    CONSTRAINT fk_levy_arrears_family FOREIGN KEY (family_id) REFERENCES families (id)
+);
+
+CREATE INDEX idx_levy_arrears_org_family ON levy_arrears (organization_id, family_id);
@@ -0,0 +1,4 @@
+-- Calendar range queries and the ICS feed filter by organization and event date;
+-- the composite index also serves organization-only lookups, so it replaces idx_village_events_org
+CREATE INDEX IF NOT EXISTS idx_village_events_org_date ON village_events (organization_id, event_date);
+DROP INDEX IF EXISTS idx_village_events_org;
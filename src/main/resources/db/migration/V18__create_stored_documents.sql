@@ -0,0 +1,15 @@
+-- Content-addressed document store: one row per distinct content, keyed by its SHA-256 (hex).
+-- The bytes live in the configured storage backend under the same key; identical uploads share one row and one copy.
+CREATE TABLE stored_documents
+(
+    sha256       CHAR(64)     PRIMARY KEY,
+    size_bytes   BIGINT       NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+
+    created_at   TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at   TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_by   VARCHAR(255),
+    updated_by   VARCHAR(255),
+
+    CONSTRAINT chk_stored_documents_size CHECK (size_bytes >= 0)
+);
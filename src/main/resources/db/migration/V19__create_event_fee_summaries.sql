@@ -0,0 +1,31 @@
+-- Event fee roll-up per organization, month of the event and event type, maintained by the application when events
+-- are requested and approved, so fee reports never scan village_events. Approved fees are the collected revenue.
+CREATE TABLE event_fee_summaries
+(
+    organization_id   BIGINT        NOT NULL,
+    period_month      DATE          NOT NULL,
+    event_type        VARCHAR(50)   NOT NULL,
+    requested_events  BIGINT        NOT NULL DEFAULT 0,
+    requested_fees    NUMERIC(14,2) NOT NULL DEFAULT 0,
+    approved_events   BIGINT        NOT NULL DEFAULT 0,
+    approved_fees     NUMERIC(14,2) NOT NULL DEFAULT 0,
+    updated_at        TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_event_fee_summaries PRIMARY KEY (organization_id, period_month, event_type),
+    CONSTRAINT fk_event_fee_summaries_organization FOREIGN KEY (organization_id) REFERENCES organizations (id),
+    CONSTRAINT chk_event_fee_summaries_month CHECK (EXTRACT(DAY FROM period_month) = 1)
+);
+
+-- Seed from the events recorded so far
+INSERT INTO event_fee_summaries (organization_id, period_month, event_type,
+                                 requested_events, requested_fees, approved_events, approved_fees)
+SELECT organization_id,
+       date_trunc('month', event_date)::date,
+       type,
+       COUNT(*),
+       COALESCE(SUM(fee_amount), 0),
+       COUNT(*) FILTER (WHERE status = 'APPROVED'),
+       COALESCE(SUM(fee_amount) FILTER (WHERE status = 'APPROVED'), 0)
+FROM village_events
+WHERE organization_id IS NOT NULL AND event_date IS NOT NULL AND type IS NOT NULL
+GROUP BY organization_id, date_trunc('month', event_date)::date, type;
@@ -0,0 +1,22 @@
+-- Transactional outbox: notifications are written in the same transaction as the domain change and delivered
+-- afterwards by OutboxDispatcher, so a slow or failing channel never affects the request that caused it
+CREATE TABLE outbox_messages
+(
+    id              BIGSERIAL PRIMARY KEY,
+    topic           VARCHAR(100) NOT NULL,
+    aggregate_type  VARCHAR(100) NOT NULL,
+    aggregate_id    BIGINT,
+    payload         JSONB        NOT NULL,
+    status          VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    available_at    TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error      TEXT,
+    created_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    dispatched_at   TIMESTAMP,
+
+    CONSTRAINT chk_outbox_messages_status CHECK (status IN ('PENDING', 'DISPATCHED', 'FAILED'))
+);
+
+-- The dispatcher only looks at pending messages that are due; delivered ones drop out of the index
+CREATE INDEX idx_outbox_messages_due ON outbox_messages (available_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_outbox_messages_dispatched ON outbox_messages (dispatched_at) WHERE status = 'DISPATCHED';
@@ -0,0 +1,3 @@
+-- When the household joined the community register, as stated by the register (not the row's insert time).
+-- Levy arrears and penalties start from this year; NULL means unknown, and every year in the window is billed.
+ALTER TABLE families ADD COLUMN IF NOT EXISTS registered_on DATE;
@@ -0,0 +1,5 @@
+-- Partial index backing "does this user have an open case?" eligibility checks.
+-- Only the statuses counted as open are indexed, so the index stays small as cases close.
+CREATE INDEX idx_dispute_cases_accused_open
+    ON dispute_cases (accused_user_id)
+    WHERE status IN ('OPEN', 'NOTICE_1_SENT', 'NOTICE_2_SENT', 'NOTICE_3_SENT');
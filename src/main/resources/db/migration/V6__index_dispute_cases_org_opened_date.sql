@@ -0,0 +1,2 @@
+-- Supports case register exports: organization + opened date range, read in opened-date order.
+CREATE INDEX idx_dispute_cases_org_opened_date ON dispute_cases (organization_id, opened_date);
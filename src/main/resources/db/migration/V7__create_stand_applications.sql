@@ -0,0 +1,27 @@
+-- Stand application queue: insert-only, FIFO per stand (ordered by id)
+CREATE TABLE stand_applications
+(
+    id               BIGSERIAL PRIMARY KEY,
+    stand_id         BIGINT NOT NULL,
+    applicant_id     BIGINT NOT NULL,
+    application_date DATE   NOT NULL,
+
+    created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_by       VARCHAR(255),
+    updated_by       VARCHAR(255),
+
+    CONSTRAINT fk_stand_applications_stand FOREIGN KEY (stand_id) REFERENCES land_stands (id),
+    CONSTRAINT fk_stand_applications_applicant FOREIGN KEY (applicant_id) REFERENCES users (id),
+    CONSTRAINT uq_stand_applicant UNIQUE (stand_id, applicant_id)
+);
+
+-- Queue head lookups and paged queue views
+CREATE INDEX idx_stand_applications_stand_fifo ON stand_applications (stand_id, id);
+
+-- Carry over the single applicant recorded on unallocated stands
+INSERT INTO stand_applications (stand_id, applicant_id, application_date)
+SELECT id, applicant_id, COALESCE(application_date, CURRENT_DATE)
+FROM land_stands
+WHERE applicant_id IS NOT NULL
+  AND allocated = FALSE;
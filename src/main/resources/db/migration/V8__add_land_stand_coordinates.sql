@@ -0,0 +1,7 @@
+-- Stand location (WGS84 degrees). Spatial queries are served by an in-memory R-tree per organization,
+-- so no PostGIS extension is required.
+ALTER TABLE land_stands ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE land_stands ADD COLUMN longitude DOUBLE PRECISION;
+
+ALTER TABLE land_stands ADD CONSTRAINT chk_land_stands_latitude CHECK (latitude BETWEEN -90 AND 90);
+ALTER TABLE land_stands ADD CONSTRAINT chk_land_stands_longitude CHECK (longitude BETWEEN -180 AND 180);
@@ -0,0 +1,5 @@
+-- Work-queue scan for "allocate next available stand": only unallocated stands are indexed,
+-- in the order they are handed out.
+CREATE INDEX idx_land_stands_available
+    ON land_stands (organization_id, type, stand_number, id)
+    WHERE allocated = FALSE;
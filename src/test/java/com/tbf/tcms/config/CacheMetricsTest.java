@@ -0,0 +1,54 @@
+package com.tbf.tcms.config;
+
+import com.tbf.tcms.domain.LevyPayment;
+import com.tbf.tcms.domain.enums.LevyStatus;
+import com.tbf.tcms.repository.LevyPaymentRepository;
+import com.tbf.tcms.repository.projection.ResidentLookupView;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.service.cache.ResidentLookupCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LevyPaymentRepository levyPaymentRepository = mock(LevyPaymentRepository.class);
+    private final LevyComplianceCache complianceCache = new LevyComplianceCache(levyPaymentRepository);
+    private final ProofOfResidenceLetterCache letterCache = new ProofOfResidenceLetterCache();
+    private final ResidentLookupCache lookupCache = new ResidentLookupCache();
+
+    private double gets(String cache, String result) {
+        return registry.get(CacheMetrics.GETS).tags("cache", cache, "result", result).functionCounter().count();
+    }
+
+    @Test
+    void cacheStatsShouldBeReadAtScrapeTime() {
+        new CacheMetrics(complianceCache, letterCache, lookupCache).bindTo(registry);
+        LevyPayment paid = new LevyPayment();
+        paid.setStatus(LevyStatus.PAID);
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(7L, 2025)).thenReturn(Optional.of(paid));
+
+        complianceCache.isUpToDate(7L, 2025);
+        complianceCache.isUpToDate(7L, 2025);
+        complianceCache.isUpToDate(7L, 2025);
+        letterCache.get(1L, 2025);
+        lookupCache.get("id:1", k -> List.of(mock(ResidentLookupView.class)));
+        lookupCache.get("id:1", k -> List.of());
+
+        assertThat(gets("levy_compliance", "hit")).isEqualTo(2);
+        assertThat(gets("levy_compliance", "miss")).isEqualTo(1);
+        assertThat(gets("proof_of_residence_letters", "miss")).isEqualTo(1);
+        assertThat(gets("resident_lookup", "hit")).isEqualTo(1);
+        assertThat(registry.get(CacheMetrics.SIZE).tag("cache", "levy_compliance").gauge().value()).isEqualTo(1);
+        assertThat(registry.get(CacheMetrics.SIZE).tag("cache", "resident_lookup").gauge().value()).isEqualTo(1);
+        assertThat(registry.get(CacheMetrics.GETS).functionCounters()).hasSize(6);
+    }
+}
@@ -0,0 +1,48 @@
+package com.tbf.tcms.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionExecution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TransactionMetrics metrics = new TransactionMetrics(registry);
+
+    private TransactionExecution transaction(String name, boolean newTransaction) {
+        TransactionExecution tx = mock(TransactionExecution.class);
+        when(tx.getTransactionName()).thenReturn(name);
+        when(tx.isNewTransaction()).thenReturn(newTransaction);
+        return tx;
+    }
+
+    @Test
+    void physicalTransactionsShouldBeTimedByMethodAndOutcome() {
+        TransactionExecution outer = transaction("com.tbf.tcms.service.impl.LevyServiceImpl.recordPayment", true);
+        TransactionExecution inner = transaction("com.tbf.tcms.service.impl.LevyRateServiceImpl.setRate", true);
+        TransactionExecution joined = transaction("com.tbf.tcms.service.impl.LevyRateServiceImpl.amountDue", false);
+
+        metrics.afterBegin(outer, null);
+        metrics.afterBegin(joined, null);
+        metrics.afterCommit(joined, null);
+        metrics.afterBegin(inner, null);
+        metrics.afterRollback(inner, null);
+        metrics.afterCommit(outer, null);
+
+        assertThat(registry.get(TransactionMetrics.METRIC)
+                .tags("name", "LevyServiceImpl.recordPayment", "outcome", "commit").timer().count()).isEqualTo(1);
+        assertThat(registry.get(TransactionMetrics.METRIC)
+                .tags("name", "LevyRateServiceImpl.setRate", "outcome", "rollback").timer().count()).isEqualTo(1);
+        assertThat(registry.get(TransactionMetrics.METRIC).timers()).hasSize(2);
+    }
+
+    @Test
+    void programmaticTransactionsShouldBeUnnamed() {
+        assertThat(TransactionMetrics.shortName(null)).isEqualTo("unnamed");
+        assertThat(TransactionMetrics.shortName("recordPayment")).isEqualTo("recordPayment");
+    }
+}
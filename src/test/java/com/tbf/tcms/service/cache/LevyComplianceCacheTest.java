@@ -0,0 +1,90 @@
+package com.tbf.tcms.service.cache;
+
+import com.tbf.tcms.domain.LevyPayment;
+import com.tbf.tcms.domain.enums.LevyStatus;
+import com.tbf.tcms.repository.LevyPaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LevyComplianceCacheTest {
+
+    @Mock private LevyPaymentRepository levyPaymentRepository;
+
+    @InjectMocks private LevyComplianceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private Optional<LevyPayment> payment(LevyStatus status) {
+        LevyPayment p = new LevyPayment();
+        p.setStatus(status);
+        return Optional.of(p);
+    }
+
+    @Test
+    void shouldLoadFamilyOnceAndCountHitsAndMisses() {
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(7L, 2025)).thenReturn(payment(LevyStatus.PAID));
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(8L, 2025)).thenReturn(Optional.empty());
+
+        assertThat(cache.isUpToDate(7L, 2025)).isTrue();
+        assertThat(cache.isUpToDate(7L, 2025)).isTrue();
+        assertThat(cache.isUpToDate(8L, 2025)).isFalse();
+        assertThat(cache.isUpToDate(8L, 2025)).isFalse();
+
+        verify(levyPaymentRepository, times(1)).findByFamilyIdAndFinancialYear(7L, 2025);
+        verify(levyPaymentRepository, times(1)).findByFamilyIdAndFinancialYear(8L, 2025);
+        assertThat(cache.stats()).isEqualTo(new LevyComplianceCache.Stats(2025, 2, 2, 2));
+    }
+
+    @Test
+    void shouldApplyRecordedPaymentsWriteThrough() {
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(8L, 2025)).thenReturn(Optional.empty());
+        assertThat(cache.isUpToDate(8L, 2025)).isFalse();
+
+        // No transaction is active in the test, so the write-through applies immediately
+        cache.paymentRecorded(8L, 2025, LevyStatus.PAID);
+
+        assertThat(cache.isUpToDate(8L, 2025)).isTrue();
+        verify(levyPaymentRepository, times(1)).findByFamilyIdAndFinancialYear(8L, 2025);
+    }
+
+    @Test
+    void shouldRollOverToNewYearAndAnswerOlderYearsFromDatabase() {
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(7L, 2025)).thenReturn(payment(LevyStatus.PAID));
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(7L, 2026)).thenReturn(payment(LevyStatus.PENDING));
+        cache.isUpToDate(7L, 2025);
+
+        assertThat(cache.isUpToDate(7L, 2026)).isFalse();
+        assertThat(cache.stats().year()).isEqualTo(2026);
+        assertThat(cache.isUpToDate(7L, 2025)).isTrue();
+        assertThat(cache.isUpToDate(7L, 2025)).isTrue();
+        verify(levyPaymentRepository, times(3)).findByFamilyIdAndFinancialYear(7L, 2025);
+    }
+
+    @Test
+    void readStartedBeforeAnInvalidationShouldNotBePublished() {
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(8L, 2025)).thenAnswer(inv -> {
+            // The import commits (and invalidates) while this read is in flight
+            cache.invalidate(8L, 2025);
+            return Optional.empty();
+        });
+
+        assertThat(cache.isUpToDate(8L, 2025)).isFalse();
+        long stale = cache.generation() - 1;
+        cache.prime(8L, 2025, false, stale);
+
+        assertThat(cache.stats().cachedFamilies()).isZero();
+    }
+}
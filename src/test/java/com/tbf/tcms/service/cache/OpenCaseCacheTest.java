@@ -0,0 +1,66 @@
+package com.tbf.tcms.service.cache;
+
+import com.tbf.tcms.repository.DisputeCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OpenCaseCacheTest {
+
+    @Mock private DisputeCaseRepository caseRepository;
+
+    @InjectMocks private OpenCaseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldFallBackToDatabaseUntilLoaded() {
+        when(caseRepository.existsByAccusedUserIdAndStatusIn(eq(5L), anyCollection())).thenReturn(true);
+
+        assertThat(cache.hasOpenCase(5L)).isTrue();
+        verify(caseRepository).existsByAccusedUserIdAndStatusIn(eq(5L), anyCollection());
+    }
+
+    @Test
+    void shouldAnswerFromMemoryOnceLoaded() {
+        when(caseRepository.findAccusedUserIdsWithStatusIn(OpenCaseCache.OPEN_STATUSES)).thenReturn(List.of(1L, 2L));
+        cache.load();
+
+        assertThat(cache.hasOpenCase(1L)).isTrue();
+        assertThat(cache.hasOpenCase(3L)).isFalse();
+        verify(caseRepository, never()).existsByAccusedUserIdAndStatusIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    void shouldTrackLifecycleTransitions() {
+        when(caseRepository.findAccusedUserIdsWithStatusIn(OpenCaseCache.OPEN_STATUSES)).thenReturn(List.of());
+        cache.load();
+
+        cache.caseOpened(7L);
+        assertThat(cache.hasOpenCase(7L)).isTrue();
+
+        // Another open case still exists for the user, so membership is kept
+        when(caseRepository.existsByAccusedUserIdAndStatusIn(eq(7L), anyCollection())).thenReturn(true);
+        cache.caseNoLongerOpen(7L);
+        assertThat(cache.hasOpenCase(7L)).isTrue();
+
+        when(caseRepository.existsByAccusedUserIdAndStatusIn(eq(7L), anyCollection())).thenReturn(false);
+        cache.caseNoLongerOpen(7L);
+        assertThat(cache.hasOpenCase(7L)).isFalse();
+    }
+}
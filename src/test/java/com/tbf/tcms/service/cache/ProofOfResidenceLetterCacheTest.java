@@ -0,0 +1,70 @@
+package com.tbf.tcms.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProofOfResidenceLetterCacheTest {
+
+    private final ProofOfResidenceLetterCache cache = new ProofOfResidenceLetterCache();
+
+    @Test
+    void letterIsOnlyValidForTheLevyYearItWasRenderedIn() {
+        ProofOfResidenceLetterCache.Letter letter = cache.put(10L, 3L, 2025, "letter", cache.generation());
+
+        assertThat(cache.get(10L, 2025)).isEqualTo(letter);
+        assertThat(cache.get(10L, 2026)).isNull();
+    }
+
+    @Test
+    void etagShouldFollowTheLetterText() {
+        String a = cache.put(10L, 3L, 2025, "resides at Stand 1", cache.generation()).etag();
+        String b = cache.put(11L, 3L, 2025, "resides at Stand 1", cache.generation()).etag();
+        String c = cache.put(12L, 3L, 2025, "resides at Stand 2", cache.generation()).etag();
+
+        assertThat(a).isEqualTo(b).isNotEqualTo(c).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void evictFamilyShouldDropEveryMember() {
+        cache.put(10L, 3L, 2025, "a", cache.generation());
+        cache.put(11L, 3L, 2025, "b", cache.generation());
+        cache.put(12L, 4L, 2025, "c", cache.generation());
+
+        cache.evictFamily(3L);
+        cache.evictFamilies(Set.of());
+
+        assertThat(cache.get(10L, 2025)).isNull();
+        assertThat(cache.get(11L, 2025)).isNull();
+        assertThat(cache.get(12L, 2025)).isNotNull();
+        assertThat(cache.stats().cachedLetters()).isEqualTo(1);
+    }
+
+    @Test
+    void letterRenderedBeforeItsFamilyWasEvictedShouldNotBeCached() {
+        long before = cache.generation();
+        cache.evictFamily(3L);
+
+        ProofOfResidenceLetterCache.Letter stale = cache.put(10L, 3L, 2025, "old address", before);
+        cache.put(12L, 4L, 2025, "other family", before);
+
+        assertThat(stale.text()).isEqualTo("old address");
+        assertThat(cache.get(10L, 2025)).isNull();
+        assertThat(cache.get(12L, 2025)).isNotNull();
+
+        cache.put(10L, 3L, 2025, "new address", cache.generation());
+        assertThat(cache.get(10L, 2025).text()).isEqualTo("new address");
+    }
+
+    @Test
+    void letterRenderedBeforeAClearShouldNotBeCached() {
+        long before = cache.generation();
+        cache.clear();
+
+        cache.put(12L, 4L, 2025, "other family", before);
+
+        assertThat(cache.get(12L, 2025)).isNull();
+    }
+}
@@ -0,0 +1,67 @@
+package com.tbf.tcms.service.cache;
+
+import com.tbf.tcms.repository.projection.ResidentLookupView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ResidentLookupCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ResidentLookupCache cache = new ResidentLookupCache(clock::get);
+    private final ResidentLookupView resident = mock(ResidentLookupView.class);
+
+    @Test
+    void shouldServeRepeatLookupsUntilTheyExpire() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("id:1", k -> { loads.incrementAndGet(); return List.of(resident); });
+        List<ResidentLookupView> second = cache.get("id:1", k -> { loads.incrementAndGet(); return List.of(); });
+        clock.addAndGet(ResidentLookupCache.TTL.toNanos());
+        cache.get("id:1", k -> { loads.incrementAndGet(); return List.of(resident); });
+
+        assertThat(second).containsExactly(resident);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats()).isEqualTo(new ResidentLookupCache.Stats(1, 1, 2));
+    }
+
+    @Test
+    void shouldNotCacheEmptyResults() {
+        cache.get("phone:821234567", k -> List.of());
+        List<ResidentLookupView> found = cache.get("phone:821234567", k -> List.of(resident));
+
+        assertThat(found).containsExactly(resident);
+        assertThat(cache.stats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void lookupLoadedWhileTheCacheWasClearedShouldNotBeCached() {
+        List<ResidentLookupView> found = cache.get("id:1", k -> {
+            // An import commits while this lookup is reading
+            cache.clear();
+            return List.of(resident);
+        });
+        List<ResidentLookupView> again = cache.get("id:1", k -> List.of());
+
+        assertThat(found).containsExactly(resident);
+        assertThat(again).isEmpty();
+        assertThat(cache.stats()).isEqualTo(new ResidentLookupCache.Stats(0, 0, 2));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedKeysAndClear() {
+        for (int i = 0; i <= ResidentLookupCache.MAX_ENTRIES; i++) {
+            cache.get("id:" + i, k -> List.of(resident));
+        }
+        assertThat(cache.stats().cachedKeys()).isEqualTo(ResidentLookupCache.MAX_ENTRIES);
+
+        cache.clear();
+
+        assertThat(cache.stats().cachedKeys()).isZero();
+    }
+}
@@ -0,0 +1,88 @@
+package com.tbf.tcms.service.calendar;
+
+import com.tbf.tcms.repository.VillageEventRepository;
+import com.tbf.tcms.repository.projection.EventBookingView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventCalendarIndexTest {
+
+    private final VillageEventRepository repository = mock(VillageEventRepository.class);
+    private final EventCalendarIndex index = new EventCalendarIndex(repository);
+    private final LocalDate saturday = LocalDate.now().plusDays(5);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private EventBookingView booking(Long id, Long orgId, LocalDate date, String location) {
+        EventBookingView v = mock(EventBookingView.class, invocation -> null);
+        when(v.getId()).thenReturn(id);
+        when(v.getOrganizationId()).thenReturn(orgId);
+        when(v.getEventDate()).thenReturn(date);
+        when(v.getLocation()).thenReturn(location);
+        when(v.getName()).thenReturn("Event " + id);
+        return v;
+    }
+
+    @Test
+    void loadedBookingsShouldBlockTheSameLocationAndDayOnly() {
+        List<EventBookingView> rows = List.of(booking(1L, 3L, saturday, "Main Hall"));
+        when(repository.findBookingsFrom(LocalDate.now())).thenReturn(rows);
+        index.load();
+
+        assertThatThrownBy(() -> index.reserve(3L, saturday, "  main   HALL ", "Wedding"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Event 1");
+        assertThatCode(() -> index.reserve(3L, saturday.plusDays(1), "Main Hall", "Wedding")).doesNotThrowAnyException();
+        assertThatCode(() -> index.reserve(3L, saturday, "Kgoro", "Wedding")).doesNotThrowAnyException();
+        assertThatCode(() -> index.reserve(4L, saturday, "Main Hall", "Wedding")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void reservationShouldHoldUntilRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(3L, saturday, "Main Hall", "Funeral");
+
+        assertThatThrownBy(() -> index.reserve(3L, saturday, "Main Hall", "Party"))
+                .isInstanceOf(IllegalStateException.class);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThatCode(() -> index.reserve(3L, saturday, "Main Hall", "Party")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void committedReservationShouldKeepTheSlot() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(3L, saturday, "Main Hall", "Funeral").confirm(42L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThatThrownBy(() -> index.reserve(3L, saturday, "Main Hall", "Party"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void pastDaysShouldNotBeIndexed() {
+        LocalDate lastWeek = LocalDate.now().minusDays(7);
+        index.reserve(3L, lastWeek, "Main Hall", "Funeral");
+
+        assertThatCode(() -> index.reserve(3L, lastWeek, "Main Hall", "Party")).doesNotThrowAnyException();
+    }
+}
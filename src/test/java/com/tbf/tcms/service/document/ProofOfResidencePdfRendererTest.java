@@ -0,0 +1,50 @@
+package com.tbf.tcms.service.document;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProofOfResidencePdfRendererTest {
+
+    private final ProofOfResidencePdfRenderer renderer = new ProofOfResidencePdfRenderer();
+
+    @Test
+    void shouldRenderWellFormedPdfWithSubstitutedFields() {
+        byte[] pdf = renderer.render(Map.of(
+                "name", "Thandi (Jr) Mokoena",
+                "address", "Stand 12, Ga-Mashashane",
+                "code", "ABCDE-12345"));
+        String text = new String(pdf, StandardCharsets.ISO_8859_1);
+
+        assertThat(text).startsWith("%PDF-1.4").endsWith("%%EOF\n");
+        assertThat(text).contains("(" + ProofOfResidencePdfRenderer.TITLE + ") Tj");
+        assertThat(text).contains("Thandi \\(Jr\\) Mokoena");
+        assertThat(text).contains("Verification code: ABCDE-12345");
+
+        // Every xref entry must point at the start of its object
+        int xref = text.lastIndexOf("\nxref\n") + 1;
+        Matcher entries = Pattern.compile("(\\d{10}) 00000 n ").matcher(text.substring(xref));
+        int object = 1;
+        while (entries.find()) {
+            int offset = Integer.parseInt(entries.group(1));
+            assertThat(text.substring(offset)).startsWith(object + " 0 obj");
+            object++;
+        }
+        assertThat(object).isEqualTo(7);
+        Matcher startxref = Pattern.compile("startxref\\n(\\d+)").matcher(text);
+        assertThat(startxref.find()).isTrue();
+        assertThat(Integer.parseInt(startxref.group(1))).isEqualTo(xref);
+    }
+
+    @Test
+    void templateShouldSubstituteAndLeaveMissingFieldsEmpty() {
+        DocumentTemplate template = DocumentTemplate.compile("Dear {name}, code {code}.");
+
+        assertThat(template.render(Map.of("name", "Sipho"))).isEqualTo("Dear Sipho, code .");
+    }
+}
@@ -0,0 +1,67 @@
+package com.tbf.tcms.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CaseRegisterExportServiceImplTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks private CaseRegisterExportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldWriteHeaderAndEscapedRows() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(1L);
+        when(rs.getDate("opened_date")).thenReturn(Date.valueOf(LocalDate.of(2025, 3, 1)));
+        when(rs.getString("status")).thenReturn("OPEN");
+        when(rs.getInt("notices_sent")).thenReturn(2);
+        when(rs.getString("accused_name")).thenReturn("Thabo Molefe");
+        when(rs.getString("complainant_name")).thenReturn("Sipho Dlamini");
+        when(rs.getString("description")).thenReturn("Fence, \"boundary\" dispute");
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportCsv(3L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[0]).isEqualTo(CaseRegisterExportServiceImpl.HEADER);
+        assertThat(lines[1]).isEqualTo("1,2025-03-01,,OPEN,2,Thabo Molefe,Sipho Dlamini,\"Fence, \"\"boundary\"\" dispute\"");
+    }
+
+    @Test
+    void shouldRejectInvertedDateRange() {
+        assertThatThrownBy(() -> service.exportCsv(3L, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1),
+                new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'from'");
+    }
+}
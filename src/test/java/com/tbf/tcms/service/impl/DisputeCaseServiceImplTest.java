@@ -9,6 +9,8 @@ import com.tbf.tcms.repository.DisputeCaseRepository;
 import com.tbf.tcms.repository.OrganizationRepository;
 import com.tbf.tcms.repository.RoleRepository;
 import com.tbf.tcms.repository.UserRepository;
+import com.tbf.tcms.service.cache.OpenCaseCache;
+import com.tbf.tcms.service.outbox.OutboxPublisher;
 import com.tbf.tcms.web.dto.PageResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +29,9 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +41,8 @@ class DisputeCaseServiceImplTest {
     @Mock private UserRepository userRepository;
     @Mock private OrganizationRepository orgRepository;
     @Mock private RoleRepository roleRepository;
+    @Mock private OpenCaseCache openCaseCache;
+    @Mock private OutboxPublisher outboxPublisher;
 
     @InjectMocks private DisputeCaseServiceImpl service;
 
@@ -58,6 +65,7 @@ class DisputeCaseServiceImplTest {
         assertThat(c.getOpenedDate()).isEqualTo(LocalDate.now());
         assertThat(c.getNoticesSent()).isZero();
         assertThat(c.getAccusedUser().getId()).isEqualTo(10L);
+        verify(openCaseCache).caseOpened(10L);
     }
 
     @Test
@@ -141,9 +149,42 @@ class DisputeCaseServiceImplTest {
         assertThat(out.getAdjudicators()).hasSize(2);
     }
 
+    @Test
+    void shouldReleaseOpenCaseWhenReferredAfterThirdNotice() {
+        DisputeCase c = new DisputeCase();
+        c.setAccusedUser(user(9));
+        c.setNoticesSent(3);
+        c.setStatus(CaseStatus.NOTICE_3_SENT);
+        when(caseRepository.findById(7L)).thenReturn(Optional.of(c));
+        when(caseRepository.save(any(DisputeCase.class))).thenAnswer(i -> i.getArgument(0));
+
+        DisputeCase out = service.sendNotice(7L);
+        assertThat(out.getStatus()).isEqualTo(CaseStatus.REFERRED);
+        verify(openCaseCache).caseNoLongerOpen(9L);
+        verify(outboxPublisher).publish(eq(DisputeCaseServiceImpl.NOTICE_TOPIC), eq("DisputeCase"), any(),
+                argThat(notice -> notice.get("accusedUserId").equals(9L) && notice.get("noticeNumber").equals(4)));
+    }
+
+    @Test
+    void shouldMarkAccusedOpenAgainWhenNoticeReopensCase() {
+        DisputeCase c = new DisputeCase();
+        c.setAccusedUser(user(9));
+        c.setNoticesSent(1);
+        c.setStatus(CaseStatus.REFERRED);
+        when(caseRepository.findById(7L)).thenReturn(Optional.of(c));
+        when(caseRepository.save(any(DisputeCase.class))).thenAnswer(i -> i.getArgument(0));
+
+        DisputeCase out = service.sendNotice(7L);
+
+        assertThat(out.getStatus()).isEqualTo(CaseStatus.NOTICE_2_SENT);
+        verify(openCaseCache).caseOpened(9L);
+        verify(openCaseCache, never()).caseNoLongerOpen(any());
+    }
+
     @Test
     void shouldCloseCaseSetsClosedFields() {
         DisputeCase c = new DisputeCase();
+        c.setAccusedUser(user(4));
         c.setStatus(CaseStatus.OPEN);
         when(caseRepository.findById(8L)).thenReturn(Optional.of(c));
         when(caseRepository.save(any(DisputeCase.class))).thenAnswer(i -> i.getArgument(0));
@@ -151,6 +192,7 @@ class DisputeCaseServiceImplTest {
         DisputeCase out = service.closeCase(8L);
         assertThat(out.getStatus()).isEqualTo(CaseStatus.CLOSED);
         assertThat(out.getClosedDate()).isEqualTo(LocalDate.now());
+        verify(openCaseCache).caseNoLongerOpen(4L);
     }
 
     @Test
@@ -0,0 +1,66 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.StoredDocumentRepository;
+import com.tbf.tcms.service.storage.DocumentStorage;
+import com.tbf.tcms.web.dto.document.DocumentDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DocumentServiceImplTest {
+
+    @Mock private DocumentStorage documentStorage;
+    @Mock private StoredDocumentRepository storedDocumentRepository;
+
+    @InjectMocks private DocumentServiceImpl service;
+
+    private final String hash = "ab".repeat(32);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private InputStream upload() {
+        return new ByteArrayInputStream(new byte[]{1, 2, 3});
+    }
+
+    @Test
+    void uploadShouldRecordMetadataOncePerContent() throws Exception {
+        when(documentStorage.store(any(), anyLong())).thenReturn(new DocumentStorage.StoredContent(hash, 3, false));
+
+        DocumentDto dto = service.upload(upload(), "Application/PDF; charset=binary");
+
+        assertThat(dto.getUrl()).isEqualTo("/api/documents/" + hash);
+        assertThat(dto.getContentType()).isEqualTo("application/pdf");
+        assertThat(dto.isCreated()).isFalse();
+        verify(storedDocumentRepository).insertIfAbsent(hash, 3, "application/pdf");
+    }
+
+    @Test
+    void onlyDocumentTypesThatCannotRunInABrowserShouldBeAccepted() {
+        assertThatThrownBy(() -> service.upload(upload(), "text/html")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.upload(upload(), null)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(documentStorage, storedDocumentRepository);
+    }
+
+    @Test
+    void unknownOrMalformedHashShouldBeNotFound() {
+        assertThatThrownBy(() -> service.get("../secret")).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service.get(hash)).isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.Family;
+import com.tbf.tcms.domain.Organization;
+import com.tbf.tcms.domain.Resident;
+import com.tbf.tcms.repository.FamilyRepository;
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.repository.ResidentRepository;
+import com.tbf.tcms.service.FamilyService;
+import com.tbf.tcms.web.dto.family.HouseholdDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement count of the household view against a real PostgreSQL, read from Hibernate statistics.
+ * Runs only when SPRING_DATASOURCE_URL points at a database; the rows it creates are deleted afterwards.
+ */
+@SpringBootTest(properties = {
+        "spring.security.oauth2.resourceserver.jwt.issuer-uri=http://localhost/unused",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class FamilyHouseholdStatementCountTest {
+
+    private static final int RESIDENTS = 40;
+
+    @Autowired private FamilyService familyService;
+    @Autowired private FamilyRepository familyRepository;
+    @Autowired private ResidentRepository residentRepository;
+    @Autowired private OrganizationRepository organizationRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Organization organization;
+    private Family family;
+    private final List<Resident> residents = new ArrayList<>();
+
+    @AfterEach
+    void deleteHousehold() {
+        residentRepository.deleteAllInBatch(residents.stream().filter(r -> r.getId() != null).toList());
+        if (family != null) {
+            familyRepository.deleteById(family.getId());
+        }
+        if (organization != null) {
+            organizationRepository.deleteById(organization.getId());
+        }
+    }
+
+    @Test
+    void householdShouldBeReadInTwoStatementsWhateverItsSize() {
+        organization = organizationRepository.save(
+                new Organization("Household statements " + System.nanoTime(), "VILLAGE", null));
+        family = new Family();
+        family.setReferenceNumber("HS-" + System.nanoTime());
+        family.setAddress("Stand 12");
+        family.setOrganization(organization);
+        family = familyRepository.save(family);
+        for (int i = 0; i < RESIDENTS; i++) {
+            Resident r = new Resident();
+            r.setFirstName("Resident " + i);
+            r.setLastName("Statement");
+            r.setHeadOfHousehold(i == 0);
+            r.setFamily(family);
+            residents.add(residentRepository.save(r));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        HouseholdDto dto = familyService.getHousehold(family.getId(), FamilyServiceImpl.MAX_HISTORY_YEARS);
+
+        assertThat(dto.getResidents()).hasSize(RESIDENTS);
+        assertThat(dto.getLevies()).hasSize(FamilyServiceImpl.MAX_HISTORY_YEARS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
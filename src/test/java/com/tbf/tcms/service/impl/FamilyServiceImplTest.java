@@ -0,0 +1,115 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.enums.LevyStatus;
+import com.tbf.tcms.repository.FamilyRepository;
+import com.tbf.tcms.repository.LevyPaymentRepository;
+import com.tbf.tcms.repository.projection.HouseholdRowView;
+import com.tbf.tcms.repository.projection.LevyYearView;
+import com.tbf.tcms.web.dto.family.HouseholdDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class FamilyServiceImplTest {
+
+    @Mock private FamilyRepository familyRepository;
+    @Mock private LevyPaymentRepository levyPaymentRepository;
+
+    @InjectMocks private FamilyServiceImpl service;
+
+    private final int year = LocalDate.now().getYear();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private HouseholdRowView row(Long residentId, boolean head) {
+        HouseholdRowView r = mock(HouseholdRowView.class, invocation -> null);
+        when(r.getFamilyId()).thenReturn(5L);
+        when(r.getReferenceNumber()).thenReturn("ST-12");
+        when(r.getOrganizationId()).thenReturn(3L);
+        when(r.getOrganizationName()).thenReturn("Ga-Mashashane");
+        when(r.getResidentId()).thenReturn(residentId);
+        when(r.getFirstName()).thenReturn(residentId == null ? null : "Resident " + residentId);
+        when(r.getHeadOfHousehold()).thenReturn(head);
+        return r;
+    }
+
+    private LevyYearView levyYear(int y, String due, String paid, String status) {
+        LevyYearView v = mock(LevyYearView.class, invocation -> null);
+        when(v.getYear()).thenReturn(y);
+        when(v.getAmountDue()).thenReturn(new BigDecimal(due));
+        when(v.getAmountPaid()).thenReturn(new BigDecimal(paid));
+        when(v.getStatus()).thenReturn(status);
+        return v;
+    }
+
+    @Test
+    void householdShouldBeReadInTwoStatementsWhateverItsSize() {
+        List<HouseholdRowView> rows = new ArrayList<>();
+        rows.add(row(1L, true));
+        for (long id = 2; id <= 40; id++) {
+            rows.add(row(id, false));
+        }
+        List<LevyYearView> history = List.of(
+                levyYear(year, "250.00", "100.00", "PENDING"),
+                levyYear(year - 1, "100.00", "100.00", "PAID"),
+                levyYear(year - 2, "100.00", "0", null));
+        when(familyRepository.findHouseholdRows(5L)).thenReturn(rows);
+        when(levyPaymentRepository.findLevyHistory(5L, year - 2, year, LevyServiceImpl.DEFAULT_ANNUAL_LEVY))
+                .thenReturn(history);
+
+        HouseholdDto dto = service.getHousehold(5L, 3);
+
+        assertThat(dto.getReferenceNumber()).isEqualTo("ST-12");
+        assertThat(dto.getOrganizationName()).isEqualTo("Ga-Mashashane");
+        assertThat(dto.getResidents()).hasSize(40);
+        assertThat(dto.getResidents().get(0).headOfHousehold()).isTrue();
+        assertThat(dto.getLevies()).extracting(HouseholdDto.LevyYear::status)
+                .containsExactly(LevyStatus.PENDING, LevyStatus.PAID, LevyStatus.PENDING);
+        assertThat(dto.getLevies().get(0).balance()).isEqualByComparingTo("150.00");
+        assertThat(dto.getLevies().get(2).balance()).isEqualByComparingTo("100.00");
+
+        verify(familyRepository).findHouseholdRows(5L);
+        verify(levyPaymentRepository).findLevyHistory(5L, year - 2, year, LevyServiceImpl.DEFAULT_ANNUAL_LEVY);
+        verifyNoMoreInteractions(familyRepository, levyPaymentRepository);
+    }
+
+    @Test
+    void householdWithoutResidentsShouldHaveAnEmptyList() {
+        List<HouseholdRowView> rows = List.of(row(null, false));
+        when(familyRepository.findHouseholdRows(5L)).thenReturn(rows);
+
+        HouseholdDto dto = service.getHousehold(5L, 1);
+
+        assertThat(dto.getFamilyId()).isEqualTo(5L);
+        assertThat(dto.getResidents()).isEmpty();
+    }
+
+    @Test
+    void unknownFamilyShouldNotReadLevies() {
+        when(familyRepository.findHouseholdRows(9L)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.getHousehold(9L, 5)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service.getHousehold(5L, FamilyServiceImpl.MAX_HISTORY_YEARS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(levyPaymentRepository);
+    }
+}
@@ -0,0 +1,89 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.FamilyRepository;
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.repository.ResidentRepository;
+import com.tbf.tcms.repository.projection.FamilyKeyView;
+import com.tbf.tcms.service.HouseholdImportService;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.service.cache.ResidentLookupCache;
+import com.tbf.tcms.web.dto.family.HouseholdImportReport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parse and batching time of a 100k-resident household import with the database mocked out. Wall-clock numbers
+ * depend on the machine, so this only runs on request:
+ * {@code mvn test -Dtest=HouseholdImportBenchmarkTest -Dtcms.benchmarks=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "tcms.benchmarks", matches = "true")
+class HouseholdImportBenchmarkTest {
+
+    private record Key(Long getId, String getReferenceNumber) implements FamilyKeyView {
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importOf100kResidents() throws Exception {
+        OrganizationRepository organizationRepository = mock(OrganizationRepository.class);
+        FamilyRepository familyRepository = mock(FamilyRepository.class);
+        ResidentRepository residentRepository = mock(ResidentRepository.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(organizationRepository.existsById(1L)).thenReturn(true);
+        when(residentRepository.findExistingIdNumbers(anyCollection())).thenReturn(List.of());
+        when(residentRepository.findFamilyIdsWithHead(anyCollection())).thenReturn(List.of());
+        // Families "in the database": reference number -> id, filled by the upsert
+        Map<String, Long> families = new HashMap<>();
+        when(familyRepository.findKeysByOrganizationIdAndReferenceNumberIn(eq(1L), anyCollection()))
+                .thenAnswer(inv -> ((Collection<String>) inv.getArgument(1)).stream()
+                        .filter(families::containsKey)
+                        .map(ref -> (FamilyKeyView) new Key(families.get(ref), ref))
+                        .toList());
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any()))
+                .thenAnswer(inv -> {
+                    Collection<?> rows = inv.getArgument(1);
+                    if (HouseholdImportServiceImpl.FAMILY_UPSERT_SQL.equals(inv.getArgument(0))) {
+                        rows.forEach(e -> families.putIfAbsent(((Map.Entry<String, ?>) e).getKey(), families.size() + 1L));
+                    }
+                    int[] counts = new int[rows.size()];
+                    Arrays.fill(counts, 1);
+                    return new int[][]{counts};
+                });
+        HouseholdImportServiceImpl service = new HouseholdImportServiceImpl(organizationRepository,
+                familyRepository, residentRepository, jdbcTemplate, JsonMapper.builder().build(),
+                mock(ResidentLookupCache.class), mock(ProofOfResidenceLetterCache.class));
+        int residents = 100_000;
+        byte[] register = HouseholdImportServiceImplTest.register(residents).getBytes(StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        HouseholdImportReport report = service.importHouseholds(1L, new ByteArrayInputStream(register),
+                HouseholdImportService.Format.CSV, false);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(report.getResidentsImported()).isEqualTo(residents);
+        log.info("household import of {} residents in {} households: {} ms", residents, report.getFamiliesCreated(), millis);
+    }
+}
@@ -0,0 +1,204 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.FamilyRepository;
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.repository.ResidentRepository;
+import com.tbf.tcms.repository.projection.FamilyKeyView;
+import com.tbf.tcms.service.HouseholdImportService;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.service.cache.ResidentLookupCache;
+import com.tbf.tcms.web.dto.family.HouseholdImportReport;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HouseholdImportServiceImplTest {
+
+    @Mock private OrganizationRepository organizationRepository;
+    @Mock private FamilyRepository familyRepository;
+    @Mock private ResidentRepository residentRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private ResidentLookupCache residentLookupCache;
+    @Mock private ProofOfResidenceLetterCache letterCache;
+
+    private HouseholdImportServiceImpl service;
+
+    // Families "in the database": reference number -> id
+    private final Map<String, Long> families = new HashMap<>();
+
+    private record Key(Long getId, String getReferenceNumber) implements FamilyKeyView {
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new HouseholdImportServiceImpl(organizationRepository, familyRepository, residentRepository,
+                jdbcTemplate, JsonMapper.builder().build(), residentLookupCache, letterCache);
+        when(organizationRepository.existsById(1L)).thenReturn(true);
+        families.put("HH-EXISTING", 7L);
+        when(familyRepository.findKeysByOrganizationIdAndReferenceNumberIn(eq(1L), anyCollection()))
+                .thenAnswer(inv -> ((Collection<String>) inv.getArgument(1)).stream()
+                        .filter(families::containsKey)
+                        .map(ref -> (FamilyKeyView) new Key(families.get(ref), ref))
+                        .toList());
+        when(jdbcTemplate.batchUpdate(eq(HouseholdImportServiceImpl.FAMILY_UPSERT_SQL), anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any()))
+                .thenAnswer(inv -> {
+                    Collection<Map.Entry<String, ?>> rows = inv.getArgument(1);
+                    rows.forEach(e -> families.putIfAbsent(e.getKey(), 100L + families.size()));
+                    return new int[][]{filled(rows.size())};
+                });
+        when(jdbcTemplate.batchUpdate(eq(HouseholdImportServiceImpl.RESIDENT_INSERT_SQL), anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any()))
+                .thenAnswer(inv -> new int[][]{filled(((Collection<?>) inv.getArgument(1)).size())});
+    }
+
+    private int[] filled(int size) {
+        int[] counts = new int[size];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+
+    private InputStream text(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldDeduplicateByIdNumberAndUpsertFamiliesFromCsv() throws Exception {
+        when(residentRepository.findExistingIdNumbers(anyCollection())).thenReturn(List.of("8001015009087"));
+        when(residentRepository.findFamilyIdsWithHead(anyCollection())).thenReturn(List.of(7L));
+        String register = """
+                referenceNumber,address,firstName,lastName,idNumber,headOfHousehold
+                HH-1,Stand 1,Thabo,Mokoena,9001015009081,true
+                HH-1,,Lerato,Mokoena,9001 0150 0908 2,false
+                HH-1,,Naledi,Mokoena,9001015009082,false
+                HH-1,,Kagiso,Mokoena,9001015009083,true
+                HH-EXISTING,,Sipho,Dlamini,8001015009087,false
+                HH-EXISTING,,Zanele,Dlamini,8001015009088,true
+                ,,No,Household,7001015009080,false
+                """;
+
+        HouseholdImportReport report = service.importHouseholds(1L, text(register), HouseholdImportService.Format.CSV, false);
+
+        assertThat(report.getRowsRead()).isEqualTo(7);
+        assertThat(report.getFamiliesCreated()).isEqualTo(1);
+        assertThat(report.getFamiliesUpdated()).isEqualTo(1);
+        assertThat(report.getResidentsImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(5);
+        assertThat(report.getErrors()).extracting(HouseholdImportReport.RowError::row).containsExactly(4, 5, 8, 6, 7);
+        assertThat(report.getErrors().get(0).message()).isEqualTo("Duplicate idNumber in register");
+        assertThat(report.getErrors().get(1).message()).isEqualTo("Household HH-1 already has a head");
+        assertThat(report.getErrors().get(3).message()).contains("already registered");
+        assertThat(report.getErrors().get(4).message()).isEqualTo("Household HH-EXISTING already has a head");
+    }
+
+    @Test
+    void shouldReadNdjsonHouseholdsWithoutWritingOnDryRun() throws Exception {
+        String register = """
+                {"referenceNumber":"HH-9","address":"Stand 9","residents":[{"firstName":"A","lastName":"B","idNumber":"X1","headOfHousehold":true},{"firstName":"C","lastName":"B","idNumber":"x-1"}]}
+                {"referenceNumber":"HH-10"}
+                """;
+
+        HouseholdImportReport report = service.importHouseholds(1L, text(register), HouseholdImportService.Format.NDJSON, true);
+
+        assertThat(report.isDryRun()).isTrue();
+        assertThat(report.getFamiliesCreated()).isEqualTo(1);
+        assertThat(report.getResidentsImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(HouseholdImportReport.RowError::row).containsExactly(1, 2);
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyCollection(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldUpsertTheStatedRegistrationDateAndRejectMalformedOnes() throws Exception {
+        String register = """
+                referenceNumber,address,registeredOn,firstName,lastName,idNumber,headOfHousehold
+                HH-1,Stand 1,,Thabo,Mokoena,9001015009081,true
+                HH-1,,2009-03-01,Lerato,Mokoena,9001015009082,false
+                HH-2,Stand 2,01/03/2009,Sipho,Dlamini,8001015009087,true
+                """;
+
+        HouseholdImportReport report = service.importHouseholds(1L, text(register), HouseholdImportService.Format.CSV, false);
+
+        assertThat(report.getResidentsImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(HouseholdImportReport.RowError::message)
+                .containsExactly("registeredOn must be a date (yyyy-MM-dd)");
+        ArgumentCaptor<Collection<Object>> rows = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(eq(HouseholdImportServiceImpl.FAMILY_UPSERT_SQL), rows.capture(), anyInt(),
+                setter.capture());
+        assertThat(rows.getValue()).hasSize(1);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, rows.getValue().iterator().next());
+        verify(ps).setString(1, "HH-1");
+        verify(ps).setString(2, "Stand 1");
+        verify(ps).setObject(3, LocalDate.of(2009, 3, 1));
+    }
+
+    @Test
+    void shouldImportHundredThousandResidentsWithBoundedRoundTrips() throws Exception {
+        int residents = 100_000;
+
+        HouseholdImportReport report = service.importHouseholds(1L, text(register(residents)),
+                HouseholdImportService.Format.CSV, false);
+
+        assertThat(report.getResidentsImported()).isEqualTo(residents);
+        assertThat(report.getFamiliesCreated()).isEqualTo(residents / 4);
+        assertThat(report.getRejected()).isZero();
+        int batches = residents / HouseholdImportServiceImpl.BATCH_SIZE;
+        verify(residentRepository, times(batches)).findExistingIdNumbers(anyCollection());
+        verify(jdbcTemplate, times(batches)).batchUpdate(eq(HouseholdImportServiceImpl.RESIDENT_INSERT_SQL),
+                anyCollection(), anyInt(), ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any());
+        verify(jdbcTemplate, times(batches)).batchUpdate(eq(HouseholdImportServiceImpl.FAMILY_UPSERT_SQL),
+                anyCollection(), anyInt(), ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any());
+    }
+
+    // CSV register of four residents per household, the first of each being its head
+    static String register(int residents) {
+        StringBuilder register = new StringBuilder(residents * 48).append("referenceNumber,firstName,lastName,idNumber,headOfHousehold\n");
+        for (int i = 0; i < residents; i++) {
+            register.append("HH-").append(i / 4).append(",First,Last,").append(9_000_000_000_000L + i)
+                    .append(',').append(i % 4 == 0).append('\n');
+        }
+        return register.toString();
+    }
+
+    @Test
+    void shouldRequireAnExistingOrganization() {
+        assertThatThrownBy(() -> service.importHouseholds(2L, text(""), HouseholdImportService.Format.CSV, false))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
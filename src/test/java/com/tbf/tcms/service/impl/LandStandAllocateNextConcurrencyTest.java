@@ -0,0 +1,106 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.LandStand;
+import com.tbf.tcms.domain.Organization;
+import com.tbf.tcms.domain.User;
+import com.tbf.tcms.domain.enums.StandType;
+import com.tbf.tcms.repository.LandStandRepository;
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.repository.UserRepository;
+import com.tbf.tcms.service.LandStandService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrency benchmark for allocate-next against a real PostgreSQL (SKIP LOCKED cannot be mocked).
+ * Runs only when SPRING_DATASOURCE_URL points at a database; the organization, users and stands it creates are
+ * deleted afterwards.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.security.oauth2.resourceserver.jwt.issuer-uri=http://localhost/unused")
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class LandStandAllocateNextConcurrencyTest {
+
+    private static final int STANDS = 400;
+    private static final int THREADS = 16;
+
+    @Autowired private LandStandService landStandService;
+    @Autowired private LandStandRepository landStandRepository;
+    @Autowired private OrganizationRepository organizationRepository;
+    @Autowired private UserRepository userRepository;
+
+    private Organization organization;
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<LandStand> stands = new ArrayList<>();
+
+    @AfterEach
+    void deleteBenchData() {
+        // Stands reference the users they were allocated to, and both reference the organization
+        landStandRepository.deleteAllInBatch(stands.stream().filter(s -> s.getId() != null).toList());
+        userRepository.deleteAllById(userIds);
+        if (organization != null) {
+            organizationRepository.deleteById(organization.getId());
+        }
+    }
+
+    @Test
+    void concurrentCallersReceiveDistinctStandsWithoutRetries() throws Exception {
+        organization = organizationRepository.save(
+                new Organization("Allocate-next bench " + System.nanoTime(), "VILLAGE", null));
+        for (int i = 0; i < STANDS; i++) {
+            User u = new User("Bench user " + i, "COMMUNITY", organization);
+            u.setBirthDate(LocalDate.of(1990, 1, 1));
+            userIds.add(userRepository.save(u).getId());
+
+            LandStand s = new LandStand();
+            s.setStandNumber(String.format("BENCH-%05d", i));
+            s.setType(StandType.RESIDENTIAL);
+            s.setSizeInSquareMeters(500);
+            s.setOrganization(organization);
+            stands.add(s);
+        }
+        stands.replaceAll(landStandRepository::save);
+
+        Set<Long> allocatedStandIds = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long userId : userIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                LandStand allocated =
+                        landStandService.allocateNextAvailable(organization.getId(), StandType.RESIDENTIAL, userId);
+                assertThat(allocatedStandIds.add(allocated.getId())).isTrue();
+                return null;
+            }));
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS); // any exception (e.g. "already allocated") fails the benchmark
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        pool.shutdown();
+
+        log.info("allocate-next: {} allocations by {} threads in {} s ({} allocations/s)",
+                STANDS, THREADS, String.format("%.2f", seconds), String.format("%.0f", STANDS / seconds));
+        assertThat(allocatedStandIds).hasSize(STANDS);
+    }
+}
@@ -8,25 +8,39 @@ import com.tbf.tcms.domain.enums.StandType;
 import com.tbf.tcms.repository.LandStandRepository;
 import com.tbf.tcms.repository.RoleRepository;
 import com.tbf.tcms.repository.UserRepository;
+import com.tbf.tcms.service.StandApplicationService;
+import com.tbf.tcms.service.spatial.StandSpatialIndex;
+import com.tbf.tcms.repository.LandStandRepositoryCustom;
+import com.tbf.tcms.repository.projection.LandStandListView;
 import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.landstand.LandStandResponseDto;
+import com.tbf.tcms.web.mapper.LandStandMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.mapstruct.factory.Mappers;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,6 +52,12 @@ class LandStandServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private RoleRepository roleRepository;
+    @Mock
+    private StandApplicationService standApplicationService;
+    @Mock
+    private StandSpatialIndex standSpatialIndex;
+    @Spy
+    private LandStandMapper landStandMapper = Mappers.getMapper(LandStandMapper.class);
 
     @InjectMocks
     private LandStandServiceImpl service;
@@ -71,7 +91,7 @@ class LandStandServiceImplTest {
     void shouldAllocateStandWhenValid() {
         LandStand s = newStand(1L, 99L, false);
         User u = newUser(10L, 99L);
-        when(landStandRepository.findById(1L)).thenReturn(Optional.of(s));
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(s));
         when(userRepository.findById(10L)).thenReturn(Optional.of(u));
         when(landStandRepository.save(any(LandStand.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -81,11 +101,12 @@ class LandStandServiceImplTest {
         assertThat(out.getAllocatedTo()).isEqualTo(u);
         assertThat(out.getAllocationDate()).isNotNull();
         assertThat(out.isFeePaid()).isFalse();
+        verify(standSpatialIndex).standAllocated(1L);
     }
 
     @Test
     void shouldThrowWhenStandNotFoundOnAllocate() {
-        when(landStandRepository.findById(1L)).thenReturn(Optional.empty());
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> service.allocateStand(1L, 10L))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("Stand not found");
@@ -94,7 +115,7 @@ class LandStandServiceImplTest {
     @Test
     void shouldThrowWhenAllocatingAlreadyAllocated() {
         LandStand s = newStand(1L, 99L, true);
-        when(landStandRepository.findById(1L)).thenReturn(Optional.of(s));
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(s));
         assertThatThrownBy(() -> service.allocateStand(1L, 10L))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("already allocated");
@@ -104,7 +125,7 @@ class LandStandServiceImplTest {
     void shouldThrowWhenUserAndStandDifferentOrgOnAllocate() {
         LandStand s = newStand(1L, 99L, false);
         User u = newUser(10L, 88L);
-        when(landStandRepository.findById(1L)).thenReturn(Optional.of(s));
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(s));
         when(userRepository.findById(10L)).thenReturn(Optional.of(u));
         assertThatThrownBy(() -> service.allocateStand(1L, 10L))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -115,19 +136,103 @@ class LandStandServiceImplTest {
     void shouldApplyForStandWhenValid() {
         LandStand s = newStand(1L, 99L, false);
         User u = newUser(10L, 99L);
-        when(landStandRepository.findById(1L)).thenReturn(Optional.of(s));
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(s));
         when(userRepository.findById(10L)).thenReturn(Optional.of(u));
         when(landStandRepository.save(any(LandStand.class))).thenAnswer(inv -> inv.getArgument(0));
 
         LandStand out = service.applyForStand(1L, 10L);
         assertThat(out.getApplicant()).isEqualTo(u);
         assertThat(out.getApplicationDate()).isEqualTo(LocalDate.now());
+        verify(standApplicationService).enqueue(s, u);
+    }
+
+    @Test
+    void shouldQueueLaterApplicantsWithoutOverwritingFirst() {
+        LandStand s = newStand(1L, 99L, false);
+        User first = newUser(10L, 99L);
+        s.setApplicant(first);
+        User second = newUser(11L, 99L);
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(s));
+        when(userRepository.findById(11L)).thenReturn(Optional.of(second));
+
+        LandStand out = service.applyForStand(1L, 11L);
+        assertThat(out.getApplicant()).isEqualTo(first);
+        verify(standApplicationService).enqueue(s, second);
+        verify(landStandRepository, never()).save(any(LandStand.class));
+    }
+
+    @Test
+    void shouldAllocateToHeadOfQueue() {
+        LandStand s = newStand(1L, 99L, false);
+        User head = newUser(12L, 99L);
+        when(standApplicationService.popHead(1L)).thenReturn(Optional.of(12L));
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(s));
+        when(userRepository.findById(12L)).thenReturn(Optional.of(head));
+        when(landStandRepository.save(any(LandStand.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        LandStand out = service.allocateToNextApplicant(1L);
+        assertThat(out.isAllocated()).isTrue();
+        assertThat(out.getAllocatedTo()).isEqualTo(head);
+    }
+
+    @Test
+    void shouldLockStandBeforePoppingAndClearTheRestOfTheQueue() {
+        LandStand s = newStand(1L, 99L, false);
+        s.setApplicant(newUser(12L, 99L));
+        User head = newUser(12L, 99L);
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(s));
+        when(standApplicationService.popHead(1L)).thenReturn(Optional.of(12L));
+        when(userRepository.findById(12L)).thenReturn(Optional.of(head));
+        when(landStandRepository.save(any(LandStand.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        LandStand out = service.allocateToNextApplicant(1L);
+
+        InOrder order = inOrder(landStandRepository, standApplicationService);
+        order.verify(landStandRepository).findByIdForUpdate(1L);
+        order.verify(standApplicationService).popHead(1L);
+        order.verify(standApplicationService).clearQueue(1L);
+        assertThat(out.getApplicant()).isNull();
+    }
+
+    @Test
+    void secondAllocateNextShouldNotPopWhenStandIsTaken() {
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(newStand(1L, 99L, true)));
+
+        assertThatThrownBy(() -> service.allocateToNextApplicant(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already allocated");
+        verify(standApplicationService, never()).popHead(any());
+    }
+
+    @Test
+    void directAllocationShouldClearQueueAndLegacyApplicant() {
+        LandStand s = newStand(1L, 99L, false);
+        s.setApplicant(newUser(11L, 99L));
+        s.setApplicationDate(LocalDate.now());
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(s));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(newUser(10L, 99L)));
+        when(landStandRepository.save(any(LandStand.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        LandStand out = service.allocateStand(1L, 10L);
+
+        assertThat(out.getApplicant()).isNull();
+        assertThat(out.getApplicationDate()).isNull();
+        verify(standApplicationService).clearQueue(1L);
+    }
+
+    @Test
+    void shouldThrowWhenQueueEmptyOnAllocateNext() {
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(newStand(1L, 99L, false)));
+        when(standApplicationService.popHead(1L)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> service.allocateToNextApplicant(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No pending applications");
     }
 
     @Test
     void shouldThrowWhenApplyForAllocatedStand() {
         LandStand s = newStand(1L, 99L, true);
-        when(landStandRepository.findById(1L)).thenReturn(Optional.of(s));
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(s));
         assertThatThrownBy(() -> service.applyForStand(1L, 10L))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("allocated");
@@ -145,7 +250,7 @@ class LandStandServiceImplTest {
 
         when(userRepository.findById(2L)).thenReturn(Optional.of(acting));
         when(roleRepository.findByName("COUNCIL_MEMBER")).thenReturn(Optional.of(council));
-        when(landStandRepository.findById(1L)).thenReturn(Optional.of(s));
+        when(landStandRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(s));
         when(userRepository.findById(3L)).thenReturn(Optional.of(beneficiary));
         when(landStandRepository.save(any(LandStand.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -180,6 +285,53 @@ class LandStandServiceImplTest {
                 .hasMessageContaining("not allocated");
     }
 
+    @Test
+    void shouldAllocateNextAvailableStand() {
+        LandStand s = newStand(4L, 99L, false);
+        User u = newUser(10L, 99L);
+        when(landStandRepository.lockNextAvailable(99L, "RESIDENTIAL")).thenReturn(Optional.of(s));
+        when(landStandRepository.findByIdForUpdate(4L)).thenReturn(Optional.of(s));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(u));
+        when(landStandRepository.save(any(LandStand.class))).thenAnswer(i -> i.getArgument(0));
+
+        LandStand out = service.allocateNextAvailable(99L, StandType.RESIDENTIAL, 10L);
+        assertThat(out.getId()).isEqualTo(4L);
+        assertThat(out.getAllocatedTo()).isEqualTo(u);
+    }
+
+    @Test
+    void shouldThrowWhenNoStandAvailable() {
+        when(landStandRepository.lockNextAvailable(99L, "BUSINESS")).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> service.allocateNextAvailable(99L, StandType.BUSINESS, 10L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No unallocated BUSINESS stands");
+    }
+
+    @Test
+    void shouldUpdateLocationAndReindex() {
+        LandStand s = newStand(1L, 99L, false);
+        when(landStandRepository.findById(1L)).thenReturn(Optional.of(s));
+        when(landStandRepository.save(any(LandStand.class))).thenAnswer(i -> i.getArgument(0));
+
+        LandStand out = service.updateLocation(1L, -24.1, 29.5);
+        assertThat(out.getLatitude()).isEqualTo(-24.1);
+        assertThat(out.getLongitude()).isEqualTo(29.5);
+        verify(standSpatialIndex).standLocated(s);
+    }
+
+    @Test
+    void shouldValidateSpatialQueryArguments() {
+        assertThatThrownBy(() -> service.findNearestAvailable(1L, 95, 29.5, null, 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("out of range");
+        assertThatThrownBy(() -> service.findNearestAvailable(1L, -24, 29.5, null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("k must be");
+        assertThatThrownBy(() -> service.findWithin(1L, -24, 30, -25, 29, null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Bounding box");
+    }
+
     @Test
     void verifyPagingMethodsDelegateToRepository() {
         Pageable pageable = PageRequest.of(0, 10);
@@ -190,4 +342,40 @@ class LandStandServiceImplTest {
         assertThat(resp.totalElements()).isEqualTo(1);
         verify(landStandRepository).findAll(pageable);
     }
+
+    @Test
+    void searchShouldSelectOnlyRequestedFields() {
+        Pageable pageable = PageRequest.of(0, 10);
+        LandStandListView row = mock(LandStandListView.class, invocation -> null);
+        when(row.getId()).thenReturn(7L);
+        when(row.getStandNumber()).thenReturn("STAND-007");
+        when(row.getAllocated()).thenReturn(false);
+        Set<String> fields = Set.of("standNumber", "allocated");
+        when(landStandRepository.findListing(1L, false, StandType.RESIDENTIAL, fields, pageable))
+                .thenReturn(new PageImpl<>(List.of(row), pageable, 1));
+
+        PageResponse<LandStandResponseDto> resp = service.search(1L, false, StandType.RESIDENTIAL, fields, pageable);
+
+        LandStandResponseDto dto = resp.content().get(0);
+        assertThat(dto.getId()).isEqualTo(7L);
+        assertThat(dto.getStandNumber()).isEqualTo("STAND-007");
+        assertThat(dto.getAllocated()).isFalse();
+        assertThat(dto.getOrganizationId()).isNull();
+    }
+
+    @Test
+    void searchShouldDefaultToAllFieldsAndRejectUnknownOnes() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(landStandRepository.findListing(any(), any(), any(), any(), any())).thenReturn(Page.empty(pageable));
+
+        service.search(null, null, null, null, pageable);
+        verify(landStandRepository).findListing(null, null, null, LandStandRepositoryCustom.LISTING_FIELDS, pageable);
+
+        assertThatThrownBy(() -> service.search(null, null, null, Set.of("id", "allocatedTo"), pageable))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown field 'allocatedTo'");
+        assertThatThrownBy(() -> service.search(null, null, null, null, PageRequest.of(0, 10, Sort.by("allocatedTo"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown sort property 'allocatedTo'");
+    }
 }
@@ -0,0 +1,76 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.levy.LevyArrearsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LevyArrearsServiceImplTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks private LevyArrearsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldMapRowsAndTotalFromSingleQuery() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        Array years = mock(Array.class);
+        when(years.getArray()).thenReturn(new Integer[]{2023, 2025});
+        when(rs.getLong("total")).thenReturn(42L);
+        when(rs.getLong("family_id")).thenReturn(7L);
+        when(rs.getString("reference_number")).thenReturn("REF-7");
+        when(rs.getInt("years_unpaid")).thenReturn(2);
+        when(rs.getInt("oldest_unpaid_year")).thenReturn(2023);
+        when(rs.getString("aging_bucket")).thenReturn("2_YEARS");
+        when(rs.getArray("unpaid_years")).thenReturn(years);
+        doAnswer(inv -> {
+            ((RowCallbackHandler) inv.getArgument(1)).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        PageResponse<LevyArrearsDto> page = service.findArrears(3L, 2025, 2, PageRequest.of(1, 20));
+
+        assertThat(page.totalElements()).isEqualTo(42);
+        LevyArrearsDto row = page.content().get(0);
+        assertThat(row.getFamilyId()).isEqualTo(7L);
+        assertThat(row.getUnpaidYears()).containsExactly(2023, 2025);
+        assertThat(row.getAgingBucket()).isEqualTo("2_YEARS");
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), args.capture());
+        assertThat(args.getValue()).containsExactly(2023, 2025, 3L, 2025, 20, 20L);
+    }
+
+    @Test
+    void shouldValidateArguments() {
+        assertThatThrownBy(() -> service.findArrears(null, 2025, 0, PageRequest.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.findArrears(1L, 2025, LevyArrearsServiceImpl.MAX_AGING_YEARS + 1, PageRequest.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("agingYears");
+    }
+}
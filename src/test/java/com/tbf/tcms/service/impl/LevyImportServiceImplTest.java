@@ -0,0 +1,108 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.FamilyRepository;
+import com.tbf.tcms.repository.LevyPaymentRepository;
+import com.tbf.tcms.repository.projection.FamilyOrganizationView;
+import com.tbf.tcms.repository.projection.LevyKeyView;
+import com.tbf.tcms.service.LevyRateService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.web.dto.levy.LevyImportReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LevyImportServiceImplTest {
+
+    @Mock private FamilyRepository familyRepository;
+    @Mock private LevyPaymentRepository levyPaymentRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private LevyComplianceCache levyComplianceCache;
+    @Mock private ProofOfResidenceLetterCache letterCache;
+    @Mock private LevyRateService levyRateService;
+
+    @InjectMocks private LevyImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(levyRateService.amountDue(any(), anyInt())).thenReturn(LevyServiceImpl.DEFAULT_ANNUAL_LEVY);
+    }
+
+    private InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LevyKeyView key(Long familyId, Integer year) {
+        return new LevyKeyView() {
+            public Long getFamilyId() { return familyId; }
+            public Integer getFinancialYear() { return year; }
+        };
+    }
+
+    private FamilyOrganizationView family(Long id, Long organizationId) {
+        return new FamilyOrganizationView() {
+            public Long getId() { return id; }
+            public Long getOrganizationId() { return organizationId; }
+        };
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldUpsertValidRowsAndClassifyInsertedUpdatedRejected() throws Exception {
+        when(familyRepository.findOrganizationsByIdIn(anyCollection())).thenReturn(List.of(family(1L, 7L), family(2L, null)));
+        when(levyPaymentRepository.findKeysByFamilyIdIn(anyCollection())).thenReturn(List.of(key(1L, 2025)));
+        String payments = """
+                familyId,year,amount,paymentDate
+                1,2025,150.00,2025-03-01
+                2,2025,100,
+                2,2025,120,
+                9,2025,100,
+                3,abc,100,
+                1,2024,-5,
+                1,2024,10.005,
+                1,2024,100,01/03/2025
+                """;
+
+        LevyImportReport report = service.importPayments(csv(payments));
+
+        assertThat(report.getRowsRead()).isEqualTo(8);
+        assertThat(report.getInserted()).isEqualTo(1);
+        assertThat(report.getUpdated()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(5);
+        assertThat(report.getErrors()).extracting(LevyImportReport.RowError::row).containsExactly(6, 7, 8, 9, 5);
+        assertThat(report.getErrors().get(4).message()).isEqualTo("Family 9 not found");
+
+        ArgumentCaptor<Collection<Object>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(eq(LevyImportServiceImpl.UPSERT_SQL), rows.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(rows.getValue()).hasSize(3);
+    }
+
+    @Test
+    void shouldRequireMandatoryColumns() {
+        assertThatThrownBy(() -> service.importPayments(csv("familyId,amount\n1,100\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'year'");
+    }
+}
@@ -0,0 +1,91 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.service.LevyInvoicingService;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LevyInvoicingServiceImplTest {
+
+    @Mock private OrganizationRepository organizationRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks private LevyInvoicingServiceImpl service;
+
+    private final int year = LocalDate.now().getYear();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private ResultSet partition(long orgId, long minId, long maxId, long families) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("organization_id")).thenReturn(orgId);
+        when(rs.getLong("min_id")).thenReturn(minId);
+        when(rs.getLong("max_id")).thenReturn(maxId);
+        when(rs.getLong("families")).thenReturn(families);
+        return rs;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldInvoiceEachOrganizationInChunksAndReportProgress() throws Exception {
+        ResultSet first = partition(1L, 1L, 12_000L, 9_000L);
+        ResultSet second = partition(2L, 20_000L, 20_100L, 80L);
+        when(jdbcTemplate.query(eq(LevyInvoicingServiceImpl.PARTITIONS_SQL), any(RowMapper.class)))
+                .thenAnswer(inv -> {
+                    RowMapper<Object> mapper = inv.getArgument(1);
+                    return List.of(mapper.mapRow(first, 0), mapper.mapRow(second, 1));
+                });
+        when(jdbcTemplate.update(eq(LevyInvoicingServiceImpl.INVOICE_CHUNK_SQL), anyInt(), any(), any(), any()))
+                .thenReturn(3_000, 3_000, 2_000, 60);
+
+        LevyInvoicingService.InvoicingResult result = service.openYear(year, null);
+
+        assertThat(result.organizations()).isEqualTo(2);
+        assertThat(result.chunks()).isEqualTo(4);
+        assertThat(result.invoiced()).isEqualTo(8_060);
+        assertThat(result.alreadyInvoiced()).isEqualTo(1_020);
+        verify(jdbcTemplate).update(LevyInvoicingServiceImpl.INVOICE_CHUNK_SQL, year, 1L, 10_001L, 12_000L);
+        verify(jdbcTemplate).update(LevyInvoicingServiceImpl.INVOICE_CHUNK_SQL, year, 2L, 20_000L, 20_100L);
+        verify(transactionManager, times(4)).commit(any());
+
+        LevyInvoicingService.Progress progress = service.progress();
+        assertThat(progress.running()).isFalse();
+        assertThat(progress.chunksDone()).isEqualTo(4);
+        assertThat(progress.organizationsDone()).isEqualTo(2);
+        assertThat(progress.invoiced()).isEqualTo(8_060);
+    }
+
+    @Test
+    void shouldValidateYearAndOrganization() {
+        when(organizationRepository.existsById(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.openYear(year + 2, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.openYear(year, 9L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(service.progress()).isNull();
+    }
+}
@@ -0,0 +1,117 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.service.LevyPenaltyService;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LevyPenaltyServiceImplTest {
+
+    @Mock private OrganizationRepository organizationRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks private LevyPenaltyServiceImpl service;
+
+    private final int year = LocalDate.now().getYear();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAccrueA200kFamilyOrganizationIn40SetBasedChunks() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("organization_id")).thenReturn(4L);
+        when(rs.getLong("min_id")).thenReturn(1L);
+        when(rs.getLong("max_id")).thenReturn(200_000L);
+        when(organizationRepository.existsById(4L)).thenReturn(true);
+        when(jdbcTemplate.query(eq(LevyInvoicingServiceImpl.PARTITION_SQL), any(RowMapper.class), eq(4L)))
+                .thenAnswer(inv -> {
+                    RowMapper<Object> mapper = inv.getArgument(1);
+                    return List.of(mapper.mapRow(rs, 0));
+                });
+        when(jdbcTemplate.update(eq(LevyPenaltyServiceImpl.ACCRUE_CHUNK_SQL), any(Object[].class))).thenReturn(250);
+
+        LevyPenaltyService.AccrualResult result = service.accrue(year, 4L, 5);
+
+        assertThat(result.organizations()).isEqualTo(1);
+        assertThat(result.chunks()).isEqualTo(40);
+        assertThat(result.rowsWritten()).isEqualTo(40 * 250);
+        verify(jdbcTemplate).update(LevyPenaltyServiceImpl.CLEAR_OUTSIDE_SQL, 4L, 1L, 200_000L);
+        verify(jdbcTemplate).update(LevyPenaltyServiceImpl.CLEAR_CHUNK_SQL, 4L, 195_001L, 200_000L);
+        verify(jdbcTemplate, times(40)).update(eq(LevyPenaltyServiceImpl.CLEAR_CHUNK_SQL), eq(4L), anyLong(), anyLong());
+        verify(jdbcTemplate).update(eq(LevyPenaltyServiceImpl.ACCRUE_CHUNK_SQL), any(), eq(LevyServiceImpl.DEFAULT_ANNUAL_LEVY),
+                eq(LevyServiceImpl.DEFAULT_ANNUAL_LEVY), eq(year), eq(LevyRateServiceImpl.DEFAULT_PENALTY_RATE),
+                eq(year - 5), eq(year), eq(4L), eq(5_001L), eq(10_000L));
+        verify(transactionManager, times(40)).commit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRejectARunWhileAnotherIsInProgress() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.query(eq(LevyInvoicingServiceImpl.PARTITIONS_SQL), any(RowMapper.class)))
+                .thenAnswer(inv -> {
+                    started.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return List.of();
+                });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<LevyPenaltyService.AccrualResult> first = executor.submit(() -> service.accrue(year, null, 1));
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> service.accrue(year, null, 1))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("already in progress");
+
+            release.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS).chunks()).isZero();
+            assertThat(service.accrue(year, null, 1).chunks()).isZero();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldValidateWindowAndOrganization() {
+        when(organizationRepository.existsById(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.accrue(year, null, LevyPenaltyServiceImpl.MAX_LOOKBACK_YEARS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.accrue(year + 2, null, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.accrue(year, 9L, 1)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service.findAccrued(null, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
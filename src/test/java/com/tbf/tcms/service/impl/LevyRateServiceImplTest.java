@@ -0,0 +1,97 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.LevyRate;
+import com.tbf.tcms.repository.LevyRateRepository;
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.web.dto.levy.LevyRateDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LevyRateServiceImplTest {
+
+    @Mock private LevyRateRepository levyRateRepository;
+    @Mock private OrganizationRepository organizationRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private LevyComplianceCache levyComplianceCache;
+    @Mock private ProofOfResidenceLetterCache letterCache;
+
+    @InjectMocks private LevyRateServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(levyRateRepository.save(any(LevyRate.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private LevyRate rate(String amount) {
+        LevyRate r = new LevyRate();
+        r.setOrganizationId(3L);
+        r.setFinancialYear(2025);
+        r.setAmount(new BigDecimal(amount));
+        return r;
+    }
+
+    @Test
+    void amountDueShouldUseScheduleOrDefaultAndBeMemoized() {
+        when(levyRateRepository.findByOrganizationIdAndFinancialYear(3L, 2025)).thenReturn(Optional.of(rate("250.00")));
+        when(levyRateRepository.findByOrganizationIdAndFinancialYear(3L, 2024)).thenReturn(Optional.empty());
+
+        assertThat(service.amountDue(3L, 2025)).isEqualByComparingTo("250.00");
+        assertThat(service.amountDue(3L, 2025)).isEqualByComparingTo("250.00");
+        assertThat(service.amountDue(3L, 2024)).isEqualByComparingTo(LevyServiceImpl.DEFAULT_ANNUAL_LEVY);
+        assertThat(service.amountDue(null, 2025)).isEqualByComparingTo(LevyServiceImpl.DEFAULT_ANNUAL_LEVY);
+        verify(levyRateRepository, times(1)).findByOrganizationIdAndFinancialYear(3L, 2025);
+    }
+
+    @Test
+    void setRateShouldRestatusTheYearAndRefreshCaches() {
+        when(organizationRepository.existsById(3L)).thenReturn(true);
+        when(levyRateRepository.findByOrganizationIdAndFinancialYear(3L, 2025))
+                .thenReturn(Optional.empty(), Optional.of(rate("150.00")));
+        when(jdbcTemplate.update(LevyRateServiceImpl.RESTATUS_SQL, new BigDecimal("150.00"), 3L, 2025,
+                new BigDecimal("150.00"))).thenReturn(12);
+
+        assertThat(service.amountDue(3L, 2025)).isEqualByComparingTo(LevyServiceImpl.DEFAULT_ANNUAL_LEVY);
+        LevyRateDto dto = service.setRate(3L, 2025, new BigDecimal("150.00"), new BigDecimal("0.10"));
+
+        assertThat(dto.isScheduled()).isTrue();
+        assertThat(dto.getPenaltyRate()).isEqualByComparingTo("0.10");
+        assertThat(service.amountDue(3L, 2025)).isEqualByComparingTo("150.00");
+        verify(levyComplianceCache).clear();
+        verify(letterCache).clear();
+    }
+
+    @Test
+    void setRateShouldValidateInput() {
+        when(organizationRepository.existsById(3L)).thenReturn(true);
+        when(organizationRepository.existsById(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.setRate(9L, 2025, BigDecimal.TEN, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service.setRate(3L, 2025, BigDecimal.ZERO, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.setRate(3L, 2025, BigDecimal.TEN, new BigDecimal("1.5")))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(levyRateRepository, never()).save(any());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,127 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.Family;
+import com.tbf.tcms.domain.LevyPayment;
+import com.tbf.tcms.domain.LevyTransaction;
+import com.tbf.tcms.domain.Organization;
+import com.tbf.tcms.domain.enums.LevyStatus;
+import com.tbf.tcms.repository.FamilyRepository;
+import com.tbf.tcms.repository.LevyPaymentRepository;
+import com.tbf.tcms.repository.LevyTransactionRepository;
+import com.tbf.tcms.service.LevyRateService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.web.dto.levy.LevyBalanceDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LevyServiceImplTest {
+
+    @Mock private LevyPaymentRepository levyPaymentRepository;
+    @Mock private LevyTransactionRepository levyTransactionRepository;
+    @Mock private FamilyRepository familyRepository;
+    @Mock private LevyComplianceCache levyComplianceCache;
+    @Mock private ProofOfResidenceLetterCache letterCache;
+    @Mock private LevyRateService levyRateService;
+
+    @InjectMocks private LevyServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(levyRateService.amountDue(any(), anyInt())).thenReturn(LevyServiceImpl.DEFAULT_ANNUAL_LEVY);
+    }
+
+    private LevyPayment snapshot(String amount, LevyStatus status) {
+        LevyPayment p = new LevyPayment();
+        p.setFinancialYear(2025);
+        p.setAmount(new BigDecimal(amount));
+        p.setStatus(status);
+        return p;
+    }
+
+    @Test
+    void recordPaymentShouldAppendLedgerEntryAndAccumulateSnapshot() {
+        Family family = new Family();
+        family.setId(5L);
+        when(familyRepository.findById(5L)).thenReturn(Optional.of(family));
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(5L, 2025))
+                .thenReturn(Optional.of(snapshot("60.00", LevyStatus.PENDING)));
+
+        LevyPayment result = service.recordPayment(5L, new BigDecimal("60.00"), 2025);
+
+        ArgumentCaptor<LevyTransaction> entry = ArgumentCaptor.forClass(LevyTransaction.class);
+        verify(levyTransactionRepository).save(entry.capture());
+        assertThat(entry.getValue().getAmount()).isEqualByComparingTo("60.00");
+        assertThat(entry.getValue().getFinancialYear()).isEqualTo(2025);
+        verify(levyPaymentRepository).applyPayment(eq(5L), eq(2025), eq(new BigDecimal("60.00")), any(),
+                eq(LevyServiceImpl.DEFAULT_ANNUAL_LEVY));
+        verify(levyComplianceCache).paymentRecorded(5L, 2025, LevyStatus.PENDING);
+        verify(letterCache).evictFamily(5L);
+        assertThat(result.getStatus()).isEqualTo(LevyStatus.PENDING);
+    }
+
+    @Test
+    void recordPaymentShouldRejectUnknownFamily() {
+        when(familyRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.recordPayment(9L, BigDecimal.TEN, 2025))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void balanceShouldBeReadFromSnapshot() {
+        Family family = new Family();
+        family.setId(5L);
+        when(familyRepository.findById(5L)).thenReturn(Optional.of(family));
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(5L, 2025))
+                .thenReturn(Optional.of(snapshot("60.00", LevyStatus.PENDING)));
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(5L, 2024)).thenReturn(Optional.empty());
+
+        LevyBalanceDto balance = service.getBalance(5L, 2025);
+        assertThat(balance.getAmountPaid()).isEqualByComparingTo("60.00");
+        assertThat(balance.getBalance()).isEqualByComparingTo("40.00");
+        assertThat(balance.getStatus()).isEqualTo(LevyStatus.PENDING);
+
+        LevyBalanceDto none = service.getBalance(5L, 2024);
+        assertThat(none.getAmountPaid()).isEqualByComparingTo("0");
+        assertThat(none.getBalance()).isEqualByComparingTo(LevyServiceImpl.DEFAULT_ANNUAL_LEVY);
+    }
+
+    @Test
+    void paymentShouldBeMeasuredAgainstTheOrganizationsScheduledLevy() {
+        Organization org = new Organization();
+        org.setId(3L);
+        Family family = new Family();
+        family.setId(5L);
+        family.setOrganization(org);
+        when(familyRepository.findById(5L)).thenReturn(Optional.of(family));
+        when(levyRateService.amountDue(3L, 2025)).thenReturn(new BigDecimal("250.00"));
+        when(levyPaymentRepository.findByFamilyIdAndFinancialYear(5L, 2025))
+                .thenReturn(Optional.of(snapshot("100.00", LevyStatus.PENDING)));
+
+        service.recordPayment(5L, new BigDecimal("100.00"), 2025);
+        verify(levyPaymentRepository).applyPayment(eq(5L), eq(2025), eq(new BigDecimal("100.00")), any(),
+                eq(new BigDecimal("250.00")));
+
+        LevyBalanceDto balance = service.getBalance(5L, 2025);
+        assertThat(balance.getAmountDue()).isEqualByComparingTo("250.00");
+        assertThat(balance.getBalance()).isEqualByComparingTo("150.00");
+    }
+}
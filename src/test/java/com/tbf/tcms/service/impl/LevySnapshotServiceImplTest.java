@@ -0,0 +1,94 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.LevyTransactionRepository;
+import com.tbf.tcms.service.LevySnapshotService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LevySnapshotServiceImplTest {
+
+    @Mock private LevyTransactionRepository levyTransactionRepository;
+    @Mock private LevyComplianceCache levyComplianceCache;
+    @Mock private ProofOfResidenceLetterCache letterCache;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks private LevySnapshotServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldRebuildInChunksOfFamilyIds() {
+        when(levyTransactionRepository.findMaxFamilyId()).thenReturn(12_000L);
+        when(jdbcTemplate.update(eq(LevySnapshotServiceImpl.REBUILD_CHUNK_SQL), any(), any(), any())).thenReturn(7);
+
+        LevySnapshotService.RebuildResult result = service.rebuildSnapshots();
+
+        assertThat(result.chunks()).isEqualTo(3);
+        assertThat(result.snapshotsWritten()).isEqualTo(21);
+        verify(jdbcTemplate).update(LevySnapshotServiceImpl.REBUILD_CHUNK_SQL, LevyServiceImpl.DEFAULT_ANNUAL_LEVY, 0L, 4_999L);
+        verify(jdbcTemplate).update(LevySnapshotServiceImpl.REBUILD_CHUNK_SQL, LevyServiceImpl.DEFAULT_ANNUAL_LEVY, 10_000L, 12_000L);
+        verify(transactionManager, times(3)).commit(any());
+        verify(levyComplianceCache).clear();
+    }
+
+    @Test
+    void shouldDoNothingWithoutLedgerEntries() {
+        when(levyTransactionRepository.findMaxFamilyId()).thenReturn(null);
+
+        LevySnapshotService.RebuildResult result = service.rebuildSnapshots();
+
+        assertThat(result.chunks()).isZero();
+        verify(levyComplianceCache, never()).clear();
+    }
+
+    @Test
+    void chunkRacingAPaymentShouldBeRetriedAtRepeatableRead() {
+        when(levyTransactionRepository.findMaxFamilyId()).thenReturn(100L);
+        when(jdbcTemplate.update(eq(LevySnapshotServiceImpl.REBUILD_CHUNK_SQL), any(), any(), any()))
+                .thenThrow(new PessimisticLockingFailureException("could not serialize access due to concurrent update"))
+                .thenReturn(4);
+
+        LevySnapshotService.RebuildResult result = service.rebuildSnapshots();
+
+        assertThat(result.snapshotsWritten()).isEqualTo(4);
+        verify(jdbcTemplate, times(2)).update(eq(LevySnapshotServiceImpl.REBUILD_CHUNK_SQL), any(), any(), any());
+        verify(transactionManager, times(2)).getTransaction(
+                argThat(def -> def.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void persistentConflictShouldFailTheRebuild() {
+        when(levyTransactionRepository.findMaxFamilyId()).thenReturn(100L);
+        when(jdbcTemplate.update(eq(LevySnapshotServiceImpl.REBUILD_CHUNK_SQL), any(), any(), any()))
+                .thenThrow(new PessimisticLockingFailureException("could not serialize access"));
+
+        assertThatThrownBy(() -> service.rebuildSnapshots()).isInstanceOf(IllegalStateException.class);
+        verify(jdbcTemplate, times(LevySnapshotServiceImpl.MAX_CHUNK_ATTEMPTS))
+                .update(eq(LevySnapshotServiceImpl.REBUILD_CHUNK_SQL), any(), any(), any());
+        verify(levyComplianceCache, never()).clear();
+    }
+}
@@ -0,0 +1,118 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.DocumentVerification;
+import com.tbf.tcms.domain.Family;
+import com.tbf.tcms.domain.Resident;
+import com.tbf.tcms.repository.DocumentVerificationRepository;
+import com.tbf.tcms.repository.ResidentRepository;
+import com.tbf.tcms.service.LevyService;
+import com.tbf.tcms.service.ProofOfResidenceDocumentService;
+import com.tbf.tcms.service.document.ProofOfResidencePdfRenderer;
+import com.tbf.tcms.web.dto.resident.VerificationResponseDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProofOfResidenceDocumentServiceImplTest {
+
+    @Mock private ResidentRepository residentRepository;
+    @Mock private DocumentVerificationRepository documentVerificationRepository;
+    @Mock private LevyService levyService;
+    @Mock private ProofOfResidencePdfRenderer renderer;
+
+    @InjectMocks private ProofOfResidenceDocumentServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(renderer.render(anyMap())).thenReturn(new byte[]{1});
+    }
+
+    private Resident resident(Long id, Family family) {
+        Resident r = new Resident();
+        r.setId(id);
+        r.setFirstName("Resident");
+        r.setLastName(String.valueOf(id));
+        r.setFamily(family);
+        return r;
+    }
+
+    private Family family(Long id) {
+        Family f = new Family();
+        f.setId(id);
+        f.setAddress("Stand " + id);
+        return f;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchShouldIssueEligibleAndSkipTheRest() {
+        Family paid = family(1L);
+        Family arrears = family(2L);
+        when(residentRepository.findWithFamilyByIdIn(anyCollection())).thenReturn(List.of(
+                resident(10L, paid), resident(11L, paid), resident(12L, arrears), resident(13L, null)));
+        when(levyService.isLevyUpToDate(1L)).thenReturn(true);
+        when(levyService.isLevyUpToDate(2L)).thenReturn(false);
+
+        ProofOfResidenceDocumentService.BatchResult result =
+                service.issueBatch(List.of(10L, 11L, 12L, 13L, 14L), null);
+
+        assertThat(result.documents()).extracting(ProofOfResidenceDocumentService.IssuedDocument::residentId)
+                .containsExactly(10L, 11L);
+        assertThat(result.documents().get(0).code()).matches("[0-9A-Z]{5}-[0-9A-Z]{5}");
+        assertThat(result.skipped()).extracting(ProofOfResidenceDocumentService.Skipped::residentId)
+                .containsExactly(14L, 12L, 13L);
+        verify(levyService, times(1)).isLevyUpToDate(1L);
+
+        ArgumentCaptor<List<DocumentVerification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(documentVerificationRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(2)
+                .allSatisfy(d -> assertThat(d.getExpiresOn()).isEqualTo(d.getIssuedOn().plusMonths(3)));
+    }
+
+    @Test
+    void batchRequiresExactlyOneSelector() {
+        assertThatThrownBy(() -> service.issueBatch(List.of(1L), 2L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.issueBatch(null, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void verifyShouldNormalizeTypedCodes() {
+        DocumentVerification doc = new DocumentVerification();
+        doc.setCode("AB0DE12345");
+        doc.setDocumentType(ProofOfResidenceDocumentServiceImpl.DOCUMENT_TYPE);
+        doc.setHolderName("Resident 10");
+        doc.setIssuedOn(LocalDate.now().minusDays(1));
+        doc.setExpiresOn(LocalDate.now().plusMonths(3));
+        when(documentVerificationRepository.findByCode("AB0DE12345")).thenReturn(Optional.of(doc));
+
+        VerificationResponseDto dto = service.verify("abode-i2345");
+
+        assertThat(dto.isValid()).isTrue();
+        assertThat(dto.getCode()).isEqualTo("AB0DE-12345");
+        assertThat(dto.getHolderName()).isEqualTo("Resident 10");
+    }
+
+    @Test
+    void verifyUnknownCodeShouldBeNotFound() {
+        when(documentVerificationRepository.findByCode("ZZZZZZZZZZ")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.verify("ZZZZZ-ZZZZZ")).isInstanceOf(ResourceNotFoundException.class);
+    }
+}
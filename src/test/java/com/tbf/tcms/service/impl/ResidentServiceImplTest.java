@@ -0,0 +1,133 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.Family;
+import com.tbf.tcms.domain.Resident;
+import com.tbf.tcms.repository.ResidentRepository;
+import com.tbf.tcms.repository.projection.ResidentLookupView;
+import com.tbf.tcms.service.LevyService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
+import com.tbf.tcms.service.cache.ProofOfResidenceLetterCache;
+import com.tbf.tcms.service.cache.ResidentLookupCache;
+import com.tbf.tcms.service.ResidentService;
+import com.tbf.tcms.web.dto.resident.ResidentLookupDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResidentServiceImplTest {
+
+    @Mock private ResidentRepository residentRepository;
+    @Mock private LevyService levyService;
+    @Mock private LevyComplianceCache levyComplianceCache;
+
+    private ResidentServiceImpl service;
+    private final int year = LocalDate.now().getYear();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new ResidentServiceImpl(residentRepository, levyService, new ResidentLookupCache(), levyComplianceCache,
+                new ProofOfResidenceLetterCache());
+    }
+
+    private ResidentLookupView row(Long residentId, Long familyId, String levyStatus) {
+        ResidentLookupView v = mock(ResidentLookupView.class, invocation -> null);
+        when(v.getResidentId()).thenReturn(residentId);
+        when(v.getFamilyId()).thenReturn(familyId);
+        when(v.getLevyStatus()).thenReturn(levyStatus);
+        when(v.getHeadOfHousehold()).thenReturn(true);
+        return v;
+    }
+
+    @Test
+    void lookupByIdNumberShouldQueryOnceAndPrimeLevyStatus() {
+        ResidentLookupView v = row(10L, 3L, "PAID");
+        when(residentRepository.findLookupByIdNumberKey("800101AB09087", year, ResidentServiceImpl.MAX_LOOKUP_RESULTS))
+                .thenReturn(List.of(v));
+        when(levyComplianceCache.isUpToDate(3L, year)).thenReturn(true);
+
+        List<ResidentLookupDto> first = service.lookup(" 800101-ab09 087 ", null);
+        List<ResidentLookupDto> second = service.lookup("800101AB09087", null);
+
+        assertThat(first).singleElement().satisfies(dto -> {
+            assertThat(dto.getResidentId()).isEqualTo(10L);
+            assertThat(dto.isHeadOfHousehold()).isTrue();
+            assertThat(dto.isLevyUpToDate()).isTrue();
+            assertThat(dto.getLevyYear()).isEqualTo(year);
+        });
+        assertThat(second).hasSize(1);
+        verify(residentRepository, times(1)).findLookupByIdNumberKey(anyString(), anyInt(), anyInt());
+        verify(levyComplianceCache, times(1)).prime(3L, year, true, 0L);
+    }
+
+    @Test
+    void lookupByPhoneShouldMatchOnSubscriberDigits() {
+        List<ResidentLookupView> household = List.of(row(10L, 3L, null), row(11L, null, null));
+        when(residentRepository.findLookupByPhoneKey("821234567", year, ResidentServiceImpl.MAX_LOOKUP_RESULTS))
+                .thenReturn(household);
+
+        List<ResidentLookupDto> result = service.lookup(null, "+27 (82) 123-4567");
+
+        assertThat(result).extracting(ResidentLookupDto::isLevyUpToDate).containsExactly(false, false);
+        verify(levyComplianceCache).prime(3L, year, false, 0L);
+        verify(levyComplianceCache, never()).isUpToDate(11L, year);
+    }
+
+    @Test
+    void lookupShouldRequireExactlyOneUsableKey() {
+        assertThatThrownBy(() -> service.lookup(null, " ")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.lookup("1", "0821234567")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.lookup(null, "12345")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("9 digits");
+    }
+
+    private Resident resident(Long id, String address) {
+        Family family = new Family();
+        family.setId(3L);
+        family.setAddress(address);
+        Resident r = new Resident();
+        r.setId(id);
+        r.setFirstName("Thabo");
+        r.setLastName("Mokoena");
+        r.setFamily(family);
+        return r;
+    }
+
+    @Test
+    void proofOfResidenceShouldBeRenderedOnceWithStableETag() {
+        when(residentRepository.findWithFamilyByIdIn(List.of(10L))).thenReturn(List.of(resident(10L, "Stand 1")));
+        when(levyService.isLevyUpToDate(3L)).thenReturn(true);
+
+        ResidentService.ProofOfResidence first = service.proofOfResidence(10L);
+        ResidentService.ProofOfResidence second = service.proofOfResidence(10L);
+
+        assertThat(first.text()).isEqualTo("This confirms that Thabo Mokoena resides at Stand 1 and is in good standing.");
+        assertThat(first.etag()).matches("\"[0-9a-f]{32}\"");
+        assertThat(second).isEqualTo(first);
+        verify(residentRepository, times(1)).findWithFamilyByIdIn(List.of(10L));
+        verify(levyService, times(1)).isLevyUpToDate(3L);
+    }
+
+    @Test
+    void proofOfResidenceShouldNotCacheRefusals() {
+        when(residentRepository.findWithFamilyByIdIn(List.of(10L))).thenReturn(List.of(resident(10L, "Stand 1")));
+        when(levyService.isLevyUpToDate(3L)).thenReturn(false, true);
+
+        assertThatThrownBy(() -> service.proofOfResidence(10L)).isInstanceOf(IllegalStateException.class);
+        assertThat(service.proofOfResidence(10L).text()).contains("Stand 1");
+    }
+}
@@ -0,0 +1,91 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.LandStand;
+import com.tbf.tcms.domain.StandApplication;
+import com.tbf.tcms.domain.User;
+import com.tbf.tcms.repository.StandApplicationRepository;
+import com.tbf.tcms.web.dto.PageResponse;
+import com.tbf.tcms.web.dto.landstand.StandApplicationResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StandApplicationServiceImplTest {
+
+    @Mock private StandApplicationRepository applicationRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks private StandApplicationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private LandStand stand(long id) { LandStand s = new LandStand(); s.setId(id); return s; }
+    private User user(long id) { User u = new User(); u.setId(id); return u; }
+
+    @Test
+    void shouldEnqueueApplication() {
+        when(applicationRepository.saveAndFlush(any(StandApplication.class))).thenAnswer(i -> i.getArgument(0));
+
+        StandApplication out = service.enqueue(stand(1), user(2));
+        assertThat(out.getApplicant().getId()).isEqualTo(2L);
+        assertThat(out.getApplicationDate()).isEqualTo(LocalDate.now());
+    }
+
+    @Test
+    void shouldRejectDoubleApplication() {
+        when(applicationRepository.existsByStandIdAndApplicantId(1L, 2L)).thenReturn(true);
+        assertThatThrownBy(() -> service.enqueue(stand(1), user(2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already applied");
+    }
+
+    @Test
+    void shouldTranslateUniqueConstraintRace() {
+        when(applicationRepository.saveAndFlush(any(StandApplication.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_stand_applicant"));
+        assertThatThrownBy(() -> service.enqueue(stand(1), user(2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already applied");
+    }
+
+    @Test
+    void shouldNumberQueuePositionsFromPageOffset() {
+        PageRequest requested = PageRequest.of(1, 2, Sort.by("applicationDate"));
+        PageRequest fifo = PageRequest.of(1, 2);
+        List<StandApplicationResponseDto> rows = List.of(
+                new StandApplicationResponseDto(5L, 1L, 7L, "A", LocalDate.now()),
+                new StandApplicationResponseDto(6L, 1L, 8L, "B", LocalDate.now()));
+        when(applicationRepository.findQueue(1L, fifo)).thenReturn(new PageImpl<>(rows, fifo, 4));
+
+        PageResponse<StandApplicationResponseDto> page = service.findQueue(1L, requested);
+        assertThat(page.content()).extracting(StandApplicationResponseDto::getPosition).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void shouldPopHeadInSingleStatement() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(1L))).thenReturn(List.of(9L));
+        assertThat(service.popHead(1L)).contains(9L);
+        verify(jdbcTemplate).queryForList(anyString(), eq(Long.class), eq(1L));
+    }
+}
@@ -0,0 +1,112 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.LandStandRepository;
+import com.tbf.tcms.repository.projection.StandFeeView;
+import com.tbf.tcms.web.dto.landstand.FeeReconciliationReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StandFeeReconciliationServiceImplTest {
+
+    @Mock private LandStandRepository landStandRepository;
+
+    @InjectMocks private StandFeeReconciliationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(landStandRepository.findFeeViewsByOrganizationId(3L)).thenReturn(List.of(
+                new View(1L, "STAND-001", true, false),
+                new View(2L, "STAND-002", true, true),
+                new View(3L, "STAND-003", false, false),
+                new View(4L, "STAND-004", true, false)));
+    }
+
+    private record View(Long id, String standNumber, Boolean allocated, Boolean feePaid) implements StandFeeView {
+        public Long getId() { return id; }
+        public String getStandNumber() { return standNumber; }
+        public Boolean getAllocated() { return allocated; }
+        public Boolean getFeePaid() { return feePaid; }
+    }
+
+    private InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldClassifyLinesAndMarkMatchedStandsPaid() throws Exception {
+        when(landStandRepository.markFeesPaid(anyCollection(), any())).thenReturn(1);
+        String statement = """
+                date,reference,amount
+                2025-03-01,Stand 001 Sipho,500.00
+                2025-03-02,STAND-002,500.00
+                2025-03-03,"STAND-003, late",500.00
+                2025-03-04,stand001 stand004,500.00
+                2025-03-05,school fees,120.00
+                """;
+
+        FeeReconciliationReport report = service.reconcile(3L, csv(statement), false);
+
+        assertThat(report.getLinesRead()).isEqualTo(5);
+        assertThat(report.getMatched()).extracting(FeeReconciliationReport.Line::lineNumber).containsExactly(2, 3);
+        assertThat(report.getMatched().get(1).note()).isEqualTo("Fee already paid");
+        assertThat(report.getUnmatched()).extracting(FeeReconciliationReport.Line::note)
+                .containsExactly("Stand is not allocated", "No stand number found in reference");
+        assertThat(report.getAmbiguous()).singleElement()
+                .satisfies(l -> assertThat(l.standNumbers()).containsExactly("STAND-001", "STAND-004"));
+        assertThat(report.getMarkedPaid()).isEqualTo(1);
+        verify(landStandRepository).markFeesPaid(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void shouldReportLooseMatchesAndShortPaymentsAsAmbiguous() throws Exception {
+        when(landStandRepository.findFeeViewsByOrganizationId(4L)).thenReturn(List.of(
+                new View(5L, "MOKOENA", true, false),
+                new View(6L, "STAND-006", true, false)));
+        String statement = """
+                reference,amount
+                Levy Thabo Mokoena,500.00
+                STAND-006,R 250.00
+                stand 006,"R 1,000.00"
+                """;
+
+        FeeReconciliationReport report = service.reconcile(4L, csv(statement), true);
+
+        assertThat(report.getAmbiguous()).extracting(FeeReconciliationReport.Line::note)
+                .containsExactly("Reference does not clearly name a stand", "Amount does not cover the stand fee of 500.00");
+        assertThat(report.getMatched()).extracting(FeeReconciliationReport.Line::lineNumber).containsExactly(4);
+        assertThat(report.getMarkedPaid()).isEqualTo(1);
+    }
+
+    @Test
+    void dryRunShouldNotUpdateStands() throws Exception {
+        FeeReconciliationReport report = service.reconcile(3L, csv("reference,amount\nSTAND-004,500\n"), true);
+
+        assertThat(report.getMarkedPaid()).isEqualTo(1);
+        verify(landStandRepository, never()).markFeesPaid(anyCollection(), any());
+    }
+
+    @Test
+    void shouldRequireReferenceColumn() {
+        assertThatThrownBy(() -> service.reconcile(3L, csv("date,amount\n2025-01-01,5\n"), false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'reference'");
+    }
+}
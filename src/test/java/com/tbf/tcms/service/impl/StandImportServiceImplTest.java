@@ -0,0 +1,107 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.repository.LandStandRepository;
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.service.StandImportService;
+import com.tbf.tcms.service.spatial.StandSpatialIndex;
+import com.tbf.tcms.web.dto.landstand.StandImportReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StandImportServiceImplTest {
+
+    @Mock private LandStandRepository landStandRepository;
+    @Mock private OrganizationRepository organizationRepository;
+    @Mock private StandSpatialIndex standSpatialIndex;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private StandImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new StandImportServiceImpl(landStandRepository, organizationRepository, standSpatialIndex,
+                jdbcTemplate, JsonMapper.builder().build());
+        when(organizationRepository.existsById(1L)).thenReturn(true);
+        when(organizationRepository.existsById(2L)).thenReturn(false);
+        when(landStandRepository.findStandNumbersByOrganizationId(1L)).thenReturn(List.of("STAND-001"));
+    }
+
+    private InputStream text(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldValidateRowsAndReportErrorsWithoutWritingOnDryRun() throws Exception {
+        String register = """
+                standNumber,type,sizeInSquareMeters,organizationId
+                STAND-002,residential,450,
+                STAND-001,RESIDENTIAL,450,
+                STAND-002,RESIDENTIAL,450,
+                STAND-003,CASTLE,450,
+                STAND-004,BUSINESS,-5,
+                STAND-005,BUSINESS,300,2
+                ,BUSINESS,300,
+                """;
+
+        StandImportReport report = service.importStands(1L, text(register), StandImportService.Format.CSV, true);
+
+        assertThat(report.getRowsRead()).isEqualTo(7);
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(6);
+        assertThat(report.getErrors()).extracting(StandImportReport.RowError::row).containsExactly(3, 4, 5, 6, 7, 8);
+        assertThat(report.getErrors().get(0).message()).contains("already exists");
+        assertThat(report.getErrors().get(2).message()).startsWith("type must be one of");
+        assertThat(report.getErrors().get(4).message()).isEqualTo("Organization 2 not found");
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldInsertNdjsonRowsInBatchesAndReportConflicts() throws Exception {
+        when(jdbcTemplate.batchUpdate(eq(StandImportServiceImpl.INSERT_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> new int[][]{{1, 0}});
+        String register = """
+                {"standNumber":"STAND-010","type":"BUSINESS","sizeInSquareMeters":1200,"latitude":-24.1,"longitude":29.5}
+                {"standNumber":"STAND-011","type":"BUSINESS","sizeInSquareMeters":1200}
+                not json
+                """;
+
+        StandImportReport report = service.importStands(1L, text(register), StandImportService.Format.NDJSON, false);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(StandImportReport.RowError::row).containsExactly(3, 2);
+        verify(standSpatialIndex).reloadOrganization(1L);
+    }
+
+    @Test
+    void shouldRequireMandatoryCsvColumns() {
+        assertThatThrownBy(() -> service.importStands(1L, text("standNumber,type\nA,RESIDENTIAL\n"),
+                StandImportService.Format.CSV, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sizeInSquareMeters");
+    }
+}
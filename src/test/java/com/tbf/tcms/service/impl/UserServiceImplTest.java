@@ -3,10 +3,10 @@ package com.tbf.tcms.service.impl;
 import com.tbf.tcms.domain.Organization;
 import com.tbf.tcms.domain.Role;
 import com.tbf.tcms.domain.User;
-import com.tbf.tcms.repository.DisputeCaseRepository;
 import com.tbf.tcms.repository.OrganizationRepository;
 import com.tbf.tcms.repository.RoleRepository;
 import com.tbf.tcms.repository.UserRepository;
+import com.tbf.tcms.service.cache.OpenCaseCache;
 import com.tbf.tcms.web.dto.PageResponse;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,7 +34,7 @@ class UserServiceImplTest {
     @Mock private UserRepository userRepository;
     @Mock private RoleRepository roleRepository;
     @Mock private OrganizationRepository organizationRepository;
-    @Mock private DisputeCaseRepository caseRepository;
+    @Mock private OpenCaseCache openCaseCache;
 
     @InjectMocks private UserServiceImpl service;
 
@@ -159,7 +159,7 @@ class UserServiceImplTest {
 
         when(userRepository.findEligibleUsersByOrganization(1L)).thenReturn(candidates);
         when(userRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
-        when(caseRepository.existsByAccusedUserAndStatusIn(any(), anyList())).thenReturn(false);
+        when(openCaseCache.hasOpenCase(any())).thenReturn(false);
 
         List<User> appointed = service.appointTopCouncil(1L, 10);
         assertThat(appointed).hasSize(10);
@@ -186,7 +186,7 @@ class UserServiceImplTest {
         List<User> candidates = new ArrayList<>();
         for (int i = 0; i < 9; i++) candidates.add(newUser(i+1, "U"+i, i<6?"FAMILY":"COMMUNITY", org, 30));
         when(userRepository.findEligibleUsersByOrganization(1L)).thenReturn(candidates);
-        when(caseRepository.existsByAccusedUserAndStatusIn(any(), anyList())).thenReturn(false);
+        when(openCaseCache.hasOpenCase(any())).thenReturn(false);
 
         assertThatThrownBy(() -> service.appointTopCouncil(1L, 10))
                 .isInstanceOf(IllegalStateException.class)
@@ -204,7 +204,7 @@ class UserServiceImplTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(roleRepository.findByName("COUNCIL_MEMBER")).thenReturn(Optional.of(council));
         when(userRepository.countUsersWithRoleInOrganization(1L, "COUNCIL_MEMBER")).thenReturn(5L);
-        when(caseRepository.existsByAccusedUserAndStatusIn(eq(user), anyList())).thenReturn(false);
+        when(openCaseCache.hasOpenCase(1L)).thenReturn(false);
         when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
 
         User saved = service.appointUserToCouncil(1L);
@@ -245,7 +245,7 @@ class UserServiceImplTest {
         org.setId(1L);
         User user = newUser(1L, "Tim", "FAMILY", org, 25);
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(caseRepository.existsByAccusedUserAndStatusIn(eq(user), anyList())).thenReturn(true);
+        when(openCaseCache.hasOpenCase(1L)).thenReturn(true);
 
         assertThatThrownBy(() -> service.appointUserToCouncil(1L))
                 .isInstanceOf(IllegalStateException.class)
@@ -259,7 +259,7 @@ class UserServiceImplTest {
         org.setId(1L);
         User user = newUser(1L, "Tom", "FAMILY", org, 25);
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(caseRepository.existsByAccusedUserAndStatusIn(eq(user), anyList())).thenReturn(false);
+        when(openCaseCache.hasOpenCase(1L)).thenReturn(false);
         when(roleRepository.findByName("COUNCIL_MEMBER")).thenReturn(Optional.of(role("COUNCIL_MEMBER")));
         when(userRepository.countUsersWithRoleInOrganization(1L, "COUNCIL_MEMBER")).thenReturn(10L);
 
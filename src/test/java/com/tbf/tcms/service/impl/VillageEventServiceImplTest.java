@@ -0,0 +1,317 @@
+package com.tbf.tcms.service.impl;
+
+import com.tbf.tcms.domain.Family;
+import com.tbf.tcms.domain.Organization;
+import com.tbf.tcms.domain.VillageEvent;
+import com.tbf.tcms.domain.enums.EventDocument;
+import com.tbf.tcms.domain.enums.EventStatus;
+import com.tbf.tcms.domain.enums.EventType;
+import com.tbf.tcms.repository.FamilyRepository;
+import com.tbf.tcms.repository.OrganizationRepository;
+import com.tbf.tcms.repository.VillageEventRepository;
+import com.tbf.tcms.repository.projection.CalendarVersionView;
+import com.tbf.tcms.service.DocumentService;
+import com.tbf.tcms.service.calendar.EventCalendarIndex;
+import com.tbf.tcms.service.outbox.OutboxPublisher;
+import com.tbf.tcms.web.dto.document.DocumentDto;
+import com.tbf.tcms.web.dto.event.EventApprovalResult;
+import com.tbf.tcms.web.dto.event.EventFeeRevenueDto;
+import com.tbf.tcms.web.error.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VillageEventServiceImplTest {
+
+    @Mock private VillageEventRepository villageEventRepository;
+    @Mock private OrganizationRepository organizationRepository;
+    @Mock private FamilyRepository familyRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private DocumentService documentService;
+    @Mock private OutboxPublisher outboxPublisher;
+
+    private VillageEventServiceImpl service;
+
+    private final LocalDate day = LocalDate.now().plusDays(3);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new VillageEventServiceImpl(villageEventRepository, organizationRepository, familyRepository,
+                new EventCalendarIndex(villageEventRepository), jdbcTemplate, documentService, outboxPublisher);
+        when(organizationRepository.findById(3L)).thenReturn(Optional.of(new Organization()));
+        when(familyRepository.findById(5L)).thenReturn(Optional.of(new Family()));
+        when(villageEventRepository.save(any(VillageEvent.class))).thenAnswer(inv -> {
+            VillageEvent e = inv.getArgument(0);
+            e.setId(99L);
+            return e;
+        });
+    }
+
+    private VillageEvent party(String location) {
+        return service.createEvent(3L, 5L, EventType.PARTY, "Wedding", null, day, location, null, null, null, false, false);
+    }
+
+    @Test
+    void secondBookingOfALocationOnTheSameDayShouldBeRejected() {
+        party("Main Hall");
+
+        assertThatThrownBy(() -> party("main hall"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already booked");
+        assertThat(party("Kgoro").getId()).isEqualTo(99L);
+    }
+
+    @Test
+    void chiefShouldBeNotifiedThroughTheOutbox() {
+        party("Main Hall");
+
+        verify(outboxPublisher).publish(eq(VillageEventServiceImpl.EVENT_REQUESTED_TOPIC), eq("VillageEvent"), eq(99L),
+                argThat(notice -> notice.get("location").equals("Main Hall") && notice.get("type") == EventType.PARTY));
+    }
+
+    @Test
+    void rejectedFuneralShouldNotHoldTheLocation() {
+        assertThatThrownBy(() -> service.createEvent(3L, 5L, EventType.FUNERAL, "Funeral", null, day, "Main Hall",
+                null, null, null, false, false)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(party("Main Hall")).isNotNull();
+    }
+
+    @Test
+    void etagShouldFollowTheCalendarVersion() {
+        CalendarVersionView before = mock(CalendarVersionView.class);
+        when(before.getEvents()).thenReturn(2L);
+        when(before.getLastUpdated()).thenReturn(LocalDateTime.of(2025, 5, 1, 10, 0));
+        when(before.getIdSum()).thenReturn(3L);
+        CalendarVersionView after = mock(CalendarVersionView.class);
+        when(after.getEvents()).thenReturn(2L);
+        when(after.getLastUpdated()).thenReturn(LocalDateTime.of(2025, 5, 1, 10, 5));
+        when(after.getIdSum()).thenReturn(3L);
+        LocalDate from = LocalDate.of(2025, 5, 1);
+        LocalDate to = LocalDate.of(2025, 7, 30);
+        when(villageEventRepository.findCalendarVersion(3L, from, to)).thenReturn(before, before, after);
+
+        String first = service.calendarEtag(3L, from, to);
+        assertThat(service.calendarEtag(3L, from, to)).isEqualTo(first).startsWith("W/\"");
+        assertThat(service.calendarEtag(3L, from, to)).isNotEqualTo(first);
+    }
+
+    @Test
+    void calendarRangeShouldBeBounded() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+
+        assertThatThrownBy(() -> service.findCalendar(3L, from, from.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.findCalendar(3L, from, from.plusDays(VillageEventServiceImpl.MAX_RANGE_DAYS)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(villageEventRepository, never()).findCalendar(any(), any(), any());
+    }
+
+    @Test
+    void icsTextShouldBeEscapedAndFoldedAt75Octets() throws Exception {
+        assertThat(VillageEventServiceImpl.escapeText("Tea, cake; music\\dance\nall day"))
+                .isEqualTo("Tea\\, cake\\; music\\\\dance\\nall day");
+
+        StringWriter out = new StringWriter();
+        String line = "DESCRIPTION:" + "é".repeat(60);
+        VillageEventServiceImpl.writeLine(out, line);
+
+        String[] physical = out.toString().split("\r\n");
+        assertThat(physical).hasSizeGreaterThan(1);
+        for (String p : physical) {
+            assertThat(p.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(75);
+        }
+        assertThat(out.toString().replace("\r\n ", "")).isEqualTo(line + "\r\n");
+    }
+
+    @Test
+    void approveShouldBeIdempotent() {
+        VillageEvent event = new VillageEvent();
+        event.setId(7L);
+        event.setStatus(EventStatus.APPROVED);
+        when(villageEventRepository.findById(7L)).thenReturn(Optional.of(event));
+        // First call approves the row, the second finds it already approved; event 8 matches no row
+        List<Boolean> outcomes = new ArrayList<>(List.of(true, false));
+        doAnswer(inv -> {
+            if (!outcomes.isEmpty()) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getBoolean("approved")).thenReturn(outcomes.remove(0));
+                ((RowCallbackHandler) inv.getArgument(1)).processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        assertThat(service.approve(7L).getStatus()).isEqualTo(EventStatus.APPROVED);
+        assertThat(service.approve(7L).getStatus()).isEqualTo(EventStatus.APPROVED);
+        assertThatThrownBy(() -> service.approve(8L)).isInstanceOf(ResourceNotFoundException.class);
+        verify(villageEventRepository, never()).save(any());
+    }
+
+    @Test
+    void bulkApprovalShouldBeOneStatementWithAnOutcomePerEvent() throws Exception {
+        List<ResultSet> rows = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("id")).thenReturn(id);
+            when(rs.getBoolean("approved")).thenReturn(id != 5);
+            rows.add(rs);
+        }
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (ResultSet rs : rows) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 201; id++) {
+            ids.add(id);
+        }
+
+        EventApprovalResult result = service.approveAll(ids, null, null, null);
+
+        assertThat(result.getApproved()).isEqualTo(199);
+        assertThat(result.getAlreadyApproved()).isEqualTo(1);
+        assertThat(result.getNotFound()).isEqualTo(1);
+        assertThat(result.getResults()).hasSize(201)
+                .contains(new EventApprovalResult.Outcome(5L, EventApprovalResult.Status.ALREADY_APPROVED),
+                        new EventApprovalResult.Outcome(201L, EventApprovalResult.Status.NOT_FOUND));
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        verify(villageEventRepository, never()).save(any());
+    }
+
+    @Test
+    void bulkApprovalByRangeShouldTargetPendingEventsOfTheOrganization() {
+        LocalDate from = LocalDate.of(2025, 6, 1);
+        LocalDate to = LocalDate.of(2025, 6, 7);
+
+        EventApprovalResult result = service.approveAll(null, 3L, from, to);
+
+        assertThat(result.getResults()).isEmpty();
+        verify(jdbcTemplate).query(eq(VillageEventServiceImpl.APPROVE_BY_RANGE_SQL), any(RowCallbackHandler.class),
+                eq(3L), eq(Date.valueOf(from)), eq(Date.valueOf(to)));
+    }
+
+    @Test
+    void bulkApprovalNeedsExactlyOneSelection() {
+        assertThatThrownBy(() -> service.approveAll(List.of(), null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.approveAll(List.of(1L), 3L, LocalDate.now(), LocalDate.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.approveAll(null, null, LocalDate.now(), LocalDate.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void attachedDocumentShouldBeLinkedThroughTheUrlField() throws Exception {
+        VillageEvent event = new VillageEvent();
+        event.setId(7L);
+        when(villageEventRepository.findById(7L)).thenReturn(Optional.of(event));
+        DocumentDto doc = new DocumentDto();
+        doc.setSha256("ab".repeat(32));
+        doc.setUrl("/api/documents/" + "ab".repeat(32));
+        when(documentService.upload(any(), eq("application/pdf"))).thenReturn(doc);
+
+        VillageEvent saved = service.attachDocument(7L, EventDocument.DEATH_CERTIFICATE,
+                new ByteArrayInputStream(new byte[]{1}), "application/pdf");
+
+        assertThat(saved.getDeathCertUrl()).isEqualTo(doc.getUrl());
+        assertThat(saved.isHasDeathCertificate()).isTrue();
+        assertThat(saved.getIdCopyUrl()).isNull();
+    }
+
+    @Test
+    void requestedFeeShouldBeAddedToTheMonthlySummary() {
+        service.createEvent(3L, 5L, EventType.FUNERAL, "Funeral", null, day, "Graveyard", null, null, null, true, true);
+
+        verify(jdbcTemplate).update(VillageEventServiceImpl.RECORD_REQUESTED_SQL, 3L,
+                Date.valueOf(day.withDayOfMonth(1)), "FUNERAL", BigDecimal.valueOf(50));
+    }
+
+    @Test
+    void approvalShouldCountFeesInTheSameStatement() {
+        // Fees are added from the rows this statement moved out of PENDING_APPROVAL, so a repeat counts nothing
+        assertThat(VillageEventServiceImpl.APPROVE_BY_IDS_SQL).contains("INSERT INTO event_fee_summaries")
+                .contains("e.status = 'PENDING_APPROVAL'").contains("FROM approved");
+        VillageEvent event = new VillageEvent();
+        event.setId(7L);
+        when(villageEventRepository.findById(7L)).thenReturn(Optional.of(event));
+        doAnswer(inv -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getBoolean("approved")).thenReturn(true);
+            ((RowCallbackHandler) inv.getArgument(1)).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        service.approve(7L);
+
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void revenueShouldBeTotalledFromTheSummariesOnly() throws Exception {
+        Object[][] summaries = {
+                {"2025-01-01", "FUNERAL", 3L, "150.00", 2L, "100.00"},
+                {"2025-01-01", "PARTY", 1L, "80.00", 1L, "80.00"},
+                {"2025-02-01", "FUNERAL", 1L, "50.00", 1L, "50.00"}
+        };
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (Object[] row : summaries) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getDate("period_month")).thenReturn(Date.valueOf((String) row[0]));
+                when(rs.getString("event_type")).thenReturn((String) row[1]);
+                when(rs.getLong("requested_events")).thenReturn((Long) row[2]);
+                when(rs.getBigDecimal("requested_fees")).thenReturn(new BigDecimal((String) row[3]));
+                when(rs.getLong("approved_events")).thenReturn((Long) row[4]);
+                when(rs.getBigDecimal("approved_fees")).thenReturn(new BigDecimal((String) row[5]));
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq(VillageEventServiceImpl.REVENUE_SQL), any(RowCallbackHandler.class),
+                eq(3L), eq(Date.valueOf("2025-01-01")), eq(Date.valueOf("2025-12-01")));
+
+        EventFeeRevenueDto revenue = service.feeRevenue(3L, 2025);
+
+        assertThat(revenue.getApprovedEvents()).isEqualTo(4);
+        assertThat(revenue.getApprovedFees()).isEqualByComparingTo("230.00");
+        assertThat(revenue.getRequestedFees()).isEqualByComparingTo("280.00");
+        assertThat(revenue.getMonths()).hasSize(3).first()
+                .extracting(EventFeeRevenueDto.Line::month).isEqualTo(YearMonth.of(2025, 1));
+        assertThat(revenue.getByType()).containsExactly(
+                new EventFeeRevenueDto.TypeTotal(EventType.FUNERAL, 4, new BigDecimal("200.00"), 3, new BigDecimal("150.00")),
+                new EventFeeRevenueDto.TypeTotal(EventType.PARTY, 1, new BigDecimal("80.00"), 1, new BigDecimal("80.00")));
+        verify(villageEventRepository, never()).findAll();
+        assertThatThrownBy(() -> service.feeRevenue(3L, 1200)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
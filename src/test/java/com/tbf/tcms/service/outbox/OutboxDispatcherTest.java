@@ -0,0 +1,119 @@
+package com.tbf.tcms.service.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxDispatcherTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final List<OutboxMessage> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private OutboxMessage message(long id, String topic, int attempts) {
+        return new OutboxMessage(id, topic, "VillageEvent", id, "{\"eventId\":" + id + "}", attempts, LocalDateTime.now());
+    }
+
+    private OutboxSink sink(String failingTopic) {
+        return new OutboxSink() {
+            @Override
+            public String name() {
+                return "test";
+            }
+
+            @Override
+            public void deliver(OutboxMessage message) {
+                if (message.topic().equals(failingTopic)) {
+                    throw new IllegalStateException("gateway down");
+                }
+                delivered.add(message);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private void claim(List<OutboxMessage> first) {
+        when(jdbcTemplate.query(eq(OutboxDispatcher.CLAIM_SQL), any(RowMapper.class), eq(OutboxDispatcher.BATCH_SIZE)))
+                .thenReturn(first, List.of());
+    }
+
+    @Test
+    void deliveredMessagesShouldBeMarkedInOneStatementAndFailuresRescheduled() throws Exception {
+        claim(List.of(message(1, "village-event.requested", 0), message(2, "dispute-case.notice", 3),
+                message(3, "village-event.requested", 0)));
+        List<PreparedStatement> failedRows = new ArrayList<>();
+        doAnswer(inv -> {
+            List<?> failures = inv.getArgument(1);
+            ParameterizedPreparedStatementSetter<Object> setter = inv.getArgument(3);
+            for (Object f : failures) {
+                PreparedStatement ps = mock(PreparedStatement.class);
+                setter.setValues(ps, f);
+                failedRows.add(ps);
+            }
+            return null;
+        }).when(jdbcTemplate).batchUpdate(eq(OutboxDispatcher.FAILED_SQL), any(List.class), anyInt(), any());
+        OutboxDispatcher dispatcher = new OutboxDispatcher(jdbcTemplate, transactionManager,
+                List.of(sink("dispute-case.notice")));
+
+        assertThat(dispatcher.dispatch()).isEqualTo(2);
+
+        assertThat(delivered).extracting(OutboxMessage::id).containsExactly(1L, 3L);
+        verify(jdbcTemplate, times(1)).update(any(PreparedStatementCreator.class));
+        assertThat(failedRows).hasSize(1);
+        PreparedStatement failed = failedRows.get(0);
+        verify(failed).setString(1, "PENDING");
+        verify(failed).setInt(2, 4);
+        verify(failed).setLong(5, 2L);
+        verify(failed).setString(eq(4), contains("gateway down"));
+        verify(failed).setTimestamp(eq(3), any(Timestamp.class));
+    }
+
+    @Test
+    void emptyOutboxShouldCostOneQuery() {
+        claim(List.of());
+        OutboxDispatcher dispatcher = new OutboxDispatcher(jdbcTemplate, transactionManager, List.of(sink("none")));
+
+        assertThat(dispatcher.dispatch()).isZero();
+        verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), any(List.class), anyInt(), any());
+    }
+
+    @Test
+    void backoffShouldDoubleUpToTheCap() {
+        assertThat(OutboxDispatcher.backoff(1)).isEqualTo(OutboxDispatcher.BASE_BACKOFF);
+        assertThat(OutboxDispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(OutboxDispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(80));
+        assertThat(OutboxDispatcher.backoff(OutboxDispatcher.MAX_ATTEMPTS + 50)).isEqualTo(OutboxDispatcher.MAX_BACKOFF);
+    }
+}
@@ -0,0 +1,36 @@
+package com.tbf.tcms.service.spatial;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query latency of nearest-stand search on 200k stands. Wall-clock numbers depend on the machine, so this only
+ * runs on request: {@code mvn test -Dtest=StandRTreeBenchmarkTest -Dtcms.benchmarks=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "tcms.benchmarks", matches = "true")
+class StandRTreeBenchmarkTest {
+
+    @Test
+    void nearestOn200kStands() {
+        StandRTree tree = StandRTree.build(StandRTreeTest.randomStands(200_000, 11));
+        // warm up
+        for (int i = 0; i < 2_000; i++) {
+            tree.nearest(-24.1, 29.1, 10, e -> !e.allocated());
+        }
+        int queries = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            List<StandRTree.Neighbour> found = tree.nearest(-24.0 - (i % 100) * 0.002, 29.0 + (i % 50) * 0.004, 10,
+                    e -> !e.allocated());
+            assertThat(found).hasSize(10);
+        }
+        long avgMicros = (System.nanoTime() - start) / 1_000 / queries;
+        log.info("nearest(k=10) on 200k stands: {} us/query over {} queries", avgMicros, queries);
+    }
+}
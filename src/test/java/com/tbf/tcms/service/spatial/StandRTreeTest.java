@@ -0,0 +1,144 @@
+package com.tbf.tcms.service.spatial;
+
+import com.tbf.tcms.domain.enums.StandType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StandRTreeTest {
+
+    static List<StandRTree.Entry> randomStands(int n, long seed) {
+        Random random = new Random(seed);
+        List<StandRTree.Entry> entries = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // ~20 km square around a village
+            double lat = -24.0 - random.nextDouble() * 0.2;
+            double lon = 29.0 + random.nextDouble() * 0.2;
+            StandType type = random.nextBoolean() ? StandType.RESIDENTIAL : StandType.BUSINESS;
+            entries.add(new StandRTree.Entry(i, 1L, "S-" + i, type, lat, lon, random.nextInt(4) == 0));
+        }
+        return entries;
+    }
+
+    @Test
+    void nearestShouldMatchBruteForce() {
+        List<StandRTree.Entry> entries = randomStands(5_000, 42);
+        StandRTree tree = StandRTree.build(entries);
+        double lat = -24.1, lon = 29.1;
+
+        List<Long> expected = entries.stream()
+                .filter(e -> !e.allocated() && e.type() == StandType.RESIDENTIAL)
+                .sorted(Comparator.comparingDouble(e -> planarDistance(e, lat, lon)))
+                .limit(10)
+                .map(StandRTree.Entry::id)
+                .toList();
+
+        List<Long> actual = tree.nearest(lat, lon, 10, e -> !e.allocated() && e.type() == StandType.RESIDENTIAL)
+                .stream().map(n -> n.entry().id()).toList();
+
+        assertThat(actual).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void withinShouldMatchBruteForce() {
+        List<StandRTree.Entry> entries = randomStands(5_000, 7);
+        StandRTree tree = StandRTree.build(entries);
+
+        List<Long> expected = entries.stream()
+                .filter(e -> e.latitude() >= -24.12 && e.latitude() <= -24.08
+                        && e.longitude() >= 29.05 && e.longitude() <= 29.09)
+                .map(StandRTree.Entry::id)
+                .toList();
+
+        List<Long> actual = tree.within(-24.12, 29.05, -24.08, 29.09, e -> true, Integer.MAX_VALUE)
+                .stream().map(StandRTree.Entry::id).toList();
+
+        assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void shouldSkipStandsAllocatedAfterBuild() {
+        List<StandRTree.Entry> entries = randomStands(100, 3);
+        StandRTree tree = StandRTree.build(entries);
+        StandRTree.Entry first = tree.nearest(-24.1, 29.1, 1, e -> !e.allocated()).get(0).entry();
+
+        first.allocated(true);
+
+        assertThat(tree.nearest(-24.1, 29.1, 1, e -> !e.allocated()).get(0).entry().id()).isNotEqualTo(first.id());
+    }
+
+    @Test
+    void nearestOn200kStandsShouldOnlyExamineNearbyLeaves() {
+        List<StandRTree.Entry> entries = randomStands(200_000, 11);
+        StandRTree tree = StandRTree.build(entries);
+        int queries = 1_000;
+        int maxExamined = 0;
+        for (int i = 0; i < queries; i++) {
+            // The filter runs once per stand in every leaf the search opens
+            AtomicInteger examined = new AtomicInteger();
+            Predicate<StandRTree.Entry> unallocated = e -> {
+                examined.incrementAndGet();
+                return !e.allocated();
+            };
+            List<StandRTree.Neighbour> found = tree.nearest(-24.0 - (i % 100) * 0.002, 29.0 + (i % 50) * 0.004, 10,
+                    unallocated);
+            assertThat(found).hasSize(10);
+            maxExamined = Math.max(maxExamined, examined.get());
+        }
+        // A handful of leaves out of 12,500, whatever the machine's speed
+        assertThat(maxExamined).isLessThanOrEqualTo(20 * StandRTree.NODE_CAPACITY);
+    }
+
+    @Test
+    void movedStandsShouldBeFoundAtTheirNewPositionOnly() {
+        List<StandRTree.Entry> entries = new ArrayList<>(randomStands(2_000, 5));
+        StandRTree tree = StandRTree.build(entries);
+        StandRTree original = tree;
+        Random random = new Random(9);
+        for (int i = 0; i < 500; i++) {
+            int index = random.nextInt(entries.size());
+            StandRTree.Entry previous = entries.get(index);
+            StandRTree.Entry moved = new StandRTree.Entry(previous.id(), 1L, previous.standNumber(), previous.type(),
+                    -24.0 - random.nextDouble() * 0.2, 29.0 + random.nextDouble() * 0.2, previous.allocated());
+            tree = tree.without(previous).with(moved);
+            entries.set(index, moved);
+        }
+        for (int i = 0; i < 50; i++) {
+            tree = tree.with(new StandRTree.Entry(10_000 + i, 1L, "N-" + i, StandType.RESIDENTIAL,
+                    -24.1 - i * 0.001, 29.1 + i * 0.001, false));
+        }
+        List<StandRTree.Entry> all = new ArrayList<>(entries);
+        all.addAll(tree.entries().stream().filter(e -> e.id() >= 10_000).toList());
+        double lat = -24.1, lon = 29.1;
+
+        List<Long> expected = all.stream()
+                .filter(e -> !e.allocated())
+                .sorted(Comparator.comparingDouble(e -> planarDistance(e, lat, lon)))
+                .limit(20)
+                .map(StandRTree.Entry::id)
+                .toList();
+        List<Long> actual = tree.nearest(lat, lon, 20, e -> !e.allocated()).stream().map(n -> n.entry().id()).toList();
+
+        assertThat(tree.size()).isEqualTo(2_050);
+        assertThat(tree.entries()).containsExactlyInAnyOrderElementsOf(all);
+        assertThat(actual).containsExactlyElementsOf(expected);
+        assertThat(tree.within(-24.3, 28.9, -23.9, 29.3, e -> true, Integer.MAX_VALUE)).hasSize(2_050);
+        assertThat(original.size()).isEqualTo(2_000);
+        assertThat(original.without(new StandRTree.Entry(99_999, 1L, "X", StandType.RESIDENTIAL, -24.1, 29.1, false)))
+                .isSameAs(original);
+    }
+
+    private static double planarDistance(StandRTree.Entry e, double lat, double lon) {
+        double lonScale = Math.cos(Math.toRadians(-24.1));
+        double dx = (e.longitude() - lon) * lonScale * 111_320d;
+        double dy = (e.latitude() - lat) * 110_540d;
+        return dx * dx + dy * dy;
+    }
+}
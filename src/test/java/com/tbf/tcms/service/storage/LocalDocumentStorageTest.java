@@ -0,0 +1,94 @@
+package com.tbf.tcms.service.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalDocumentStorageTest {
+
+    @TempDir
+    Path dir;
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(7).nextBytes(bytes);
+        return bytes;
+    }
+
+    @Test
+    void contentShouldBeStoredOnceUnderItsSha256() throws Exception {
+        LocalDocumentStorage storage = new LocalDocumentStorage(dir);
+        byte[] pdf = randomBytes(300_000);
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(pdf));
+
+        DocumentStorage.StoredContent first = storage.store(new ByteArrayInputStream(pdf), 1_000_000);
+        DocumentStorage.StoredContent again = storage.store(new ByteArrayInputStream(pdf), 1_000_000);
+
+        assertThat(first.sha256()).isEqualTo(expected);
+        assertThat(first.size()).isEqualTo(300_000);
+        assertThat(first.created()).isTrue();
+        assertThat(again.created()).isFalse();
+        assertThat(storage.path(expected)).exists().hasBinaryContent(pdf);
+        try (Stream<Path> leftovers = Files.list(dir.resolve("incoming"))) {
+            assertThat(leftovers).isEmpty();
+        }
+    }
+
+    @Test
+    void rangeShouldBeTransferredFromTheFile() throws Exception {
+        LocalDocumentStorage storage = new LocalDocumentStorage(dir);
+        byte[] text = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+        String hash = storage.store(new ByteArrayInputStream(text), 100).sha256();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DocumentStorage.Content content = storage.open(hash).orElseThrow()) {
+            assertThat(content.size()).isEqualTo(20);
+            content.transferTo(5, 10, Channels.newChannel(out));
+        }
+
+        assertThat(out.toString(StandardCharsets.US_ASCII)).isEqualTo("56789abcde");
+    }
+
+    @Test
+    void oversizedUploadShouldBeRejectedWithoutLeavingFiles() throws Exception {
+        LocalDocumentStorage storage = new LocalDocumentStorage(dir);
+
+        assertThatThrownBy(() -> storage.store(new ByteArrayInputStream(randomBytes(200_000)), 100_000))
+                .isInstanceOf(IllegalArgumentException.class);
+        try (Stream<Path> files = Files.walk(dir)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    void onlyHashesShouldBeOpened() throws Exception {
+        LocalDocumentStorage storage = new LocalDocumentStorage(dir);
+
+        assertThat(storage.open("../../etc/passwd")).isEmpty();
+        assertThat(storage.open("A".repeat(64))).isEmpty();
+        assertThat(storage.open("0".repeat(64))).isEmpty();
+    }
+
+    @Test
+    void localFileShouldNameTheStoredFileOnly() throws Exception {
+        LocalDocumentStorage storage = new LocalDocumentStorage(dir);
+        String hash = storage.store(new ByteArrayInputStream(randomBytes(1_000)), 10_000).sha256();
+
+        assertThat(storage.localFile(hash)).contains(storage.path(hash));
+        assertThat(storage.localFile("0".repeat(64))).isEmpty();
+        assertThat(storage.localFile("../../etc/passwd")).isEmpty();
+    }
+}
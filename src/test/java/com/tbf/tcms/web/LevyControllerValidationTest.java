@@ -1,7 +1,14 @@
 package com.tbf.tcms.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tbf.tcms.service.LevyArrearsService;
+import com.tbf.tcms.service.LevyImportService;
+import com.tbf.tcms.service.LevyInvoicingService;
+import com.tbf.tcms.service.LevyPenaltyService;
+import com.tbf.tcms.service.LevyRateService;
 import com.tbf.tcms.service.LevyService;
+import com.tbf.tcms.service.LevySnapshotService;
+import com.tbf.tcms.service.cache.LevyComplianceCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -21,7 +28,10 @@ class LevyControllerValidationTest {
 
     private MockMvc buildMockMvc() {
         LevyService levyService = Mockito.mock(LevyService.class);
-        LevyController controller = new LevyController(levyService);
+        LevyController controller = new LevyController(levyService, Mockito.mock(LevyArrearsService.class),
+                Mockito.mock(LevyImportService.class), Mockito.mock(LevyComplianceCache.class),
+                Mockito.mock(LevySnapshotService.class), Mockito.mock(LevyInvoicingService.class),
+                Mockito.mock(LevyRateService.class), Mockito.mock(LevyPenaltyService.class));
         return MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -0,0 +1,59 @@
+package com.tbf.tcms.web.filter;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestLoggingFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestLoggingFilter filter = new RequestLoggingFilter(registry);
+
+    @Test
+    void requestsShouldBeTimedByRouteTemplateNotRawUri() throws Exception {
+        for (long familyId = 1; familyId <= 3; familyId++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/levies/" + familyId + "/status");
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                    req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/levies/{familyId}/status"));
+        }
+
+        Timer timer = registry.get(RequestLoggingFilter.METRIC)
+                .tags("method", "GET", "uri", "/api/levies/{familyId}/status", "status", "200", "outcome", "SUCCESS")
+                .timer();
+        assertThat(timer.count()).isEqualTo(3);
+        assertThat(registry.get(RequestLoggingFilter.METRIC).timers()).hasSize(1);
+    }
+
+    @Test
+    void unmatchedPathsShouldShareOneSeries() throws Exception {
+        for (String path : new String[]{"/wp-admin", "/.env", "/api/nope"}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            response.setStatus(404);
+            filter.doFilter(new MockHttpServletRequest("GET", path), response, new MockFilterChain());
+        }
+
+        assertThat(registry.get(RequestLoggingFilter.METRIC).tag("uri", "NOT_FOUND").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void exceptionFromTheChainShouldBeCountedAsServerError() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/village-events");
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/village-events");
+            throw new ServletException("boom");
+        })).isInstanceOf(ServletException.class);
+
+        assertThat(registry.get(RequestLoggingFilter.METRIC)
+                .tags("uri", "/api/village-events", "status", "500", "outcome", "SERVER_ERROR").timer().count())
+                .isEqualTo(1);
+    }
+}